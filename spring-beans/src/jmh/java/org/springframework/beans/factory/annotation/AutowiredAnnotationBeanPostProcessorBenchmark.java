@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.annotation;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+/**
+ * Benchmarks for the creation of prototype beans with injected dependencies,
+ * through {@link AutowiredAnnotationBeanPostProcessor} for fields and methods
+ * (including a collection of beans) and through constructor autowiring,
+ * with the default and the qualifier-aware autowire candidate resolver as
+ * well as with and without a frozen configuration.
+ *
+ * @author Juergen Hoeller
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AutowiredAnnotationBeanPostProcessorBenchmark {
+
+	@Benchmark
+	public void prototypeWithFieldInjection(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.beanFactory.getBean("fieldInjected"));
+	}
+
+	@Benchmark
+	public void prototypeWithMethodInjection(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.beanFactory.getBean("methodInjected"));
+	}
+
+	@Benchmark
+	public void prototypeWithCollectionInjection(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.beanFactory.getBean("collectionInjected"));
+	}
+
+	@Benchmark
+	public void prototypeWithConstructorInjection(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.beanFactory.getBean("constructorInjected"));
+	}
+
+	@Benchmark
+	public void baseline(BenchmarkState state, Blackhole bh) {
+		FieldInjectedBean bean = new FieldInjectedBean();
+		bean.first = state.first;
+		bean.second = state.second;
+		bh.consume(bean);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"simple", "qualifier"})
+		public String autowireCandidateResolver;
+
+		@Param({"false", "true"})
+		public boolean frozenConfiguration;
+
+		DefaultListableBeanFactory beanFactory;
+
+		FirstDependency first;
+
+		SecondDependency second;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			if ("qualifier".equals(this.autowireCandidateResolver)) {
+				this.beanFactory.setAutowireCandidateResolver(new QualifierAnnotationAutowireCandidateResolver());
+			}
+			AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+			bpp.setBeanFactory(this.beanFactory);
+			this.beanFactory.addBeanPostProcessor(bpp);
+			this.beanFactory.registerBeanDefinition("first", new RootBeanDefinition(FirstDependency.class));
+			this.beanFactory.registerBeanDefinition("second", new RootBeanDefinition(SecondDependency.class));
+			for (int i = 0; i < 5; i++) {
+				this.beanFactory.registerBeanDefinition("element" + i, new RootBeanDefinition(ElementDependency.class));
+			}
+			registerPrototype("fieldInjected", FieldInjectedBean.class);
+			registerPrototype("methodInjected", MethodInjectedBean.class);
+			registerPrototype("collectionInjected", CollectionInjectedBean.class);
+			registerPrototype("constructorInjected", ConstructorInjectedBean.class);
+			if (this.frozenConfiguration) {
+				this.beanFactory.freezeConfiguration();
+			}
+			this.beanFactory.preInstantiateSingletons();
+			this.first = this.beanFactory.getBean(FirstDependency.class);
+			this.second = this.beanFactory.getBean(SecondDependency.class);
+		}
+
+		private void registerPrototype(String beanName, Class<?> beanClass) {
+			RootBeanDefinition bd = new RootBeanDefinition(beanClass);
+			bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			this.beanFactory.registerBeanDefinition(beanName, bd);
+		}
+	}
+
+
+	public static class FirstDependency {
+	}
+
+
+	public static class SecondDependency {
+	}
+
+
+	public static class ElementDependency {
+	}
+
+
+	public static class FieldInjectedBean {
+
+		@Autowired
+		private FirstDependency first;
+
+		@Autowired
+		private SecondDependency second;
+	}
+
+
+	public static class MethodInjectedBean {
+
+		private FirstDependency first;
+
+		private SecondDependency second;
+
+		@Autowired
+		public void setDependencies(FirstDependency first, SecondDependency second) {
+			this.first = first;
+			this.second = second;
+		}
+	}
+
+
+	public static class CollectionInjectedBean {
+
+		@Autowired
+		private List<ElementDependency> elements;
+	}
+
+
+	public static class ConstructorInjectedBean {
+
+		private final FirstDependency first;
+
+		private final SecondDependency second;
+
+		public ConstructorInjectedBean(FirstDependency first, SecondDependency second) {
+			this.first = first;
+			this.second = second;
+		}
+	}
+
+}
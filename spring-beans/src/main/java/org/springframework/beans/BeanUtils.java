@@ -43,6 +43,7 @@ import kotlin.reflect.jvm.ReflectJvmMapping;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.CachedIntrospectionResults.PropertyMethodHandle;
 import org.springframework.core.KotlinDetector;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ResolvableType;
@@ -641,7 +642,7 @@ public abstract class BeanUtils {
 	 * @see BeanWrapper
 	 */
 	public static void copyProperties(Object source, Object target) throws BeansException {
-		copyProperties(source, target, null, (String[]) null);
+		copyProperties(source, target, null, CachedIntrospectionResults.shouldUseMethodHandles, (String[]) null);
 	}
 
 	/**
@@ -659,7 +660,7 @@ public abstract class BeanUtils {
 	 * @see BeanWrapper
 	 */
 	public static void copyProperties(Object source, Object target, Class<?> editable) throws BeansException {
-		copyProperties(source, target, editable, (String[]) null);
+		copyProperties(source, target, editable, CachedIntrospectionResults.shouldUseMethodHandles, (String[]) null);
 	}
 
 	/**
@@ -677,7 +678,7 @@ public abstract class BeanUtils {
 	 * @see BeanWrapper
 	 */
 	public static void copyProperties(Object source, Object target, String... ignoreProperties) throws BeansException {
-		copyProperties(source, target, null, ignoreProperties);
+		copyProperties(source, target, null, CachedIntrospectionResults.shouldUseMethodHandles, ignoreProperties);
 	}
 
 	/**
@@ -690,12 +691,14 @@ public abstract class BeanUtils {
 	 * @param source the source bean
 	 * @param target the target bean
 	 * @param editable the class (or interface) to restrict property setting to
+	 * @param useMethodHandles whether to invoke the property methods through method handles
 	 * @param ignoreProperties array of property names to ignore
 	 * @throws BeansException if the copying failed
 	 * @see BeanWrapper
+	 * @see CachedIntrospectionResults#METHOD_HANDLES_PROPERTY_NAME
 	 */
-	private static void copyProperties(Object source, Object target, @Nullable Class<?> editable,
-			@Nullable String... ignoreProperties) throws BeansException {
+	static void copyProperties(Object source, Object target, @Nullable Class<?> editable,
+			boolean useMethodHandles, @Nullable String... ignoreProperties) throws BeansException {
 
 		Assert.notNull(source, "Source must not be null");
 		Assert.notNull(target, "Target must not be null");
@@ -710,6 +713,12 @@ public abstract class BeanUtils {
 		}
 		PropertyDescriptor[] targetPds = getPropertyDescriptors(actualEditable);
 		List<String> ignoreList = (ignoreProperties != null ? Arrays.asList(ignoreProperties) : null);
+		CachedIntrospectionResults sourceResults = null;
+		CachedIntrospectionResults targetResults = null;
+		if (useMethodHandles && System.getSecurityManager() == null) {
+			sourceResults = CachedIntrospectionResults.forClass(source.getClass());
+			targetResults = CachedIntrospectionResults.forClass(actualEditable);
+		}
 
 		for (PropertyDescriptor targetPd : targetPds) {
 			Method writeMethod = targetPd.getWriteMethod();
@@ -722,14 +731,29 @@ public abstract class BeanUtils {
 						ResolvableType targetResolvableType = ResolvableType.forMethodParameter(writeMethod, 0);
 						if (targetResolvableType.isAssignableFrom(sourceResolvableType)) {
 							try {
-								if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
-									readMethod.setAccessible(true);
+								PropertyMethodHandle readHandle =
+										(sourceResults != null ? sourceResults.getMethodHandle(readMethod) : null);
+								Object value;
+								if (readHandle != null) {
+									value = readHandle.read(source);
+								}
+								else {
+									if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
+										readMethod.setAccessible(true);
+									}
+									value = readMethod.invoke(source);
+								}
+								PropertyMethodHandle writeHandle =
+										(targetResults != null ? targetResults.getMethodHandle(writeMethod) : null);
+								if (writeHandle != null && writeHandle.isWritable(value)) {
+									writeHandle.write(target, value);
 								}
-								Object value = readMethod.invoke(source);
-								if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
-									writeMethod.setAccessible(true);
+								else {
+									if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
+										writeMethod.setAccessible(true);
+									}
+									writeMethod.invoke(target, value);
 								}
-								writeMethod.invoke(target, value);
 							}
 							catch (Throwable ex) {
 								throw new FatalBeanException(
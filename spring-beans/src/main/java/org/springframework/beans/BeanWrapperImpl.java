@@ -24,6 +24,7 @@ import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 
+import org.springframework.beans.CachedIntrospectionResults.PropertyMethodHandle;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.Property;
 import org.springframework.core.convert.TypeDescriptor;
@@ -75,6 +76,11 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	@Nullable
 	private AccessControlContext acc;
 
+	/**
+	 * Whether to invoke property methods through method handles.
+	 */
+	private boolean useMethodHandles = CachedIntrospectionResults.shouldUseMethodHandles;
+
 
 	/**
 	 * Create a new empty BeanWrapperImpl. Wrapped instance needs to be set afterwards.
@@ -132,6 +138,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	private BeanWrapperImpl(Object object, String nestedPath, BeanWrapperImpl parent) {
 		super(object, nestedPath, parent);
 		setSecurityContext(parent.acc);
+		this.useMethodHandles = parent.useMethodHandles;
 	}
 
 
@@ -193,6 +200,15 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 		return this.acc;
 	}
 
+	/**
+	 * Set whether to invoke property methods through method handles,
+	 * overriding the {@link CachedIntrospectionResults#METHOD_HANDLES_PROPERTY_NAME}
+	 * flag for this instance and its nested property accessors.
+	 */
+	void setUseMethodHandles(boolean useMethodHandles) {
+		this.useMethodHandles = useMethodHandles;
+	}
+
 
 	/**
 	 * Convert the given value for the specified property to the latter's type.
@@ -304,6 +320,10 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				PropertyMethodHandle readHandle = getMethodHandle(readMethod);
+				if (readHandle != null) {
+					return readHandle.read(getWrappedInstance());
+				}
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
 			}
@@ -328,10 +348,21 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				PropertyMethodHandle writeHandle = getMethodHandle(writeMethod);
+				// Leave incompatible values to reflection, reporting them as before
+				if (writeHandle != null && writeHandle.isWritable(value)) {
+					writeHandle.write(getWrappedInstance(), value);
+					return;
+				}
 				ReflectionUtils.makeAccessible(writeMethod);
 				writeMethod.invoke(getWrappedInstance(), value);
 			}
 		}
+
+		@Nullable
+		private PropertyMethodHandle getMethodHandle(Method method) {
+			return (useMethodHandles ? getCachedIntrospectionResults().getMethodHandle(method) : null);
+		}
 	}
 
 }
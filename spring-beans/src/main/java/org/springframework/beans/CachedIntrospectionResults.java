@@ -20,10 +20,16 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -37,6 +43,7 @@ import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -92,10 +99,30 @@ public final class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to invoke bean property read and write
+	 * methods through cached {@link MethodHandle MethodHandles} rather than through
+	 * {@link Method#invoke} reflection: "spring.beaninfo.method-handles".
+	 * <p>The default is "false". Switching this flag to "true" affects property access
+	 * via {@link BeanWrapperImpl} (and therefore data binding) as well as
+	 * {@link BeanUtils#copyProperties}, saving the per-call access checks and argument
+	 * array allocation of reflective invocations. Methods that cannot be adapted to a
+	 * method handle, as well as any access in the presence of a {@code SecurityManager},
+	 * keep using reflection.
+	 * @since 5.3
+	 */
+	public static final String METHOD_HANDLES_PROPERTY_NAME = "spring.beaninfo.method-handles";
+
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	static final boolean shouldUseMethodHandles = SpringProperties.getFlag(METHOD_HANDLES_PROPERTY_NAME);
+
+	private static final MethodType READ_METHOD_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType WRITE_METHOD_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
 	/** Stores the BeanInfoFactory instances. */
 	private static final List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -258,6 +285,9 @@ public final class CachedIntrospectionResults {
 	/** TypeDescriptor objects keyed by PropertyDescriptor. */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+	/** PropertyMethodHandle objects keyed by read or write Method, empty if not adaptable. */
+	private final ConcurrentMap<Method, Optional<PropertyMethodHandle>> methodHandleCache = new ConcurrentHashMap<>();
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -381,4 +411,83 @@ public final class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+	/**
+	 * Return a method handle for the given property read or write method.
+	 * @param method a read or write method of a property of this bean class
+	 * @return the corresponding method handle, or {@code null} if the method
+	 * cannot be invoked through a method handle
+	 */
+	@Nullable
+	PropertyMethodHandle getMethodHandle(Method method) {
+		return this.methodHandleCache.computeIfAbsent(method, CachedIntrospectionResults::createMethodHandle)
+				.orElse(null);
+	}
+
+	private static Optional<PropertyMethodHandle> createMethodHandle(Method method) {
+		int parameterCount = method.getParameterCount();
+		if (parameterCount > 1) {
+			return Optional.empty();
+		}
+		try {
+			ReflectionUtils.makeAccessible(method);
+			MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+			if (parameterCount == 0) {
+				return Optional.of(new PropertyMethodHandle(handle.asType(READ_METHOD_TYPE), method.getReturnType()));
+			}
+			return Optional.of(new PropertyMethodHandle(handle.asType(WRITE_METHOD_TYPE), method.getParameterTypes()[0]));
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Falling back to reflective invocation of method [" + method + "]", ex);
+			}
+			return Optional.empty();
+		}
+	}
+
+
+	/**
+	 * Method handle for a property read or write method, adapted to a generic
+	 * {@code (Object)Object} or {@code (Object,Object)void} signature.
+	 * Exceptions thrown by the method are wrapped in an
+	 * {@link InvocationTargetException}, as with {@link Method#invoke}.
+	 */
+	static final class PropertyMethodHandle {
+
+		private final MethodHandle handle;
+
+		private final Class<?> valueType;
+
+		PropertyMethodHandle(MethodHandle handle, Class<?> valueType) {
+			this.handle = handle;
+			this.valueType = valueType;
+		}
+
+		/**
+		 * Return whether the given value can be passed to the write method
+		 * without a conversion.
+		 */
+		boolean isWritable(@Nullable Object value) {
+			return ClassUtils.isAssignableValue(this.valueType, value);
+		}
+
+		@Nullable
+		Object read(Object bean) throws InvocationTargetException {
+			try {
+				return (Object) this.handle.invokeExact(bean);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+
+		void write(Object bean, @Nullable Object value) throws InvocationTargetException {
+			try {
+				this.handle.invokeExact(bean, value);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+	}
+
 }
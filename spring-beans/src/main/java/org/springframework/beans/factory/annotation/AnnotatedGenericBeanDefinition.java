@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,15 @@
 
 package org.springframework.beans.factory.annotation;
 
+import java.io.IOException;
+
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
 import org.springframework.beans.factory.support.GenericBeanDefinition;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.MethodMetadata;
 import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -41,7 +46,8 @@ import org.springframework.util.Assert;
  * @see org.springframework.core.type.StandardAnnotationMetadata
  */
 @SuppressWarnings("serial")
-public class AnnotatedGenericBeanDefinition extends GenericBeanDefinition implements AnnotatedBeanDefinition {
+public class AnnotatedGenericBeanDefinition extends GenericBeanDefinition
+		implements AnnotatedBeanDefinition, BeanDefinitionSnapshot.CapturableDefinition {
 
 	private final AnnotationMetadata metadata;
 
@@ -105,4 +111,43 @@ public class AnnotatedGenericBeanDefinition extends GenericBeanDefinition implem
 		return this.factoryMethodMetadata;
 	}
 
+	/**
+	 * Captures the annotation metadata by class name, to be read again on restore.
+	 * Not supported for subclasses or for a definition with factory method metadata.
+	 * @since 5.3
+	 */
+	@Override
+	@Nullable
+	public BeanDefinitionSnapshot.DefinitionFactory getDefinitionFactory() {
+		if (getClass() != AnnotatedGenericBeanDefinition.class || this.factoryMethodMetadata != null) {
+			return null;
+		}
+		return new MetadataDefinitionFactory(this.metadata.getClassName());
+	}
+
+
+	/**
+	 * Recreates an AnnotatedGenericBeanDefinition with ASM-based annotation metadata.
+	 */
+	@SuppressWarnings("serial")
+	private static class MetadataDefinitionFactory implements BeanDefinitionSnapshot.DefinitionFactory {
+
+		private final String className;
+
+		public MetadataDefinitionFactory(String className) {
+			this.className = className;
+		}
+
+		@Override
+		public AbstractBeanDefinition createBeanDefinition(@Nullable ClassLoader classLoader) {
+			try {
+				return new AnnotatedGenericBeanDefinition(new SimpleMetadataReaderFactory(classLoader)
+						.getMetadataReader(this.className).getAnnotationMetadata());
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read metadata of class " + this.className, ex);
+			}
+		}
+	}
+
 }
@@ -27,12 +27,12 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -46,10 +46,12 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InjectionPoint;
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.UnsatisfiedDependencyException;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.config.ShortcutDependencyDescriptor;
 import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
 import org.springframework.beans.factory.support.LookupOverride;
 import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
@@ -65,6 +67,7 @@ import org.springframework.core.annotation.MergedAnnotations;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -150,6 +153,9 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 
 	private final Map<String, InjectionMetadata> injectionMetadataCache = new ConcurrentHashMap<>(256);
 
+	/** Incremented on every bean definition reset, invalidating all cached arguments. */
+	private final AtomicInteger cachedArgumentsGeneration = new AtomicInteger();
+
 
 	/**
 	 * Create a new {@code AutowiredAnnotationBeanPostProcessor} for Spring's
@@ -251,6 +257,8 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 	public void resetBeanDefinition(String beanName) {
 		this.lookupMethodsChecked.remove(beanName);
 		this.injectionMetadataCache.remove(beanName);
+		// Cached shortcuts and candidate names of other beans may refer to the reset bean
+		this.cachedArgumentsGeneration.incrementAndGet();
 	}
 
 	@Override
@@ -605,6 +613,41 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 		}
 	}
 
+	/**
+	 * Create the descriptor to cache for a dependency after its first resolution:
+	 * a shortcut to the single autowired bean, the pre-resolved candidate names
+	 * for a dependency on multiple beans, or a plain copy of the given descriptor
+	 * for resolving the dependency from scratch.
+	 * @param descriptor the descriptor that the dependency has been resolved with
+	 * @param autowiredBeanNames the names of the autowired beans
+	 * @param requiredType the declared type of the dependency
+	 */
+	private DependencyDescriptor createCachedDescriptor(RecordingDependencyDescriptor descriptor,
+			Set<String> autowiredBeanNames, Class<?> requiredType) {
+
+		Assert.state(this.beanFactory != null, "No BeanFactory available");
+		if (autowiredBeanNames.size() == 1) {
+			String autowiredBeanName = autowiredBeanNames.iterator().next();
+			if (this.beanFactory.containsBean(autowiredBeanName) &&
+					this.beanFactory.isTypeMatch(autowiredBeanName, requiredType)) {
+				return new ShortcutDependencyDescriptor(descriptor, autowiredBeanName, requiredType);
+			}
+		}
+		Class<?> elementType = descriptor.elementType;
+		String[] typeMatches = descriptor.typeMatches;
+		if (elementType != null && typeMatches != null && !autowiredBeanNames.isEmpty()) {
+			for (String autowiredBeanName : autowiredBeanNames) {
+				// Not a bean matching the element type, e.g. a resolvable dependency
+				if (!ObjectUtils.containsElement(typeMatches, autowiredBeanName)) {
+					return new DependencyDescriptor(descriptor);
+				}
+			}
+			return new CandidateNamesDependencyDescriptor(
+					descriptor, elementType, typeMatches, StringUtils.toStringArray(autowiredBeanNames));
+		}
+		return new DependencyDescriptor(descriptor);
+	}
+
 
 	/**
 	 * Class representing injection information about an annotated field.
@@ -615,6 +658,8 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 
 		private volatile boolean cached;
 
+		private volatile int cachedGeneration;
+
 		@Nullable
 		private volatile Object cachedFieldValue;
 
@@ -627,11 +672,12 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 		protected void inject(Object bean, @Nullable String beanName, @Nullable PropertyValues pvs) throws Throwable {
 			Field field = (Field) this.member;
 			Object value;
-			if (this.cached) {
+			if (this.cached && this.cachedGeneration == cachedArgumentsGeneration.get()) {
 				value = resolvedCachedArgument(beanName, this.cachedFieldValue);
 			}
 			else {
-				DependencyDescriptor desc = new DependencyDescriptor(field, this.required);
+				int generation = cachedArgumentsGeneration.get();
+				RecordingDependencyDescriptor desc = new RecordingDependencyDescriptor(field, this.required);
 				desc.setContainingClass(bean.getClass());
 				Set<String> autowiredBeanNames = new LinkedHashSet<>(1);
 				Assert.state(beanFactory != null, "No BeanFactory available");
@@ -643,22 +689,15 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 					throw new UnsatisfiedDependencyException(null, beanName, new InjectionPoint(field), ex);
 				}
 				synchronized (this) {
-					if (!this.cached) {
+					if (!this.cached || this.cachedGeneration != generation) {
 						if (value != null || this.required) {
-							this.cachedFieldValue = desc;
 							registerDependentBeans(beanName, autowiredBeanNames);
-							if (autowiredBeanNames.size() == 1) {
-								String autowiredBeanName = autowiredBeanNames.iterator().next();
-								if (beanFactory.containsBean(autowiredBeanName) &&
-										beanFactory.isTypeMatch(autowiredBeanName, field.getType())) {
-									this.cachedFieldValue = new ShortcutDependencyDescriptor(
-											desc, autowiredBeanName, field.getType());
-								}
-							}
+							this.cachedFieldValue = createCachedDescriptor(desc, autowiredBeanNames, field.getType());
 						}
 						else {
 							this.cachedFieldValue = null;
 						}
+						this.cachedGeneration = generation;
 						this.cached = true;
 					}
 				}
@@ -680,6 +719,8 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 
 		private volatile boolean cached;
 
+		private volatile int cachedGeneration;
+
 		@Nullable
 		private volatile Object[] cachedMethodArguments;
 
@@ -695,24 +736,27 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 			}
 			Method method = (Method) this.member;
 			Object[] arguments;
-			if (this.cached) {
+			if (this.cached && this.cachedGeneration == cachedArgumentsGeneration.get()) {
 				// Shortcut for avoiding synchronization...
 				arguments = resolveCachedArguments(beanName);
 			}
 			else {
+				int generation = cachedArgumentsGeneration.get();
 				int argumentCount = method.getParameterCount();
 				arguments = new Object[argumentCount];
-				DependencyDescriptor[] descriptors = new DependencyDescriptor[argumentCount];
-				Set<String> autowiredBeans = new LinkedHashSet<>(argumentCount);
+				RecordingDependencyDescriptor[] descriptors = new RecordingDependencyDescriptor[argumentCount];
+				List<Set<String>> autowiredBeans = new ArrayList<>(argumentCount);
 				Assert.state(beanFactory != null, "No BeanFactory available");
 				TypeConverter typeConverter = beanFactory.getTypeConverter();
 				for (int i = 0; i < arguments.length; i++) {
 					MethodParameter methodParam = new MethodParameter(method, i);
-					DependencyDescriptor currDesc = new DependencyDescriptor(methodParam, this.required);
+					RecordingDependencyDescriptor currDesc = new RecordingDependencyDescriptor(methodParam, this.required);
 					currDesc.setContainingClass(bean.getClass());
 					descriptors[i] = currDesc;
+					Set<String> autowiredBeanNames = new LinkedHashSet<>(1);
+					autowiredBeans.add(autowiredBeanNames);
 					try {
-						Object arg = beanFactory.resolveDependency(currDesc, beanName, autowiredBeans, typeConverter);
+						Object arg = beanFactory.resolveDependency(currDesc, beanName, autowiredBeanNames, typeConverter);
 						if (arg == null && !this.required) {
 							arguments = null;
 							break;
@@ -724,27 +768,21 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 					}
 				}
 				synchronized (this) {
-					if (!this.cached) {
+					if (!this.cached || this.cachedGeneration != generation) {
 						if (arguments != null) {
-							DependencyDescriptor[] cachedMethodArguments = Arrays.copyOf(descriptors, arguments.length);
-							registerDependentBeans(beanName, autowiredBeans);
-							if (autowiredBeans.size() == argumentCount) {
-								Iterator<String> it = autowiredBeans.iterator();
-								Class<?>[] paramTypes = method.getParameterTypes();
-								for (int i = 0; i < paramTypes.length; i++) {
-									String autowiredBeanName = it.next();
-									if (beanFactory.containsBean(autowiredBeanName) &&
-											beanFactory.isTypeMatch(autowiredBeanName, paramTypes[i])) {
-										cachedMethodArguments[i] = new ShortcutDependencyDescriptor(
-												descriptors[i], autowiredBeanName, paramTypes[i]);
-									}
-								}
+							DependencyDescriptor[] cachedMethodArguments = new DependencyDescriptor[argumentCount];
+							Class<?>[] paramTypes = method.getParameterTypes();
+							for (int i = 0; i < argumentCount; i++) {
+								registerDependentBeans(beanName, autowiredBeans.get(i));
+								cachedMethodArguments[i] = createCachedDescriptor(
+										descriptors[i], autowiredBeans.get(i), paramTypes[i]);
 							}
 							this.cachedMethodArguments = cachedMethodArguments;
 						}
 						else {
 							this.cachedMethodArguments = null;
 						}
+						this.cachedGeneration = generation;
 						this.cached = true;
 					}
 				}
@@ -776,24 +814,73 @@ public class AutowiredAnnotationBeanPostProcessor implements SmartInstantiationA
 
 
 	/**
-	 * DependencyDescriptor variant with a pre-resolved target bean name.
+	 * DependencyDescriptor variant for the first resolution of a dependency,
+	 * recording the names of the beans matching the element type in case of
+	 * a dependency on multiple beans.
+	 */
+	@SuppressWarnings("serial")
+	private static class RecordingDependencyDescriptor extends DependencyDescriptor {
+
+		@Nullable
+		private Class<?> elementType;
+
+		@Nullable
+		private String[] typeMatches;
+
+		public RecordingDependencyDescriptor(Field field, boolean required) {
+			super(field, required);
+		}
+
+		public RecordingDependencyDescriptor(MethodParameter methodParameter, boolean required) {
+			super(methodParameter, required);
+		}
+
+		@Override
+		@Nullable
+		public String[] resolveCandidateNames(Class<?> elementType, BeanFactory beanFactory) {
+			if (beanFactory instanceof ListableBeanFactory) {
+				this.elementType = elementType;
+				this.typeMatches = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
+						(ListableBeanFactory) beanFactory, elementType, true, isEager());
+			}
+			return null;
+		}
+	}
+
+
+	/**
+	 * DependencyDescriptor variant with pre-resolved candidate bean names for a
+	 * dependency on multiple beans, applying as long as the same beans match the
+	 * element type as on the first resolution.
 	 */
 	@SuppressWarnings("serial")
-	private static class ShortcutDependencyDescriptor extends DependencyDescriptor {
+	private static class CandidateNamesDependencyDescriptor extends DependencyDescriptor {
 
-		private final String shortcut;
+		private final Class<?> elementType;
 
-		private final Class<?> requiredType;
+		private final String[] typeMatches;
+
+		private final String[] candidateNames;
+
+		public CandidateNamesDependencyDescriptor(DependencyDescriptor original, Class<?> elementType,
+				String[] typeMatches, String[] candidateNames) {
 
-		public ShortcutDependencyDescriptor(DependencyDescriptor original, String shortcut, Class<?> requiredType) {
 			super(original);
-			this.shortcut = shortcut;
-			this.requiredType = requiredType;
+			this.elementType = elementType;
+			this.typeMatches = typeMatches;
+			this.candidateNames = candidateNames;
 		}
 
 		@Override
-		public Object resolveShortcut(BeanFactory beanFactory) {
-			return beanFactory.getBean(this.shortcut, this.requiredType);
+		@Nullable
+		public String[] resolveCandidateNames(Class<?> elementType, BeanFactory beanFactory) {
+			if (elementType != this.elementType || !(beanFactory instanceof ListableBeanFactory)) {
+				return null;
+			}
+			String[] typeMatches = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
+					(ListableBeanFactory) beanFactory, elementType, true, isEager());
+			// Beans registered or removed in the meantime: determine candidates from scratch
+			return (Arrays.equals(typeMatches, this.typeMatches) ? this.candidateNames : null);
 		}
 	}
 
@@ -257,6 +257,26 @@ public class DependencyDescriptor extends InjectionPoint implements Serializable
 		return null;
 	}
 
+	/**
+	 * Resolve the names of the candidate beans for this dependency on multiple beans
+	 * (an array, collection or map of beans) against the given factory, for example
+	 * as determined by an earlier resolution for the same injection point.
+	 * <p>The resolution algorithm will first attempt to resolve the candidate names
+	 * through this method before matching the given element type against all beans.
+	 * Subclasses may override this method to improve resolution performance based on
+	 * pre-cached information while still receiving conversion and ordering as usual.
+	 * @param elementType the type of beans to resolve
+	 * @param beanFactory the associated factory
+	 * @return the names of the candidate beans, in the order of the regular type
+	 * matching algorithm, or {@code null} if none pre-resolved
+	 * @throws BeansException if the candidate names could not be obtained
+	 * @since 5.3
+	 */
+	@Nullable
+	public String[] resolveCandidateNames(Class<?> elementType, BeanFactory beanFactory) throws BeansException {
+		return null;
+	}
+
 	/**
 	 * Resolve the specified bean name, as a candidate result of the matching
 	 * algorithm for this dependency, to a bean instance from the given factory.
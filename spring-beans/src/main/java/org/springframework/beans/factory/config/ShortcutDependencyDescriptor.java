@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+
+/**
+ * {@link DependencyDescriptor} variant with a pre-resolved target bean name,
+ * for caching the outcome of a dependency resolution for an injection point.
+ *
+ * @author Juergen Hoeller
+ * @since 5.3
+ * @see #resolveShortcut
+ */
+@SuppressWarnings("serial")
+public class ShortcutDependencyDescriptor extends DependencyDescriptor {
+
+	private final String shortcut;
+
+	private final Class<?> requiredType;
+
+
+	/**
+	 * Create a new ShortcutDependencyDescriptor.
+	 * @param original the original descriptor to copy from
+	 * @param shortcut the name of the target bean
+	 * @param requiredType the type of the target bean
+	 */
+	public ShortcutDependencyDescriptor(DependencyDescriptor original, String shortcut, Class<?> requiredType) {
+		super(original);
+		this.shortcut = shortcut;
+		this.requiredType = requiredType;
+	}
+
+
+	/**
+	 * Resolve the pre-resolved target bean by name.
+	 */
+	@Override
+	public Object resolveShortcut(BeanFactory beanFactory) throws BeansException {
+		return beanFactory.getBean(this.shortcut, this.requiredType);
+	}
+
+}
@@ -0,0 +1,1004 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.AutowiredPropertyMarker;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Serializable snapshot of the bean definitions in a {@link BeanDefinitionRegistry},
+ * allowing to restore a post-processed registry without parsing its sources again.
+ *
+ * <p>A snapshot captures the configuration of each bean definition (bean class
+ * name, scope, factory method, constructor arguments, property values, method
+ * overrides, qualifiers, attributes, etc) along with its aliases. Bean classes
+ * are kept by name only and get resolved after restoring, just like for
+ * definitions parsed from XML or detected through classpath scanning.
+ * Apart from plain {@link RootBeanDefinition}, {@link ChildBeanDefinition} and
+ * {@link GenericBeanDefinition} instances, only subclasses which implement
+ * {@link CapturableDefinition} get captured, since subclasses may carry state of
+ * their own: e.g. the annotation metadata of scanned components and of
+ * {@code @Bean} methods, which gets read again from the class files on restore.
+ * Definitions that cannot be represented in a snapshot, e.g. other subclasses or
+ * definitions with an instance supplier or with property values that are not
+ * serializable, are only recorded by name: they are expected to be registered
+ * programmatically again before a snapshot gets restored.
+ *
+ * <p>A snapshot carries a fingerprint which identifies the state of the sources
+ * that it has been derived from, e.g. a hash over the classpath. It is up to
+ * the caller to reject a stale snapshot through a different fingerprint.
+ * In addition, a snapshot records the content length and last-modified timestamp
+ * of each {@link AbstractBeanDefinition#getResource() resource} that its bean
+ * definitions have been loaded from (e.g. imported XML files), and is considered
+ * stale when reading it after any of those resources has changed.
+ * Note that a snapshot file is a regular Java serialization stream and
+ * therefore needs to be stored in a trusted location.
+ *
+ * @author Juergen Hoeller
+ * @since 5.3
+ * @see #capture(BeanDefinitionRegistry, String)
+ * @see #read(InputStream, String, ClassLoader)
+ * @see #restore(BeanDefinitionRegistry)
+ */
+public final class BeanDefinitionSnapshot {
+
+	private static final String FORMAT = BeanDefinitionSnapshot.class.getName();
+
+	private static final int FORMAT_VERSION = 2;
+
+
+	private final String fingerprint;
+
+	private final LinkedHashMap<String, String> resourceStamps;
+
+	private final List<BeanEntry> beanEntries;
+
+
+	private BeanDefinitionSnapshot(String fingerprint, LinkedHashMap<String, String> resourceStamps,
+			List<BeanEntry> beanEntries) {
+
+		this.fingerprint = fingerprint;
+		this.resourceStamps = resourceStamps;
+		this.beanEntries = beanEntries;
+	}
+
+
+	/**
+	 * Return the fingerprint of the sources that this snapshot has been derived from.
+	 */
+	public String getFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Return the number of bean definitions in this snapshot.
+	 */
+	public int getBeanDefinitionCount() {
+		return this.beanEntries.size();
+	}
+
+	/**
+	 * Return whether all bean definitions have been captured in this snapshot,
+	 * i.e. whether it can be restored without any programmatic registrations.
+	 */
+	public boolean isComplete() {
+		for (BeanEntry entry : this.beanEntries) {
+			if (entry.definition == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Register the bean definitions in this snapshot with the given registry,
+	 * along with their aliases. Bean definitions which are registered already
+	 * are left as they are, apart from receiving attributes from the snapshot
+	 * that they do not declare themselves (e.g. markers that have been set by
+	 * post-processors when capturing the snapshot).
+	 * @param registry the registry to restore the bean definitions into
+	 * @throws IllegalStateException if a bean definition that could not be
+	 * captured in this snapshot has not been registered programmatically, or
+	 * if a captured bean definition cannot be recreated (in which case no bean
+	 * definitions have been registered at all)
+	 */
+	public void restore(BeanDefinitionRegistry registry) {
+		ClassLoader classLoader = (registry instanceof ConfigurableBeanFactory ?
+				((ConfigurableBeanFactory) registry).getBeanClassLoader() : null);
+		Map<String, AbstractBeanDefinition> restored = new LinkedHashMap<>();
+		for (BeanEntry entry : this.beanEntries) {
+			if (!registry.containsBeanDefinition(entry.beanName)) {
+				if (entry.definition == null) {
+					throw new IllegalStateException("Bean definition '" + entry.beanName +
+							"' is not part of the snapshot and has not been registered otherwise");
+				}
+				restored.put(entry.beanName, entry.definition.toBeanDefinition(classLoader));
+			}
+		}
+		for (BeanEntry entry : this.beanEntries) {
+			AbstractBeanDefinition bd = restored.get(entry.beanName);
+			if (bd != null) {
+				registry.registerBeanDefinition(entry.beanName, bd);
+			}
+			else if (entry.definition != null) {
+				entry.definition.restoreAttributes(registry.getBeanDefinition(entry.beanName), classLoader);
+			}
+			for (String alias : entry.aliases) {
+				if (!registry.isAlias(alias) && !registry.containsBeanDefinition(alias)) {
+					registry.registerAlias(entry.beanName, alias);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Write this snapshot to the given stream, prefixed by its fingerprint.
+	 * <p>Leaves the stream open when done.
+	 * @param out the stream to write to
+	 * @throws IOException in case of I/O errors, e.g. a
+	 * {@link java.io.NotSerializableException} for an attribute value
+	 */
+	public void write(OutputStream out) throws IOException {
+		ObjectOutputStream oos = new ObjectOutputStream(out);
+		oos.writeUTF(FORMAT);
+		oos.writeInt(FORMAT_VERSION);
+		oos.writeUTF(this.fingerprint);
+		oos.writeObject(this.resourceStamps);
+		oos.writeObject(this.beanEntries);
+		oos.flush();
+	}
+
+
+	/**
+	 * Capture the current bean definitions in the given registry.
+	 * @param registry the registry to capture
+	 * @param fingerprint the fingerprint of the sources of the bean definitions
+	 * @return the snapshot (never {@code null})
+	 */
+	public static BeanDefinitionSnapshot capture(BeanDefinitionRegistry registry, String fingerprint) {
+		Assert.notNull(registry, "BeanDefinitionRegistry must not be null");
+		Assert.notNull(fingerprint, "Fingerprint must not be null");
+		String[] beanNames = registry.getBeanDefinitionNames();
+		LinkedHashMap<String, String> resourceStamps = new LinkedHashMap<>();
+		List<BeanEntry> beanEntries = new ArrayList<>(beanNames.length);
+		for (String beanName : beanNames) {
+			BeanDefinition bd = registry.getBeanDefinition(beanName);
+			Resource resource = (bd instanceof AbstractBeanDefinition ? ((AbstractBeanDefinition) bd).getResource() : null);
+			if (resource != null) {
+				try {
+					String url = resource.getURL().toString();
+					resourceStamps.computeIfAbsent(url, key -> getResourceStamp(resource));
+				}
+				catch (IOException ex) {
+					// Not addressable through a URL (e.g. a byte array): nothing to verify
+				}
+			}
+			DefinitionRecord definition;
+			try {
+				definition = new DefinitionRecord(bd);
+			}
+			catch (IllegalArgumentException ex) {
+				// Not representable: to be registered programmatically before restoring
+				definition = null;
+			}
+			beanEntries.add(new BeanEntry(beanName, definition, registry.getAliases(beanName)));
+		}
+		return new BeanDefinitionSnapshot(fingerprint, resourceStamps, beanEntries);
+	}
+
+	/**
+	 * Read a snapshot from the given stream if it matches the given fingerprint
+	 * and if none of the resources that its bean definitions have been loaded
+	 * from has changed in the meantime.
+	 * <p>Leaves the stream open when done.
+	 * @param in the stream to read from
+	 * @param fingerprint the fingerprint of the current sources
+	 * @param classLoader the ClassLoader to resolve serialized classes against
+	 * (or {@code null} for the default ClassLoader)
+	 * @return the snapshot, or {@code null} if it is stale
+	 * @throws IOException if the stream does not contain a valid snapshot
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public static BeanDefinitionSnapshot read(InputStream in, String fingerprint, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		ObjectInputStream ois = new ConfigurableObjectInputStream(in, classLoader);
+		if (!FORMAT.equals(ois.readUTF()) || ois.readInt() != FORMAT_VERSION) {
+			throw new IOException("Not a bean definition snapshot in the current format");
+		}
+		if (!fingerprint.equals(ois.readUTF())) {
+			return null;
+		}
+		try {
+			LinkedHashMap<String, String> resourceStamps = (LinkedHashMap<String, String>) ois.readObject();
+			for (Map.Entry<String, String> entry : resourceStamps.entrySet()) {
+				if (!entry.getValue().equals(getResourceStamp(new UrlResource(entry.getKey())))) {
+					return null;
+				}
+			}
+			return new BeanDefinitionSnapshot(fingerprint, resourceStamps, (List<BeanEntry>) ois.readObject());
+		}
+		catch (ClassNotFoundException | ClassCastException ex) {
+			throw new IOException("Could not deserialize bean definition snapshot", ex);
+		}
+	}
+
+
+	/**
+	 * Determine the current state of the given resource.
+	 */
+	private static String getResourceStamp(Resource resource) {
+		try {
+			return resource.contentLength() + ":" + resource.lastModified();
+		}
+		catch (IOException ex) {
+			return "missing";
+		}
+	}
+
+	/**
+	 * Turn the given bean definition value into its serializable representation.
+	 * @throws IllegalArgumentException if the value cannot be represented
+	 */
+	@Nullable
+	private static Object captureValue(@Nullable Object value) {
+		if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean ||
+				value instanceof Class || value instanceof Enum || value instanceof AutowiredPropertyMarker) {
+			return value;
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			return new HolderRecord((BeanDefinitionHolder) value);
+		}
+		else if (value instanceof BeanDefinition) {
+			return new DefinitionRecord((BeanDefinition) value);
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			return new BeanReferenceRecord((RuntimeBeanReference) value);
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			return new BeanNameReferenceRecord(((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else if (value instanceof TypedStringValue) {
+			return new TypedStringValueRecord((TypedStringValue) value);
+		}
+		else if (value instanceof ManagedList) {
+			return new ManagedListRecord((ManagedList<?>) value);
+		}
+		else if (value instanceof ManagedSet) {
+			return new ManagedSetRecord((ManagedSet<?>) value);
+		}
+		else if (value instanceof ManagedMap) {
+			return new ManagedMapRecord((ManagedMap<?, ?>) value);
+		}
+		else if (value instanceof ManagedProperties) {
+			return new ManagedPropertiesRecord((ManagedProperties) value);
+		}
+		else if (value instanceof String[]) {
+			return ((String[]) value).clone();
+		}
+		throw new IllegalArgumentException("Unsupported bean definition value: " + value);
+	}
+
+	/**
+	 * Turn the given serializable representation back into a bean definition value.
+	 * @param classLoader the ClassLoader to read class metadata with, if necessary
+	 */
+	@Nullable
+	private static Object restoreValue(@Nullable Object value, @Nullable ClassLoader classLoader) {
+		return (value instanceof ValueRecord ? ((ValueRecord) value).restore(classLoader) : value);
+	}
+
+	private static List<Object> captureValues(Iterable<?> values) {
+		List<Object> result = new ArrayList<>();
+		for (Object value : values) {
+			result.add(captureValue(value));
+		}
+		return result;
+	}
+
+
+	/**
+	 * Snapshot entry for a bean name, with its definition (if representable) and aliases.
+	 */
+	@SuppressWarnings("serial")
+	private static final class BeanEntry implements Serializable {
+
+		final String beanName;
+
+		@Nullable
+		final DefinitionRecord definition;
+
+		final String[] aliases;
+
+		BeanEntry(String beanName, @Nullable DefinitionRecord definition, String[] aliases) {
+			this.beanName = beanName;
+			this.definition = definition;
+			this.aliases = aliases;
+		}
+	}
+
+
+	/**
+	 * Serializable representation of a value in a bean definition.
+	 */
+	private interface ValueRecord extends Serializable {
+
+		Object restore(@Nullable ClassLoader classLoader);
+	}
+
+
+	/**
+	 * Serializable representation of a bean definition.
+	 */
+	@SuppressWarnings("serial")
+	private static final class DefinitionRecord implements ValueRecord {
+
+		@Nullable
+		private final DefinitionFactory factory;
+
+		private final DefinitionType type;
+
+		@Nullable
+		private final String parentName;
+
+		@Nullable
+		private final String beanClassName;
+
+		@Nullable
+		private final String scope;
+
+		private final boolean abstractFlag;
+
+		@Nullable
+		private final Boolean lazyInit;
+
+		private final int autowireMode;
+
+		private final int dependencyCheck;
+
+		@Nullable
+		private final String[] dependsOn;
+
+		private final boolean autowireCandidate;
+
+		private final boolean primary;
+
+		private final List<QualifierRecord> qualifiers = new ArrayList<>();
+
+		private final boolean nonPublicAccessAllowed;
+
+		private final boolean lenientConstructorResolution;
+
+		@Nullable
+		private final String factoryBeanName;
+
+		@Nullable
+		private final String factoryMethodName;
+
+		private final boolean factoryMethodUnique;
+
+		@Nullable
+		private final ResolvableType targetType;
+
+		@Nullable
+		private final Class<?> qualifiedElement;
+
+		@Nullable
+		private final HolderRecord decoratedDefinition;
+
+		private final Map<Integer, ArgumentRecord> indexedArguments = new LinkedHashMap<>();
+
+		private final List<ArgumentRecord> genericArguments = new ArrayList<>();
+
+		private final List<PropertyRecord> propertyValues = new ArrayList<>();
+
+		private final List<LookupOverrideRecord> lookupOverrides = new ArrayList<>();
+
+		@Nullable
+		private final String initMethodName;
+
+		private final boolean enforceInitMethod;
+
+		@Nullable
+		private final String destroyMethodName;
+
+		private final boolean enforceDestroyMethod;
+
+		private final boolean synthetic;
+
+		private final int role;
+
+		@Nullable
+		private final String description;
+
+		@Nullable
+		private final String resourceDescription;
+
+		private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+		DefinitionRecord(BeanDefinition original) {
+			if (original instanceof CapturableDefinition) {
+				this.factory = ((CapturableDefinition) original).getDefinitionFactory();
+			}
+			else {
+				this.factory = null;
+			}
+			if (this.factory == null && original.getClass() != RootBeanDefinition.class &&
+					original.getClass() != ChildBeanDefinition.class && original.getClass() != GenericBeanDefinition.class) {
+				// Subclasses may carry state of their own (e.g. annotation metadata)
+				throw new IllegalArgumentException("Unsupported bean definition type: " + original.getClass().getName());
+			}
+			AbstractBeanDefinition bd = (AbstractBeanDefinition) original;
+			if (bd.getInstanceSupplier() != null) {
+				throw new IllegalArgumentException("Bean definition with instance supplier: " + bd);
+			}
+			if (bd instanceof RootBeanDefinition) {
+				RootBeanDefinition rbd = (RootBeanDefinition) bd;
+				this.type = DefinitionType.ROOT;
+				this.factoryMethodUnique = rbd.isFactoryMethodUnique;
+				this.targetType = rbd.targetType;
+				this.decoratedDefinition = (rbd.getDecoratedDefinition() != null ?
+						new HolderRecord(rbd.getDecoratedDefinition()) : null);
+				if (rbd.getQualifiedElement() != null && !(rbd.getQualifiedElement() instanceof Class)) {
+					throw new IllegalArgumentException("Bean definition with qualified element: " + bd);
+				}
+				this.qualifiedElement = (Class<?>) rbd.getQualifiedElement();
+			}
+			else {
+				this.type = (bd instanceof ChildBeanDefinition ? DefinitionType.CHILD : DefinitionType.GENERIC);
+				this.factoryMethodUnique = false;
+				this.targetType = null;
+				this.decoratedDefinition = null;
+				this.qualifiedElement = null;
+			}
+			this.parentName = bd.getParentName();
+			this.beanClassName = bd.getBeanClassName();
+			this.scope = bd.getScope();
+			this.abstractFlag = bd.isAbstract();
+			this.lazyInit = bd.getLazyInit();
+			this.autowireMode = bd.getAutowireMode();
+			this.dependencyCheck = bd.getDependencyCheck();
+			this.dependsOn = bd.getDependsOn();
+			this.autowireCandidate = bd.isAutowireCandidate();
+			this.primary = bd.isPrimary();
+			for (AutowireCandidateQualifier qualifier : bd.getQualifiers()) {
+				this.qualifiers.add(new QualifierRecord(qualifier));
+			}
+			this.nonPublicAccessAllowed = bd.isNonPublicAccessAllowed();
+			this.lenientConstructorResolution = bd.isLenientConstructorResolution();
+			this.factoryBeanName = bd.getFactoryBeanName();
+			this.factoryMethodName = bd.getFactoryMethodName();
+			if (bd.hasConstructorArgumentValues()) {
+				ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+				cav.getIndexedArgumentValues().forEach((index, valueHolder) ->
+						this.indexedArguments.put(index, new ArgumentRecord(valueHolder)));
+				for (ConstructorArgumentValues.ValueHolder valueHolder : cav.getGenericArgumentValues()) {
+					this.genericArguments.add(new ArgumentRecord(valueHolder));
+				}
+			}
+			if (bd.hasPropertyValues()) {
+				for (PropertyValue pv : bd.getPropertyValues().getPropertyValueList()) {
+					this.propertyValues.add(new PropertyRecord(pv));
+				}
+			}
+			if (bd.hasMethodOverrides()) {
+				for (MethodOverride override : bd.getMethodOverrides().getOverrides()) {
+					if (!(override instanceof LookupOverride)) {
+						throw new IllegalArgumentException("Bean definition with method replacement: " + bd);
+					}
+					this.lookupOverrides.add(new LookupOverrideRecord((LookupOverride) override));
+				}
+			}
+			this.initMethodName = bd.getInitMethodName();
+			this.enforceInitMethod = bd.isEnforceInitMethod();
+			this.destroyMethodName = bd.getDestroyMethodName();
+			this.enforceDestroyMethod = bd.isEnforceDestroyMethod();
+			this.synthetic = bd.isSynthetic();
+			this.role = bd.getRole();
+			this.description = bd.getDescription();
+			this.resourceDescription = bd.getResourceDescription();
+			for (String name : bd.attributeNames()) {
+				this.attributes.put(name, captureValue(bd.getAttribute(name)));
+			}
+		}
+
+		AbstractBeanDefinition toBeanDefinition(@Nullable ClassLoader classLoader) {
+			AbstractBeanDefinition bd = (this.factory != null ? this.factory.createBeanDefinition(classLoader) : null);
+			if (this.type == DefinitionType.ROOT) {
+				RootBeanDefinition rbd = (bd != null ? (RootBeanDefinition) bd : new RootBeanDefinition());
+				rbd.isFactoryMethodUnique = this.factoryMethodUnique;
+				if (this.targetType != null) {
+					rbd.setTargetType(this.targetType);
+				}
+				if (this.decoratedDefinition != null) {
+					rbd.setDecoratedDefinition(this.decoratedDefinition.restore(classLoader));
+				}
+				rbd.setQualifiedElement(this.qualifiedElement);
+				bd = rbd;
+			}
+			else if (this.type == DefinitionType.CHILD) {
+				if (bd != null) {
+					bd.setParentName(this.parentName);
+				}
+				else {
+					bd = new ChildBeanDefinition(this.parentName);
+				}
+			}
+			else {
+				if (bd == null) {
+					bd = new GenericBeanDefinition();
+				}
+				bd.setParentName(this.parentName);
+			}
+			bd.setBeanClassName(this.beanClassName);
+			bd.setScope(this.scope);
+			bd.setAbstract(this.abstractFlag);
+			if (this.lazyInit != null) {
+				bd.setLazyInit(this.lazyInit);
+			}
+			bd.setAutowireMode(this.autowireMode);
+			bd.setDependencyCheck(this.dependencyCheck);
+			bd.setDependsOn(this.dependsOn);
+			bd.setAutowireCandidate(this.autowireCandidate);
+			bd.setPrimary(this.primary);
+			for (QualifierRecord qualifier : this.qualifiers) {
+				bd.addQualifier(qualifier.restore(classLoader));
+			}
+			bd.setNonPublicAccessAllowed(this.nonPublicAccessAllowed);
+			bd.setLenientConstructorResolution(this.lenientConstructorResolution);
+			bd.setFactoryBeanName(this.factoryBeanName);
+			bd.setFactoryMethodName(this.factoryMethodName);
+			if (!this.indexedArguments.isEmpty() || !this.genericArguments.isEmpty()) {
+				ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+				this.indexedArguments.forEach((index, argument) ->
+						cav.addIndexedArgumentValue(index, argument.restore(classLoader)));
+				for (ArgumentRecord argument : this.genericArguments) {
+					cav.addGenericArgumentValue(argument.restore(classLoader));
+				}
+			}
+			if (!this.propertyValues.isEmpty()) {
+				MutablePropertyValues pvs = bd.getPropertyValues();
+				for (PropertyRecord property : this.propertyValues) {
+					pvs.addPropertyValue(property.restore(classLoader));
+				}
+			}
+			for (LookupOverrideRecord override : this.lookupOverrides) {
+				bd.getMethodOverrides().addOverride(override.restore(classLoader));
+			}
+			bd.setInitMethodName(this.initMethodName);
+			bd.setEnforceInitMethod(this.enforceInitMethod);
+			bd.setDestroyMethodName(this.destroyMethodName);
+			bd.setEnforceDestroyMethod(this.enforceDestroyMethod);
+			bd.setSynthetic(this.synthetic);
+			bd.setRole(this.role);
+			bd.setDescription(this.description);
+			bd.setResourceDescription(this.resourceDescription);
+			restoreAttributes(bd, classLoader);
+			return bd;
+		}
+
+		void restoreAttributes(BeanDefinition bd, @Nullable ClassLoader classLoader) {
+			this.attributes.forEach((name, value) -> {
+				if (!bd.hasAttribute(name)) {
+					bd.setAttribute(name, restoreValue(value, classLoader));
+				}
+			});
+		}
+
+		@Override
+		public Object restore(@Nullable ClassLoader classLoader) {
+			return toBeanDefinition(classLoader);
+		}
+	}
+
+
+	/**
+	 * Interface to be implemented by {@link AbstractBeanDefinition} subclasses
+	 * which carry state of their own (e.g. annotation metadata), allowing them to
+	 * be captured in a snapshot nevertheless. The common bean definition state is
+	 * captured by the snapshot itself and gets applied to the bean definition
+	 * that the {@link DefinitionFactory} creates when restoring.
+	 */
+	public interface CapturableDefinition {
+
+		/**
+		 * Return a factory for a bean definition of the same type and with the
+		 * same subclass-specific state as this bean definition.
+		 * @return the factory, or {@code null} if this bean definition cannot be
+		 * captured (e.g. since it is an instance of a further subclass)
+		 */
+		@Nullable
+		DefinitionFactory getDefinitionFactory();
+	}
+
+
+	/**
+	 * Serializable factory for a bean definition with subclass-specific state.
+	 * @see CapturableDefinition#getDefinitionFactory()
+	 */
+	public interface DefinitionFactory extends Serializable {
+
+		/**
+		 * Create a bean definition with the captured subclass-specific state.
+		 * @param classLoader the ClassLoader to read class metadata with, if necessary
+		 * @return the new bean definition (never {@code null})
+		 * @throws IllegalStateException if the bean definition cannot be created,
+		 * e.g. if its class metadata is not available anymore
+		 */
+		AbstractBeanDefinition createBeanDefinition(@Nullable ClassLoader classLoader);
+	}
+
+
+	private enum DefinitionType {
+
+		GENERIC, ROOT, CHILD
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class HolderRecord implements ValueRecord {
+
+		private final DefinitionRecord definition;
+
+		private final String beanName;
+
+		@Nullable
+		private final String[] aliases;
+
+		HolderRecord(BeanDefinitionHolder holder) {
+			this.definition = new DefinitionRecord(holder.getBeanDefinition());
+			this.beanName = holder.getBeanName();
+			this.aliases = holder.getAliases();
+		}
+
+		@Override
+		public BeanDefinitionHolder restore(@Nullable ClassLoader classLoader) {
+			return new BeanDefinitionHolder(this.definition.toBeanDefinition(classLoader), this.beanName, this.aliases);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class QualifierRecord implements Serializable {
+
+		private final String typeName;
+
+		private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+		QualifierRecord(AutowireCandidateQualifier qualifier) {
+			this.typeName = qualifier.getTypeName();
+			for (String name : qualifier.attributeNames()) {
+				this.attributes.put(name, captureValue(qualifier.getAttribute(name)));
+			}
+		}
+
+		AutowireCandidateQualifier restore(@Nullable ClassLoader classLoader) {
+			AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(this.typeName);
+			this.attributes.forEach((name, value) -> qualifier.setAttribute(name, restoreValue(value, classLoader)));
+			return qualifier;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class ArgumentRecord implements Serializable {
+
+		@Nullable
+		private final Object value;
+
+		@Nullable
+		private final String type;
+
+		@Nullable
+		private final String name;
+
+		ArgumentRecord(ConstructorArgumentValues.ValueHolder valueHolder) {
+			this.value = captureValue(valueHolder.getValue());
+			this.type = valueHolder.getType();
+			this.name = valueHolder.getName();
+		}
+
+		ConstructorArgumentValues.ValueHolder restore(@Nullable ClassLoader classLoader) {
+			return new ConstructorArgumentValues.ValueHolder(restoreValue(this.value, classLoader), this.type, this.name);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class PropertyRecord implements Serializable {
+
+		private final String name;
+
+		@Nullable
+		private final Object value;
+
+		private final boolean optional;
+
+		PropertyRecord(PropertyValue pv) {
+			this.name = pv.getName();
+			this.value = captureValue(pv.getValue());
+			this.optional = pv.isOptional();
+		}
+
+		PropertyValue restore(@Nullable ClassLoader classLoader) {
+			PropertyValue pv = new PropertyValue(this.name, restoreValue(this.value, classLoader));
+			pv.setOptional(this.optional);
+			return pv;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class LookupOverrideRecord implements Serializable {
+
+		private final String methodName;
+
+		@Nullable
+		private final String beanName;
+
+		LookupOverrideRecord(LookupOverride override) {
+			this.methodName = override.getMethodName();
+			this.beanName = override.getBeanName();
+		}
+
+		LookupOverride restore(@Nullable ClassLoader classLoader) {
+			return new LookupOverride(this.methodName, this.beanName);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class BeanReferenceRecord implements ValueRecord {
+
+		private final String beanName;
+
+		@Nullable
+		private final Class<?> beanType;
+
+		private final boolean toParent;
+
+		BeanReferenceRecord(RuntimeBeanReference reference) {
+			this.beanName = reference.getBeanName();
+			this.beanType = reference.getBeanType();
+			this.toParent = reference.isToParent();
+		}
+
+		@Override
+		public RuntimeBeanReference restore(@Nullable ClassLoader classLoader) {
+			return (this.beanType != null ? new RuntimeBeanReference(this.beanType, this.toParent) :
+					new RuntimeBeanReference(this.beanName, this.toParent));
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class BeanNameReferenceRecord implements ValueRecord {
+
+		private final String beanName;
+
+		BeanNameReferenceRecord(String beanName) {
+			this.beanName = beanName;
+		}
+
+		@Override
+		public RuntimeBeanNameReference restore(@Nullable ClassLoader classLoader) {
+			return new RuntimeBeanNameReference(this.beanName);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class TypedStringValueRecord implements ValueRecord {
+
+		@Nullable
+		private final String value;
+
+		@Nullable
+		private final Object targetType;
+
+		@Nullable
+		private final String specifiedTypeName;
+
+		private final boolean dynamic;
+
+		TypedStringValueRecord(TypedStringValue typedValue) {
+			this.value = typedValue.getValue();
+			this.targetType = (typedValue.hasTargetType() ? typedValue.getTargetType() : typedValue.getTargetTypeName());
+			this.specifiedTypeName = typedValue.getSpecifiedTypeName();
+			this.dynamic = typedValue.isDynamic();
+		}
+
+		@Override
+		public TypedStringValue restore(@Nullable ClassLoader classLoader) {
+			TypedStringValue typedValue = new TypedStringValue(this.value);
+			if (this.targetType instanceof Class) {
+				typedValue.setTargetType((Class<?>) this.targetType);
+			}
+			else {
+				typedValue.setTargetTypeName((String) this.targetType);
+			}
+			typedValue.setSpecifiedTypeName(this.specifiedTypeName);
+			if (this.dynamic) {
+				typedValue.setDynamic();
+			}
+			return typedValue;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class ManagedListRecord implements ValueRecord {
+
+		@Nullable
+		private final String elementTypeName;
+
+		private final boolean mergeEnabled;
+
+		private final List<Object> elements;
+
+		private final int arraySize;
+
+		ManagedListRecord(ManagedList<?> list) {
+			this.elementTypeName = list.getElementTypeName();
+			this.mergeEnabled = list.isMergeEnabled();
+			this.elements = captureValues(list);
+			this.arraySize = (list instanceof ManagedArray ? list.size() : -1);
+		}
+
+		@Override
+		public ManagedList<Object> restore(@Nullable ClassLoader classLoader) {
+			ManagedList<Object> list;
+			if (this.arraySize >= 0) {
+				Assert.state(this.elementTypeName != null, "No element type name for managed array");
+				list = new ManagedArray(this.elementTypeName, this.arraySize);
+			}
+			else {
+				list = new ManagedList<>(this.elements.size());
+				list.setElementTypeName(this.elementTypeName);
+			}
+			list.setMergeEnabled(this.mergeEnabled);
+			for (Object element : this.elements) {
+				list.add(restoreValue(element, classLoader));
+			}
+			return list;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class ManagedSetRecord implements ValueRecord {
+
+		@Nullable
+		private final String elementTypeName;
+
+		private final boolean mergeEnabled;
+
+		private final List<Object> elements;
+
+		ManagedSetRecord(ManagedSet<?> set) {
+			this.elementTypeName = set.getElementTypeName();
+			this.mergeEnabled = set.isMergeEnabled();
+			this.elements = captureValues(set);
+		}
+
+		@Override
+		public ManagedSet<Object> restore(@Nullable ClassLoader classLoader) {
+			ManagedSet<Object> set = new ManagedSet<>(this.elements.size());
+			set.setElementTypeName(this.elementTypeName);
+			set.setMergeEnabled(this.mergeEnabled);
+			for (Object element : this.elements) {
+				set.add(restoreValue(element, classLoader));
+			}
+			return set;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class ManagedMapRecord implements ValueRecord {
+
+		@Nullable
+		private final String keyTypeName;
+
+		@Nullable
+		private final String valueTypeName;
+
+		private final boolean mergeEnabled;
+
+		private final List<Object> keys;
+
+		private final List<Object> values;
+
+		ManagedMapRecord(ManagedMap<?, ?> map) {
+			this.keyTypeName = map.getKeyTypeName();
+			this.valueTypeName = map.getValueTypeName();
+			this.mergeEnabled = map.isMergeEnabled();
+			this.keys = captureValues(map.keySet());
+			this.values = captureValues(map.values());
+		}
+
+		@Override
+		public ManagedMap<Object, Object> restore(@Nullable ClassLoader classLoader) {
+			ManagedMap<Object, Object> map = new ManagedMap<>(this.keys.size());
+			map.setKeyTypeName(this.keyTypeName);
+			map.setValueTypeName(this.valueTypeName);
+			map.setMergeEnabled(this.mergeEnabled);
+			for (int i = 0; i < this.keys.size(); i++) {
+				map.put(restoreValue(this.keys.get(i), classLoader), restoreValue(this.values.get(i), classLoader));
+			}
+			return map;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class ManagedPropertiesRecord implements ValueRecord {
+
+		private final boolean mergeEnabled;
+
+		private final List<Object> keys;
+
+		private final List<Object> values;
+
+		ManagedPropertiesRecord(ManagedProperties properties) {
+			this.mergeEnabled = properties.isMergeEnabled();
+			this.keys = new ArrayList<>(properties.size());
+			this.values = new ArrayList<>(properties.size());
+			properties.forEach((key, value) -> {
+				this.keys.add(captureValue(key));
+				this.values.add(captureValue(value));
+			});
+		}
+
+		@Override
+		public ManagedProperties restore(@Nullable ClassLoader classLoader) {
+			ManagedProperties properties = new ManagedProperties();
+			properties.setMergeEnabled(this.mergeEnabled);
+			for (int i = 0; i < this.keys.size(); i++) {
+				properties.put(restoreValue(this.keys.get(i), classLoader), restoreValue(this.values.get(i), classLoader));
+			}
+			return properties;
+		}
+	}
+
+}
@@ -52,6 +52,7 @@ import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
 import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.config.ShortcutDependencyDescriptor;
 import org.springframework.core.CollectionFactory;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.NamedThreadLocal;
@@ -83,12 +84,6 @@ class ConstructorResolver {
 
 	private static final Object[] EMPTY_ARGS = new Object[0];
 
-	/**
-	 * Marker for autowired arguments in a cached argument array, to be later replaced
-	 * by a {@linkplain #resolveAutowiredArgument resolved autowired argument}.
-	 */
-	private static final Object autowiredArgumentMarker = new Object();
-
 	private static final NamedThreadLocal<InjectionPoint> currentInjectionPoint =
 			new NamedThreadLocal<>("Current injection point");
 
@@ -785,11 +780,15 @@ class ConstructorResolver {
 							"] - did you specify the correct bean references as arguments?");
 				}
 				try {
+					DependencyDescriptor descriptor = new DependencyDescriptor(methodParam, true);
+					Set<String> argumentBeanNames = new LinkedHashSet<>(2);
 					Object autowiredArgument = resolveAutowiredArgument(
-							methodParam, beanName, autowiredBeanNames, converter, fallback);
+							descriptor, beanName, argumentBeanNames, converter, fallback);
+					autowiredBeanNames.addAll(argumentBeanNames);
 					args.rawArguments[paramIndex] = autowiredArgument;
 					args.arguments[paramIndex] = autowiredArgument;
-					args.preparedArguments[paramIndex] = autowiredArgumentMarker;
+					args.preparedArguments[paramIndex] = new AutowiredArgument(autowiredArgument != null ?
+							getShortcutDescriptor(descriptor, argumentBeanNames) : descriptor);
 					args.resolveNecessary = true;
 				}
 				catch (BeansException ex) {
@@ -819,22 +818,31 @@ class ConstructorResolver {
 
 		TypeConverter customConverter = this.beanFactory.getCustomTypeConverter();
 		TypeConverter converter = (customConverter != null ? customConverter : bw);
-		BeanDefinitionValueResolver valueResolver =
-				new BeanDefinitionValueResolver(this.beanFactory, beanName, mbd, converter);
+		BeanDefinitionValueResolver valueResolver = null;
 		Class<?>[] paramTypes = executable.getParameterTypes();
 
 		Object[] resolvedArgs = new Object[argsToResolve.length];
 		for (int argIndex = 0; argIndex < argsToResolve.length; argIndex++) {
 			Object argValue = argsToResolve[argIndex];
-			MethodParameter methodParam = MethodParameter.forExecutable(executable, argIndex);
-			if (argValue == autowiredArgumentMarker) {
-				argValue = resolveAutowiredArgument(methodParam, beanName, null, converter, fallback);
-			}
-			else if (argValue instanceof BeanMetadataElement) {
-				argValue = valueResolver.resolveValueIfNecessary("constructor argument", argValue);
+			MethodParameter methodParam;
+			if (argValue instanceof AutowiredArgument) {
+				// Reuse the prepared descriptor, including a shortcut to the target bean if available
+				DependencyDescriptor descriptor = ((AutowiredArgument) argValue).descriptor;
+				methodParam = descriptor.getMethodParameter();
+				Assert.state(methodParam != null, "No MethodParameter for prepared autowired argument");
+				argValue = resolveAutowiredArgument(descriptor, beanName, null, converter, fallback);
 			}
-			else if (argValue instanceof String) {
-				argValue = this.beanFactory.evaluateBeanDefinitionString((String) argValue, mbd);
+			else {
+				methodParam = MethodParameter.forExecutable(executable, argIndex);
+				if (argValue instanceof BeanMetadataElement) {
+					if (valueResolver == null) {
+						valueResolver = new BeanDefinitionValueResolver(this.beanFactory, beanName, mbd, converter);
+					}
+					argValue = valueResolver.resolveValueIfNecessary("constructor argument", argValue);
+				}
+				else if (argValue instanceof String) {
+					argValue = this.beanFactory.evaluateBeanDefinitionString((String) argValue, mbd);
+				}
 			}
 			Class<?> paramType = paramTypes[argIndex];
 			try {
@@ -869,20 +877,19 @@ class ConstructorResolver {
 	 * Template method for resolving the specified argument which is supposed to be autowired.
 	 */
 	@Nullable
-	protected Object resolveAutowiredArgument(MethodParameter param, String beanName,
+	protected Object resolveAutowiredArgument(DependencyDescriptor descriptor, String beanName,
 			@Nullable Set<String> autowiredBeanNames, TypeConverter typeConverter, boolean fallback) {
 
-		Class<?> paramType = param.getParameterType();
+		Class<?> paramType = descriptor.getDependencyType();
 		if (InjectionPoint.class.isAssignableFrom(paramType)) {
 			InjectionPoint injectionPoint = currentInjectionPoint.get();
 			if (injectionPoint == null) {
-				throw new IllegalStateException("No current InjectionPoint available for " + param);
+				throw new IllegalStateException("No current InjectionPoint available for " + descriptor);
 			}
 			return injectionPoint;
 		}
 		try {
-			return this.beanFactory.resolveDependency(
-					new DependencyDescriptor(param, true), beanName, autowiredBeanNames, typeConverter);
+			return this.beanFactory.resolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
 		}
 		catch (NoUniqueBeanDefinitionException ex) {
 			throw ex;
@@ -905,6 +912,25 @@ class ConstructorResolver {
 		}
 	}
 
+	/**
+	 * Return a descriptor for the given autowired argument which, for subsequent
+	 * resolution, directly refers to the bean that the argument has been resolved
+	 * to, if that bean is the only one and matches the argument type as a whole.
+	 * <p>Only to be called for non-null arguments, since a {@code null} value
+	 * may stem from a {@link NullBean} which cannot be obtained by type.
+	 */
+	private DependencyDescriptor getShortcutDescriptor(DependencyDescriptor descriptor, Set<String> autowiredBeanNames) {
+		if (autowiredBeanNames.size() == 1) {
+			String autowiredBeanName = autowiredBeanNames.iterator().next();
+			Class<?> paramType = descriptor.getDependencyType();
+			if (this.beanFactory.containsBean(autowiredBeanName) &&
+					this.beanFactory.isTypeMatch(autowiredBeanName, paramType)) {
+				return new ShortcutDependencyDescriptor(descriptor, autowiredBeanName, paramType);
+			}
+		}
+		return descriptor;
+	}
+
 	static InjectionPoint setCurrentInjectionPoint(@Nullable InjectionPoint injectionPoint) {
 		InjectionPoint old = currentInjectionPoint.get();
 		if (injectionPoint != null) {
@@ -981,6 +1007,21 @@ class ConstructorResolver {
 	}
 
 
+	/**
+	 * Autowired argument in a cached argument array, to be later replaced
+	 * by a {@linkplain #resolveAutowiredArgument resolved autowired argument}
+	 * through its prepared dependency descriptor.
+	 */
+	private static class AutowiredArgument {
+
+		public final DependencyDescriptor descriptor;
+
+		public AutowiredArgument(DependencyDescriptor descriptor) {
+			this.descriptor = descriptor;
+		}
+	}
+
+
 	/**
 	 * Delegate for checking Java 6's {@link ConstructorProperties} annotation.
 	 */
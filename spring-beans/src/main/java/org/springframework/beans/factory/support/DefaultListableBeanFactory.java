@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -40,6 +41,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -47,6 +52,8 @@ import java.util.stream.Stream;
 import javax.inject.Provider;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -67,10 +74,13 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.MergedAnnotation;
@@ -83,6 +93,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CompositeIterator;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -154,6 +165,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	@Nullable
 	private Comparator<Object> dependencyComparator;
 
+	/** Optional Executor for pre-instantiating singletons in parallel. */
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/** Resolver to use for checking if a bean definition is an autowire candidate. */
 	private AutowireCandidateResolver autowireCandidateResolver = SimpleAutowireCandidateResolver.INSTANCE;
 
@@ -172,6 +187,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Map of singleton-only bean names, keyed by dependency type. */
 	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
 
+	/** Index of bean definition names by singleton type, in case of frozen configuration. */
+	@Nullable
+	private volatile SingletonTypeIndex singletonTypeIndex;
+
+	/** Number of singleton registry changes, for detecting changes while building the type index. */
+	private final AtomicLong singletonTypeIndexModifications = new AtomicLong();
+
 	/** List of bean definition names, in registration order. */
 	private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
 
@@ -269,6 +291,40 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.allowEagerClassLoading;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating independent singletons in
+	 * parallel within {@link #preInstantiateSingletons()}.
+	 * <p>Default is none, creating all singletons one by one on the calling
+	 * thread. If specified, a dependency graph is built from the bean references
+	 * and "depends-on" declarations of the merged bean definitions, and each
+	 * singleton is submitted to the given executor once its dependencies have
+	 * been created. Dependencies injected through autowiring annotations are not
+	 * part of that graph; they are simply resolved on the creating thread.
+	 * Singletons in a cycle, FactoryBeans and singletons with unknown
+	 * dependencies (e.g. autowired by type or constructor) are created on the
+	 * calling thread afterwards, in registration order.
+	 * <p>Setting an executor also switches on
+	 * {@linkplain #setPerBeanSingletonLocking per-bean singleton locking},
+	 * since singletons would otherwise still be created one at a time.
+	 * @since 5.3
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+		if (bootstrapExecutor != null) {
+			setPerBeanSingletonLocking(true);
+		}
+	}
+
+	/**
+	 * Return the {@link Executor} for pre-instantiating singletons in parallel, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 	/**
 	 * Set a {@link java.util.Comparator} for dependency Lists and arrays.
 	 * @since 4.0
@@ -557,8 +613,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
 
-		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		// Check all bean definitions, or the candidates according to the type index.
+		for (String beanName : getCandidateBeanNames(type)) {
 			// Only consider bean as eligible if the bean name is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
 				try {
@@ -639,6 +695,81 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return StringUtils.toStringArray(result);
 	}
 
+	/**
+	 * Determine the names of the bean definitions that may match the given type:
+	 * all bean definition names, or a subset thereof according to the type index
+	 * in case of frozen configuration.
+	 */
+	private List<String> getCandidateBeanNames(ResolvableType type) {
+		Class<?> rawType = type.resolve();
+		if (rawType != null) {
+			SingletonTypeIndex index = getSingletonTypeIndex();
+			if (index != null) {
+				return index.getCandidateBeanNames(rawType);
+			}
+		}
+		return this.beanDefinitionNames;
+	}
+
+	@Nullable
+	private SingletonTypeIndex getSingletonTypeIndex() {
+		if (!isConfigurationFrozen()) {
+			return null;
+		}
+		SingletonTypeIndex index = this.singletonTypeIndex;
+		if (index == null) {
+			long modifications = this.singletonTypeIndexModifications.get();
+			List<String> beanNames = this.beanDefinitionNames;
+			index = new SingletonTypeIndex(beanNames);
+			for (String beanName : beanNames) {
+				if (containsSingleton(beanName)) {
+					Object singletonObject = getSingleton(beanName, false);
+					if (singletonObject != null) {
+						indexSingleton(index, beanName, singletonObject);
+					}
+				}
+			}
+			this.singletonTypeIndex = index;
+			if (this.singletonTypeIndexModifications.get() != modifications) {
+				// Singletons registered or removed in the meantime -> try again next time.
+				this.singletonTypeIndex = null;
+				return null;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Index the given singleton under the types it may match in
+	 * {@link #isTypeMatch}: its exposed class as well as the target type and
+	 * factory method return type of its bean definition.
+	 */
+	private void indexSingleton(SingletonTypeIndex index, String beanName, Object singletonObject) {
+		if (singletonObject instanceof FactoryBean || singletonObject instanceof NullBean ||
+				!containsBeanDefinition(beanName)) {
+			index.unindex(beanName);
+			return;
+		}
+		RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+		List<Class<?>> types = new ArrayList<>(3);
+		types.add(singletonObject.getClass());
+		Class<?> targetType = mbd.getTargetType();
+		if (targetType != null) {
+			types.add(targetType);
+		}
+		ResolvableType returnType = mbd.factoryMethodReturnType;
+		Class<?> factoryMethodReturnType = (returnType != null ? returnType.resolve() : null);
+		if (factoryMethodReturnType != null) {
+			types.add(factoryMethodReturnType);
+		}
+		index.index(beanName, types);
+	}
+
+	private void invalidateSingletonTypeIndex() {
+		this.singletonTypeIndexModifications.incrementAndGet();
+		this.singletonTypeIndex = null;
+	}
+
 	private boolean isSingleton(String beanName, RootBeanDefinition mbd, @Nullable BeanDefinitionHolder dbd) {
 		return (dbd != null ? mbd.isSingleton() : isSingleton(beanName));
 	}
@@ -890,6 +1021,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	public void freezeConfiguration() {
 		this.configurationFrozen = true;
 		this.frozenBeanDefinitionNames = StringUtils.toStringArray(this.beanDefinitionNames);
+		invalidateSingletonTypeIndex();
 	}
 
 	@Override
@@ -917,7 +1049,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		// While this may not be part of the regular factory bootstrap, it does otherwise work fine.
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
-		// Trigger initialization of all non-lazy singleton beans...
+		// Trigger initialization of independent singleton beans in parallel, if configured...
+		Executor bootstrapExecutor = this.bootstrapExecutor;
+		if (bootstrapExecutor != null) {
+			new ParallelSingletonPreInstantiation(bootstrapExecutor).preInstantiate(beanNames);
+		}
+
+		// Trigger initialization of all (remaining) non-lazy singleton beans...
 		for (String beanName : beanNames) {
 			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
 			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
@@ -967,6 +1105,90 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Determine the names of the beans that the given bean definition
+	 * explicitly refers to, for parallel pre-instantiation.
+	 * @param bd the merged bean definition
+	 * @return the names of the referenced beans, or {@code null} if the
+	 * dependencies cannot be determined upfront
+	 */
+	@Nullable
+	private Set<String> getDeclaredDependencies(BeanDefinition bd) {
+		if (bd instanceof AbstractBeanDefinition &&
+				((AbstractBeanDefinition) bd).getResolvedAutowireMode() != AUTOWIRE_NO) {
+			return null;
+		}
+		Set<String> dependencies = new LinkedHashSet<>();
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			dependencies.addAll(Arrays.asList(dependsOn));
+		}
+		if (bd.getFactoryBeanName() != null) {
+			dependencies.add(bd.getFactoryBeanName());
+		}
+		ConstructorArgumentValues argumentValues = bd.getConstructorArgumentValues();
+		for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getIndexedArgumentValues().values()) {
+			if (!addDeclaredDependencies(valueHolder.getValue(), dependencies)) {
+				return null;
+			}
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getGenericArgumentValues()) {
+			if (!addDeclaredDependencies(valueHolder.getValue(), dependencies)) {
+				return null;
+			}
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValueList()) {
+			if (!addDeclaredDependencies(pv.getValue(), dependencies)) {
+				return null;
+			}
+		}
+		Set<String> beanNames = new LinkedHashSet<>(dependencies.size());
+		for (String dependency : dependencies) {
+			beanNames.add(canonicalName(transformedBeanName(dependency)));
+		}
+		return beanNames;
+	}
+
+	private boolean addDeclaredDependencies(@Nullable Object value, Set<String> dependencies) {
+		if (value instanceof BeanReference) {
+			if (value instanceof RuntimeBeanReference && ((RuntimeBeanReference) value).getBeanType() != null) {
+				return false;
+			}
+			dependencies.add(((BeanReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			return addInnerBeanDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), dependencies);
+		}
+		else if (value instanceof BeanDefinition) {
+			return addInnerBeanDependencies((BeanDefinition) value, dependencies);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				if (!addDeclaredDependencies(element, dependencies)) {
+					return false;
+				}
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				if (!addDeclaredDependencies(entry.getKey(), dependencies) ||
+						!addDeclaredDependencies(entry.getValue(), dependencies)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean addInnerBeanDependencies(BeanDefinition innerBd, Set<String> dependencies) {
+		Set<String> innerDependencies = getDeclaredDependencies(innerBd);
+		if (innerDependencies == null) {
+			return false;
+		}
+		dependencies.addAll(innerDependencies);
+		return true;
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
@@ -1037,6 +1259,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				removeManualSingletonName(beanName);
 			}
 			this.frozenBeanDefinitionNames = null;
+			invalidateSingletonTypeIndex();
 		}
 
 		if (existingDefinition != null || containsSingleton(beanName)) {
@@ -1072,6 +1295,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.beanDefinitionNames.remove(beanName);
 		}
 		this.frozenBeanDefinitionNames = null;
+		invalidateSingletonTypeIndex();
 
 		resetBeanDefinition(beanName);
 	}
@@ -1154,6 +1378,32 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		this.singletonTypeIndexModifications.incrementAndGet();
+		SingletonTypeIndex index = this.singletonTypeIndex;
+		if (index != null) {
+			indexSingleton(index, beanName, singletonObject);
+		}
+	}
+
+	@Override
+	protected void removeSingleton(String beanName) {
+		super.removeSingleton(beanName);
+		this.singletonTypeIndexModifications.incrementAndGet();
+		SingletonTypeIndex index = this.singletonTypeIndex;
+		if (index != null) {
+			index.unindex(beanName);
+		}
+	}
+
+	@Override
+	protected void clearSingletonCache() {
+		super.clearSingletonCache();
+		invalidateSingletonTypeIndex();
+	}
+
 	private void removeManualSingletonName(String beanName) {
 		updateManualSingletonNames(set -> set.remove(beanName), set -> set.contains(beanName));
 	}
@@ -1412,8 +1662,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			if (componentType == null) {
 				return null;
 			}
-			Map<String, Object> matchingBeans = findAutowireCandidates(beanName, componentType,
-					new MultiElementDescriptor(descriptor));
+			Map<String, Object> matchingBeans = findMultipleCandidates(beanName, componentType, descriptor);
 			if (matchingBeans.isEmpty()) {
 				return null;
 			}
@@ -1435,8 +1684,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			if (elementType == null) {
 				return null;
 			}
-			Map<String, Object> matchingBeans = findAutowireCandidates(beanName, elementType,
-					new MultiElementDescriptor(descriptor));
+			Map<String, Object> matchingBeans = findMultipleCandidates(beanName, elementType, descriptor);
 			if (matchingBeans.isEmpty()) {
 				return null;
 			}
@@ -1465,8 +1713,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			if (valueType == null) {
 				return null;
 			}
-			Map<String, Object> matchingBeans = findAutowireCandidates(beanName, valueType,
-					new MultiElementDescriptor(descriptor));
+			Map<String, Object> matchingBeans = findMultipleCandidates(beanName, valueType, descriptor);
 			if (matchingBeans.isEmpty()) {
 				return null;
 			}
@@ -1574,6 +1821,30 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return result;
 	}
 
+	/**
+	 * Find bean instances for a dependency on multiple beans of the given type,
+	 * taking candidate names pre-resolved by the given descriptor into account.
+	 * @param beanName the name of the bean that is about to be wired
+	 * @param elementType the type of beans to look for
+	 * @param descriptor the descriptor of the dependency to resolve
+	 * @return a Map of candidate names and candidate instances (never {@code null})
+	 * @see DependencyDescriptor#resolveCandidateNames
+	 */
+	private Map<String, Object> findMultipleCandidates(
+			@Nullable String beanName, Class<?> elementType, DependencyDescriptor descriptor) {
+
+		String[] candidateNames = descriptor.resolveCandidateNames(elementType, this);
+		DependencyDescriptor multiDescriptor = new MultiElementDescriptor(descriptor);
+		if (candidateNames == null) {
+			return findAutowireCandidates(beanName, elementType, multiDescriptor);
+		}
+		Map<String, Object> result = new LinkedHashMap<>(candidateNames.length);
+		for (String candidate : candidateNames) {
+			addCandidateEntry(result, candidate, multiDescriptor, elementType);
+		}
+		return result;
+	}
+
 	/**
 	 * Add an entry to the candidate map: a bean instance if available or just the resolved
 	 * type, preventing early bean initialization ahead of primary candidate selection.
@@ -2160,4 +2431,137 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+
+
+	/**
+	 * Pre-instantiates independent singletons on a given {@link Executor},
+	 * following the dependency graph of their bean definitions.
+	 * @see #setBootstrapExecutor
+	 */
+	private class ParallelSingletonPreInstantiation {
+
+		private final Executor executor;
+
+		private final Map<String, AtomicInteger> pendingDependencies = new HashMap<>();
+
+		private final Map<String, List<String>> dependentBeans = new HashMap<>();
+
+		/** Number of submitted or running instantiations, guarded by this. */
+		private int running;
+
+		/** First instantiation failure, guarded by this. */
+		@Nullable
+		private Throwable failure;
+
+		ParallelSingletonPreInstantiation(Executor executor) {
+			this.executor = executor;
+		}
+
+		public void preInstantiate(List<String> beanNames) {
+			Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+			for (String beanName : beanNames) {
+				RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+				if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit() && !isFactoryBean(beanName)) {
+					Set<String> beanDependencies = getDeclaredDependencies(bd);
+					if (beanDependencies != null) {
+						dependencies.put(beanName, beanDependencies);
+					}
+				}
+			}
+			// Singletons depending on other candidates wait for these to be created
+			// first; singletons in a cycle never become ready and remain serial.
+			List<String> readyBeanNames = new ArrayList<>();
+			dependencies.forEach((beanName, beanDependencies) -> {
+				int count = 0;
+				for (String dependency : beanDependencies) {
+					if (dependencies.containsKey(dependency) && !dependency.equals(beanName)) {
+						this.dependentBeans.computeIfAbsent(dependency, key -> new ArrayList<>()).add(beanName);
+						count++;
+					}
+				}
+				this.pendingDependencies.put(beanName, new AtomicInteger(count));
+				if (count == 0) {
+					readyBeanNames.add(beanName);
+				}
+			});
+			if (logger.isDebugEnabled()) {
+				logger.debug("Pre-instantiating " + dependencies.size() + " of " + beanNames.size() +
+						" bean definitions in parallel");
+			}
+			for (String beanName : readyBeanNames) {
+				submit(beanName);
+			}
+			awaitCompletion();
+		}
+
+		private void submit(String beanName) {
+			synchronized (this) {
+				if (this.failure != null) {
+					return;
+				}
+				this.running++;
+			}
+			try {
+				this.executor.execute(() -> instantiate(beanName));
+			}
+			catch (RejectedExecutionException ex) {
+				instantiate(beanName);
+			}
+		}
+
+		private void instantiate(String beanName) {
+			try {
+				StartupStep step = getApplicationStartup().start("spring.beans.pre-instantiate")
+						.tag("beanName", beanName)
+						.tag("thread", () -> Thread.currentThread().getName());
+				try {
+					getBean(beanName);
+				}
+				catch (Throwable ex) {
+					step.tag("exception", ex.getClass().toString());
+					synchronized (this) {
+						if (this.failure == null) {
+							this.failure = ex;
+						}
+					}
+					return;
+				}
+				finally {
+					step.end();
+				}
+				List<String> dependents = this.dependentBeans.get(beanName);
+				if (dependents != null) {
+					for (String dependent : dependents) {
+						if (this.pendingDependencies.get(dependent).decrementAndGet() == 0) {
+							submit(dependent);
+						}
+					}
+				}
+			}
+			finally {
+				synchronized (this) {
+					this.running--;
+					if (this.running == 0) {
+						notifyAll();
+					}
+				}
+			}
+		}
+
+		private synchronized void awaitCompletion() {
+			while (this.running > 0) {
+				try {
+					wait();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new FatalBeanException("Interrupted during parallel pre-instantiation of singletons", ex);
+				}
+			}
+			if (this.failure != null) {
+				ReflectionUtils.rethrowRuntimeException(this.failure);
+			}
+		}
+	}
+
 }
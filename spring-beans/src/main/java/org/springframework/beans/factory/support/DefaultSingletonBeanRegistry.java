@@ -16,12 +16,14 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,6 +34,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -61,6 +64,11 @@ import org.springframework.util.StringUtils;
  * (which inherit from it). Can alternatively also be used as a nested
  * helper to delegate to.
  *
+ * <p>By default, singleton creation is serialized on the
+ * {@linkplain #getSingletonMutex() singleton mutex}. As of 5.3, singletons may
+ * alternatively be created with a lock per bean name instead, see
+ * {@link #setPerBeanSingletonLocking}.
+ *
  * @author Juergen Hoeller
  * @since 2.0
  * @see #registerSingleton
@@ -94,12 +102,21 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Bean names of singletons currently in creation with a per-bean lock: bean name to creating thread. */
+	private final Map<String, Thread> singletonCreationThreads = new HashMap<>(16);
+
+	/** Threads waiting for a per-bean singleton lock: thread to the name of the bean being waited for. */
+	private final Map<Thread, String> singletonCreationWaits = new HashMap<>(16);
+
+	/** Whether to create singletons with a lock per bean name. */
+	private boolean perBeanSingletonLocking = false;
+
 	/** Collection of suppressed Exceptions, available for associating related causes. */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions of singleton creation");
 
 	/** Flag that indicates whether we're currently within destroySingletons. */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
 
 	/** Disposable bean instances: bean name to disposable instance. */
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
@@ -114,6 +131,37 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Set whether to create singletons with a lock per bean name rather than
+	 * on the common {@linkplain #getSingletonMutex() singleton mutex}.
+	 * <p>Default is "false", serializing all singleton creation. Switch this
+	 * flag to "true" in order to let threads create unrelated singletons
+	 * concurrently, e.g. lazy-init singletons initialized on request threads.
+	 * A thread requesting a singleton in creation on another thread waits for
+	 * its completion, unless both threads wait for each other; such a circular
+	 * reference across threads is resolved through an early singleton reference
+	 * just like within a single thread, or otherwise rejected with a
+	 * {@link BeanCurrentlyInCreationException}.
+	 * <p>Note that an early singleton reference is only ever exposed to the
+	 * thread creating the singleton, or to a thread resolving a circular
+	 * reference to it as described above.
+	 * @since 5.3
+	 * @see #getSingleton(String, ObjectFactory)
+	 */
+	public void setPerBeanSingletonLocking(boolean perBeanSingletonLocking) {
+		this.perBeanSingletonLocking = perBeanSingletonLocking;
+	}
+
+	/**
+	 * Return whether to create singletons with a lock per bean name.
+	 * @since 5.3
+	 * @see #setPerBeanSingletonLocking
+	 */
+	public boolean isPerBeanSingletonLocking() {
+		return this.perBeanSingletonLocking;
+	}
+
+
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		Assert.notNull(beanName, "Bean name must not be null");
@@ -181,15 +229,30 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		Object singletonObject = this.singletonObjects.get(beanName);
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
 			synchronized (this.singletonObjects) {
-				singletonObject = this.earlySingletonObjects.get(beanName);
-				if (singletonObject == null && allowEarlyReference) {
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					if (singletonFactory != null) {
-						singletonObject = singletonFactory.getObject();
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						this.singletonFactories.remove(beanName);
-					}
+				Thread creationThread = this.singletonCreationThreads.get(beanName);
+				if (creationThread != null && creationThread != Thread.currentThread()) {
+					// Not exposing an early reference to other threads
+					return null;
 				}
+				singletonObject = getEarlySingleton(beanName, allowEarlyReference);
+			}
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Return the early singleton reference for the given name, if any.
+	 * <p>To be called within the singleton mutex.
+	 */
+	@Nullable
+	private Object getEarlySingleton(String beanName, boolean allowEarlyReference) {
+		Object singletonObject = this.earlySingletonObjects.get(beanName);
+		if (singletonObject == null && allowEarlyReference) {
+			ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+			if (singletonFactory != null) {
+				singletonObject = singletonFactory.getObject();
+				this.earlySingletonObjects.put(beanName, singletonObject);
+				this.singletonFactories.remove(beanName);
 			}
 		}
 		return singletonObject;
@@ -205,57 +268,162 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (this.perBeanSingletonLocking) {
+			return getSingletonWithBeanLock(beanName, singletonFactory);
+		}
 		synchronized (this.singletonObjects) {
 			Object singletonObject = this.singletonObjects.get(beanName);
 			if (singletonObject == null) {
-				if (this.singletonsCurrentlyInDestruction) {
-					throw new BeanCreationNotAllowedException(beanName,
-							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
-							"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+				singletonObject = createSingleton(beanName, singletonFactory);
+			}
+			return singletonObject;
+		}
+	}
+
+	private Object getSingletonWithBeanLock(String beanName, ObjectFactory<?> singletonFactory) {
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		Thread currentThread = Thread.currentThread();
+		boolean locked;
+		synchronized (this.singletonObjects) {
+			boolean cycleSignaled = false;
+			while (true) {
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject != null) {
+					return singletonObject;
 				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+				Thread creationThread = this.singletonCreationThreads.putIfAbsent(beanName, currentThread);
+				if (creationThread == null || creationThread == currentThread) {
+					// A re-entrant request is rejected by beforeSingletonCreation
+					locked = (creationThread == null);
+					break;
 				}
-				beforeSingletonCreation(beanName);
-				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
-				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
+				List<String> cycle = getSingletonCreationCycle(creationThread, currentThread);
+				if (cycle != null) {
+					singletonObject = getEarlySingleton(beanName, true);
+					if (singletonObject != null) {
+						return singletonObject;
+					}
+					if (cycle.stream().noneMatch(this::hasEarlySingleton)) {
+						throw new BeanCurrentlyInCreationException(beanName,
+								"Requested bean is currently in creation on another thread: " +
+								"Is there an unresolvable circular reference?");
+					}
+					if (!cycleSignaled) {
+						// Let another thread in the cycle resolve it through an early reference
+						this.singletonObjects.notifyAll();
+						cycleSignaled = true;
+					}
 				}
+				this.singletonCreationWaits.put(currentThread, beanName);
 				try {
-					singletonObject = singletonFactory.getObject();
-					newSingleton = true;
+					this.singletonObjects.wait();
 				}
-				catch (IllegalStateException ex) {
-					// Has the singleton object implicitly appeared in the meantime ->
-					// if yes, proceed with it since the exception indicates that state.
-					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						throw ex;
-					}
-				}
-				catch (BeanCreationException ex) {
-					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
-							ex.addRelatedCause(suppressedException);
-						}
-					}
-					throw ex;
+				catch (InterruptedException ex) {
+					currentThread.interrupt();
+					throw new BeanCreationException(beanName,
+							"Interrupted while waiting for singleton creation on another thread");
 				}
 				finally {
-					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
-					}
-					afterSingletonCreation(beanName);
+					this.singletonCreationWaits.remove(currentThread);
 				}
-				if (newSingleton) {
-					addSingleton(beanName, singletonObject);
+			}
+		}
+		try {
+			return createSingleton(beanName, singletonFactory);
+		}
+		finally {
+			if (locked) {
+				synchronized (this.singletonObjects) {
+					this.singletonCreationThreads.remove(beanName);
+					this.singletonObjects.notifyAll();
 				}
 			}
-			return singletonObject;
 		}
 	}
 
+	/**
+	 * Determine whether the given creation thread is (transitively) waiting for
+	 * a singleton in creation on the current thread.
+	 * <p>To be called within the singleton mutex.
+	 * @return the names of the beans waited for by the other threads in the
+	 * cycle, or {@code null} if there is no such cycle
+	 */
+	@Nullable
+	private List<String> getSingletonCreationCycle(Thread creationThread, Thread currentThread) {
+		List<String> beanNames = new ArrayList<>();
+		Thread thread = creationThread;
+		while (beanNames.size() <= this.singletonCreationWaits.size()) {
+			String awaitedBeanName = this.singletonCreationWaits.get(thread);
+			if (awaitedBeanName == null) {
+				return null;
+			}
+			beanNames.add(awaitedBeanName);
+			thread = this.singletonCreationThreads.get(awaitedBeanName);
+			if (thread == null) {
+				return null;
+			}
+			if (thread == currentThread) {
+				return beanNames;
+			}
+		}
+		return null;
+	}
+
+	private boolean hasEarlySingleton(String beanName) {
+		return (this.earlySingletonObjects.containsKey(beanName) || this.singletonFactories.containsKey(beanName));
+	}
+
+	private Object createSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+		if (this.singletonsCurrentlyInDestruction) {
+			throw new BeanCreationNotAllowedException(beanName,
+					"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+					"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+		}
+		beforeSingletonCreation(beanName);
+		Object singletonObject;
+		boolean newSingleton = false;
+		boolean recordSuppressedExceptions = (this.suppressedExceptions.get() == null);
+		if (recordSuppressedExceptions) {
+			this.suppressedExceptions.set(new LinkedHashSet<>());
+		}
+		try {
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		}
+		catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		}
+		catch (BeanCreationException ex) {
+			if (recordSuppressedExceptions) {
+				for (Exception suppressedException : this.suppressedExceptions.get()) {
+					ex.addRelatedCause(suppressedException);
+				}
+			}
+			throw ex;
+		}
+		finally {
+			if (recordSuppressedExceptions) {
+				this.suppressedExceptions.remove();
+			}
+			afterSingletonCreation(beanName);
+		}
+		if (newSingleton) {
+			addSingleton(beanName, singletonObject);
+		}
+		return singletonObject;
+	}
+
 	/**
 	 * Register an exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -266,10 +434,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see BeanCreationException#getRelatedCauses()
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null && this.suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null && suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
+			suppressedExceptions.add(ex);
 		}
 	}
 
@@ -619,6 +786,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * any sort of extended singleton creation phase. In particular, subclasses
 	 * should <i>not</i> have their own mutexes involved in singleton creation,
 	 * to avoid the potential for deadlocks in lazy-init situations.
+	 * <p>With {@linkplain #setPerBeanSingletonLocking per-bean locking}, the
+	 * mutex is only held for updates of the singleton registry itself, and
+	 * released while waiting for a singleton in creation on another thread.
 	 */
 	@Override
 	public final Object getSingletonMutex() {
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Index of bean definition names by the types of their singleton instances,
+ * narrowing down the bean names that {@link DefaultListableBeanFactory} needs
+ * to check for a by-type lookup.
+ *
+ * <p>A bean name is either indexed under all superclasses and interfaces of the
+ * types it may match as a singleton instance, or unindexed, e.g. if it has not
+ * been instantiated yet or if its instance is a FactoryBean. Candidates for a
+ * given type are the names indexed under that type plus all unindexed names,
+ * in registration order. The index does not decide about a match itself, so
+ * each candidate still needs to be checked.
+ *
+ * @author Juergen Hoeller
+ * @since 5.3
+ * @see DefaultListableBeanFactory#getBeanNamesForType(org.springframework.core.ResolvableType)
+ */
+final class SingletonTypeIndex {
+
+	private final Map<String, Integer> positions;
+
+	private final Set<String> unindexedBeanNames = ConcurrentHashMap.newKeySet();
+
+	private final Map<String, Set<Class<?>>> indexedTypes = new ConcurrentHashMap<>(256);
+
+	private final Map<Class<?>, Set<String>> beanNamesByType = new ConcurrentHashMap<>(256);
+
+
+	/**
+	 * Create a new index for the given bean definition names, initially unindexed.
+	 * @param beanNames the bean definition names, in registration order
+	 */
+	SingletonTypeIndex(List<String> beanNames) {
+		Map<String, Integer> positions = new HashMap<>((int) (beanNames.size() / 0.75f) + 1);
+		for (String beanName : beanNames) {
+			positions.putIfAbsent(beanName, positions.size());
+		}
+		this.positions = positions;
+		this.unindexedBeanNames.addAll(positions.keySet());
+	}
+
+
+	/**
+	 * Index the given bean name under the given types and all of their
+	 * superclasses and interfaces.
+	 * @param beanName the bean definition name (ignored if not part of this index)
+	 * @param types the types that the bean may match
+	 */
+	void index(String beanName, List<Class<?>> types) {
+		if (!this.positions.containsKey(beanName)) {
+			return;
+		}
+		Set<Class<?>> typesToIndex = new LinkedHashSet<>();
+		for (Class<?> type : types) {
+			if (type.isArray()) {
+				// Array types match covariantly: not worth indexing
+				unindex(beanName);
+				return;
+			}
+			addTypeHierarchy(type, typesToIndex);
+		}
+		for (Class<?> type : typesToIndex) {
+			this.beanNamesByType.computeIfAbsent(type, key -> ConcurrentHashMap.newKeySet()).add(beanName);
+		}
+		Set<Class<?>> previousTypes = this.indexedTypes.put(beanName, typesToIndex);
+		if (previousTypes != null) {
+			removeFromTypes(beanName, previousTypes, typesToIndex);
+		}
+		this.unindexedBeanNames.remove(beanName);
+	}
+
+	/**
+	 * Remove the given bean name from the type index, turning it into a
+	 * candidate for every type.
+	 * @param beanName the bean definition name (ignored if not part of this index)
+	 */
+	void unindex(String beanName) {
+		if (!this.positions.containsKey(beanName)) {
+			return;
+		}
+		this.unindexedBeanNames.add(beanName);
+		Set<Class<?>> previousTypes = this.indexedTypes.remove(beanName);
+		if (previousTypes != null) {
+			removeFromTypes(beanName, previousTypes, Collections.emptySet());
+		}
+	}
+
+	private void removeFromTypes(String beanName, Set<Class<?>> types, Set<Class<?>> typesToKeep) {
+		for (Class<?> type : types) {
+			if (!typesToKeep.contains(type)) {
+				Set<String> beanNames = this.beanNamesByType.get(type);
+				if (beanNames != null) {
+					beanNames.remove(beanName);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the names of the beans that may match the given type,
+	 * in registration order.
+	 * @param type the raw type to match
+	 */
+	List<String> getCandidateBeanNames(Class<?> type) {
+		Set<String> candidateSet = new HashSet<>(this.unindexedBeanNames);
+		Set<String> indexedBeanNames = this.beanNamesByType.get(ClassUtils.resolvePrimitiveIfNecessary(type));
+		if (indexedBeanNames != null) {
+			candidateSet.addAll(indexedBeanNames);
+		}
+		List<String> candidates = new ArrayList<>(candidateSet);
+		candidates.sort((name1, name2) -> Integer.compare(this.positions.get(name1), this.positions.get(name2)));
+		return candidates;
+	}
+
+	private static void addTypeHierarchy(@Nullable Class<?> type, Set<Class<?>> result) {
+		while (type != null && result.add(type)) {
+			for (Class<?> ifc : type.getInterfaces()) {
+				addTypeHierarchy(ifc, result);
+			}
+			type = type.getSuperclass();
+		}
+		result.add(Object.class);
+	}
+
+}
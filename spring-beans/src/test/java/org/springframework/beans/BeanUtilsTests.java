@@ -174,6 +174,19 @@ class BeanUtilsTests {
 		assertThat(tb2.getTouchy().equals(tb.getTouchy())).as("Touchy copied").isTrue();
 	}
 
+	@Test
+	void copyPropertiesWithMethodHandles() throws Exception {
+		DerivedTestBean tb = new DerivedTestBean();
+		tb.setName("rod");
+		tb.setAge(32);
+		tb.setTouchy("touchy");
+		TestBean tb2 = new TestBean();
+		BeanUtils.copyProperties(tb, tb2, null, true);
+		assertThat(tb2.getName()).as("Name copied").isEqualTo(tb.getName());
+		assertThat(tb2.getAge()).as("Age copied").isEqualTo(tb.getAge());
+		assertThat(tb2.getTouchy()).as("Touchy copied").isEqualTo(tb.getTouchy());
+	}
+
 	@Test
 	void copyPropertiesHonorsGenericTypeMatches() {
 		IntegerListHolder1 integerListHolder1 = new IntegerListHolder1();
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * {@link BeanWrapperImpl} tests with property methods invoked through
+ * method handles, see {@link CachedIntrospectionResults#METHOD_HANDLES_PROPERTY_NAME}.
+ */
+public class BeanWrapperMethodHandleTests extends BeanWrapperTests {
+
+	@Override
+	protected BeanWrapperImpl createAccessor(Object target) {
+		BeanWrapperImpl accessor = new BeanWrapperImpl(target);
+		accessor.setUseMethodHandles(true);
+		return accessor;
+	}
+
+
+	@Test
+	public void setterExceptionWrappedAsWithReflection() {
+		TestBean target = new TestBean();
+		BeanWrapper accessor = createAccessor(target);
+		assertThatExceptionOfType(MethodInvocationException.class).isThrownBy(() ->
+				accessor.setPropertyValue("touchy", "a.b"))
+			.satisfies(ex -> assertThat(ex.getCause()).hasMessage("Can't contain a ."));
+	}
+
+	@Test
+	public void nullValueForPrimitivePropertyRejectedAsWithReflection() {
+		TestBean target = new TestBean();
+		target.setAge(42);
+		BeanWrapper accessor = createAccessor(target);
+		assertThatExceptionOfType(TypeMismatchException.class).isThrownBy(() ->
+				accessor.setPropertyValue("age", null));
+		assertThat(target.getAge()).isEqualTo(42);
+	}
+
+	@Test
+	public void nestedAccessorsUseMethodHandles() {
+		TestBean target = new TestBean();
+		target.setSpouse(new TestBean());
+		BeanWrapperImpl accessor = createAccessor(target);
+		accessor.setPropertyValue("spouse.name", "Kerry");
+		assertThat(target.getSpouse().getName()).isEqualTo("Kerry");
+		BeanWrapperImpl nested = (BeanWrapperImpl) accessor.getPropertyAccessorForPropertyPath("spouse.name");
+		assertThat(nested).extracting("useMethodHandles").isEqualTo(true);
+	}
+
+}
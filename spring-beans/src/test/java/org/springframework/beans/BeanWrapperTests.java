@@ -22,6 +22,7 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.testfixture.beans.IndexedTestBean;
 import org.springframework.beans.testfixture.beans.TestBean;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -209,6 +210,23 @@ public class BeanWrapperTests extends AbstractPropertyAccessorTests {
 			.satisfies(ex -> assertThat(ex.getPossibleMatches()).isNull());
 	}
 
+	@Test
+	public void propertyTokensModifiedBySubclassAreNotReused() {
+		IndexedTestBean target = new IndexedTestBean();
+		BeanWrapperImpl accessor = new BeanWrapperImpl(target) {
+			@Override
+			protected Object getPropertyValue(PropertyTokenHolder tokens) {
+				Object value = super.getPropertyValue(tokens);
+				tokens.canonicalName = "list[1]";
+				tokens.keys[0] = "1";
+				return value;
+			}
+		};
+		assertThat(accessor.getPropertyValue("list[0]")).isSameAs(target.getList().get(0));
+		assertThat(accessor.getPropertyValue("list[0]")).isSameAs(target.getList().get(0));
+		assertThat(createAccessor(target).getPropertyValue("list[0]")).isSameAs(target.getList().get(0));
+	}
+
 
 	private interface BaseProperty {
 
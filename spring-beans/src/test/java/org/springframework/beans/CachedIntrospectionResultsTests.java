@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.CachedIntrospectionResults.PropertyMethodHandle;
 import org.springframework.beans.testfixture.beans.TestBean;
 import org.springframework.core.OverridingClassLoader;
 
@@ -90,4 +91,80 @@ public class CachedIntrospectionResultsTests {
 		assertThat(pd.getWriteMethod()).isEqualTo(C.class.getMethod("setFoo", String.class));
 	}
 
+	@Test
+	public void methodHandlesForPropertyMethods() throws Exception {
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(TestBean.class);
+		PropertyDescriptor pd = results.getPropertyDescriptor("age");
+		PropertyMethodHandle readHandle = results.getMethodHandle(pd.getReadMethod());
+		PropertyMethodHandle writeHandle = results.getMethodHandle(pd.getWriteMethod());
+		assertThat(readHandle).isNotNull();
+		assertThat(writeHandle).isNotNull();
+		assertThat(results.getMethodHandle(pd.getReadMethod())).isSameAs(readHandle);
+
+		TestBean tb = new TestBean();
+		writeHandle.write(tb, 42);
+		assertThat(tb.getAge()).isEqualTo(42);
+		assertThat(readHandle.read(tb)).isEqualTo(42);
+	}
+
+	@Test
+	public void methodHandleForNonVoidWriteMethodInNonPublicClass() throws Exception {
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(FluentBean.class);
+		PropertyDescriptor pd = results.getPropertyDescriptor("name");
+		PropertyMethodHandle writeHandle = results.getMethodHandle(pd.getWriteMethod());
+		assertThat(writeHandle).isNotNull();
+
+		FluentBean bean = new FluentBean();
+		writeHandle.write(bean, "foo");
+		assertThat(bean.getName()).isEqualTo("foo");
+	}
+
+	@Test
+	public void methodHandleForVarargsWriteMethod() throws Exception {
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(FluentBean.class);
+		PropertyDescriptor pd = results.getPropertyDescriptor("tags");
+		PropertyMethodHandle writeHandle = results.getMethodHandle(pd.getWriteMethod());
+		assertThat(writeHandle).isNotNull();
+
+		FluentBean bean = new FluentBean();
+		String[] tags = {"foo", "bar"};
+		writeHandle.write(bean, tags);
+		assertThat(bean.getTags()).isSameAs(tags);
+	}
+
+	@Test
+	public void methodHandleForMethodWithTooManyParameters() throws Exception {
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(FluentBean.class);
+		assertThat(results.getMethodHandle(FluentBean.class.getMethod("setName", String.class, String.class))).isNull();
+	}
+
+
+	static class FluentBean {
+
+		private String name;
+
+		private String[] tags;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public FluentBean setName(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public void setName(String name, String suffix) {
+			this.name = name + suffix;
+		}
+
+		public String[] getTags() {
+			return this.tags;
+		}
+
+		public void setTags(String... tags) {
+			this.tags = tags;
+		}
+	}
+
 }
@@ -37,6 +37,11 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -63,6 +68,7 @@ import org.springframework.beans.factory.config.BeanExpressionContext;
 import org.springframework.beans.factory.config.BeanExpressionResolver;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
 import org.springframework.beans.factory.config.PropertiesFactoryBean;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
@@ -1350,6 +1356,37 @@ class DefaultListableBeanFactoryTests {
 				lbf.autowire(UnsatisfiedConstructorDependency.class, AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR, true));
 	}
 
+	@Test
+	void prototypeWithConstructorDependencyUsesShortcutForSubsequentInstances() {
+		AtomicInteger candidateLookups = new AtomicInteger();
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory() {
+			@Override
+			protected Map<String, Object> findAutowireCandidates(
+					String beanName, Class<?> requiredType, DependencyDescriptor descriptor) {
+				candidateLookups.incrementAndGet();
+				return super.findAutowireCandidates(beanName, requiredType, descriptor);
+			}
+		};
+		RootBeanDefinition spouseBd = new RootBeanDefinition(TestBean.class);
+		spouseBd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		lbf.registerBeanDefinition("spouse", spouseBd);
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorDependency.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("kerry", bd);
+
+		ConstructorDependency kerry1 = (ConstructorDependency) lbf.getBean("kerry");
+		int lookupsForFirstInstance = candidateLookups.get();
+		ConstructorDependency kerry2 = (ConstructorDependency) lbf.getBean("kerry");
+		ConstructorDependency kerry3 = (ConstructorDependency) lbf.getBean("kerry");
+
+		assertThat(candidateLookups.get()).isEqualTo(lookupsForFirstInstance);
+		assertThat(kerry1.spouse).isNotNull();
+		assertThat(kerry2.spouse).isNotNull().isNotSameAs(kerry1.spouse);
+		assertThat(kerry3.spouse).isNotNull().isNotSameAs(kerry2.spouse);
+		assertThat(lbf.getDependentBeans("spouse")).contains("kerry");
+	}
+
 	@Test
 	void autowireConstructor() {
 		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
@@ -1922,6 +1959,35 @@ class DefaultListableBeanFactoryTests {
 		assertThat(beanNames[0]).isEqualTo("&factoryBean");
 	}
 
+	@Test
+	void getBeanNamesForTypeWithFrozenConfiguration() {
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		RootBeanDefinition lazy = new RootBeanDefinition(TestBean.class);
+		lazy.setLazyInit(true);
+		lbf.registerBeanDefinition("lazy", lazy);
+		lbf.registerBeanDefinition("factoryBean", new RootBeanDefinition(DummyFactory.class));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(DerivedTestBean.class));
+		lbf.freezeConfiguration();
+		lbf.preInstantiateSingletons();
+
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("tb1", "lazy", "factoryBean", "tb2");
+		assertThat(lbf.getBeanNamesForType(ResolvableType.forClass(TestBean.class), true, false))
+				.containsExactly("tb1", "lazy", "factoryBean", "tb2");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+		assertThat(lbf.getBeanNamesForType(DummyFactory.class)).containsExactly("&factoryBean");
+		assertThat(lbf.getBeansOfType(DerivedTestBean.class)).containsOnlyKeys("tb2");
+
+		lbf.destroySingleton("tb2");
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).containsExactly("tb2");
+		lbf.registerSingleton("manual", new DerivedTestBean());
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).containsExactly("tb2", "manual");
+		lbf.registerBeanDefinition("tb3", new RootBeanDefinition(DerivedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(DerivedTestBean.class)).containsExactly("tb2", "tb3", "manual");
+		assertThat(lbf.getBean("tb3")).isInstanceOf(DerivedTestBean.class);
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+	}
+
 	/**
 	 * Verifies that a dependency on a {@link FactoryBean} can <strong>not</strong>
 	 * be autowired <em>by name</em>, as &amp; is an illegal character in
@@ -2217,6 +2283,69 @@ class DefaultListableBeanFactoryTests {
 		lbf.preInstantiateSingletons();
 	}
 
+	@Test
+	void preInstantiateSingletonsInParallel() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			ConcurrentlyCreatedBean.instantiated = new CountDownLatch(2);
+			lbf.registerBeanDefinition("bean1", new RootBeanDefinition(ConcurrentlyCreatedBean.class));
+			lbf.registerBeanDefinition("bean2", new RootBeanDefinition(ConcurrentlyCreatedBean.class));
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			ManagedList<RuntimeBeanReference> list = new ManagedList<>();
+			list.add(new RuntimeBeanReference("bean1"));
+			list.add(new RuntimeBeanReference("bean2"));
+			bd.getPropertyValues().add("someList", list);
+			lbf.registerBeanDefinition("dependent", bd);
+			lbf.preInstantiateSingletons();
+
+			ConcurrentlyCreatedBean bean1 = lbf.getBean("bean1", ConcurrentlyCreatedBean.class);
+			ConcurrentlyCreatedBean bean2 = lbf.getBean("bean2", ConcurrentlyCreatedBean.class);
+			assertThat(bean1.thread).isNotSameAs(Thread.currentThread());
+			assertThat(bean2.thread).isNotSameAs(bean1.thread);
+			assertThat(lbf.getBean("dependent", TestBean.class).getSomeList()).isEqualTo(Arrays.asList(bean1, bean2));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void preInstantiateSingletonsInParallelWithCircularReference() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			for (int i = 0; i < 100; i++) {
+				RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+				bd.getPropertyValues().add("spouse", new RuntimeBeanReference("bean" + (i < 99 ? i + 1 : 0)));
+				lbf.registerBeanDefinition("bean" + i, bd);
+			}
+			lbf.preInstantiateSingletons();
+			for (int i = 0; i < 100; i++) {
+				TestBean bean = (TestBean) lbf.getBean("bean" + i);
+				assertThat(bean.getSpouse()).isSameAs(lbf.getBean("bean" + (i < 99 ? i + 1 : 0)));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void preInstantiateSingletonsInParallelWithFailure() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+			lbf.registerBeanDefinition("failing", new RootBeanDefinition(ITestBean.class));
+			assertThatExceptionOfType(BeanCreationException.class).isThrownBy(lbf::preInstantiateSingletons)
+					.satisfies(ex -> assertThat(ex.getBeanName()).isEqualTo("failing"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	void constructorDependencyWithClassResolution() {
 		RootBeanDefinition bd = new RootBeanDefinition(ConstructorDependencyWithClassResolution.class);
@@ -2907,6 +3036,20 @@ class DefaultListableBeanFactoryTests {
 
 	static class A { }
 
+	public static class ConcurrentlyCreatedBean {
+
+		static CountDownLatch instantiated = new CountDownLatch(0);
+
+		final Thread thread = Thread.currentThread();
+
+		public ConcurrentlyCreatedBean() throws InterruptedException {
+			instantiated.countDown();
+			if (!instantiated.await(10, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Not instantiated concurrently");
+			}
+		}
+	}
+
 	static class B { }
 
 
@@ -506,6 +506,108 @@ public class AutowiredAnnotationBeanPostProcessorTests {
 		assertThat(bean.nestedTestBeansField.get(1)).isSameAs(ntb1);
 	}
 
+	@Test
+	public void testOrderedCollectionResourceInjectionWithBeanRegisteredLater() {
+		RootBeanDefinition rbd = new RootBeanDefinition(OptionalCollectionResourceInjectionBean.class);
+		rbd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", rbd);
+		TestBean tb = new TestBean();
+		bf.registerSingleton("testBean", tb);
+		OrderedNestedTestBean ntb1 = new OrderedNestedTestBean();
+		ntb1.setOrder(2);
+		bf.registerSingleton("nestedTestBean1", ntb1);
+		OrderedNestedTestBean ntb2 = new OrderedNestedTestBean();
+		ntb2.setOrder(1);
+		bf.registerSingleton("nestedTestBean2", ntb2);
+
+		// Two calls for caching the candidates, then another one after a registration.
+		bf.getBean("annotatedBean");
+		OptionalCollectionResourceInjectionBean bean = (OptionalCollectionResourceInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean.getNestedTestBeans()).containsExactly(ntb2, ntb1);
+		assertThat(bean.nestedTestBeansSetter).containsExactly(ntb2, ntb1);
+		assertThat(bean.nestedTestBeansField).containsExactly(ntb2, ntb1);
+		OrderedNestedTestBean ntb3 = new OrderedNestedTestBean();
+		ntb3.setOrder(0);
+		bf.registerSingleton("nestedTestBean3", ntb3);
+		bean = (OptionalCollectionResourceInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean.getTestBean4()).isSameAs(tb);
+		assertThat(bean.getNestedTestBeans()).containsExactly(ntb3, ntb2, ntb1);
+		assertThat(bean.nestedTestBeansSetter).containsExactly(ntb3, ntb2, ntb1);
+		assertThat(bean.nestedTestBeansField).containsExactly(ntb3, ntb2, ntb1);
+	}
+
+	@Test
+	public void testCollectionResourceInjectionWithPrototypeCandidates() {
+		RootBeanDefinition rbd = new RootBeanDefinition(OptionalCollectionResourceInjectionBean.class);
+		rbd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", rbd);
+		RootBeanDefinition ntb = new RootBeanDefinition(NestedTestBean.class);
+		ntb.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("nestedTestBean1", ntb);
+		bf.registerBeanDefinition("nestedTestBean2", ntb);
+
+		OptionalCollectionResourceInjectionBean bean1 = (OptionalCollectionResourceInjectionBean) bf.getBean("annotatedBean");
+		OptionalCollectionResourceInjectionBean bean2 = (OptionalCollectionResourceInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean2.nestedTestBeansField).hasSize(2).doesNotContainAnyElementsOf(bean1.nestedTestBeansField);
+		assertThat(bean2.getNestedTestBeans()).hasSize(2).doesNotContainAnyElementsOf(bean1.getNestedTestBeans());
+		assertThat(bean2.nestedTestBeansField).isNotSameAs(bean1.nestedTestBeansField);
+	}
+
+	@Test
+	public void testMapResourceInjectionWithBeanRemovedLater() {
+		RootBeanDefinition bd = new RootBeanDefinition(MapFieldInjectionBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		bf.registerBeanDefinition("testBean1", new RootBeanDefinition(TestBean.class));
+		bf.registerBeanDefinition("testBean2", new RootBeanDefinition(TestBean.class));
+
+		bf.getBean("annotatedBean");
+		MapFieldInjectionBean bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean.getTestBeanMap()).containsOnlyKeys("testBean1", "testBean2");
+		bf.removeBeanDefinition("testBean2");
+		bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean.getTestBeanMap()).containsOnlyKeys("testBean1");
+	}
+
+	@Test
+	public void testMapResourceInjectionWithBeanDefinitionReplacedLater() {
+		RootBeanDefinition bd = new RootBeanDefinition(MapFieldInjectionBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		bf.registerBeanDefinition("testBean1", new RootBeanDefinition(TestBean.class));
+		bf.registerBeanDefinition("testBean2", new RootBeanDefinition(TestBean.class));
+
+		bf.getBean("annotatedBean");
+		MapFieldInjectionBean bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean.getTestBeanMap()).containsOnlyKeys("testBean1", "testBean2");
+		RootBeanDefinition replaced = new RootBeanDefinition(TestBean.class);
+		replaced.setAutowireCandidate(false);
+		bf.registerBeanDefinition("testBean2", replaced);
+		bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean.getTestBeanMap()).containsOnlyKeys("testBean1");
+	}
+
+	@Test
+	public void testResourceInjectionWithBeanDefinitionReplacedLater() {
+		RootBeanDefinition bd = new RootBeanDefinition(ResourceInjectionBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		bf.registerBeanDefinition("testBean1", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition nonCandidate = new RootBeanDefinition(TestBean.class);
+		nonCandidate.setAutowireCandidate(false);
+		bf.registerBeanDefinition("testBean2", nonCandidate);
+
+		bf.getBean("annotatedBean");
+		ResourceInjectionBean bean = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean.getTestBean()).isSameAs(bf.getBean("testBean1"));
+		assertThat(bean.getTestBean2()).isSameAs(bf.getBean("testBean1"));
+		bf.registerBeanDefinition("testBean1", nonCandidate);
+		bf.registerBeanDefinition("testBean2", new RootBeanDefinition(TestBean.class));
+		bean = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean.getTestBean()).isSameAs(bf.getBean("testBean2"));
+		assertThat(bean.getTestBean2()).isSameAs(bf.getBean("testBean2"));
+	}
+
 	@Test
 	public void testConstructorResourceInjection() {
 		RootBeanDefinition bd = new RootBeanDefinition(ConstructorResourceInjectionBean.class);
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.testfixture.beans.FactoryMethods;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshot}.
+ */
+class BeanDefinitionSnapshotTests {
+
+	@Test
+	void restoreBeanDefinitions() throws IOException {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		RootBeanDefinition spouse = new RootBeanDefinition(TestBean.class);
+		spouse.getConstructorArgumentValues().addIndexedArgumentValue(0, "Kerry");
+		spouse.getConstructorArgumentValues().addIndexedArgumentValue(1, new TypedStringValue("34", int.class));
+		spouse.addQualifier(new AutowireCandidateQualifier(Qualifier.class, "wife"));
+		spouse.setAttribute("custom", "value");
+		original.registerBeanDefinition("spouse", spouse);
+		original.registerAlias("spouse", "wife");
+		GenericBeanDefinition template = new GenericBeanDefinition();
+		template.setBeanClass(TestBean.class);
+		template.setAbstract(true);
+		template.getPropertyValues().add("spouse", new RuntimeBeanReference("wife"));
+		original.registerBeanDefinition("template", template);
+		GenericBeanDefinition husband = new GenericBeanDefinition();
+		husband.setParentName("template");
+		husband.setLazyInit(true);
+		ManagedList<Object> friends = new ManagedList<>();
+		friends.add(new BeanDefinitionHolder(new RootBeanDefinition(TestBean.class), "friend"));
+		friends.add(new RuntimeBeanReference("spouse"));
+		husband.getPropertyValues().add("name", "Rod").add("friends", friends);
+		original.registerBeanDefinition("husband", husband);
+		RootBeanDefinition factoryMethod = new RootBeanDefinition(FactoryMethods.class);
+		factoryMethod.setUniqueFactoryMethodName("defaultInstance");
+		original.registerBeanDefinition("factoryMethod", factoryMethod);
+
+		BeanDefinitionSnapshot snapshot = writeAndRead(BeanDefinitionSnapshot.capture(original, "fp"), "fp");
+		assertThat(snapshot).isNotNull();
+		assertThat(snapshot.isComplete()).isTrue();
+		assertThat(snapshot.getBeanDefinitionCount()).isEqualTo(4);
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		snapshot.restore(restored);
+		assertThat(restored.getBeanDefinitionNames()).containsExactly("spouse", "template", "husband", "factoryMethod");
+		assertThat(restored.getAliases("spouse")).containsExactly("wife");
+		for (String beanName : original.getBeanDefinitionNames()) {
+			assertThat(restored.getBeanDefinition(beanName)).isEqualTo(original.getBeanDefinition(beanName));
+		}
+		assertThat(restored.getBeanDefinition("spouse").getAttribute("custom")).isEqualTo("value");
+		assertThat(((RootBeanDefinition) restored.getBeanDefinition("factoryMethod")).isFactoryMethodUnique).isTrue();
+
+		TestBean rod = restored.getBean("husband", TestBean.class);
+		assertThat(rod.getName()).isEqualTo("Rod");
+		assertThat(rod.getSpouse()).isSameAs(restored.getBean("spouse"));
+		assertThat(rod.getSpouse().getAge()).isEqualTo(34);
+		assertThat(rod.getFriends()).hasSize(2).contains(rod.getSpouse());
+		assertThat(restored.getBean("factoryMethod")).isInstanceOf(FactoryMethods.class);
+	}
+
+	@Test
+	void restoreKeepsExistingBeanDefinitions() {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		original.registerBeanDefinition("first", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition second = new RootBeanDefinition(TestBean.class);
+		second.setAttribute("marker", "captured");
+		second.setAttribute("custom", "captured");
+		original.registerBeanDefinition("second", second);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(original, "fp");
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		RootBeanDefinition existing = new RootBeanDefinition(FactoryMethods.class);
+		existing.setAttribute("custom", "existing");
+		restored.registerBeanDefinition("second", existing);
+		snapshot.restore(restored);
+		assertThat(restored.getBeanDefinitionNames()).containsExactly("second", "first");
+		assertThat(restored.getBeanDefinition("second")).isSameAs(existing);
+		assertThat(existing.getAttribute("marker")).isEqualTo("captured");
+		assertThat(existing.getAttribute("custom")).isEqualTo("existing");
+	}
+
+	@Test
+	void readWithDifferentFingerprint() throws IOException {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		original.registerBeanDefinition("bean", new RootBeanDefinition(TestBean.class));
+		assertThat(writeAndRead(BeanDefinitionSnapshot.capture(original, "fp"), "other")).isNull();
+	}
+
+	@Test
+	void beanDefinitionWithInstanceSupplierNeedsToBeRegisteredBeforeRestoring() throws IOException {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		original.registerBeanDefinition("plain", new RootBeanDefinition(TestBean.class));
+		original.registerBeanDefinition("supplied", new RootBeanDefinition(TestBean.class, TestBean::new));
+		BeanDefinitionSnapshot snapshot = writeAndRead(BeanDefinitionSnapshot.capture(original, "fp"), "fp");
+		assertThat(snapshot).isNotNull();
+		assertThat(snapshot.isComplete()).isFalse();
+
+		DefaultListableBeanFactory incomplete = new DefaultListableBeanFactory();
+		assertThatIllegalStateException().isThrownBy(() -> snapshot.restore(incomplete))
+				.withMessageContaining("supplied");
+		assertThat(incomplete.getBeanDefinitionCount()).isEqualTo(0);
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		restored.registerBeanDefinition("supplied", new RootBeanDefinition(TestBean.class, TestBean::new));
+		snapshot.restore(restored);
+		assertThat(restored.getBeanDefinitionNames()).containsExactly("supplied", "plain");
+	}
+
+
+	@Test
+	void restoreAnnotatedBeanDefinition() throws IOException {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		AnnotatedGenericBeanDefinition annotated = new AnnotatedGenericBeanDefinition(TestBean.class);
+		annotated.setPrimary(true);
+		original.registerBeanDefinition("annotated", annotated);
+		BeanDefinitionSnapshot snapshot = writeAndRead(BeanDefinitionSnapshot.capture(original, "fp"), "fp");
+		assertThat(snapshot).isNotNull();
+		assertThat(snapshot.isComplete()).isTrue();
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		snapshot.restore(restored);
+		BeanDefinition bd = restored.getBeanDefinition("annotated");
+		assertThat(bd).isInstanceOf(AnnotatedGenericBeanDefinition.class);
+		assertThat(((AnnotatedBeanDefinition) bd).getMetadata().getClassName()).isEqualTo(TestBean.class.getName());
+		assertThat(bd.getBeanClassName()).isEqualTo(TestBean.class.getName());
+		assertThat(bd.isPrimary()).isTrue();
+		assertThat(restored.getBean("annotated")).isInstanceOf(TestBean.class);
+	}
+
+	@Test
+	void beanDefinitionSubclassIsNotCaptured() throws IOException {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		original.registerBeanDefinition("plain", new RootBeanDefinition(TestBean.class));
+		original.registerBeanDefinition("custom", new RootBeanDefinition(TestBean.class) {});
+		original.registerBeanDefinition("annotated", new AnnotatedGenericBeanDefinition(TestBean.class) {});
+		BeanDefinitionSnapshot snapshot = writeAndRead(BeanDefinitionSnapshot.capture(original, "fp"), "fp");
+		assertThat(snapshot).isNotNull();
+		assertThat(snapshot.isComplete()).isFalse();
+		assertThatIllegalStateException().isThrownBy(() -> snapshot.restore(new DefaultListableBeanFactory()))
+				.withMessageContaining("custom");
+	}
+
+	@Test
+	void readAfterResourceChange(@TempDir Path tempDir) throws IOException {
+		Path file = tempDir.resolve("beans.txt");
+		Files.write(file, "original".getBytes(StandardCharsets.UTF_8));
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setResource(new FileSystemResource(file));
+		original.registerBeanDefinition("bean", bd);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(original, "fp");
+		assertThat(writeAndRead(snapshot, "fp")).isNotNull();
+
+		Files.write(file, "modified content".getBytes(StandardCharsets.UTF_8));
+		assertThat(writeAndRead(snapshot, "fp")).isNull();
+		Files.delete(file);
+		assertThat(writeAndRead(snapshot, "fp")).isNull();
+	}
+
+
+	private static BeanDefinitionSnapshot writeAndRead(BeanDefinitionSnapshot snapshot, String fingerprint)
+			throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.write(out);
+		return BeanDefinitionSnapshot.read(
+				new ByteArrayInputStream(out.toByteArray()), fingerprint, BeanDefinitionSnapshotTests.class.getClassLoader());
+	}
+
+}
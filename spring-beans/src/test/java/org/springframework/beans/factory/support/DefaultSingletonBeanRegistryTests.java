@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,16 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.testfixture.beans.DerivedTestBean;
 import org.springframework.beans.testfixture.beans.TestBean;
 
@@ -101,4 +107,96 @@ public class DefaultSingletonBeanRegistryTests {
 		assertThat(beanRegistry.isDependent("c", "c")).isTrue();
 	}
 
+
+	@Test
+	public void testPerBeanSingletonLocking() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setPerBeanSingletonLocking(true);
+
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		AtomicInteger creationCount = new AtomicInteger();
+		TestBean slow = new TestBean();
+		CompletableFuture<Object> slowFuture = CompletableFuture.supplyAsync(() ->
+				beanRegistry.getSingleton("slow", () -> {
+					beanRegistry.addSingletonFactory("slow", () -> slow);
+					creationCount.incrementAndGet();
+					inCreation.countDown();
+					await(proceed);
+					return slow;
+				}));
+		assertThat(inCreation.await(10, TimeUnit.SECONDS)).isTrue();
+
+		// Unrelated singletons are not blocked by the slow one
+		TestBean fast = new TestBean();
+		assertThat(beanRegistry.getSingleton("fast", () -> fast)).isSameAs(fast);
+		// The early reference is not exposed to other threads
+		assertThat(beanRegistry.getSingleton("slow")).isNull();
+
+		CompletableFuture<Object> waitingFuture = CompletableFuture.supplyAsync(() ->
+				beanRegistry.getSingleton("slow", () -> {
+					creationCount.incrementAndGet();
+					return new TestBean();
+				}));
+		proceed.countDown();
+		assertThat(slowFuture.get(10, TimeUnit.SECONDS)).isSameAs(slow);
+		assertThat(waitingFuture.get(10, TimeUnit.SECONDS)).isSameAs(slow);
+		assertThat(creationCount.get()).isEqualTo(1);
+		assertThat(beanRegistry.getSingleton("slow")).isSameAs(slow);
+	}
+
+	@Test
+	public void testPerBeanSingletonLockingWithCircularReferenceAcrossThreads() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setPerBeanSingletonLocking(true);
+		RootBeanDefinition bd1 = new RootBeanDefinition(CircularBean.class);
+		bd1.getPropertyValues().add("other", new RuntimeBeanReference("bean2"));
+		beanFactory.registerBeanDefinition("bean1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(CircularBean.class);
+		bd2.getPropertyValues().add("other", new RuntimeBeanReference("bean1"));
+		beanFactory.registerBeanDefinition("bean2", bd2);
+
+		// Both threads instantiate their bean before resolving the other one
+		CircularBean.instantiated = new CountDownLatch(2);
+		CompletableFuture<Object> future1 = CompletableFuture.supplyAsync(() -> beanFactory.getBean("bean1"));
+		CompletableFuture<Object> future2 = CompletableFuture.supplyAsync(() -> beanFactory.getBean("bean2"));
+		CircularBean bean1 = (CircularBean) future1.get(10, TimeUnit.SECONDS);
+		CircularBean bean2 = (CircularBean) future2.get(10, TimeUnit.SECONDS);
+
+		assertThat(bean1.getOther()).isSameAs(bean2);
+		assertThat(bean2.getOther()).isSameAs(bean1);
+		assertThat(beanFactory.getBean("bean1")).isSameAs(bean1);
+		assertThat(beanFactory.getBean("bean2")).isSameAs(bean2);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	public static class CircularBean {
+
+		static CountDownLatch instantiated = new CountDownLatch(0);
+
+		private CircularBean other;
+
+		public CircularBean() {
+			instantiated.countDown();
+			await(instantiated);
+		}
+
+		public void setOther(CircularBean other) {
+			this.other = other;
+		}
+
+		public CircularBean getOther() {
+			return this.other;
+		}
+	}
+
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.testfixture.beans.ITestBean;
+import org.springframework.beans.testfixture.beans.NestedTestBean;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SingletonTypeIndex}.
+ */
+class SingletonTypeIndexTests {
+
+	private final SingletonTypeIndex index = new SingletonTypeIndex(Arrays.asList("a", "b", "c"));
+
+
+	@Test
+	void unindexedBeanNamesAreCandidatesForAnyType() {
+		assertThat(this.index.getCandidateBeanNames(ITestBean.class)).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void indexedBeanNamesAreCandidatesForTheirTypeHierarchy() {
+		this.index.index("a", Collections.singletonList(NestedTestBean.class));
+		this.index.index("c", Collections.singletonList(TestBean.class));
+
+		assertThat(this.index.getCandidateBeanNames(ITestBean.class)).containsExactly("b", "c");
+		assertThat(this.index.getCandidateBeanNames(Comparable.class)).containsExactly("b", "c");
+		assertThat(this.index.getCandidateBeanNames(NestedTestBean.class)).containsExactly("a", "b");
+		assertThat(this.index.getCandidateBeanNames(Object.class)).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void reindexAndUnindex() {
+		this.index.index("a", Collections.singletonList(TestBean.class));
+		this.index.index("a", Collections.singletonList(NestedTestBean.class));
+		assertThat(this.index.getCandidateBeanNames(TestBean.class)).containsExactly("b", "c");
+		assertThat(this.index.getCandidateBeanNames(NestedTestBean.class)).containsExactly("a", "b", "c");
+
+		this.index.unindex("a");
+		assertThat(this.index.getCandidateBeanNames(TestBean.class)).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void unknownBeanNamesAreIgnored() {
+		this.index.index("d", Collections.singletonList(TestBean.class));
+		this.index.unindex("e");
+		assertThat(this.index.getCandidateBeanNames(TestBean.class)).containsExactly("a", "b", "c");
+	}
+
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheStatistics;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Cache} implementation which fronts a remote cache with a (typically
+ * bounded and expiring) in-process {@link ConcurrentMapCache}.
+ *
+ * <p>Lookups are served from the local cache if possible, falling back to the
+ * remote cache and keeping the remote value locally for subsequent lookups.
+ * Modifications are applied to the remote cache first and then to the local
+ * cache, and are reported to the {@link NearCacheInvalidationListener}, if any,
+ * for invalidating the local caches of other nodes.
+ *
+ * <p>A value read from the remote cache is only kept locally if no modification
+ * or invalidation of the same key has been applied in the meantime: each remote
+ * read registers a reservation for its key, which any such change drops.
+ *
+ * <p>Note that local entries may be stale with respect to modifications through
+ * other nodes until they expire or get invalidated. The statistics exposed by
+ * this cache are those of the local cache, i.e. reflect the ratio of lookups
+ * that could be served without accessing the remote cache.
+ *
+ * @author Stephane Nicoll
+ * @since 5.3
+ * @see NearCacheManager
+ */
+public class NearCache implements Cache {
+
+	private final Cache remoteCache;
+
+	private final ConcurrentMapCache localCache;
+
+	@Nullable
+	private final NearCacheInvalidationListener invalidationListener;
+
+	/** Reservations of remote reads per key, dropped on local modifications. */
+	private final ConcurrentMap<Object, Object> reservations = new ConcurrentHashMap<>(64);
+
+	/** Lock for clearing the cache, excluding concurrent local modifications. */
+	private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+
+
+	/**
+	 * Create a new {@code NearCache} for the given remote and local caches.
+	 * @param remoteCache the remote cache holding the authoritative entries
+	 * @param localCache the local cache to serve hot entries from
+	 * (expected to allow {@code null} values if the remote cache does)
+	 * @param invalidationListener the listener to notify about modifications,
+	 * or {@code null} for none
+	 */
+	public NearCache(Cache remoteCache, ConcurrentMapCache localCache,
+			@Nullable NearCacheInvalidationListener invalidationListener) {
+
+		Assert.notNull(remoteCache, "Remote Cache must not be null");
+		Assert.notNull(localCache, "Local Cache must not be null");
+		this.remoteCache = remoteCache;
+		this.localCache = localCache;
+		this.invalidationListener = invalidationListener;
+	}
+
+
+	/**
+	 * Return the remote cache that this cache fronts.
+	 */
+	public final Cache getRemoteCache() {
+		return this.remoteCache;
+	}
+
+	/**
+	 * Return the local cache that hot entries are served from.
+	 */
+	public final ConcurrentMapCache getLocalCache() {
+		return this.localCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.remoteCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper valueWrapper = this.localCache.get(key);
+		if (valueWrapper == null) {
+			Object reservation = reserve(key);
+			try {
+				valueWrapper = this.remoteCache.get(key);
+			}
+			catch (RuntimeException | Error ex) {
+				this.reservations.remove(key, reservation);
+				throw ex;
+			}
+			if (valueWrapper != null) {
+				putLocalIfReserved(key, reservation, valueWrapper.get());
+			}
+			else {
+				this.reservations.remove(key, reservation);
+			}
+		}
+		return valueWrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper valueWrapper = get(key);
+		Object value = (valueWrapper != null ? valueWrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper valueWrapper = this.localCache.get(key);
+		if (valueWrapper != null) {
+			return (T) valueWrapper.get();
+		}
+		Object reservation = reserve(key);
+		T value;
+		try {
+			value = this.remoteCache.get(key, valueLoader);
+		}
+		catch (RuntimeException | Error ex) {
+			this.reservations.remove(key, reservation);
+			throw ex;
+		}
+		putLocalIfReserved(key, reservation, value);
+		return value;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> localHits = this.localCache.getAll(keys);
+		if (localHits.size() == keys.size()) {
+			return localHits;
+		}
+		List<Object> missingKeys = new ArrayList<>(keys.size() - localHits.size());
+		for (Object key : keys) {
+			if (!localHits.containsKey(key)) {
+				missingKeys.add(key);
+			}
+		}
+		Map<Object, Object> missingReservations = new LinkedHashMap<>(missingKeys.size());
+		for (Object key : missingKeys) {
+			missingReservations.put(key, reserve(key));
+		}
+		Map<Object, ValueWrapper> remoteHits;
+		try {
+			remoteHits = this.remoteCache.getAll(missingKeys);
+		}
+		catch (RuntimeException | Error ex) {
+			missingReservations.forEach(this.reservations::remove);
+			throw ex;
+		}
+		missingReservations.forEach((key, reservation) -> {
+			ValueWrapper valueWrapper = remoteHits.get(key);
+			if (valueWrapper != null) {
+				putLocalIfReserved(key, reservation, valueWrapper.get());
+			}
+			else {
+				this.reservations.remove(key, reservation);
+			}
+		});
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(localHits.size() + remoteHits.size());
+		for (Object key : keys) {
+			ValueWrapper valueWrapper = localHits.get(key);
+			if (valueWrapper == null) {
+				valueWrapper = remoteHits.get(key);
+				if (valueWrapper == null) {
+					continue;
+				}
+			}
+			result.put(key, valueWrapper);
+		}
+		return result;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.clearLock.readLock().lock();
+		try {
+			this.remoteCache.put(key, value);
+			modifyLocal(key, () -> this.localCache.put(key, value));
+		}
+		finally {
+			this.clearLock.readLock().unlock();
+		}
+		notifyInvalidate(key);
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.clearLock.readLock().lock();
+		try {
+			this.remoteCache.putAll(entries);
+			entries.forEach((key, value) -> modifyLocal(key, () -> this.localCache.put(key, value)));
+		}
+		finally {
+			this.clearLock.readLock().unlock();
+		}
+		entries.keySet().forEach(this::notifyInvalidate);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existingValue;
+		this.clearLock.readLock().lock();
+		try {
+			existingValue = this.remoteCache.putIfAbsent(key, value);
+			Object localValue = (existingValue != null ? existingValue.get() : value);
+			modifyLocal(key, () -> this.localCache.put(key, localValue));
+		}
+		finally {
+			this.clearLock.readLock().unlock();
+		}
+		if (existingValue == null) {
+			notifyInvalidate(key);
+		}
+		return existingValue;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.clearLock.readLock().lock();
+		try {
+			this.remoteCache.evict(key);
+			modifyLocal(key, () -> this.localCache.evict(key));
+		}
+		finally {
+			this.clearLock.readLock().unlock();
+		}
+		notifyInvalidate(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean present;
+		this.clearLock.readLock().lock();
+		try {
+			present = this.remoteCache.evictIfPresent(key);
+			modifyLocal(key, () -> this.localCache.evictIfPresent(key));
+		}
+		finally {
+			this.clearLock.readLock().unlock();
+		}
+		notifyInvalidate(key);
+		return present;
+	}
+
+	@Override
+	public void clear() {
+		this.clearLock.writeLock().lock();
+		try {
+			this.remoteCache.clear();
+			this.reservations.clear();
+			this.localCache.clear();
+		}
+		finally {
+			this.clearLock.writeLock().unlock();
+		}
+		notifyInvalidateAll();
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty;
+		this.clearLock.writeLock().lock();
+		try {
+			notEmpty = this.remoteCache.invalidate();
+			this.reservations.clear();
+			this.localCache.invalidate();
+		}
+		finally {
+			this.clearLock.writeLock().unlock();
+		}
+		notifyInvalidateAll();
+		return notEmpty;
+	}
+
+	@Override
+	@Nullable
+	public CacheStatistics getStatistics() {
+		return this.localCache.getStatistics();
+	}
+
+	/**
+	 * Evict the entry for the given key from the local cache only,
+	 * e.g. in reaction to a modification through another node.
+	 * @param key the key whose local entry is to be removed
+	 */
+	public void evictLocal(Object key) {
+		this.clearLock.readLock().lock();
+		try {
+			modifyLocal(key, () -> this.localCache.evictIfPresent(key));
+		}
+		finally {
+			this.clearLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Clear the local cache only, e.g. in reaction to the remote cache
+	 * having been cleared through another node.
+	 */
+	public void clearLocal() {
+		this.clearLock.writeLock().lock();
+		try {
+			this.reservations.clear();
+			this.localCache.invalidate();
+		}
+		finally {
+			this.clearLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Register a reservation for reading the given key from the remote cache,
+	 * replacing any earlier reservation for the same key.
+	 */
+	private Object reserve(Object key) {
+		Object reservation = new Object();
+		this.reservations.put(key, reservation);
+		return reservation;
+	}
+
+	/**
+	 * Keep the given remote value locally, provided that the given reservation
+	 * has not been dropped by a modification of the same key in the meantime.
+	 */
+	private void putLocalIfReserved(Object key, Object reservation, @Nullable Object value) {
+		this.clearLock.readLock().lock();
+		try {
+			this.reservations.computeIfPresent(key, (k, existing) -> {
+				if (existing != reservation) {
+					return existing;
+				}
+				this.localCache.putIfAbsent(k, value);
+				return null;
+			});
+		}
+		finally {
+			this.clearLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Apply the given modification to the local cache, dropping any reservation
+	 * of a concurrent remote read for the same key.
+	 */
+	private void modifyLocal(Object key, Runnable modification) {
+		this.reservations.compute(key, (k, existing) -> {
+			modification.run();
+			return null;
+		});
+	}
+
+	private void notifyInvalidate(Object key) {
+		if (this.invalidationListener != null) {
+			this.invalidationListener.onInvalidate(getName(), key);
+		}
+	}
+
+	private void notifyInvalidateAll() {
+		if (this.invalidationListener != null) {
+			this.invalidationListener.onInvalidateAll(getName());
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+/**
+ * Callback interface for propagating modifications of a {@link NearCache}
+ * to the local caches of other nodes sharing the same remote cache.
+ *
+ * <p>Invoked after an entry has been put into or evicted from the remote cache
+ * through this node, e.g. to publish a message that the other nodes react to
+ * through {@link NearCacheManager#evictLocal} or {@link NearCacheManager#clearLocal}.
+ *
+ * @author Stephane Nicoll
+ * @since 5.3
+ * @see NearCacheManager#setInvalidationListener
+ */
+public interface NearCacheInvalidationListener {
+
+	/**
+	 * Notification that the entry for the given key has been modified or evicted.
+	 * @param cacheName the name of the affected cache
+	 * @param key the key of the affected entry
+	 */
+	void onInvalidate(String cacheName, Object key);
+
+	/**
+	 * Notification that all entries of the given cache have been evicted.
+	 * @param cacheName the name of the affected cache
+	 */
+	void onInvalidateAll(String cacheName);
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} implementation which fronts each cache of a remote
+ * {@link CacheManager} (e.g. a {@link org.springframework.cache.jcache.JCacheCacheManager}
+ * for a clustered cache) with a bounded in-process cache, exposing a
+ * {@link NearCache} per remote cache.
+ *
+ * <p>The local caches hold up to {@link #setLocalMaximumSize 1000} entries each
+ * and let them {@link #setLocalTimeToLive expire} after one minute by default,
+ * which bounds the staleness of entries modified through other nodes. A
+ * {@link #setInvalidationListener NearCacheInvalidationListener} may be used to
+ * propagate modifications to other nodes, which in turn are expected to call
+ * {@link #evictLocal} or {@link #clearLocal} on their {@code NearCacheManager}.
+ *
+ * <p>If this manager is {@link #setTransactionAware transaction-aware}, put and
+ * evict operations on both levels are deferred to the after-commit phase of a
+ * running transaction. The same applies for each remote cache which is exposed
+ * as a {@link TransactionAwareCacheDecorator} already: the decorator gets
+ * applied to the entire {@link NearCache} instead, so that the local cache never
+ * sees a modification that the remote cache has not seen yet.
+ *
+ * <p>The configuration properties apply to caches created after they have been
+ * set, so are to be specified before {@link #afterPropertiesSet initialization}.
+ *
+ * @author Stephane Nicoll
+ * @since 5.3
+ * @see NearCache
+ */
+public class NearCacheManager extends AbstractTransactionSupportingCacheManager {
+
+	private final CacheManager remoteCacheManager;
+
+	private int localMaximumSize = 1000;
+
+	@Nullable
+	private Duration localTimeToLive = Duration.ofMinutes(1);
+
+	@Nullable
+	private NearCacheInvalidationListener invalidationListener;
+
+	private final Set<String> transactionAwareRemoteCacheNames = ConcurrentHashMap.newKeySet();
+
+
+	/**
+	 * Create a new {@code NearCacheManager} for the given remote cache manager.
+	 * @param remoteCacheManager the cache manager providing the remote caches
+	 */
+	public NearCacheManager(CacheManager remoteCacheManager) {
+		Assert.notNull(remoteCacheManager, "Remote CacheManager must not be null");
+		this.remoteCacheManager = remoteCacheManager;
+	}
+
+
+	/**
+	 * Return the cache manager providing the remote caches.
+	 */
+	public CacheManager getRemoteCacheManager() {
+		return this.remoteCacheManager;
+	}
+
+	/**
+	 * Specify the maximum number of entries in each local cache.
+	 * <p>Default is 1000. Entries which have not been accessed recently
+	 * get evicted from the local cache when exceeding this limit.
+	 * Specify {@code -1} for no limit.
+	 */
+	public void setLocalMaximumSize(int localMaximumSize) {
+		Assert.isTrue(localMaximumSize == -1 || localMaximumSize > 0,
+				"Local maximum size must be -1 (no limit) or positive");
+		this.localMaximumSize = localMaximumSize;
+	}
+
+	/**
+	 * Return the maximum number of entries in each local cache.
+	 */
+	public int getLocalMaximumSize() {
+		return this.localMaximumSize;
+	}
+
+	/**
+	 * Specify the time after which entries expire in each local cache,
+	 * or {@code null} for keeping them until evicted otherwise.
+	 * <p>Default is one minute.
+	 */
+	public void setLocalTimeToLive(@Nullable Duration localTimeToLive) {
+		Assert.isTrue(localTimeToLive == null || !localTimeToLive.isNegative() && !localTimeToLive.isZero(),
+				"Local time-to-live must be positive");
+		this.localTimeToLive = localTimeToLive;
+	}
+
+	/**
+	 * Return the time after which entries expire in each local cache, if any.
+	 */
+	@Nullable
+	public Duration getLocalTimeToLive() {
+		return this.localTimeToLive;
+	}
+
+	/**
+	 * Set a listener to notify about modifications through this node,
+	 * for invalidating the local caches of other nodes.
+	 */
+	public void setInvalidationListener(@Nullable NearCacheInvalidationListener invalidationListener) {
+		this.invalidationListener = invalidationListener;
+	}
+
+	/**
+	 * Return the listener to notify about modifications through this node, if any.
+	 */
+	@Nullable
+	public NearCacheInvalidationListener getInvalidationListener() {
+		return this.invalidationListener;
+	}
+
+
+	@Override
+	protected Collection<Cache> loadCaches() {
+		Collection<Cache> caches = new LinkedHashSet<>();
+		for (String cacheName : this.remoteCacheManager.getCacheNames()) {
+			Cache remoteCache = this.remoteCacheManager.getCache(cacheName);
+			if (remoteCache != null) {
+				caches.add(createNearCache(remoteCache));
+			}
+		}
+		return caches;
+	}
+
+	@Override
+	@Nullable
+	protected Cache getMissingCache(String name) {
+		// Check the remote cache manager (in case the cache is created on demand)
+		Cache remoteCache = this.remoteCacheManager.getCache(name);
+		return (remoteCache != null ? createNearCache(remoteCache) : null);
+	}
+
+	/**
+	 * Create a new {@link NearCache} for the given remote cache,
+	 * unwrapping a {@link TransactionAwareCacheDecorator} if necessary.
+	 * @param remoteCache the remote cache as exposed by the remote cache manager
+	 * @return the {@code NearCache} fronting the given cache
+	 */
+	protected NearCache createNearCache(Cache remoteCache) {
+		if (remoteCache instanceof TransactionAwareCacheDecorator) {
+			remoteCache = ((TransactionAwareCacheDecorator) remoteCache).getTargetCache();
+			this.transactionAwareRemoteCacheNames.add(remoteCache.getName());
+		}
+		ConcurrentMapCache localCache = new ConcurrentMapCache(
+				remoteCache.getName(), this.localMaximumSize, this.localTimeToLive, true);
+		return new NearCache(remoteCache, localCache, this.invalidationListener);
+	}
+
+	@Override
+	protected Cache decorateCache(Cache cache) {
+		if (!isTransactionAware() && this.transactionAwareRemoteCacheNames.contains(cache.getName())) {
+			return new TransactionAwareCacheDecorator(cache);
+		}
+		return super.decorateCache(cache);
+	}
+
+	/**
+	 * Evict the entry for the given key from the local cache of the given name,
+	 * e.g. in reaction to a modification through another node.
+	 * @param cacheName the name of the cache
+	 * @param key the key whose local entry is to be removed
+	 * @see NearCacheInvalidationListener#onInvalidate
+	 */
+	public void evictLocal(String cacheName, Object key) {
+		NearCache nearCache = lookupNearCache(cacheName);
+		if (nearCache != null) {
+			nearCache.evictLocal(key);
+		}
+	}
+
+	/**
+	 * Clear the local cache of the given name,
+	 * e.g. in reaction to a clear operation through another node.
+	 * @param cacheName the name of the cache
+	 * @see NearCacheInvalidationListener#onInvalidateAll
+	 */
+	public void clearLocal(String cacheName) {
+		NearCache nearCache = lookupNearCache(cacheName);
+		if (nearCache != null) {
+			nearCache.clearLocal();
+		}
+	}
+
+	@Nullable
+	private NearCache lookupNearCache(String cacheName) {
+		Cache cache = lookupCache(cacheName);
+		if (cache instanceof TransactionAwareCacheDecorator) {
+			cache = ((TransactionAwareCacheDecorator) cache).getTargetCache();
+		}
+		return (cache instanceof NearCache ? (NearCache) cache : null);
+	}
+
+}
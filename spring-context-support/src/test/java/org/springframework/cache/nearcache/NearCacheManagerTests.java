@@ -0,0 +1,238 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.testfixture.CallCountingTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link NearCacheManager} and {@link NearCache}.
+ */
+public class NearCacheManagerTests {
+
+	private final ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager();
+
+	private final Cache remoteCache = this.remoteCacheManager.getCache("c1");
+
+
+	@Test
+	public void serveFromLocalCache() {
+		NearCacheManager cm = createNearCacheManager();
+		NearCache cache = (NearCache) cm.getCache("c1");
+		assertThat(cache.getRemoteCache()).isSameAs(this.remoteCache);
+		assertThat(cm.getCacheNames()).containsExactly("c1");
+
+		this.remoteCache.put("key", "value1");
+		assertThat(cache.get("key").get()).isEqualTo("value1");
+		this.remoteCache.put("key", "value2");
+		assertThat(cache.get("key", String.class)).isEqualTo("value1");
+		assertThat(cache.getStatistics().getHitCount()).isEqualTo(1);
+		assertThat(cache.getStatistics().getMissCount()).isEqualTo(1);
+
+		cm.evictLocal("c1", "key");
+		assertThat(cache.get("key").get()).isEqualTo("value2");
+		this.remoteCache.clear();
+		assertThat(cache.get("key").get()).isEqualTo("value2");
+		cm.clearLocal("c1");
+		assertThat(cache.get("key")).isNull();
+	}
+
+	@Test
+	public void localCacheIsBounded() {
+		NearCacheManager cm = new NearCacheManager(this.remoteCacheManager);
+		cm.setLocalMaximumSize(1);
+		cm.afterPropertiesSet();
+		NearCache cache = (NearCache) cm.getCache("c2");
+		assertThat(cm.getCacheNames()).containsExactly("c1", "c2");
+		this.remoteCacheManager.getCache("c2").put("key1", "value1");
+		this.remoteCacheManager.getCache("c2").put("key2", "value2");
+
+		assertThat(cache.getAll(Arrays.asList("key1", "key2", "key3"))).containsOnlyKeys("key1", "key2");
+		assertThat(cache.getLocalCache().getNativeCache()).hasSize(1);
+		assertThat(cache.get("key1", () -> "other")).isEqualTo("value1");
+		assertThat(cache.get("key3", () -> "value3")).isEqualTo("value3");
+		assertThat(this.remoteCacheManager.getCache("c2").get("key3").get()).isEqualTo("value3");
+	}
+
+	@Test
+	public void localCacheSettingsValidatedLikeConcurrentMapCache() {
+		NearCacheManager cm = new NearCacheManager(this.remoteCacheManager);
+		cm.setLocalMaximumSize(-1);
+		cm.setLocalTimeToLive(null);
+		cm.afterPropertiesSet();
+		assertThat(cm.getCache("c1")).isNotNull();
+
+		assertThatIllegalArgumentException().isThrownBy(() -> cm.setLocalMaximumSize(0));
+		assertThatIllegalArgumentException().isThrownBy(() -> cm.setLocalMaximumSize(-2));
+		assertThatIllegalArgumentException().isThrownBy(() -> cm.setLocalTimeToLive(Duration.ZERO));
+		assertThatIllegalArgumentException().isThrownBy(() -> cm.setLocalTimeToLive(Duration.ofSeconds(-1)));
+	}
+
+	@Test
+	public void modificationsApplyToBothLevels() {
+		List<String> invalidations = new ArrayList<>();
+		NearCacheManager cm = new NearCacheManager(this.remoteCacheManager);
+		cm.setInvalidationListener(new NearCacheInvalidationListener() {
+			@Override
+			public void onInvalidate(String cacheName, Object key) {
+				invalidations.add(cacheName + ":" + key);
+			}
+			@Override
+			public void onInvalidateAll(String cacheName) {
+				invalidations.add(cacheName);
+			}
+		});
+		cm.afterPropertiesSet();
+		NearCache cache = (NearCache) cm.getCache("c1");
+
+		cache.put("key", "value");
+		assertThat(this.remoteCache.get("key").get()).isEqualTo("value");
+		assertThat(cache.getLocalCache().get("key").get()).isEqualTo("value");
+		assertThat(cache.putIfAbsent("key", "other").get()).isEqualTo("value");
+		cache.evict("key");
+		assertThat(this.remoteCache.get("key")).isNull();
+		assertThat(cache.getLocalCache().get("key")).isNull();
+		cache.put("key", null);
+		assertThat(cache.get("key").get()).isNull();
+		cache.clear();
+		assertThat(cache.getLocalCache().getNativeCache()).isEmpty();
+		assertThat(invalidations).containsExactly("c1:key", "c1:key", "c1:key", "c1");
+	}
+
+	@Test
+	public void transactionAwareRemoteCache() {
+		TransactionAwareCacheManagerProxy remoteProxy = new TransactionAwareCacheManagerProxy(this.remoteCacheManager);
+		NearCacheManager cm = new NearCacheManager(remoteProxy);
+		cm.afterPropertiesSet();
+		Cache cache = cm.getCache("c1");
+		assertThat(cache).isInstanceOf(TransactionAwareCacheDecorator.class);
+		NearCache nearCache = (NearCache) ((TransactionAwareCacheDecorator) cache).getTargetCache();
+		assertThat(nearCache.getRemoteCache()).isSameAs(this.remoteCache);
+
+		TransactionTemplate txTemplate = new TransactionTemplate(new CallCountingTransactionManager());
+		txTemplate.executeWithoutResult(status -> {
+			cache.put("key", "value");
+			assertThat(this.remoteCache.get("key")).isNull();
+			assertThat(nearCache.getLocalCache().get("key")).isNull();
+		});
+		assertThat(this.remoteCache.get("key").get()).isEqualTo("value");
+		assertThat(nearCache.getLocalCache().get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void remoteReadDoesNotOverrideConcurrentModification() throws Exception {
+		BlockingRemoteCache remoteCache = new BlockingRemoteCache();
+		NearCache cache = new NearCache(remoteCache, new ConcurrentMapCache("local"), null);
+		remoteCache.put("key1", "stale");
+		remoteCache.put("key2", "stale");
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<ValueWrapper> read = executor.submit(() -> cache.get("key1"));
+			assertThat(remoteCache.read.await(10, TimeUnit.SECONDS)).isTrue();
+			cache.put("key1", "current");
+			remoteCache.release.countDown();
+			assertThat(read.get(10, TimeUnit.SECONDS).get()).isEqualTo("stale");
+			assertThat(cache.getLocalCache().get("key1").get()).isEqualTo("current");
+
+			remoteCache.reset();
+			read = executor.submit(() -> cache.get("key2"));
+			assertThat(remoteCache.read.await(10, TimeUnit.SECONDS)).isTrue();
+			cache.evictLocal("key2");
+			remoteCache.release.countDown();
+			assertThat(read.get(10, TimeUnit.SECONDS).get()).isEqualTo("stale");
+			assertThat(cache.getLocalCache().get("key2")).isNull();
+
+			remoteCache.reset();
+			read = executor.submit(() -> cache.get("key2"));
+			assertThat(remoteCache.read.await(10, TimeUnit.SECONDS)).isTrue();
+			cache.clearLocal();
+			remoteCache.release.countDown();
+			assertThat(read.get(10, TimeUnit.SECONDS).get()).isEqualTo("stale");
+			assertThat(cache.getLocalCache().get("key2")).isNull();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		remoteCache.release.countDown();
+		assertThat(cache.get("key2").get()).isEqualTo("stale");
+		assertThat(cache.getLocalCache().get("key2").get()).isEqualTo("stale");
+	}
+
+
+	private NearCacheManager createNearCacheManager() {
+		NearCacheManager cm = new NearCacheManager(this.remoteCacheManager);
+		cm.afterPropertiesSet();
+		return cm;
+	}
+
+
+	/**
+	 * Remote cache which blocks after looking up a value, until released.
+	 */
+	private static class BlockingRemoteCache extends ConcurrentMapCache {
+
+		volatile CountDownLatch read = new CountDownLatch(1);
+
+		volatile CountDownLatch release = new CountDownLatch(1);
+
+		BlockingRemoteCache() {
+			super("remote");
+		}
+
+		void reset() {
+			this.read = new CountDownLatch(1);
+			this.release = new CountDownLatch(1);
+		}
+
+		@Override
+		protected Object lookup(Object key) {
+			Object value = super.lookup(key);
+			this.read.countDown();
+			try {
+				this.release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return value;
+		}
+	}
+
+}
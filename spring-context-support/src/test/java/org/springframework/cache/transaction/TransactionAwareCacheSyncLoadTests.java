@@ -0,0 +1,188 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.transaction;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Cacheable#sync() synchronized} operations on caches exposed
+ * through a {@link TransactionAwareCacheManagerProxy}, which decorates the
+ * target cache on every resolution.
+ */
+public class TransactionAwareCacheSyncLoadTests {
+
+	private ConfigurableApplicationContext context;
+
+	private SyncService service;
+
+
+	@BeforeEach
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(SyncService.class);
+	}
+
+	@AfterEach
+	public void closeContext() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void concurrentCallersShareSingleInvocation() throws Exception {
+		CacheManager cacheManager = this.context.getBean(CacheManager.class);
+		assertThat(cacheManager.getCache("testCache")).isNotSameAs(cacheManager.getCache("testCache"));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				results.add(executor.submit(() -> this.service.slowLoad("key")));
+			}
+			assertThat(this.service.getStarted().await(10, TimeUnit.SECONDS)).isTrue();
+			Thread.sleep(100);
+			this.service.getRelease().countDown();
+			for (Future<String> result : results) {
+				assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("value1");
+			}
+			assertThat(this.service.getInvocationCount()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void refreshAhead() throws InterruptedException {
+		CacheInterceptor interceptor = this.context.getBean(CacheInterceptor.class);
+		interceptor.setRefreshAfter(Duration.ofMillis(1));
+		interceptor.setRefreshExecutor(Runnable::run);
+
+		this.service.getRelease().countDown();
+		assertThat(this.service.slowLoad("key")).isEqualTo("value1");
+		Thread.sleep(5);
+		assertThat(this.service.slowLoad("key")).isEqualTo("value1");
+		assertThat(this.service.getInvocationCount()).isEqualTo(2);
+		Thread.sleep(5);
+		assertThat(this.service.slowLoad("key")).isEqualTo("value2");
+		assertThat(this.service.getInvocationCount()).isEqualTo(3);
+	}
+
+
+	static class SyncService {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		private final CountDownLatch started = new CountDownLatch(1);
+
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		public int getInvocationCount() {
+			return this.counter.get();
+		}
+
+		public CountDownLatch getStarted() {
+			return this.started;
+		}
+
+		public CountDownLatch getRelease() {
+			return this.release;
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public String slowLoad(String key) throws InterruptedException {
+			this.started.countDown();
+			this.release.await(10, TimeUnit.SECONDS);
+			return "value" + this.counter.incrementAndGet();
+		}
+	}
+
+
+	/**
+	 * Cache without any synchronization of its own in {@link #get(Object, Callable)}.
+	 */
+	static class UnsynchronizedCache extends ConcurrentMapCache {
+
+		UnsynchronizedCache(String name) {
+			super(name);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T get(Object key, Callable<T> valueLoader) {
+			ValueWrapper valueWrapper = get(key);
+			if (valueWrapper != null) {
+				return (T) valueWrapper.get();
+			}
+			try {
+				T value = valueLoader.call();
+				put(key, value);
+				return value;
+			}
+			catch (Exception ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			SimpleCacheManager cacheManager = new SimpleCacheManager();
+			cacheManager.setCaches(Collections.singletonList(new UnsynchronizedCache("testCache")));
+			cacheManager.afterPropertiesSet();
+			return new TransactionAwareCacheManagerProxy(cacheManager);
+		}
+
+		@Bean
+		public SyncService syncService() {
+			return new SyncService();
+		}
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Benchmarks for cache hits through the {@link CacheInterceptor}, with keys
+ * from the default {@link KeyGenerator} and from SpEL expressions, as well as
+ * through a composite {@link CacheOperationSource}.
+ *
+ * <p>The {@code compilerMode} parameter switches the
+ * {@code spring.expression.compiler.mode} property,
+ * which is applied in a separate JVM per parameter value.
+ *
+ * @author Stephane Nicoll
+ */
+@BenchmarkMode(Mode.Throughput)
+public class CacheInterceptorBenchmark {
+
+	@Benchmark
+	public void cachedHitWithSingleArgument(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.service.findById(state.id));
+	}
+
+	@Benchmark
+	public void cachedHitWithMultipleArguments(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.service.findByIdAndType(state.id, state.type));
+	}
+
+	@Benchmark
+	public void cachedHitWithKeyExpression(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.service.findByKeyExpression(state.id, state.type));
+	}
+
+	@Benchmark
+	public void cachedHitWithKeyAndConditionExpressions(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.service.findByKeyAndConditionExpressions(state.id, state.type));
+	}
+
+	@Benchmark
+	public void cachedHitWithCompositeSource(CompositeSourceState state, Blackhole bh) {
+		bh.consume(state.service.findById(state.id));
+	}
+
+	@Benchmark
+	public void baseline(BenchmarkState state, Blackhole bh) {
+		bh.consume(state.cacheManager.getCache("test").get(state.id));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"off", "mixed"})
+		public String compilerMode;
+
+		AnnotationConfigApplicationContext context;
+
+		CacheManager cacheManager;
+
+		CachedService service;
+
+		Long id = 42L;
+
+		String type = "sample";
+
+		@Setup(Level.Trial)
+		public void setup() {
+			System.setProperty("spring.expression.compiler.mode", this.compilerMode);
+			this.context = new AnnotationConfigApplicationContext(CacheConfig.class);
+			this.cacheManager = this.context.getBean(CacheManager.class);
+			this.service = this.context.getBean(CachedService.class);
+			this.cacheManager.getCache("test").put(this.id, "value");
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			this.context.close();
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class CompositeSourceState {
+
+		CachedService service;
+
+		Long id = 42L;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+			CacheInterceptor interceptor = new CacheInterceptor();
+			interceptor.setCacheOperationSources(
+					new AnnotationCacheOperationSource(), new NameMatchCacheOperationSource());
+			interceptor.setCacheManager(cacheManager);
+			interceptor.afterSingletonsInstantiated();
+			ProxyFactory proxyFactory = new ProxyFactory(new CachedService());
+			proxyFactory.setProxyTargetClass(true);
+			proxyFactory.addAdvice(interceptor);
+			this.service = (CachedService) proxyFactory.getProxy();
+			cacheManager.getCache("test").put(this.id, "value");
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	public static class CacheConfig {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		public CachedService cachedService() {
+			return new CachedService();
+		}
+	}
+
+
+	public static class CachedService {
+
+		@Cacheable("test")
+		public String findById(Long id) {
+			return "value" + id;
+		}
+
+		@Cacheable("test")
+		public String findByIdAndType(Long id, String type) {
+			return "value" + id + type;
+		}
+
+		@Cacheable(cacheNames = "test", key = "#id")
+		public String findByKeyExpression(Long id, String type) {
+			return "value" + id + type;
+		}
+
+		@Cacheable(cacheNames = "test", key = "#type.concat(#id.toString())", condition = "#id > 0L")
+		public String findByKeyAndConditionExpressions(Long id, String type) {
+			return "value" + id + type;
+		}
+	}
+
+}
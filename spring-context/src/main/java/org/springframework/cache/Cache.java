@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.lang.Nullable;
@@ -100,6 +103,30 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>The returned map only contains the keys for which this cache has a
+	 * mapping, each with a {@link ValueWrapper} as returned by {@link #get(Object)}.
+	 * <p>The default implementation delegates to {@link #get(Object)} for each
+	 * key. Cache providers with a native bulk lookup, e.g. a single round trip
+	 * to a remote store, are encouraged to override this method accordingly.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return the mappings found in this cache for the given keys, in the
+	 * order of the given keys (never {@code null})
+	 * @since 5.3
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper valueWrapper = get(key);
+			if (valueWrapper != null) {
+				result.put(key, valueWrapper);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -114,6 +141,21 @@ public interface Cache {
 	 */
 	void put(Object key, @Nullable Object value);
 
+	/**
+	 * Associate the specified values with their keys in this cache.
+	 * <p>The same deferral semantics as for {@link #put(Object, Object)} apply.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)}
+	 * for each entry. Cache providers with a native bulk registration are
+	 * encouraged to override this method accordingly.
+	 * @param entries the keys and values to associate (values may be
+	 * {@code null} if this cache allows for {@code null} values)
+	 * @since 5.3
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Atomically associate the specified value with the specified key in this cache
 	 * if it is not set already.
@@ -206,6 +248,19 @@ public interface Cache {
 		return false;
 	}
 
+	/**
+	 * Return the current statistics of this cache, if recorded.
+	 * <p>The default implementation returns {@code null}. Cache providers
+	 * which keep track of hits, misses and evictions are encouraged to
+	 * expose them here, as should cache decorators for their target cache.
+	 * @return a snapshot of the statistics, or {@code null} if not available
+	 * @since 5.3
+	 */
+	@Nullable
+	default CacheStatistics getStatistics() {
+		return null;
+	}
+
 
 	/**
 	 * A (wrapper) object representing a cache value.
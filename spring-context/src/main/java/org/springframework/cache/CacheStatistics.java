@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache;
+
+/**
+ * Immutable snapshot of the statistics of a {@link Cache}.
+ *
+ * @author Stephane Nicoll
+ * @since 5.3
+ * @see Cache#getStatistics()
+ */
+public final class CacheStatistics {
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long evictionCount;
+
+
+	/**
+	 * Create a new statistics snapshot.
+	 * @param hitCount the number of lookups that returned a cached value
+	 * @param missCount the number of lookups that did not find a cached value
+	 * @param evictionCount the number of entries that have been removed by the
+	 * cache itself, e.g. due to a size limit or expiration
+	 */
+	public CacheStatistics(long hitCount, long missCount, long evictionCount) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+	}
+
+
+	/**
+	 * Return the number of lookups that returned a cached value.
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Return the number of lookups that did not find a cached value.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Return the number of lookups, i.e. the sum of hits and misses.
+	 */
+	public long getRequestCount() {
+		return this.hitCount + this.missCount;
+	}
+
+	/**
+	 * Return the ratio of lookups that returned a cached value,
+	 * or {@code 1.0} if there have not been any lookups yet.
+	 */
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		return (requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount);
+	}
+
+	/**
+	 * Return the number of entries that have been removed by the cache itself,
+	 * e.g. due to a size limit or expiration (not counting explicit evictions).
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount;
+	}
+
+
+	@Override
+	public String toString() {
+		return "CacheStatistics [hits=" + this.hitCount + ", misses=" + this.missCount +
+				", evictions=" + this.evictionCount + "]";
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -171,12 +171,50 @@ public @interface Cacheable {
 	 * <li>Only one cache may be specified</li>
 	 * <li>No other cache-related operation can be combined</li>
 	 * </ol>
-	 * This is effectively a hint and the actual cache provider that you are
-	 * using may not support it in a synchronized fashion. Check your provider
-	 * documentation for more details on the actual semantics.
+	 * Within a single application, concurrent invocations for the same key are
+	 * synchronized by the caching infrastructure itself, letting all callers wait
+	 * for the result of a single invocation. Beyond that, this is effectively a hint
+	 * and the actual cache provider that you are using may not support it in a
+	 * synchronized fashion across applications. Check your provider documentation
+	 * for more details on the actual semantics.
+	 * <p>Cached values of synchronized operations may also be refreshed in the
+	 * background before they expire, if configured on the cache interceptor.
 	 * @since 4.3
+	 * @see org.springframework.cache.interceptor.CacheAspectSupport#setRefreshAfter
 	 * @see org.springframework.cache.Cache#get(Object, Callable)
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the entries of the returned {@link java.util.Map} individually,
+	 * keyed by the elements of the collection argument of the method, e.g. for
+	 * {@code Map<Long, User> findUsers(Collection<Long> ids)}.
+	 * <p>On invocation, the cache is queried for all elements at once through
+	 * {@link org.springframework.cache.Cache#getAll}, the underlying method is
+	 * only invoked with the elements that were not found (if any), and the
+	 * entries it returns are registered through
+	 * {@link org.springframework.cache.Cache#putAll}. The returned map combines
+	 * cached and freshly loaded entries, in the order of the given elements.
+	 * <p>The key for each element is computed by the configured
+	 * {@link #keyGenerator} as if the element was the sole method argument,
+	 * which is the element itself by default. This leads to a couple of
+	 * limitations:
+	 * <ol>
+	 * <li>The method must declare a single parameter of a {@link java.util.Collection}
+	 * type and a {@link java.util.Map} return type</li>
+	 * <li>{@link #key()} and {@link #sync()} are not supported</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * </ol>
+	 * {@link #condition()} is evaluated once for the entire invocation while
+	 * {@link #unless()} is evaluated for each returned entry, with {@code #result}
+	 * referring to the value of that entry.
+	 * <p>The method is expected to be invoked through a proxy which honors
+	 * changed arguments, as is the case for Spring AOP. Otherwise it is invoked
+	 * with all elements and only the entries that were missing get cached.
+	 * @since 5.3
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean bulk() default false;
+
 }
@@ -16,14 +16,21 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.springframework.cache.CacheStatistics;
 import org.springframework.cache.support.AbstractValueAdaptingCache;
 import org.springframework.core.serializer.support.SerializationDelegate;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Simple {@link org.springframework.cache.Cache} implementation based on the
@@ -38,6 +45,16 @@ import org.springframework.util.Assert;
  * them with a predefined internal object. This behavior can be changed through the
  * {@link #ConcurrentMapCache(String, ConcurrentMap, boolean)} constructor.
  *
+ * <p>As of 5.3, a cache may be bounded to a maximum number of entries and/or
+ * let its entries expire after a time-to-live, see
+ * {@link #ConcurrentMapCache(String, int, Duration, boolean)}. Entries beyond
+ * the maximum size get evicted through the approximation of a least-recently-used
+ * policy in {@link ConcurrentLruCache}: recently accessed entries get a second
+ * chance, and the first entry that has not been accessed since the previous
+ * round gets evicted. Expired entries are removed when accessed and, in small
+ * increments, on every write. Such a cache records {@link #getStatistics()
+ * statistics} for hits, misses and evictions.
+ *
  * @author Costin Leau
  * @author Juergen Hoeller
  * @author Stephane Nicoll
@@ -46,6 +63,9 @@ import org.springframework.util.Assert;
  */
 public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 
+	private static final int EXPIRATION_SWEEP_STEPS = 2;
+
+
 	private final String name;
 
 	private final ConcurrentMap<Object, Object> store;
@@ -53,6 +73,20 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 	@Nullable
 	private final SerializationDelegate serialization;
 
+	private final long timeToLiveMillis;
+
+	/** Metadata per key, if bounded or expiring. */
+	@Nullable
+	private final ConcurrentLruCache<Object, EntryMetadata> metadata;
+
+	/** Entries evicted from the metadata, to be removed from the store. */
+	private final Queue<EntryMetadata> evictedEntries = new ConcurrentLinkedQueue<>();
+
+	@Nullable
+	private final Statistics statistics;
+
+	private Clock clock = Clock.systemUTC();
+
 
 	/**
 	 * Create a new ConcurrentMapCache with the specified name.
@@ -84,6 +118,21 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		this(name, store, allowNullValues, null);
 	}
 
+	/**
+	 * Create a new bounded and/or expiring ConcurrentMapCache with the specified
+	 * name, recording statistics.
+	 * @param name the name of the cache
+	 * @param maximumSize the maximum number of entries (or {@code -1} for no limit)
+	 * @param timeToLive the time after which an entry expires once written
+	 * (or {@code null} for no expiration)
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 * @since 5.3
+	 */
+	public ConcurrentMapCache(String name, int maximumSize, @Nullable Duration timeToLive, boolean allowNullValues) {
+		this(name, new ConcurrentHashMap<>(256), allowNullValues, null, maximumSize, timeToLive, true);
+	}
+
 	/**
 	 * Create a new ConcurrentMapCache with the specified name and the
 	 * given internal {@link ConcurrentMap} to use. If the
@@ -100,15 +149,56 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 	protected ConcurrentMapCache(String name, ConcurrentMap<Object, Object> store,
 			boolean allowNullValues, @Nullable SerializationDelegate serialization) {
 
+		this(name, store, allowNullValues, serialization, -1, null, false);
+	}
+
+	/**
+	 * Create a new ConcurrentMapCache with the specified name and the
+	 * given internal {@link ConcurrentMap} to use, with an optional
+	 * maximum size and time-to-live for its entries.
+	 * @param name the name of the cache
+	 * @param store the ConcurrentMap to use as an internal store
+	 * @param allowNullValues whether to allow {@code null} values
+	 * (adapting them to an internal null holder value)
+	 * @param serialization the {@link SerializationDelegate} to use
+	 * to serialize cache entry or {@code null} to store the reference
+	 * @param maximumSize the maximum number of entries (or {@code -1} for no limit)
+	 * @param timeToLive the time after which an entry expires once written
+	 * (or {@code null} for no expiration)
+	 * @param recordStatistics whether to record hits, misses and evictions
+	 * @since 5.3
+	 */
+	protected ConcurrentMapCache(String name, ConcurrentMap<Object, Object> store,
+			boolean allowNullValues, @Nullable SerializationDelegate serialization,
+			int maximumSize, @Nullable Duration timeToLive, boolean recordStatistics) {
+
 		super(allowNullValues);
 		Assert.notNull(name, "Name must not be null");
 		Assert.notNull(store, "Store must not be null");
+		Assert.isTrue(maximumSize == -1 || maximumSize > 0, "Maximum size must be -1 (no limit) or positive");
+		Assert.isTrue(timeToLive == null || !timeToLive.isNegative() && !timeToLive.isZero(),
+				"Time-to-live must be positive");
 		this.name = name;
 		this.store = store;
 		this.serialization = serialization;
+		this.timeToLiveMillis = (timeToLive != null ? Math.max(timeToLive.toMillis(), 1) : 0);
+		this.metadata = (maximumSize != -1 || timeToLive != null ?
+				new EntryMetadataCache(maximumSize != -1 ? maximumSize : Integer.MAX_VALUE) : null);
+		this.statistics = (recordStatistics ? new Statistics() : null);
 	}
 
 
+	/**
+	 * Set the clock to determine the expiration of entries against.
+	 * <p>Default is the system clock, with expiration in millisecond precision.
+	 * @since 5.3
+	 * @see #ConcurrentMapCache(String, int, Duration, boolean)
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock must not be null");
+		this.clock = clock;
+	}
+
 	/**
 	 * Return whether this cache stores a copy of each entry ({@code true}) or
 	 * a reference ({@code false}, default). If store by value is enabled, each
@@ -129,60 +219,217 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		return this.store;
 	}
 
+	@Override
+	@Nullable
+	public CacheStatistics getStatistics() {
+		return (this.statistics != null ? this.statistics.snapshot() : null);
+	}
+
 	@Override
 	@Nullable
 	protected Object lookup(Object key) {
-		return this.store.get(key);
+		Object value = this.store.get(key);
+		if (value != null && this.metadata != null) {
+			EntryMetadata entryMetadata = this.metadata.getIfPresent(key);
+			if (entryMetadata != null && entryMetadata.value == value &&
+					entryMetadata.isExpired(this.clock.millis())) {
+				if (removeEntry(key, entryMetadata)) {
+					recordEviction();
+				}
+				value = null;
+			}
+		}
+		if (this.statistics != null) {
+			this.statistics.recordLookup(value != null);
+		}
+		return value;
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	@Nullable
 	public <T> T get(Object key, Callable<T> valueLoader) {
-		return (T) fromStoreValue(this.store.computeIfAbsent(key, k -> {
-			try {
-				return toStoreValue(valueLoader.call());
-			}
-			catch (Throwable ex) {
-				throw new ValueRetrievalException(key, valueLoader, ex);
-			}
-		}));
+		if (this.metadata == null && this.statistics == null) {
+			return (T) fromStoreValue(this.store.computeIfAbsent(key, k -> loadValue(k, valueLoader)));
+		}
+		Object value = lookup(key);
+		if (value != null) {
+			return (T) fromStoreValue(value);
+		}
+		if (this.metadata == null) {
+			return (T) fromStoreValue(this.store.computeIfAbsent(key, k -> loadValue(k, valueLoader)));
+		}
+		value = this.store.compute(key, (k, existing) -> (existing != null && !isExpired(k, existing) ?
+				existing : registerEntry(k, loadValue(k, valueLoader), existing)));
+		afterWrite();
+		return (T) fromStoreValue(value);
+	}
+
+	private Object loadValue(Object key, Callable<?> valueLoader) {
+		try {
+			return toStoreValue(valueLoader.call());
+		}
+		catch (Throwable ex) {
+			throw new ValueRetrievalException(key, valueLoader, ex);
+		}
 	}
 
 	@Override
 	public void put(Object key, @Nullable Object value) {
-		this.store.put(key, toStoreValue(value));
+		Object storeValue = toStoreValue(value);
+		if (this.metadata != null) {
+			this.store.compute(key, (k, existing) -> registerEntry(k, storeValue));
+			afterWrite();
+		}
+		else {
+			this.store.put(key, storeValue);
+		}
 	}
 
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
-		Object existing = this.store.putIfAbsent(key, toStoreValue(value));
+		Object storeValue = toStoreValue(value);
+		if (this.metadata != null) {
+			Object[] existingValue = new Object[1];
+			this.store.compute(key, (k, existing) -> {
+				if (existing != null && !isExpired(k, existing)) {
+					existingValue[0] = existing;
+					return existing;
+				}
+				return registerEntry(k, storeValue, existing);
+			});
+			if (existingValue[0] == null) {
+				afterWrite();
+			}
+			return toValueWrapper(existingValue[0]);
+		}
+		Object existing = this.store.putIfAbsent(key, storeValue);
 		return toValueWrapper(existing);
 	}
 
 	@Override
 	public void evict(Object key) {
-		this.store.remove(key);
+		if (this.metadata != null) {
+			removeEntry(key, null);
+		}
+		else {
+			this.store.remove(key);
+		}
 	}
 
 	@Override
 	public boolean evictIfPresent(Object key) {
+		if (this.metadata != null) {
+			return removeEntry(key, null);
+		}
 		return (this.store.remove(key) != null);
 	}
 
 	@Override
 	public void clear() {
-		this.store.clear();
+		if (this.metadata != null) {
+			// Remove entry by entry, along with the metadata of the removed entry
+			for (Object key : this.store.keySet()) {
+				removeEntry(key, null);
+			}
+		}
+		else {
+			this.store.clear();
+		}
 	}
 
 	@Override
 	public boolean invalidate() {
 		boolean notEmpty = !this.store.isEmpty();
-		this.store.clear();
+		clear();
 		return notEmpty;
 	}
 
+	/**
+	 * Register the metadata for a new entry: to be called while computing its
+	 * store value, keeping the metadata in sync with the store per key.
+	 */
+	private Object registerEntry(Object key, Object storeValue) {
+		Assert.state(this.metadata != null, "No entry metadata");
+		long expirationTime = (this.timeToLiveMillis > 0 ? this.clock.millis() + this.timeToLiveMillis : 0);
+		this.metadata.put(key, new EntryMetadata(key, storeValue, expirationTime));
+		return storeValue;
+	}
+
+	/**
+	 * Register the metadata for an entry that takes the place of the given
+	 * expired store value, if any, counting the latter as an eviction.
+	 */
+	private Object registerEntry(Object key, Object storeValue, @Nullable Object expiredValue) {
+		if (expiredValue != null) {
+			recordEviction();
+		}
+		return registerEntry(key, storeValue);
+	}
+
+	private boolean isExpired(Object key, Object storeValue) {
+		Assert.state(this.metadata != null, "No entry metadata");
+		EntryMetadata entryMetadata = this.metadata.getIfPresent(key);
+		return (entryMetadata != null && entryMetadata.value == storeValue &&
+				entryMetadata.isExpired(this.clock.millis()));
+	}
+
+	/**
+	 * Remove the entry for the given key along with its metadata.
+	 * @param key the key of the entry
+	 * @param expected the expected metadata of the entry, or {@code null}
+	 * to remove the entry in any case
+	 * @return {@code true} if an entry has been removed
+	 */
+	private boolean removeEntry(Object key, @Nullable EntryMetadata expected) {
+		Assert.state(this.metadata != null, "No entry metadata");
+		boolean[] removed = new boolean[1];
+		this.store.computeIfPresent(key, (k, existing) -> {
+			if (expected != null && (this.metadata.getIfPresent(k) != expected || expected.value != existing)) {
+				return existing;
+			}
+			this.metadata.remove(k);
+			removed[0] = true;
+			return null;
+		});
+		return removed[0];
+	}
+
+	/**
+	 * Remove the entries evicted from the metadata beyond the maximum size
+	 * from the store, and expire a few entries in case of a time-to-live.
+	 */
+	private void afterWrite() {
+		Assert.state(this.metadata != null, "No entry metadata");
+		if (this.timeToLiveMillis > 0) {
+			long now = this.clock.millis();
+			this.metadata.sweep(EXPIRATION_SWEEP_STEPS, (key, entryMetadata) -> entryMetadata.isExpired(now));
+		}
+		EntryMetadata evicted;
+		while ((evicted = this.evictedEntries.poll()) != null) {
+			EntryMetadata entryMetadata = evicted;
+			boolean[] removed = new boolean[1];
+			// Only remove the store value if it has not been registered again meanwhile
+			this.store.computeIfPresent(entryMetadata.key, (k, existing) -> {
+				if (existing != entryMetadata.value || this.metadata.contains(k)) {
+					return existing;
+				}
+				removed[0] = true;
+				return null;
+			});
+			if (removed[0]) {
+				recordEviction();
+			}
+		}
+	}
+
+	private void recordEviction() {
+		if (this.statistics != null) {
+			this.statistics.evictions.increment();
+		}
+	}
+
 	@Override
 	protected Object toStoreValue(@Nullable Object userValue) {
 		Object storeValue = super.toStoreValue(userValue);
@@ -215,4 +462,66 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		}
 	}
 
+
+
+	/**
+	 * Metadata for an entry in a bounded or expiring cache.
+	 */
+	private static final class EntryMetadata {
+
+		final Object key;
+
+		final Object value;
+
+		final long expirationTime;
+
+		EntryMetadata(Object key, Object value, long expirationTime) {
+			this.key = key;
+			this.value = value;
+			this.expirationTime = expirationTime;
+		}
+
+		boolean isExpired(long now) {
+			return (this.expirationTime != 0 && now - this.expirationTime >= 0);
+		}
+	}
+
+
+	/**
+	 * Metadata of the entries in the store, handing the evicted entries over
+	 * for removal from the store once the current store operation completed.
+	 */
+	private final class EntryMetadataCache extends ConcurrentLruCache<Object, EntryMetadata> {
+
+		EntryMetadataCache(int sizeLimit) {
+			super(sizeLimit);
+		}
+
+		@Override
+		protected void onEviction(Object key, EntryMetadata entryMetadata) {
+			evictedEntries.add(entryMetadata);
+		}
+	}
+
+
+	/**
+	 * Counters for the statistics of this cache.
+	 */
+	private static final class Statistics {
+
+		final LongAdder hits = new LongAdder();
+
+		final LongAdder misses = new LongAdder();
+
+		final LongAdder evictions = new LongAdder();
+
+		void recordLookup(boolean hit) {
+			(hit ? this.hits : this.misses).increment();
+		}
+
+		CacheStatistics snapshot() {
+			return new CacheStatistics(this.hits.sum(), this.misses.sum(), this.evictions.sum());
+		}
+	}
+
 }
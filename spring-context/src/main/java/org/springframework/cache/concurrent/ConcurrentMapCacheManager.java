@@ -16,6 +16,7 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,6 +29,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.core.serializer.support.SerializationDelegate;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
 
 /**
  * {@link CacheManager} implementation that lazily builds {@link ConcurrentMapCache}
@@ -35,8 +37,9 @@ import org.springframework.lang.Nullable;
  * the set of cache names is pre-defined through {@link #setCacheNames}, with no
  * dynamic creation of further cache regions at runtime.
  *
- * <p>Note: This is by no means a sophisticated CacheManager; it comes with no
- * cache configuration options. However, it may be useful for testing or simple
+ * <p>Note: This is by no means a sophisticated CacheManager; it comes with only
+ * basic cache configuration options, i.e. a maximum size and a time-to-live for
+ * the entries of each cache. However, it may be useful for testing or simple
  * caching scenarios. For advanced local caching needs, consider
  * {@link org.springframework.cache.jcache.JCacheCacheManager},
  * {@link org.springframework.cache.ehcache.EhCacheCacheManager},
@@ -56,6 +59,13 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 
 	private boolean storeByValue = false;
 
+	private int maximumSize = -1;
+
+	@Nullable
+	private Duration timeToLive;
+
+	private boolean recordStatistics = false;
+
 	@Nullable
 	private SerializationDelegate serialization;
 
@@ -146,6 +156,78 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return this.storeByValue;
 	}
 
+	/**
+	 * Specify the maximum number of entries for each cache in this cache manager,
+	 * evicting entries which have not been accessed recently beyond that size.
+	 * <p>Default is -1, i.e. no limit.
+	 * <p>Note: A change of the maximum size will reset all existing caches,
+	 * if any, to reconfigure them with the new maximum size.
+	 * @since 5.3
+	 * @see ConcurrentMapCache#ConcurrentMapCache(String, int, Duration, boolean)
+	 */
+	public void setMaximumSize(int maximumSize) {
+		if (maximumSize != this.maximumSize) {
+			this.maximumSize = maximumSize;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the maximum number of entries for each cache in this cache manager,
+	 * or -1 for no limit.
+	 * @since 5.3
+	 */
+	public int getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Specify the time after which an entry expires once written, for all
+	 * caches in this cache manager.
+	 * <p>Default is none, i.e. no expiration.
+	 * <p>Note: A change of the time-to-live will reset all existing caches,
+	 * if any, to reconfigure them with the new time-to-live.
+	 * @since 5.3
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		if (!ObjectUtils.nullSafeEquals(timeToLive, this.timeToLive)) {
+			this.timeToLive = timeToLive;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the time after which an entry expires once written, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Specify whether to record hits, misses and evictions for all caches in
+	 * this cache manager, exposing them through {@link Cache#getStatistics()}.
+	 * <p>Default is "false".
+	 * <p>Note: A change of this setting will reset all existing caches,
+	 * if any, to reconfigure them accordingly.
+	 * @since 5.3
+	 */
+	public void setRecordStatistics(boolean recordStatistics) {
+		if (recordStatistics != this.recordStatistics) {
+			this.recordStatistics = recordStatistics;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return whether this cache manager records statistics for all of its caches.
+	 * @since 5.3
+	 */
+	public boolean isRecordStatistics() {
+		return this.recordStatistics;
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.serialization = new SerializationDelegate(classLoader);
@@ -190,7 +272,8 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	 */
 	protected Cache createConcurrentMapCache(String name) {
 		SerializationDelegate actualSerialization = (isStoreByValue() ? this.serialization : null);
-		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256), isAllowNullValues(), actualSerialization);
+		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256), isAllowNullValues(), actualSerialization,
+				getMaximumSize(), getTimeToLive(), isRecordStatistics());
 	}
 
 }
@@ -17,15 +17,33 @@
 package org.springframework.cache.interceptor;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
@@ -42,13 +60,18 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.MethodClassKey;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ObjectUtils;
@@ -84,10 +107,18 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	/**
+	 * Maximum number of entries to keep track of for refreshing them. Entries
+	 * beyond that limit lose their load time and start aging again on next access.
+	 */
+	private static final int MAX_REFRESH_MARKERS = 10000;
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
 
+	private final Map<MethodClassKey, CacheOperationPlan> planCache = new ConcurrentHashMap<>(256);
+
 	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
 
 	@Nullable
@@ -103,6 +134,20 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	private boolean initialized = false;
 
+	private final Map<SyncLoadKey, SyncLoad> syncLoads = new ConcurrentHashMap<>(64);
+
+	@Nullable
+	private Duration refreshAfter;
+
+	@Nullable
+	private Executor refreshExecutor;
+
+	@Nullable
+	private ConcurrentLruCache<SyncLoadKey, RefreshMarker> refreshMarkers;
+
+	/** Guards the publication of refreshed values against concurrent puts and evictions. */
+	private final ReadWriteLock refreshLock = new ReentrantReadWriteLock();
+
 
 	/**
 	 * Configure this aspect with the given error handler, key generator and cache resolver/manager
@@ -195,6 +240,54 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = SingletonSupplier.of(new SimpleCacheResolver(cacheManager));
 	}
 
+	/**
+	 * Specify the age after which entries loaded through a
+	 * {@link CacheableOperation#isSync() synchronized} operation get reloaded in
+	 * the background on access, for refreshing hot entries before they expire.
+	 * <p>Default is none, i.e. entries never get refreshed ahead of expiration.
+	 * Set this to less than the time-to-live of the affected caches, along with a
+	 * {@link #setRefreshExecutor refresh executor}. Entries of unknown age, e.g.
+	 * put into the cache by other means, start aging on their first access.
+	 * A failed refresh is not retried before the same interval has passed again.
+	 * <p>Refreshing requires an invoker which is able to invoke the underlying
+	 * method again, as provided by the {@link CacheInterceptor}.
+	 * @since 5.3
+	 * @see CacheOperationInvoker#invocableCopy()
+	 */
+	public void setRefreshAfter(@Nullable Duration refreshAfter) {
+		Assert.isTrue(refreshAfter == null || !refreshAfter.isNegative() && !refreshAfter.isZero(),
+				"Refresh interval must be positive");
+		this.refreshAfter = refreshAfter;
+		this.refreshMarkers = (refreshAfter != null ? new ConcurrentLruCache<>(MAX_REFRESH_MARKERS) : null);
+	}
+
+	/**
+	 * Return the age after which entries get refreshed in the background, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public Duration getRefreshAfter() {
+		return this.refreshAfter;
+	}
+
+	/**
+	 * Set the {@link Executor} to reload entries on when they are due for
+	 * {@link #setRefreshAfter refresh}.
+	 * @since 5.3
+	 */
+	public void setRefreshExecutor(@Nullable Executor refreshExecutor) {
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} to reload entries on, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public Executor getRefreshExecutor() {
+		return this.refreshExecutor;
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -263,6 +356,22 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			CacheOperation operation, Method method, Object[] args, Object target, Class<?> targetClass) {
 
 		CacheOperationMetadata metadata = getCacheOperationMetadata(operation, method, targetClass);
+		return getOperationContext(metadata, args, target);
+	}
+
+	/**
+	 * Return the {@link CacheOperationContext} for the specified, already
+	 * resolved {@link CacheOperationMetadata}.
+	 * <p>Used for every invocation of a method with caching operations, with
+	 * the metadata taken from a plan that is computed once per method and
+	 * target class through {@link #getCacheOperationMetadata}.
+	 * @param metadata the metadata of the operation
+	 * @param args the arguments of the invocation
+	 * @param target the target object
+	 * @return the operation context for the invocation
+	 * @since 5.3
+	 */
+	protected CacheOperationContext getOperationContext(CacheOperationMetadata metadata, Object[] args, Object target) {
 		return new CacheOperationContext(metadata, args, target);
 	}
 
@@ -331,6 +440,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	 */
 	protected void clearMetadataCache() {
 		this.metadataCache.clear();
+		this.planCache.clear();
 		this.evaluator.clear();
 	}
 
@@ -343,8 +453,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			if (cacheOperationSource != null) {
 				Collection<CacheOperation> operations = cacheOperationSource.getCacheOperations(method, targetClass);
 				if (!CollectionUtils.isEmpty(operations)) {
-					return execute(invoker, method,
-							new CacheOperationContexts(operations, method, args, target, targetClass));
+					CacheOperationPlan plan = getCacheOperationPlan(operations, method, targetClass);
+					return execute(invoker, method, new CacheOperationContexts(plan, args, target));
 				}
 			}
 		}
@@ -352,6 +462,25 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return invoker.invoke();
 	}
 
+	/**
+	 * Return the {@link CacheOperationPlan} for the given operations, resolving
+	 * their metadata once per method and target class. The plan is recomputed
+	 * if the {@link CacheOperationSource} returns operations that are not equal
+	 * to the ones the plan was computed for.
+	 */
+	private CacheOperationPlan getCacheOperationPlan(
+			Collection<CacheOperation> operations, Method method, Class<?> targetClass) {
+
+		MethodClassKey planKey = new MethodClassKey(method, targetClass);
+		CacheOperationPlan plan = this.planCache.get(planKey);
+		// Composite sources return a new, equal collection per call
+		if (plan == null || (plan.operations != operations && !plan.operations.equals(operations))) {
+			plan = new CacheOperationPlan(operations, method, targetClass);
+			this.planCache.put(planKey, plan);
+		}
+		return plan;
+	}
+
 	/**
 	 * Execute the underlying operation (typically in case of cache miss) and return
 	 * the result of the invocation. If an exception occurs it will be wrapped in a
@@ -379,8 +508,13 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
 				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
 				Cache cache = context.getCaches().iterator().next();
+				Cache.ValueWrapper cacheHit = doGet(cache, key);
+				if (cacheHit != null) {
+					refreshIfNecessary(invoker, cache, key);
+					return wrapCacheValue(method, cacheHit.get());
+				}
 				try {
-					return wrapCacheValue(method, cache.get(key, () -> unwrapReturnValue(invokeOperation(invoker))));
+					return wrapCacheValue(method, loadSynchronized(invoker, cache, key));
 				}
 				catch (Cache.ValueRetrievalException ex) {
 					// Directly propagate ThrowableWrapper from the invoker,
@@ -394,6 +528,18 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 		}
 
+		// Special handling of bulk invocation
+		if (contexts.isBulk()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				return executeBulk(invoker, method, context);
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeOperation(invoker);
+			}
+		}
+
 
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
@@ -437,6 +583,242 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Load the value for the given key through a single invocation, letting
+	 * concurrent callers for the same cache and key wait for its result.
+	 * <p>The loading caller goes through {@link Cache#get(Object, java.util.concurrent.Callable)},
+	 * keeping the atomic loading semantics of the cache provider. The only exception
+	 * is a {@link ConcurrentMapCache} which would hold the lock on a hash bin of its
+	 * {@code ConcurrentHashMap} for the entire invocation, blocking access to
+	 * unrelated keys in the same bin: in that case, the loading caller invokes
+	 * the operation and puts the result into the cache itself.
+	 */
+	@Nullable
+	private Object loadSynchronized(CacheOperationInvoker invoker, Cache cache, Object key) {
+		SyncLoadKey loadKey = new SyncLoadKey(cache, key);
+		SyncLoad load = new SyncLoad();
+		SyncLoad existingLoad = this.syncLoads.putIfAbsent(loadKey, load);
+		if (existingLoad != null) {
+			if (existingLoad.owner == Thread.currentThread()) {
+				// Recursive call for the same key: leave it to the cache provider
+				return cache.get(key, () -> unwrapReturnValue(invokeOperation(invoker)));
+			}
+			try {
+				return existingLoad.join();
+			}
+			catch (CompletionException ex) {
+				ReflectionUtils.rethrowRuntimeException(ex.getCause());
+				throw new IllegalStateException("Should never get here");
+			}
+		}
+		try {
+			Object value;
+			if (cache instanceof ConcurrentMapCache) {
+				// Local lookup: loaded by a previous caller in the meantime?
+				Cache.ValueWrapper cacheHit = doGet(cache, key);
+				if (cacheHit != null) {
+					value = cacheHit.get();
+				}
+				else {
+					value = unwrapReturnValue(invokeOperation(invoker));
+					doPut(cache, key, value);
+				}
+			}
+			else {
+				value = cache.get(key, () -> unwrapReturnValue(invokeOperation(invoker)));
+			}
+			markRefreshed(loadKey);
+			load.complete(value);
+			return value;
+		}
+		catch (RuntimeException | Error ex) {
+			load.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.syncLoads.remove(loadKey, load);
+		}
+	}
+
+	/**
+	 * Reload the value for the given key in the background if it is due for
+	 * refresh and not being refreshed already.
+	 * @see #setRefreshAfter
+	 */
+	private void refreshIfNecessary(CacheOperationInvoker invoker, Cache cache, Object key) {
+		ConcurrentLruCache<SyncLoadKey, RefreshMarker> refreshMarkers = this.refreshMarkers;
+		Duration refreshAfter = this.refreshAfter;
+		Executor refreshExecutor = this.refreshExecutor;
+		if (refreshMarkers == null || refreshAfter == null || refreshExecutor == null) {
+			return;
+		}
+		SyncLoadKey loadKey = new SyncLoadKey(cache, key);
+		RefreshMarker marker = refreshMarkers.getIfPresent(loadKey);
+		if (marker == null) {
+			// Unknown age: start counting from now rather than reloading right away
+			refreshMarkers.put(loadKey, new RefreshMarker());
+			return;
+		}
+		if (!marker.isDue(refreshAfter) || !marker.startRefresh()) {
+			return;  // recently loaded, or refresh in progress
+		}
+		CacheOperationInvoker refreshInvoker = invoker.invocableCopy();
+		if (refreshInvoker == null) {
+			return;  // no way to invoke the operation again
+		}
+		try {
+			refreshExecutor.execute(() -> {
+				Object value;
+				try {
+					value = unwrapReturnValue(invokeOperation(refreshInvoker));
+				}
+				catch (RuntimeException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to refresh cache key '" + key + "' in cache '" + cache.getName() + "'", ex);
+					}
+					// Next attempt after another interval
+					completeRefresh(loadKey, marker, null);
+					return;
+				}
+				completeRefresh(loadKey, marker, () -> doPut(cache, key, value));
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			completeRefresh(loadKey, marker, null);
+		}
+	}
+
+	/**
+	 * Complete the refresh started for the given marker: publish the reloaded
+	 * value (if any) and start the next refresh interval, unless the entry has
+	 * been put, evicted or cleared in the meantime.
+	 * @see #invalidateRefresh
+	 */
+	private void completeRefresh(SyncLoadKey loadKey, RefreshMarker marker, @Nullable Runnable publication) {
+		ConcurrentLruCache<SyncLoadKey, RefreshMarker> refreshMarkers = this.refreshMarkers;
+		if (refreshMarkers == null) {
+			return;
+		}
+		this.refreshLock.writeLock().lock();
+		try {
+			if (refreshMarkers.getIfPresent(loadKey) != marker) {
+				return;  // superseded: do not overwrite with a stale value
+			}
+			if (publication != null) {
+				publication.run();
+			}
+			refreshMarkers.put(loadKey, new RefreshMarker());
+		}
+		finally {
+			this.refreshLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Discard the refresh marker for the given key, or for all keys if none is
+	 * given, before the entry gets put or evicted, so that a refresh in progress
+	 * does not overwrite the outcome with a stale value.
+	 * <p>Markers of all caches get discarded when clearing a cache, letting the
+	 * affected entries start aging again on their next access.
+	 */
+	private void invalidateRefresh(Cache cache, @Nullable Object key) {
+		ConcurrentLruCache<SyncLoadKey, RefreshMarker> refreshMarkers = this.refreshMarkers;
+		if (refreshMarkers == null) {
+			return;
+		}
+		this.refreshLock.readLock().lock();
+		try {
+			if (key != null) {
+				refreshMarkers.remove(new SyncLoadKey(cache, key));
+			}
+			else {
+				refreshMarkers.clear();
+			}
+		}
+		finally {
+			this.refreshLock.readLock().unlock();
+		}
+	}
+
+	private void markRefreshed(SyncLoadKey loadKey) {
+		ConcurrentLruCache<SyncLoadKey, RefreshMarker> refreshMarkers = this.refreshMarkers;
+		if (refreshMarkers != null) {
+			refreshMarkers.put(loadKey, new RefreshMarker());
+		}
+	}
+
+	/**
+	 * Execute a {@code @Cacheable(bulk=true)} operation: look up the elements of
+	 * the collection argument in the caches, invoke the underlying method with the
+	 * missing elements only, and cache the entries of the returned map individually.
+	 */
+	@Nullable
+	private Object executeBulk(CacheOperationInvoker invoker, Method method, CacheOperationContext context) {
+		Object[] args = context.getArgs();
+		Collection<?> elements = (Collection<?>) args[0];
+		if (elements == null) {
+			return invokeOperation(invoker);
+		}
+
+		// Compute the keys and check which of them are cached already
+		Map<Object, Object> keys = new LinkedHashMap<>(elements.size());
+		for (Object element : elements) {
+			keys.put(element, generateElementKey(context, element));
+		}
+		Map<Object, Cache.ValueWrapper> cacheHits = findCachedItems(context, keys.values());
+
+		Collection<Object> missingElements = CollectionFactory.createCollection(
+				method.getParameterTypes()[0], keys.size() - cacheHits.size());
+		keys.forEach((element, key) -> {
+			if (!cacheHits.containsKey(key)) {
+				missingElements.add(element);
+			}
+		});
+
+		// Invoke the method for the missing elements only, and cache what it returns
+		Map<?, ?> loaded = Collections.emptyMap();
+		if (!missingElements.isEmpty()) {
+			args[0] = missingElements;
+			try {
+				Map<?, ?> returnValue = (Map<?, ?>) invokeOperation(invoker);
+				if (returnValue != null) {
+					loaded = returnValue;
+				}
+			}
+			finally {
+				args[0] = elements;
+			}
+			Map<Object, Object> cacheEntries = new LinkedHashMap<>(loaded.size());
+			loaded.forEach((element, value) -> {
+				if (context.canPutToCache(value)) {
+					Object key = keys.get(element);
+					cacheEntries.put(key != null ? key : generateElementKey(context, element), value);
+				}
+			});
+			if (!cacheEntries.isEmpty()) {
+				for (Cache cache : context.getCaches()) {
+					cacheEntries.keySet().forEach(key -> invalidateRefresh(cache, key));
+					doPutAll(cache, cacheEntries);
+				}
+			}
+		}
+
+		// Combine cached and loaded entries, in the order of the given elements
+		Map<Object, Object> result = CollectionFactory.createMap(method.getReturnType(), keys.size());
+		for (Map.Entry<Object, Object> entry : keys.entrySet()) {
+			Object element = entry.getKey();
+			Cache.ValueWrapper cacheHit = cacheHits.get(entry.getValue());
+			if (cacheHit != null) {
+				result.put(element, cacheHit.get());
+			}
+			else if (loaded.containsKey(element)) {
+				result.put(element, loaded.get(element));
+			}
+		}
+		loaded.forEach(result::putIfAbsent);
+		return result;
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -487,6 +869,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		for (Cache cache : context.getCaches()) {
 			if (operation.isCacheWide()) {
 				logInvalidating(context, operation, null);
+				invalidateRefresh(cache, null);
 				doClear(cache, operation.isBeforeInvocation());
 			}
 			else {
@@ -494,6 +877,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 					key = generateKey(context, result);
 				}
 				logInvalidating(context, operation, key);
+				invalidateRefresh(cache, key);
 				doEvict(cache, key, operation.isBeforeInvocation());
 			}
 		}
@@ -550,6 +934,33 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 	}
 
+	/**
+	 * Find the cached items for the given keys, looking up the keys that are
+	 * still missing in each subsequent cache of the given context.
+	 * @return the {@link Cache.ValueWrapper} per key found
+	 */
+	private Map<Object, Cache.ValueWrapper> findCachedItems(CacheOperationContext context, Collection<Object> keys) {
+		Map<Object, Cache.ValueWrapper> cacheHits = new HashMap<>(keys.size());
+		Collection<Object> missingKeys = keys;
+		for (Cache cache : context.getCaches()) {
+			cacheHits.putAll(doGetAll(cache, missingKeys));
+			if (cacheHits.size() == keys.size()) {
+				break;
+			}
+			missingKeys = new ArrayList<>(keys.size() - cacheHits.size());
+			for (Object key : keys) {
+				if (!cacheHits.containsKey(key)) {
+					missingKeys.add(key);
+				}
+			}
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Found " + cacheHits.size() + " of " + keys.size() + " cache entries in cache(s) " +
+					context.getCacheNames());
+		}
+		return cacheHits;
+	}
+
 	@Nullable
 	private Cache.ValueWrapper findInCaches(CacheOperationContext context, Object key) {
 		for (Cache cache : context.getCaches()) {
@@ -586,20 +997,55 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	private Object generateElementKey(CacheOperationContext context, @Nullable Object element) {
+		Object key = context.generateElementKey(element);
+		if (key == null) {
+			throw new IllegalArgumentException("Null key returned for element '" + element +
+					"' of bulk cache operation " + context.metadata.operation);
+		}
+		return key;
+	}
+
+
+	/**
+	 * The invocation-independent part of the caching operations of a method:
+	 * the resolved {@link CacheOperationMetadata} of each operation.
+	 */
+	private class CacheOperationPlan {
+
+		private final Collection<CacheOperation> operations;
+
+		private final Method method;
+
+		private final CacheOperationMetadata[] metadata;
+
+		public CacheOperationPlan(Collection<CacheOperation> operations, Method method, Class<?> targetClass) {
+			this.operations = operations;
+			this.method = method;
+			this.metadata = new CacheOperationMetadata[operations.size()];
+			int i = 0;
+			for (CacheOperation op : operations) {
+				this.metadata[i++] = getCacheOperationMetadata(op, method, targetClass);
+			}
+		}
+	}
+
+
 	private class CacheOperationContexts {
 
 		private final MultiValueMap<Class<? extends CacheOperation>, CacheOperationContext> contexts;
 
 		private final boolean sync;
 
-		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
-				Object[] args, Object target, Class<?> targetClass) {
+		private final boolean bulk;
 
-			this.contexts = new LinkedMultiValueMap<>(operations.size());
-			for (CacheOperation op : operations) {
-				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
+		public CacheOperationContexts(CacheOperationPlan plan, Object[] args, Object target) {
+			this.contexts = new LinkedMultiValueMap<>(plan.metadata.length);
+			for (CacheOperationMetadata metadata : plan.metadata) {
+				this.contexts.add(metadata.operation.getClass(), getOperationContext(metadata, args, target));
 			}
-			this.sync = determineSyncFlag(method);
+			this.sync = determineSyncFlag(plan.method);
+			this.bulk = determineBulkFlag(plan.method);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -611,6 +1057,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBulk() {
+			return this.bulk;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -646,6 +1096,95 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private boolean determineBulkFlag(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return false;
+			}
+			boolean bulkEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBulk()) {
+					bulkEnabled = true;
+					break;
+				}
+			}
+			if (bulkEnabled) {
+				if (this.contexts.size() > 1) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) cannot be combined with other cache operations on '" + method + "'");
+				}
+				if (cacheOperationContexts.size() > 1) {
+					throw new IllegalStateException(
+							"Only one @Cacheable(bulk=true) entry is allowed on '" + method + "'");
+				}
+				if (method.getParameterCount() != 1 || method.isVarArgs() ||
+						!Collection.class.isAssignableFrom(method.getParameterTypes()[0]) ||
+						!Map.class.isAssignableFrom(method.getReturnType())) {
+					throw new IllegalStateException("@Cacheable(bulk=true) requires a single Collection " +
+							"parameter and a Map return type on '" + method + "'");
+				}
+				if (!isSupportedCollectionType(method.getParameterTypes()[0])) {
+					throw new IllegalStateException("@Cacheable(bulk=true) requires a Collection parameter type " +
+							"that can be created for the missing elements - Collection, List, Set, SortedSet, " +
+							"NavigableSet or a concrete type with a default constructor - on '" + method + "'");
+				}
+				if (!isSupportedMapType(method.getReturnType())) {
+					throw new IllegalStateException("@Cacheable(bulk=true) requires a Map return type that can " +
+							"be created for the combined entries - Map, SortedMap, NavigableMap, MultiValueMap " +
+							"or a concrete type with a default constructor - on '" + method + "'");
+				}
+				CacheableOperation operation = (CacheableOperation) cacheOperationContexts.get(0).getOperation();
+				if (this.sync) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) cannot be combined with sync=true on '" + operation + "'");
+				}
+				if (StringUtils.hasText(operation.getKey())) {
+					throw new IllegalStateException(
+							"@Cacheable(bulk=true) does not support key attribute on '" + operation + "'");
+				}
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Check whether {@link CollectionFactory#createCollection(Class, int)}
+		 * is able to create a collection of the given type.
+		 */
+		private boolean isSupportedCollectionType(Class<?> collectionType) {
+			if (collectionType.isInterface()) {
+				return (collectionType == Collection.class || collectionType == List.class ||
+						collectionType == Set.class || collectionType == SortedSet.class ||
+						collectionType == NavigableSet.class);
+			}
+			return (!EnumSet.class.isAssignableFrom(collectionType) && hasDefaultConstructor(collectionType));
+		}
+
+		/**
+		 * Check whether {@link CollectionFactory#createMap(Class, int)}
+		 * is able to create a map of the given type.
+		 */
+		private boolean isSupportedMapType(Class<?> mapType) {
+			if (mapType.isInterface()) {
+				return (mapType == Map.class || mapType == SortedMap.class ||
+						mapType == NavigableMap.class || mapType == MultiValueMap.class);
+			}
+			return (!EnumMap.class.isAssignableFrom(mapType) && hasDefaultConstructor(mapType));
+		}
+
+		private boolean hasDefaultConstructor(Class<?> type) {
+			if (Modifier.isAbstract(type.getModifiers())) {
+				return false;
+			}
+			try {
+				ReflectionUtils.accessibleConstructor(type);
+				return true;
+			}
+			catch (NoSuchMethodException ex) {
+				return false;
+			}
+		}
 	}
 
 
@@ -669,6 +1208,17 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		private final String unless;
+
+		@Nullable
+		private volatile Expression keyExpression;
+
+		@Nullable
+		private volatile Expression conditionExpression;
+
+		@Nullable
+		private volatile Expression unlessExpression;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
@@ -680,6 +1230,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 			this.keyGenerator = keyGenerator;
 			this.cacheResolver = cacheResolver;
+			if (operation instanceof CacheableOperation) {
+				this.unless = ((CacheableOperation) operation).getUnless();
+			}
+			else if (operation instanceof CachePutOperation) {
+				this.unless = ((CachePutOperation) operation).getUnless();
+			}
+			else {
+				this.unless = "";
+			}
 		}
 	}
 
@@ -697,17 +1256,23 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final Collection<? extends Cache> caches;
 
-		private final Collection<String> cacheNames;
+		@Nullable
+		private Collection<String> cacheNames;
 
 		@Nullable
 		private Boolean conditionPassing;
 
+		@Nullable
+		private EvaluationContext evaluationContext;
+
+		@Nullable
+		private Object evaluationContextResult;
+
 		public CacheOperationContext(CacheOperationMetadata metadata, Object[] args, Object target) {
 			this.metadata = metadata;
 			this.args = extractArgs(metadata.method, args);
 			this.target = target;
 			this.caches = CacheAspectSupport.this.getCaches(this, metadata.cacheResolver);
-			this.cacheNames = createCacheNames(this.caches);
 		}
 
 		@Override
@@ -745,8 +1310,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			if (this.conditionPassing == null) {
 				if (StringUtils.hasText(this.metadata.operation.getCondition())) {
 					EvaluationContext evaluationContext = createEvaluationContext(result);
-					this.conditionPassing = evaluator.condition(this.metadata.operation.getCondition(),
-							this.metadata.methodKey, evaluationContext);
+					this.conditionPassing = evaluator.condition(getConditionExpression(), evaluationContext);
 				}
 				else {
 					this.conditionPassing = true;
@@ -756,16 +1320,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 		protected boolean canPutToCache(@Nullable Object value) {
-			String unless = "";
-			if (this.metadata.operation instanceof CacheableOperation) {
-				unless = ((CacheableOperation) this.metadata.operation).getUnless();
-			}
-			else if (this.metadata.operation instanceof CachePutOperation) {
-				unless = ((CachePutOperation) this.metadata.operation).getUnless();
-			}
-			if (StringUtils.hasText(unless)) {
+			if (StringUtils.hasText(this.metadata.unless)) {
 				EvaluationContext evaluationContext = createEvaluationContext(value);
-				return !evaluator.unless(unless, this.metadata.methodKey, evaluationContext);
+				return !evaluator.unless(getUnlessExpression(), evaluationContext);
 			}
 			return true;
 		}
@@ -777,14 +1334,61 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		protected Object generateKey(@Nullable Object result) {
 			if (StringUtils.hasText(this.metadata.operation.getKey())) {
 				EvaluationContext evaluationContext = createEvaluationContext(result);
-				return evaluator.key(this.metadata.operation.getKey(), this.metadata.methodKey, evaluationContext);
+				return evaluator.key(getKeyExpression(), evaluationContext);
 			}
 			return this.metadata.keyGenerator.generate(this.target, this.metadata.method, this.args);
 		}
 
+		/**
+		 * Compute the key for the given element of the collection argument
+		 * of a bulk caching operation.
+		 */
+		@Nullable
+		protected Object generateElementKey(@Nullable Object element) {
+			return this.metadata.keyGenerator.generate(this.target, this.metadata.method, element);
+		}
+
+		/**
+		 * Return the evaluation context for the given result, reusing the one
+		 * created last if it was created for the very same result object.
+		 */
 		private EvaluationContext createEvaluationContext(@Nullable Object result) {
-			return evaluator.createEvaluationContext(this.caches, this.metadata.method, this.args,
-					this.target, this.metadata.targetClass, this.metadata.targetMethod, result, beanFactory);
+			EvaluationContext evaluationContext = this.evaluationContext;
+			if (evaluationContext == null || this.evaluationContextResult != result) {
+				evaluationContext = evaluator.createEvaluationContext(this.caches, this.metadata.method, this.args,
+						this.target, this.metadata.targetClass, this.metadata.targetMethod, result, beanFactory);
+				this.evaluationContext = evaluationContext;
+				this.evaluationContextResult = result;
+			}
+			return evaluationContext;
+		}
+
+		private Expression getKeyExpression() {
+			Expression expression = this.metadata.keyExpression;
+			if (expression == null) {
+				expression = evaluator.getKeyExpression(this.metadata.operation.getKey(), this.metadata.methodKey);
+				this.metadata.keyExpression = expression;
+			}
+			return expression;
+		}
+
+		private Expression getConditionExpression() {
+			Expression expression = this.metadata.conditionExpression;
+			if (expression == null) {
+				expression = evaluator.getConditionExpression(
+						this.metadata.operation.getCondition(), this.metadata.methodKey);
+				this.metadata.conditionExpression = expression;
+			}
+			return expression;
+		}
+
+		private Expression getUnlessExpression() {
+			Expression expression = this.metadata.unlessExpression;
+			if (expression == null) {
+				expression = evaluator.getUnlessExpression(this.metadata.unless, this.metadata.methodKey);
+				this.metadata.unlessExpression = expression;
+			}
+			return expression;
 		}
 
 		protected Collection<? extends Cache> getCaches() {
@@ -792,6 +1396,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 		protected Collection<String> getCacheNames() {
+			if (this.cacheNames == null) {
+				this.cacheNames = createCacheNames(this.caches);
+			}
 			return this.cacheNames;
 		}
 
@@ -819,6 +1426,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		public void apply(@Nullable Object result) {
 			if (this.context.canPutToCache(result)) {
 				for (Cache cache : this.context.getCaches()) {
+					invalidateRefresh(cache, this.key);
 					doPut(cache, this.key, result);
 				}
 			}
@@ -826,6 +1434,74 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * Key for a synchronized load: the cache name and the key within the cache.
+	 * <p>Identifies the cache by name rather than by instance since decorators,
+	 * e.g. for transaction awareness, may be created for every resolution.
+	 */
+	private static final class SyncLoadKey {
+
+		private final String cacheName;
+
+		private final Object key;
+
+		SyncLoadKey(Cache cache, Object key) {
+			this.cacheName = cache.getName();
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof SyncLoadKey)) {
+				return false;
+			}
+			SyncLoadKey otherKey = (SyncLoadKey) other;
+			return (this.cacheName.equals(otherKey.cacheName) && this.key.equals(otherKey.key));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.cacheName.hashCode() * 31 + this.key.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return this.key + " in cache '" + this.cacheName + "'";
+		}
+	}
+
+
+	/**
+	 * An in-flight synchronized load, along with the thread performing it.
+	 */
+	private static final class SyncLoad extends CompletableFuture<Object> {
+
+		final Thread owner = Thread.currentThread();
+	}
+
+
+	/**
+	 * Load time of a cache entry, guarding against concurrent refreshes of it.
+	 */
+	private static final class RefreshMarker {
+
+		private final long loadTime = System.nanoTime();
+
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		boolean isDue(Duration refreshAfter) {
+			return (System.nanoTime() - this.loadTime >= refreshAfter.toNanos());
+		}
+
+		boolean startRefresh() {
+			return this.refreshing.compareAndSet(false, true);
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
@@ -22,6 +22,7 @@ import java.lang.reflect.Method;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import org.springframework.aop.ProxyMethodInvocation;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -49,14 +50,7 @@ public class CacheInterceptor extends CacheAspectSupport implements MethodInterc
 	public Object invoke(final MethodInvocation invocation) throws Throwable {
 		Method method = invocation.getMethod();
 
-		CacheOperationInvoker aopAllianceInvoker = () -> {
-			try {
-				return invocation.proceed();
-			}
-			catch (Throwable ex) {
-				throw new CacheOperationInvoker.ThrowableWrapper(ex);
-			}
-		};
+		CacheOperationInvoker aopAllianceInvoker = new AopAllianceInvoker(invocation);
 
 		Object target = invocation.getThis();
 		Assert.state(target != null, "Target must not be null");
@@ -68,4 +62,38 @@ public class CacheInterceptor extends CacheAspectSupport implements MethodInterc
 		}
 	}
 
+
+	/**
+	 * {@link CacheOperationInvoker} proceeding with the given {@link MethodInvocation},
+	 * supporting repeated invocation through a {@link ProxyMethodInvocation} clone.
+	 */
+	private static class AopAllianceInvoker implements CacheOperationInvoker {
+
+		private final MethodInvocation invocation;
+
+		AopAllianceInvoker(MethodInvocation invocation) {
+			this.invocation = invocation;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke() {
+			try {
+				return this.invocation.proceed();
+			}
+			catch (Throwable ex) {
+				throw new ThrowableWrapper(ex);
+			}
+		}
+
+		@Override
+		@Nullable
+		public CacheOperationInvoker invocableCopy() {
+			if (this.invocation instanceof ProxyMethodInvocation) {
+				return new AopAllianceInvoker(((ProxyMethodInvocation) this.invocation).invocableClone());
+			}
+			return null;
+		}
+	}
+
 }
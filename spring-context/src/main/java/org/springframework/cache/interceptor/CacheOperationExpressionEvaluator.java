@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.cache.interceptor;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Map;
@@ -26,8 +27,13 @@ import org.springframework.cache.Cache;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 
 /**
@@ -35,7 +41,10 @@ import org.springframework.lang.Nullable;
  * Meant to be used as a reusable, thread-safe component.
  *
  * <p>Performs internal caching for performance reasons
- * using {@link AnnotatedElementKey}.
+ * using {@link AnnotatedElementKey}. As of 5.3, expressions are compiled
+ * once they have been interpreted a number of times, falling back to
+ * interpretation if the compiled form fails, unless a different mode is
+ * specified through the {@code spring.expression.compiler.mode} property.
  *
  * @author Costin Leau
  * @author Phillip Webb
@@ -60,6 +69,10 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 	 */
 	public static final String RESULT_VARIABLE = "result";
 
+	private static final String COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
+	private static final String[] NO_PARAMETER_NAMES = new String[0];
+
 
 	private final Map<ExpressionKey, Expression> keyCache = new ConcurrentHashMap<>(64);
 
@@ -67,6 +80,15 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 
 	private final Map<ExpressionKey, Expression> unlessCache = new ConcurrentHashMap<>(64);
 
+	private final Map<Method, String[]> parameterNamesCache = new ConcurrentHashMap<>(64);
+
+	private final ParameterNameDiscoverer parameterNameDiscoverer = new CachingParameterNameDiscoverer();
+
+
+	CacheOperationExpressionEvaluator() {
+		super(new SpelExpressionParser(new SpelParserConfiguration(determineCompilerMode(), null)));
+	}
+
 
 	/**
 	 * Create an {@link EvaluationContext}.
@@ -86,7 +108,7 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		CacheExpressionRootObject rootObject = new CacheExpressionRootObject(
 				caches, method, args, target, targetClass);
 		CacheEvaluationContext evaluationContext = new CacheEvaluationContext(
-				rootObject, targetMethod, args, getParameterNameDiscoverer());
+				rootObject, targetMethod, args, this.parameterNameDiscoverer);
 		if (result == RESULT_UNAVAILABLE) {
 			evaluationContext.addUnavailableVariable(RESULT_VARIABLE);
 		}
@@ -101,17 +123,55 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 
 	@Nullable
 	public Object key(String keyExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
+		return key(getKeyExpression(keyExpression, methodKey), evalContext);
+	}
+
+	@Nullable
+	public Object key(Expression keyExpression, EvaluationContext evalContext) {
+		return keyExpression.getValue(evalContext);
 	}
 
 	public boolean condition(String conditionExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
-				evalContext, Boolean.class)));
+		return condition(getConditionExpression(conditionExpression, methodKey), evalContext);
+	}
+
+	public boolean condition(Expression conditionExpression, EvaluationContext evalContext) {
+		return (Boolean.TRUE.equals(conditionExpression.getValue(evalContext, Boolean.class)));
 	}
 
 	public boolean unless(String unlessExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return (Boolean.TRUE.equals(getExpression(this.unlessCache, methodKey, unlessExpression).getValue(
-				evalContext, Boolean.class)));
+		return unless(getUnlessExpression(unlessExpression, methodKey), evalContext);
+	}
+
+	public boolean unless(Expression unlessExpression, EvaluationContext evalContext) {
+		return (Boolean.TRUE.equals(unlessExpression.getValue(evalContext, Boolean.class)));
+	}
+
+	/**
+	 * Return the parsed key {@link Expression}, to be held on to by the caller
+	 * and passed to {@link #key(Expression, EvaluationContext)} for each invocation.
+	 * @since 5.3
+	 */
+	public Expression getKeyExpression(String keyExpression, AnnotatedElementKey methodKey) {
+		return getExpression(this.keyCache, methodKey, keyExpression);
+	}
+
+	/**
+	 * Return the parsed condition {@link Expression}, to be held on to by the caller
+	 * and passed to {@link #condition(Expression, EvaluationContext)} for each invocation.
+	 * @since 5.3
+	 */
+	public Expression getConditionExpression(String conditionExpression, AnnotatedElementKey methodKey) {
+		return getExpression(this.conditionCache, methodKey, conditionExpression);
+	}
+
+	/**
+	 * Return the parsed unless {@link Expression}, to be held on to by the caller
+	 * and passed to {@link #unless(Expression, EvaluationContext)} for each invocation.
+	 * @since 5.3
+	 */
+	public Expression getUnlessExpression(String unlessExpression, AnnotatedElementKey methodKey) {
+		return getExpression(this.unlessCache, methodKey, unlessExpression);
 	}
 
 	/**
@@ -121,6 +181,41 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		this.keyCache.clear();
 		this.conditionCache.clear();
 		this.unlessCache.clear();
+		this.parameterNamesCache.clear();
+	}
+
+
+	private static SpelCompilerMode determineCompilerMode() {
+		String compilerMode = SpringProperties.getProperty(COMPILER_MODE_PROPERTY_NAME);
+		return (compilerMode != null ? SpelCompilerMode.valueOf(compilerMode.toUpperCase()) : SpelCompilerMode.MIXED);
+	}
+
+
+	/**
+	 * {@link ParameterNameDiscoverer} that discovers the parameter names of
+	 * a method only once instead of for every {@link EvaluationContext}.
+	 */
+	private class CachingParameterNameDiscoverer implements ParameterNameDiscoverer {
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Method method) {
+			String[] parameterNames = parameterNamesCache.get(method);
+			if (parameterNames == null) {
+				parameterNames = getParameterNameDiscoverer().getParameterNames(method);
+				if (parameterNames == null) {
+					parameterNames = NO_PARAMETER_NAMES;
+				}
+				parameterNamesCache.put(method, parameterNames);
+			}
+			return (parameterNames != NO_PARAMETER_NAMES ? parameterNames : null);
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Constructor<?> ctor) {
+			return getParameterNameDiscoverer().getParameterNames(ctor);
+		}
 	}
 
 }
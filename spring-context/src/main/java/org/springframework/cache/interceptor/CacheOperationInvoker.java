@@ -41,6 +41,19 @@ public interface CacheOperationInvoker {
 	@Nullable
 	Object invoke() throws ThrowableWrapper;
 
+	/**
+	 * Return an invoker for invoking the same operation once more, independent
+	 * from this invoker, e.g. for refreshing a cached value in the background.
+	 * <p>To be called before {@link #invoke()}. The default implementation
+	 * returns {@code null}, indicating that repeated invocation is not supported.
+	 * @return a copy of this invoker, or {@code null} if not supported
+	 * @since 5.3
+	 */
+	@Nullable
+	default CacheOperationInvoker invocableCopy() {
+		return null;
+	}
+
 
 	/**
 	 * Wrap any exception thrown while invoking {@link #invoke()}.
@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -39,6 +40,7 @@ import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.AbstractBeanDefinitionReader;
 import org.springframework.beans.factory.support.BeanDefinitionReader;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
@@ -53,7 +55,10 @@ import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.MethodMetadata;
 import org.springframework.core.type.StandardAnnotationMetadata;
 import org.springframework.core.type.StandardMethodMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -169,6 +174,12 @@ class ConfigurationClassBeanDefinitionReader {
 		String configBeanName = this.importBeanNameGenerator.generateBeanName(configBeanDef, this.registry);
 		AnnotationConfigUtils.processCommonDefinitionAnnotations(configBeanDef, metadata);
 
+		// Keep track of the importing class for restoring the ImportRegistry from a snapshot
+		AnnotationMetadata importingClass = this.importRegistry.getImportingClassFor(metadata.getClassName());
+		if (importingClass != null) {
+			configBeanDef.setAttribute(ConfigurationClassUtils.IMPORTING_CLASS_ATTRIBUTE, importingClass.getClassName());
+		}
+
 		BeanDefinitionHolder definitionHolder = new BeanDefinitionHolder(configBeanDef, configBeanName);
 		definitionHolder = AnnotationConfigUtils.applyScopedProxyMode(scopeMetadata, definitionHolder, this.registry);
 		this.registry.registerBeanDefinition(definitionHolder.getBeanName(), definitionHolder.getBeanDefinition());
@@ -404,7 +415,8 @@ class ConfigurationClassBeanDefinitionReader {
 	 * definition was created externally.
 	 */
 	@SuppressWarnings("serial")
-	private static class ConfigurationClassBeanDefinition extends RootBeanDefinition implements AnnotatedBeanDefinition {
+	private static class ConfigurationClassBeanDefinition extends RootBeanDefinition
+			implements AnnotatedBeanDefinition, BeanDefinitionSnapshot.CapturableDefinition {
 
 		private final AnnotationMetadata annotationMetadata;
 
@@ -430,6 +442,11 @@ class ConfigurationClassBeanDefinitionReader {
 			this.factoryMethodMetadata = original.factoryMethodMetadata;
 		}
 
+		private ConfigurationClassBeanDefinition(AnnotationMetadata annotationMetadata, MethodMetadata beanMethodMetadata) {
+			this.annotationMetadata = annotationMetadata;
+			this.factoryMethodMetadata = beanMethodMetadata;
+		}
+
 		@Override
 		public AnnotationMetadata getMetadata() {
 			return this.annotationMetadata;
@@ -450,6 +467,62 @@ class ConfigurationClassBeanDefinitionReader {
 		public ConfigurationClassBeanDefinition cloneBeanDefinition() {
 			return new ConfigurationClassBeanDefinition(this);
 		}
+
+		@Override
+		public BeanDefinitionSnapshot.DefinitionFactory getDefinitionFactory() {
+			return new BeanMethodDefinitionFactory(this.annotationMetadata.getClassName(),
+					this.factoryMethodMetadata.getDeclaringClassName(), this.factoryMethodMetadata.getMethodName(),
+					this.factoryMethodMetadata.getReturnTypeName());
+		}
+	}
+
+
+	/**
+	 * Recreates a ConfigurationClassBeanDefinition for a bean definition snapshot,
+	 * reading the metadata of the configuration class and its {@code @Bean} method again.
+	 */
+	@SuppressWarnings("serial")
+	private static class BeanMethodDefinitionFactory implements BeanDefinitionSnapshot.DefinitionFactory {
+
+		private final String configClassName;
+
+		private final String declaringClassName;
+
+		private final String methodName;
+
+		private final String returnTypeName;
+
+		public BeanMethodDefinitionFactory(
+				String configClassName, String declaringClassName, String methodName, String returnTypeName) {
+
+			this.configClassName = configClassName;
+			this.declaringClassName = declaringClassName;
+			this.methodName = methodName;
+			this.returnTypeName = returnTypeName;
+		}
+
+		@Override
+		public AbstractBeanDefinition createBeanDefinition(@Nullable ClassLoader classLoader) {
+			MetadataReaderFactory metadataReaderFactory = new SimpleMetadataReaderFactory(classLoader);
+			try {
+				AnnotationMetadata configClassMetadata =
+						metadataReaderFactory.getMetadataReader(this.configClassName).getAnnotationMetadata();
+				AnnotationMetadata declaringClassMetadata = (this.declaringClassName.equals(this.configClassName) ?
+						configClassMetadata :
+						metadataReaderFactory.getMetadataReader(this.declaringClassName).getAnnotationMetadata());
+				for (MethodMetadata beanMethod : declaringClassMetadata.getAnnotatedMethods(Bean.class.getName())) {
+					if (beanMethod.getMethodName().equals(this.methodName) &&
+							beanMethod.getReturnTypeName().equals(this.returnTypeName)) {
+						return new ConfigurationClassBeanDefinition(configClassMetadata, beanMethod);
+					}
+				}
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read metadata of class " + this.declaringClassName, ex);
+			}
+			throw new IllegalStateException("No @Bean method '" + this.methodName + "' found on class " +
+					this.declaringClassName);
+		}
 	}
 
 
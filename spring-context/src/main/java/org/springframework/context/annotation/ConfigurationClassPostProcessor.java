@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -296,6 +297,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 		// Return immediately if no @Configuration classes were found
 		if (configCandidates.isEmpty()) {
+			registerRestoredImportRegistryIfNecessary(registry);
 			return;
 		}
 
@@ -383,6 +385,31 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	}
 
+	/**
+	 * Register an ImportRegistry for configuration classes which have been processed
+	 * before, e.g. for bean definitions restored from a snapshot, based on the importing
+	 * classes that have been recorded in their bean definitions.
+	 * @see ConfigurationClassUtils#IMPORTING_CLASS_ATTRIBUTE
+	 */
+	private void registerRestoredImportRegistryIfNecessary(BeanDefinitionRegistry registry) {
+		if (!(registry instanceof SingletonBeanRegistry) ||
+				((SingletonBeanRegistry) registry).containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
+			return;
+		}
+		Map<String, String> importingClassNames = new LinkedHashMap<>();
+		for (String beanName : registry.getBeanDefinitionNames()) {
+			BeanDefinition beanDef = registry.getBeanDefinition(beanName);
+			Object importingClassName = beanDef.getAttribute(ConfigurationClassUtils.IMPORTING_CLASS_ATTRIBUTE);
+			if (importingClassName instanceof String && beanDef.getBeanClassName() != null) {
+				importingClassNames.put(beanDef.getBeanClassName(), (String) importingClassName);
+			}
+		}
+		if (!importingClassNames.isEmpty()) {
+			((SingletonBeanRegistry) registry).registerSingleton(IMPORT_REGISTRY_BEAN_NAME,
+					new RestoredImportRegistry(importingClassNames, this.metadataReaderFactory));
+		}
+	}
+
 	/**
 	 * Post-processes a BeanFactory in search of Configuration class BeanDefinitions;
 	 * any candidates are then enhanced by a {@link ConfigurationClassEnhancer}.
@@ -487,4 +514,41 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	}
 
+
+	/**
+	 * {@link ImportRegistry} for previously processed configuration classes,
+	 * reading the metadata of importing classes on demand.
+	 */
+	private static class RestoredImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClassNames;
+
+		private final MetadataReaderFactory metadataReaderFactory;
+
+		public RestoredImportRegistry(Map<String, String> importingClassNames, MetadataReaderFactory metadataReaderFactory) {
+			this.importingClassNames = importingClassNames;
+			this.metadataReaderFactory = metadataReaderFactory;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClassName = this.importingClassNames.get(importedClass);
+			if (importingClassName == null) {
+				return null;
+			}
+			try {
+				return this.metadataReaderFactory.getMetadataReader(importingClassName).getAnnotationMetadata();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read metadata of importing class " + importingClassName, ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClassNames.values().removeIf(importingClass::equals);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,6 +57,16 @@ abstract class ConfigurationClassUtils {
 	public static final String CONFIGURATION_CLASS_ATTRIBUTE =
 			Conventions.getQualifiedAttributeName(ConfigurationClassPostProcessor.class, "configurationClass");
 
+	/**
+	 * Attribute for the name of the class which imported a configuration class,
+	 * set on the bean definitions of imported configuration classes. Like all bean
+	 * definition attributes, it is part of a
+	 * {@link org.springframework.beans.factory.support.BeanDefinitionSnapshot},
+	 * allowing to restore the {@link ImportRegistry} for {@link ImportAware} beans.
+	 */
+	static final String IMPORTING_CLASS_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(ConfigurationClassPostProcessor.class, "importingClass");
+
 	private static final String ORDER_ATTRIBUTE =
 			Conventions.getQualifiedAttributeName(ConfigurationClassPostProcessor.class, "order");
 
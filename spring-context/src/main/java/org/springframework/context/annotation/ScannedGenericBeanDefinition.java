@@ -16,12 +16,17 @@
 
 package org.springframework.context.annotation;
 
+import java.io.IOException;
+
 import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
 import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
 import org.springframework.beans.factory.support.GenericBeanDefinition;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.MethodMetadata;
 import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -46,7 +51,8 @@ import org.springframework.util.Assert;
  * @see AnnotatedGenericBeanDefinition
  */
 @SuppressWarnings("serial")
-public class ScannedGenericBeanDefinition extends GenericBeanDefinition implements AnnotatedBeanDefinition {
+public class ScannedGenericBeanDefinition extends GenericBeanDefinition
+		implements AnnotatedBeanDefinition, BeanDefinitionSnapshot.CapturableDefinition {
 
 	private final AnnotationMetadata metadata;
 
@@ -75,4 +81,43 @@ public class ScannedGenericBeanDefinition extends GenericBeanDefinition implemen
 		return null;
 	}
 
+	/**
+	 * Captures the annotation metadata by class name, to be read again on restore.
+	 * Not supported for subclasses.
+	 * @since 5.3
+	 */
+	@Override
+	@Nullable
+	public BeanDefinitionSnapshot.DefinitionFactory getDefinitionFactory() {
+		if (getClass() != ScannedGenericBeanDefinition.class) {
+			return null;
+		}
+		return new ScannedDefinitionFactory(this.metadata.getClassName());
+	}
+
+
+	/**
+	 * Recreates a ScannedGenericBeanDefinition by reading its class file again.
+	 */
+	@SuppressWarnings("serial")
+	private static class ScannedDefinitionFactory implements BeanDefinitionSnapshot.DefinitionFactory {
+
+		private final String className;
+
+		public ScannedDefinitionFactory(String className) {
+			this.className = className;
+		}
+
+		@Override
+		public AbstractBeanDefinition createBeanDefinition(@Nullable ClassLoader classLoader) {
+			try {
+				return new ScannedGenericBeanDefinition(
+						new SimpleMetadataReaderFactory(classLoader).getMetadataReader(this.className));
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read metadata of class " + this.className, ex);
+			}
+		}
+	}
+
 }
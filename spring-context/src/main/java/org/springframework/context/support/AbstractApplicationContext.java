@@ -16,9 +16,23 @@
 
 package org.springframework.context.support;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedHashSet;
@@ -39,6 +53,8 @@ import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
 import org.springframework.beans.support.ResourceEditorRegistrar;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -83,8 +99,11 @@ import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * Abstract implementation of the {@link org.springframework.context.ApplicationContext}
@@ -171,6 +190,12 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	 */
 	private static final boolean IN_NATIVE_IMAGE = (System.getProperty("org.graalvm.nativeimage.imagecode") != null);
 
+	/** Maximum directory depth below a class path entry to include in the snapshot fingerprint. */
+	private static final int MAX_FINGERPRINT_DEPTH = 32;
+
+	/** Maximum number of files per class path entry to include in the snapshot fingerprint. */
+	private static final int MAX_FINGERPRINT_FILES = 50000;
+
 
 	static {
 		// Eagerly load the ContextClosedEvent class to avoid weird classloader issues
@@ -244,6 +269,18 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Nullable
 	private Set<ApplicationEvent> earlyApplicationEvents;
 
+	/** File to keep a snapshot of the post-processed bean definitions in, if any. */
+	@Nullable
+	private File beanDefinitionSnapshotFile;
+
+	/** Fingerprint of the bean definition sources for the current refresh. */
+	@Nullable
+	private String beanDefinitionSnapshotFingerprint;
+
+	/** Bean definition snapshot to restore in the current refresh, if valid. */
+	@Nullable
+	private BeanDefinitionSnapshot beanDefinitionSnapshot;
+
 
 	/**
 	 * Create a new AbstractApplicationContext with no parent.
@@ -484,6 +521,10 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	 * <p><b>Do not call this when needing to resolve a location pattern.</b>
 	 * Call the context's {@code getResources} method instead, which
 	 * will delegate to the ResourcePatternResolver.
+	 * <p>A subclass may return a resolver with an index of jar entries
+	 * {@link PathMatchingResourcePatternResolver#setUseCaches enabled}, sharing
+	 * it across all location patterns of a refresh (e.g. all base packages of
+	 * component scanning); the index gets cleared in {@link #clearResourceCaches()}.
 	 * @return the ResourcePatternResolver for this context
 	 * @see #getResources
 	 * @see org.springframework.core.io.support.PathMatchingResourcePatternResolver
@@ -546,6 +587,37 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		return this.applicationListeners;
 	}
 
+	/**
+	 * Specify a file to keep a snapshot of the post-processed bean definitions in,
+	 * allowing subsequent startups to skip the parsing of bean definition sources
+	 * (configuration classes, component scanning, XML files) and the evaluation of
+	 * {@link org.springframework.context.annotation.Conditional @Conditional} checks.
+	 * <p>On refresh, the bean definitions get restored from this file if its
+	 * fingerprint matches the {@link #getBeanDefinitionSnapshotFingerprint() current
+	 * fingerprint}, skipping the {@code postProcessBeanDefinitionRegistry} phase of
+	 * all {@link org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor
+	 * BeanDefinitionRegistryPostProcessors}. Otherwise, the bean definitions get
+	 * processed as usual and are written to this file right after that phase.
+	 * <p>Note that the outcome of that phase is frozen in the snapshot: e.g. condition
+	 * outcomes which depend on other state than the classpath and the active profiles,
+	 * or side effects of registry post-processors other than bean definitions, are not
+	 * going to be reproduced when restoring. Default is none, i.e. no snapshot.
+	 * @since 5.3
+	 * @see BeanDefinitionSnapshot
+	 */
+	public void setBeanDefinitionSnapshotFile(@Nullable File beanDefinitionSnapshotFile) {
+		this.beanDefinitionSnapshotFile = beanDefinitionSnapshotFile;
+	}
+
+	/**
+	 * Return the file to keep a snapshot of the post-processed bean definitions in, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public File getBeanDefinitionSnapshotFile() {
+		return this.beanDefinitionSnapshotFile;
+	}
+
 	@Override
 	public void refresh() throws BeansException, IllegalStateException {
 		synchronized (this.startupShutdownMonitor) {
@@ -642,6 +714,13 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		// see ConfigurablePropertyResolver#setRequiredProperties
 		getEnvironment().validateRequiredProperties();
 
+		// Check for a bean definition snapshot to restore, if configured
+		if (this.beanDefinitionSnapshotFile != null) {
+			this.beanDefinitionSnapshotFingerprint = getBeanDefinitionSnapshotFingerprint();
+			this.beanDefinitionSnapshot = readBeanDefinitionSnapshot(
+					this.beanDefinitionSnapshotFile, this.beanDefinitionSnapshotFingerprint);
+		}
+
 		// Store pre-refresh ApplicationListeners...
 		if (this.earlyApplicationListeners == null) {
 			this.earlyApplicationListeners = new LinkedHashSet<>(this.applicationListeners);
@@ -748,7 +827,19 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	 * <p>Must be called before singleton instantiation.
 	 */
 	protected void invokeBeanFactoryPostProcessors(ConfigurableListableBeanFactory beanFactory) {
-		PostProcessorRegistrationDelegate.invokeBeanFactoryPostProcessors(beanFactory, getBeanFactoryPostProcessors());
+		BeanDefinitionSnapshot snapshot = this.beanDefinitionSnapshot;
+		this.beanDefinitionSnapshot = null;
+		if (snapshot != null && restoreBeanDefinitionSnapshot(snapshot, beanFactory)) {
+			PostProcessorRegistrationDelegate.invokeBeanFactoryPostProcessors(
+					beanFactory, getBeanFactoryPostProcessors(), true, null);
+		}
+		else if (this.beanDefinitionSnapshotFile != null) {
+			PostProcessorRegistrationDelegate.invokeBeanFactoryPostProcessors(
+					beanFactory, getBeanFactoryPostProcessors(), false, this::writeBeanDefinitionSnapshot);
+		}
+		else {
+			PostProcessorRegistrationDelegate.invokeBeanFactoryPostProcessors(beanFactory, getBeanFactoryPostProcessors());
+		}
 
 		// Detect a LoadTimeWeaver and prepare for weaving, if found in the meantime
 		// (e.g. through an @Bean method registered by ConfigurationClassPostProcessor)
@@ -758,6 +849,199 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		}
 	}
 
+	/**
+	 * Return the fingerprint of the bean definition sources of this context,
+	 * determining whether a {@link #setBeanDefinitionSnapshotFile bean definition
+	 * snapshot} is still valid.
+	 * <p>The default implementation hashes the context class, the active and default
+	 * profiles, the path, size and last-modified timestamp of all entries in the
+	 * {@code java.class.path} and of all file entries of the context ClassLoader
+	 * hierarchy (e.g. a web application's {@code WEB-INF/classes} and
+	 * {@code WEB-INF/lib}, including all files within directories), as well as
+	 * the {@link #describeBeanDefinitionSources bean definition sources} of this
+	 * context. Symbolic links within directories are not followed; a directory
+	 * with more than 50000 files or 32 levels is considered to change on every
+	 * startup, never reusing the snapshot for it. In addition, the snapshot itself verifies all resources that its
+	 * bean definitions have been loaded from, e.g. imported XML files.
+	 * @since 5.3
+	 * @see BeanDefinitionSnapshot#read(InputStream, String, ClassLoader)
+	 */
+	protected String getBeanDefinitionSnapshotFingerprint() {
+		ConfigurableEnvironment environment = getEnvironment();
+		StringBuilder sb = new StringBuilder(getClass().getName());
+		sb.append(';').append(StringUtils.arrayToCommaDelimitedString(environment.getActiveProfiles()));
+		sb.append(';').append(StringUtils.arrayToCommaDelimitedString(environment.getDefaultProfiles()));
+		Set<File> classPathEntries = new LinkedHashSet<>();
+		String classPath = System.getProperty("java.class.path", "");
+		for (String entry : StringUtils.tokenizeToStringArray(classPath, File.pathSeparator)) {
+			classPathEntries.add(new File(entry));
+		}
+		for (ClassLoader cl = getClassLoader(); cl != null; cl = cl.getParent()) {
+			if (cl instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) cl).getURLs()) {
+					if (ResourceUtils.isFileURL(url)) {
+						try {
+							classPathEntries.add(ResourceUtils.getFile(url));
+						}
+						catch (FileNotFoundException ex) {
+							sb.append(';').append(url);
+						}
+					}
+				}
+			}
+		}
+		for (File entry : classPathEntries) {
+			appendFingerprint(entry, sb);
+		}
+		describeBeanDefinitionSources(sb);
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Append a description of the bean definition sources of this context to the
+	 * given {@link #getBeanDefinitionSnapshotFingerprint() fingerprint}, e.g. its
+	 * configuration locations along with the current state of those resources.
+	 * <p>The default implementation is empty. Subclasses which hold sources of
+	 * their own should append them after calling {@code super}.
+	 * @param fingerprint the fingerprint to append to
+	 * @since 5.3
+	 * @see #appendFingerprint(Resource, StringBuilder)
+	 */
+	protected void describeBeanDefinitionSources(StringBuilder fingerprint) {
+	}
+
+	/**
+	 * Append the description and current state (content length and last-modified
+	 * timestamp) of the given resource to the given fingerprint.
+	 * @param resource the resource to describe
+	 * @param fingerprint the fingerprint to append to
+	 * @since 5.3
+	 * @see #describeBeanDefinitionSources(StringBuilder)
+	 */
+	protected static void appendFingerprint(Resource resource, StringBuilder fingerprint) {
+		fingerprint.append(';').append(resource.getDescription()).append(':');
+		try {
+			fingerprint.append(resource.contentLength()).append(':').append(resource.lastModified());
+		}
+		catch (IOException ex) {
+			fingerprint.append("missing");
+		}
+	}
+
+	private static void appendFingerprint(File entry, StringBuilder sb) {
+		int[] remainingFiles = {MAX_FINGERPRINT_FILES};
+		if (!appendFingerprint(entry, 0, remainingFiles, sb)) {
+			// Too large to describe, e.g. a home directory on the class path
+			sb.append(";unbounded:").append(System.nanoTime());
+		}
+	}
+
+	private static boolean appendFingerprint(File file, int depth, int[] remainingFiles, StringBuilder sb) {
+		if (--remainingFiles[0] < 0) {
+			return false;
+		}
+		sb.append(';').append(file.getPath()).append(':').append(file.length()).append(':').append(file.lastModified());
+		if (depth > 0 && Files.isSymbolicLink(file.toPath())) {
+			return true;  // possibly a cycle: only describe the link itself
+		}
+		File[] children = file.listFiles();
+		if (children != null) {
+			if (depth >= MAX_FINGERPRINT_DEPTH) {
+				return false;
+			}
+			Arrays.sort(children);
+			for (File child : children) {
+				if (!appendFingerprint(child, depth + 1, remainingFiles, sb)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return whether the current refresh is going to restore all bean definitions
+	 * from a {@link #setBeanDefinitionSnapshotFile bean definition snapshot}, in
+	 * which case there is no need to load bean definitions from their sources.
+	 * @since 5.3
+	 * @see AbstractRefreshableApplicationContext#refreshBeanFactory()
+	 */
+	protected boolean isBeanDefinitionSnapshotComplete() {
+		return (this.beanDefinitionSnapshot != null && this.beanDefinitionSnapshot.isComplete());
+	}
+
+	@Nullable
+	private BeanDefinitionSnapshot readBeanDefinitionSnapshot(File file, String fingerprint) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.read(in, fingerprint, getClassLoader());
+			if (snapshot == null && logger.isDebugEnabled()) {
+				logger.debug("Ignoring outdated bean definition snapshot " + file);
+			}
+			return snapshot;
+		}
+		catch (IOException ex) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Ignoring unreadable bean definition snapshot " + file + ": " + ex);
+			}
+			return null;
+		}
+	}
+
+	private boolean restoreBeanDefinitionSnapshot(BeanDefinitionSnapshot snapshot, ConfigurableListableBeanFactory beanFactory) {
+		if (!(beanFactory instanceof BeanDefinitionRegistry)) {
+			return false;
+		}
+		try {
+			snapshot.restore((BeanDefinitionRegistry) beanFactory);
+		}
+		catch (IllegalStateException ex) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Ignoring bean definition snapshot " + this.beanDefinitionSnapshotFile + ": " + ex.getMessage());
+			}
+			return false;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Restored " + snapshot.getBeanDefinitionCount() +
+					" bean definitions from snapshot " + this.beanDefinitionSnapshotFile);
+		}
+		return true;
+	}
+
+	private void writeBeanDefinitionSnapshot(BeanDefinitionRegistry registry) {
+		File file = this.beanDefinitionSnapshotFile;
+		String fingerprint = this.beanDefinitionSnapshotFingerprint;
+		if (file == null || fingerprint == null) {
+			return;
+		}
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(registry, fingerprint);
+		try {
+			Path target = file.getAbsoluteFile().toPath();
+			Files.createDirectories(target.getParent());
+			Path tempFile = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+			try {
+				try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+					snapshot.write(out);
+				}
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			finally {
+				Files.deleteIfExists(tempFile);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Wrote " + snapshot.getBeanDefinitionCount() +
+						" bean definitions to snapshot " + file);
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Could not write bean definition snapshot " + file + ": " + ex);
+			}
+		}
+	}
+
 	/**
 	 * Instantiate and register all BeanPostProcessor beans,
 	 * respecting explicit order if given.
@@ -1416,6 +1700,19 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		return this.resourcePatternResolver.getResources(locationPattern);
 	}
 
+	/**
+	 * Clear all resource caches in this context, including the jar entry
+	 * index of the internal {@link PathMatchingResourcePatternResolver}.
+	 * @see PathMatchingResourcePatternResolver#clearCache()
+	 */
+	@Override
+	public void clearResourceCaches() {
+		super.clearResourceCaches();
+		if (this.resourcePatternResolver instanceof PathMatchingResourcePatternResolver) {
+			((PathMatchingResourcePatternResolver) this.resourcePatternResolver).clearCache();
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of Lifecycle interface
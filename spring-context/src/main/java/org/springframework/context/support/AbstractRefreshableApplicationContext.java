@@ -116,6 +116,8 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 	 * This implementation performs an actual refresh of this context's underlying
 	 * bean factory, shutting down the previous bean factory (if any) and
 	 * initializing a fresh bean factory for the next phase of the context's lifecycle.
+	 * <p>Bean definitions are not loaded if all of them are going to be restored
+	 * from a {@link #setBeanDefinitionSnapshotFile bean definition snapshot}.
 	 */
 	@Override
 	protected final void refreshBeanFactory() throws BeansException {
@@ -127,7 +129,9 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 			DefaultListableBeanFactory beanFactory = createBeanFactory();
 			beanFactory.setSerializationId(getId());
 			customizeBeanFactory(beanFactory);
-			loadBeanDefinitions(beanFactory);
+			if (!isBeanDefinitionSnapshotComplete()) {
+				loadBeanDefinitions(beanFactory);
+			}
 			this.beanFactory = beanFactory;
 		}
 		catch (IOException ex) {
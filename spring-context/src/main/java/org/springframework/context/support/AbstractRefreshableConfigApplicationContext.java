@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,12 @@
 
 package org.springframework.context.support;
 
+import java.io.IOException;
+
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.Resource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -126,6 +129,30 @@ public abstract class AbstractRefreshableConfigApplicationContext extends Abstra
 	}
 
 
+	/**
+	 * Describes the config locations of this context, along with the state of
+	 * the resources that they resolve to.
+	 * @since 5.3
+	 */
+	@Override
+	protected void describeBeanDefinitionSources(StringBuilder fingerprint) {
+		super.describeBeanDefinitionSources(fingerprint);
+		String[] configLocations = getConfigLocations();
+		if (configLocations != null) {
+			for (String location : configLocations) {
+				fingerprint.append(';').append(location);
+				try {
+					for (Resource resource : getResources(location)) {
+						appendFingerprint(resource, fingerprint);
+					}
+				}
+				catch (IOException ex) {
+					fingerprint.append(":unresolvable");
+				}
+			}
+		}
+	}
+
 	@Override
 	public void setId(String id) {
 		super.setId(id);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -129,6 +129,22 @@ public abstract class AbstractXmlApplicationContext extends AbstractRefreshableC
 		}
 	}
 
+	/**
+	 * Describes the {@link #getConfigResources() config resources} of this context
+	 * in addition to its config locations.
+	 * @since 5.3
+	 */
+	@Override
+	protected void describeBeanDefinitionSources(StringBuilder fingerprint) {
+		super.describeBeanDefinitionSources(fingerprint);
+		Resource[] configResources = getConfigResources();
+		if (configResources != null) {
+			for (Resource resource : configResources) {
+				appendFingerprint(resource, fingerprint);
+			}
+		}
+	}
+
 	/**
 	 * Return an array of Resource objects, referring to the XML bean definition
 	 * files that this context should be built with.
@@ -29,6 +29,7 @@ import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
@@ -276,6 +277,24 @@ public class GenericApplicationContext extends AbstractApplicationContext implem
 		super.cancelRefresh(ex);
 	}
 
+	/**
+	 * Describes the bean definitions registered with this context so far,
+	 * by name and bean class, including the state of their resources.
+	 * @since 5.3
+	 */
+	@Override
+	protected void describeBeanDefinitionSources(StringBuilder fingerprint) {
+		super.describeBeanDefinitionSources(fingerprint);
+		for (String beanName : this.beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition bd = this.beanFactory.getBeanDefinition(beanName);
+			fingerprint.append(';').append(beanName).append('=').append(bd.getBeanClassName());
+			Resource resource = (bd instanceof AbstractBeanDefinition ? ((AbstractBeanDefinition) bd).getResource() : null);
+			if (resource != null) {
+				appendFingerprint(resource, fingerprint);
+			}
+		}
+	}
+
 	/**
 	 * Not much to do: We hold a single internal BeanFactory that will never
 	 * get released.
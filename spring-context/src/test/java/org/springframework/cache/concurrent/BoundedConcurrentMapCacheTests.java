@@ -0,0 +1,42 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * Runs the {@link ConcurrentMapCacheTests} against bounded and expiring caches
+ * which never reach their limits, i.e. which behave like unbounded caches.
+ */
+public class BoundedConcurrentMapCacheTests extends ConcurrentMapCacheTests {
+
+	@BeforeEach
+	@Override
+	public void setup() {
+		this.nativeCache = new ConcurrentHashMap<>();
+		this.cache = new ConcurrentMapCache(CACHE_NAME, this.nativeCache, true, null,
+				1000, Duration.ofHours(1), false);
+		this.nativeCacheNoNull = new ConcurrentHashMap<>();
+		this.cacheNoNull = new ConcurrentMapCache(CACHE_NAME_NO_NULL, this.nativeCacheNoNull, false, null,
+				1000, Duration.ofHours(1), false);
+		this.cache.clear();
+	}
+
+}
@@ -131,4 +131,24 @@ public class ConcurrentMapCacheManagerTests {
 		assertThat(cache1x.get("key")).isNull();
 	}
 
+	@Test
+	public void testMaximumSizeWithStatistics() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1");
+		Cache cache1 = cm.getCache("c1");
+		assertThat(cache1.getStatistics()).isNull();
+
+		cm.setMaximumSize(1);
+		cm.setRecordStatistics(true);
+		Cache cache1x = cm.getCache("c1");
+		assertThat(cache1x != cache1).isTrue();
+		cache1x.put("key1", "value1");
+		cache1x.put("key2", "value2");
+		assertThat(((ConcurrentMapCache) cache1x).getNativeCache()).hasSize(1);
+		assertThat(cache1x.get("key2").get()).isEqualTo("value2");
+		assertThat(cache1x.get("key1")).isNull();
+		assertThat(cache1x.getStatistics().getHitCount()).isEqualTo(1);
+		assertThat(cache1x.getStatistics().getMissCount()).isEqualTo(1);
+		assertThat(cache1x.getStatistics().getEvictionCount()).isEqualTo(1);
+	}
+
 }
@@ -16,15 +16,24 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.cache.CacheStatistics;
 import org.springframework.context.testfixture.cache.AbstractValueAdaptingCacheTests;
 import org.springframework.core.serializer.support.SerializationDelegate;
 
@@ -116,6 +125,88 @@ public class ConcurrentMapCacheTests extends AbstractValueAdaptingCacheTests<Con
 	}
 
 
+	@Test
+	public void testMaximumSizeEvictsEntryNotAccessedRecently() {
+		ConcurrentMapCache boundedCache = new ConcurrentMapCache(CACHE_NAME, 2, null, true);
+		boundedCache.put("a", 1);
+		boundedCache.put("b", 2);
+		boundedCache.put("c", 3);
+		assertThat(boundedCache.getNativeCache()).hasSize(2);
+
+		Object[] remainingKeys = boundedCache.getNativeCache().keySet().toArray();
+		assertThat(boundedCache.get(remainingKeys[0])).isNotNull();
+		boundedCache.put("d", 4);
+		assertThat(boundedCache.getNativeCache()).containsOnlyKeys(remainingKeys[0], "d");
+
+		CacheStatistics statistics = boundedCache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(1);
+		assertThat(statistics.getMissCount()).isEqualTo(0);
+		assertThat(statistics.getEvictionCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testTimeToLive() {
+		ConcurrentMapCache expiringCache = new ConcurrentMapCache(CACHE_NAME, -1, Duration.ofMinutes(1), true);
+		Instant start = Instant.now();
+		expiringCache.setClock(Clock.fixed(start, ZoneOffset.UTC));
+		expiringCache.put("key", "value");
+		assertThat(expiringCache.get("key").get()).isEqualTo("value");
+
+		expiringCache.setClock(Clock.fixed(start.plus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+		assertThat(expiringCache.get("key")).isNull();
+		assertThat(expiringCache.getNativeCache()).isEmpty();
+		expiringCache.put("key", "value");
+
+		expiringCache.setClock(Clock.fixed(start.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+		assertThat(expiringCache.putIfAbsent("key", "value")).isNull();
+
+		expiringCache.setClock(Clock.fixed(start.plus(Duration.ofMinutes(3)), ZoneOffset.UTC));
+		assertThat(expiringCache.get("key", () -> "reloaded")).isEqualTo("reloaded");
+
+		CacheStatistics statistics = expiringCache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(1);
+		assertThat(statistics.getMissCount()).isEqualTo(2);
+		assertThat(statistics.getEvictionCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void testClearConcurrentlyWithPutKeepsEntriesBounded() throws Exception {
+		ConcurrentMapCache boundedCache = new ConcurrentMapCache(CACHE_NAME, 10, null, true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				int thread = i;
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < 2000; j++) {
+						if (thread == 0 && j % 10 == 0) {
+							boundedCache.clear();
+						}
+						else {
+							boundedCache.put(thread + "-" + j, j);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		for (int i = 0; i < 20; i++) {
+			boundedCache.put("final-" + i, i);
+		}
+		assertThat(boundedCache.getNativeCache()).hasSize(10);
+	}
+
+	@Test
+	public void testNoStatisticsByDefault() {
+		assertThat(this.cache.getStatistics()).isNull();
+	}
+
+
 	private ConcurrentMapCache createCacheWithStoreByValue() {
 		return new ConcurrentMapCache(CACHE_NAME, this.nativeCache, true,
 				new SerializationDelegate(ConcurrentMapCacheTests.class.getClassLoader()));
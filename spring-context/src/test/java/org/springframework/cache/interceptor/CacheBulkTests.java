@@ -0,0 +1,281 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link Cacheable#bulk()}.
+ */
+public class CacheBulkTests {
+
+	private ConfigurableApplicationContext context;
+
+	private BulkService service;
+
+	private CountingCache cache;
+
+
+	@BeforeEach
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(BulkService.class);
+		this.cache = this.context.getBean(CountingCache.class);
+	}
+
+	@AfterEach
+	public void closeContext() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void invokeForMissingElementsOnly() {
+		assertThat(this.service.findAll(Arrays.asList(1L, 2L))).containsExactly(entry(1L, "value1"), entry(2L, "value2"));
+		assertThat(this.service.getInvocations()).containsExactly(Arrays.asList(1L, 2L));
+		assertThat(this.cache.getAllCount.get()).isEqualTo(1);
+		assertThat(this.cache.putAllCount.get()).isEqualTo(1);
+
+		assertThat(this.service.findAll(Arrays.asList(2L, 3L, 1L))).containsExactly(entry(2L, "value2"), entry(3L, "value3"), entry(1L, "value1"));
+		assertThat(this.service.getInvocations()).containsExactly(Arrays.asList(1L, 2L), Collections.singletonList(3L));
+
+		assertThat(this.service.findAll(Arrays.asList(3L, 1L))).containsExactly(entry(3L, "value3"), entry(1L, "value1"));
+		assertThat(this.service.getInvocations()).hasSize(2);
+		assertThat(this.cache.getAllCount.get()).isEqualTo(3);
+		assertThat(this.cache.putAllCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void invokeWithCollectionOfParameterType() {
+		this.service.findAllInSet(new TreeSet<>(Arrays.asList("a", "b")));
+		assertThat(this.service.findAllInSet(Collections.singleton("c"))).containsOnlyKeys("c");
+		assertThat(this.service.getInvocations()).hasSize(2);
+		assertThat(this.service.getInvocations().get(1)).containsExactly("c");
+	}
+
+	@Test
+	public void unlessIsEvaluatedPerEntry() {
+		assertThat(this.service.findAllUnlessNull(Arrays.asList(1L, -1L))).containsOnlyKeys(1L, -1L);
+		assertThat(this.cache.getNativeCache()).containsOnlyKeys(1L);
+		this.service.findAllUnlessNull(Arrays.asList(1L, -1L));
+		assertThat(this.service.getInvocations()).containsExactly(Arrays.asList(1L, -1L), Collections.singletonList(-1L));
+	}
+
+	@Test
+	public void conditionNotPassing() {
+		this.service.findAllConditional(Arrays.asList(1L, 2L));
+		assertThat(this.cache.getNativeCache()).isEmpty();
+		assertThat(this.cache.getAllCount.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void bulkRequiresCollectionParameter() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findOne(1L))
+				.withMessageContaining("@Cacheable(bulk=true) requires a single Collection parameter");
+	}
+
+	@Test
+	public void bulkRequiresSupportedCollectionType() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAllInEnumSet(EnumSet.of(TimeUnit.SECONDS)))
+				.withMessageContaining("@Cacheable(bulk=true) requires a Collection parameter type");
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAllInQueue(new ArrayDeque<>()))
+				.withMessageContaining("@Cacheable(bulk=true) requires a Collection parameter type");
+	}
+
+	@Test
+	public void bulkRequiresSupportedMapType() {
+		this.cache.put(1L, "value1");
+		// Validated before looking up the cache
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAllAsEnumMap(Collections.singleton(1L)))
+				.withMessageContaining("@Cacheable(bulk=true) requires a Map return type");
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAllAsAbstractMap(Collections.singleton(1L)))
+				.withMessageContaining("@Cacheable(bulk=true) requires a Map return type");
+	}
+
+	@Test
+	public void bulkDoesNotSupportKey() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAllWithKey(Arrays.asList(1L, 2L)))
+				.withMessageContaining("@Cacheable(bulk=true) does not support key attribute");
+	}
+
+	@Test
+	public void bulkCannotBeCombined() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.findAllAndEvict(Arrays.asList(1L, 2L)))
+				.withMessageContaining("@Cacheable(bulk=true) cannot be combined with other cache operations");
+	}
+
+
+	static class BulkService {
+
+		private final List<List<Object>> invocations = new ArrayList<>();
+
+		public List<List<Object>> getInvocations() {
+			return this.invocations;
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<Long, String> findAll(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<String, String> findAllInSet(Set<String> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true, unless = "#result == null")
+		public Map<Long, String> findAllUnlessNull(List<Long> ids) {
+			Map<Long, String> result = load(ids);
+			result.replaceAll((id, value) -> (id < 0 ? null : value));
+			return result;
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true, condition = "#ids.size() > 2")
+		public Map<Long, String> findAllConditional(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public String findOne(Long id) {
+			return "value" + id;
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<TimeUnit, String> findAllInEnumSet(EnumSet<TimeUnit> units) {
+			return load(units);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<Long, String> findAllInQueue(Queue<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public EnumMap<TimeUnit, String> findAllAsEnumMap(Collection<Long> ids) {
+			return new EnumMap<>(TimeUnit.class);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public AbstractMap<Long, String> findAllAsAbstractMap(Collection<Long> ids) {
+			return new HashMap<>(load(ids));
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true, key = "#ids")
+		public Map<Long, String> findAllWithKey(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		@CacheEvict(cacheNames = "testCache", allEntries = true)
+		public Map<Long, String> findAllAndEvict(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		private <K> Map<K, String> load(Collection<K> ids) {
+			this.invocations.add(new ArrayList<>(ids));
+			Map<K, String> result = new LinkedHashMap<>();
+			for (K id : ids) {
+				result.put(id, "value" + id);
+			}
+			return result;
+		}
+	}
+
+
+	static class CountingCache extends ConcurrentMapCache {
+
+		final AtomicInteger getAllCount = new AtomicInteger();
+
+		final AtomicInteger putAllCount = new AtomicInteger();
+
+		CountingCache(String name) {
+			super(name);
+		}
+
+		@Override
+		public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+			this.getAllCount.incrementAndGet();
+			return super.getAll(keys);
+		}
+
+		@Override
+		public void putAll(Map<?, ?> entries) {
+			this.putAllCount.incrementAndGet();
+			super.putAll(entries);
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CountingCache testCache() {
+			return new CountingCache("testCache");
+		}
+
+		@Bean
+		public CacheManager cacheManager(Cache testCache) {
+			SimpleCacheManager cacheManager = new SimpleCacheManager();
+			cacheManager.setCaches(Collections.singletonList(testCache));
+			return cacheManager;
+		}
+
+		@Bean
+		public BulkService bulkService() {
+			return new BulkService();
+		}
+	}
+
+}
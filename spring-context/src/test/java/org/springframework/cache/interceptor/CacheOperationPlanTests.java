@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the reuse of the resolved cache operations per method.
+ */
+public class CacheOperationPlanTests {
+
+	@Test
+	public void resolvedOperationsReusedForCompositeSource() {
+		CacheableOperation.Builder builder = new CacheableOperation.Builder();
+		builder.setCacheName("greetings");
+		NameMatchCacheOperationSource source = new NameMatchCacheOperationSource();
+		source.addCacheMethod("greet", Collections.singletonList(builder.build()));
+
+		CountingCacheInterceptor interceptor = new CountingCacheInterceptor();
+		// Composite source, returning a new collection for every call
+		interceptor.setCacheOperationSources(source, new NameMatchCacheOperationSource());
+		interceptor.setCacheManager(new ConcurrentMapCacheManager("greetings"));
+		interceptor.afterSingletonsInstantiated();
+
+		ProxyFactory proxyFactory = new ProxyFactory(new Greeter());
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAdvice(interceptor);
+		Greeter greeter = (Greeter) proxyFactory.getProxy();
+
+		assertThat(greeter.greet("John")).isEqualTo("Hello John 1");
+		assertThat(greeter.greet("John")).isEqualTo("Hello John 1");
+		assertThat(greeter.greet("Jon")).isEqualTo("Hello Jon 2");
+		assertThat(interceptor.metadataLookups).hasValue(1);
+	}
+
+
+	public static class Greeter {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		public String greet(String name) {
+			return "Hello " + name + " " + this.counter.incrementAndGet();
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class CountingCacheInterceptor extends CacheInterceptor {
+
+		final AtomicInteger metadataLookups = new AtomicInteger();
+
+		@Override
+		protected CacheOperationMetadata getCacheOperationMetadata(
+				CacheOperation operation, Method method, Class<?> targetClass) {
+
+			this.metadataLookups.incrementAndGet();
+			return super.getCacheOperationMetadata(operation, method, targetClass);
+		}
+	}
+
+}
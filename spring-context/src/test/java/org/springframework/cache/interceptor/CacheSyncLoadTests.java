@@ -0,0 +1,314 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Tests for the synchronized loading and refreshing of {@link Cacheable#sync()} operations.
+ */
+public class CacheSyncLoadTests {
+
+	private ConfigurableApplicationContext context;
+
+	private SyncService service;
+
+
+	@BeforeEach
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(SyncService.class);
+	}
+
+	@AfterEach
+	public void closeContext() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void concurrentCallersShareSingleInvocation() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				results.add(executor.submit(() -> this.service.slowLoad("key")));
+			}
+			assertThat(this.service.getStarted().await(10, TimeUnit.SECONDS)).isTrue();
+			Thread.sleep(100);
+			this.service.getRelease().countDown();
+			for (Future<String> result : results) {
+				assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("value1");
+			}
+			assertThat(this.service.getInvocationCount()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void loadingCallerDoesNotHoldCacheProviderLock() throws Exception {
+		Cache cache = this.context.getBean(CacheManager.class).getCache("lockingCache");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> result = executor.submit(() -> this.service.slowLoadWithLockingCache("key"));
+			assertThat(this.service.getStarted().await(10, TimeUnit.SECONDS)).isTrue();
+			assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+					assertThat(cache.get("key", () -> "direct")).isEqualTo("direct"));
+			this.service.getRelease().countDown();
+			assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("value1");
+			assertThat(cache.get("key").get()).isEqualTo("value1");
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void recursiveCallForSameKeyDoesNotWaitForItself() {
+		SyncService proxy = this.service;
+		proxy.setSelf(proxy);
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+				assertThat(proxy.recursiveLoad("key", 2)).isEqualTo("value!!"));
+	}
+
+	@Test
+	public void refreshAhead() throws InterruptedException {
+		CacheInterceptor interceptor = this.context.getBean(CacheInterceptor.class);
+		interceptor.setRefreshAfter(Duration.ofMillis(1));
+		interceptor.setRefreshExecutor(Runnable::run);
+
+		assertThat(this.service.load("key")).isEqualTo("value1");
+		Thread.sleep(5);
+		assertThat(this.service.load("key")).isEqualTo("value1");
+		assertThat(this.service.getInvocationCount()).isEqualTo(2);
+		Thread.sleep(5);
+		assertThat(this.service.load("key")).isEqualTo("value2");
+		assertThat(this.service.getInvocationCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void entriesOfUnknownAgeAreNotRefreshedOnFirstAccess() {
+		CacheInterceptor interceptor = this.context.getBean(CacheInterceptor.class);
+		interceptor.setRefreshAfter(Duration.ofHours(1));
+		interceptor.setRefreshExecutor(Runnable::run);
+		this.context.getBean(CacheManager.class).getCache("testCache").put("key", "external");
+
+		assertThat(this.service.load("key")).isEqualTo("external");
+		assertThat(this.service.load("key")).isEqualTo("external");
+		assertThat(this.service.getInvocationCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void failedRefreshIsNotRetriedRightAway() throws InterruptedException {
+		CacheInterceptor interceptor = this.context.getBean(CacheInterceptor.class);
+		interceptor.setRefreshAfter(Duration.ofMillis(200));
+		interceptor.setRefreshExecutor(Runnable::run);
+
+		assertThat(this.service.failingRefresh("key")).isEqualTo("value1");
+		Thread.sleep(250);
+		assertThat(this.service.failingRefresh("key")).isEqualTo("value1");
+		assertThat(this.service.getInvocationCount()).isEqualTo(2);
+		for (int i = 0; i < 10; i++) {
+			assertThat(this.service.failingRefresh("key")).isEqualTo("value1");
+		}
+		assertThat(this.service.getInvocationCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void evictionDuringRefreshIsNotOverwritten() throws InterruptedException {
+		CacheInterceptor interceptor = this.context.getBean(CacheInterceptor.class);
+		interceptor.setRefreshAfter(Duration.ofMillis(1));
+		ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+		interceptor.setRefreshExecutor(refreshExecutor);
+		try {
+			assertThat(this.service.blockingRefresh("key")).isEqualTo("value1");
+			Thread.sleep(5);
+			assertThat(this.service.blockingRefresh("key")).isEqualTo("value1");
+			assertThat(this.service.getStarted().await(10, TimeUnit.SECONDS)).isTrue();
+			this.service.evict("key");
+			this.service.getRelease().countDown();
+			refreshExecutor.shutdown();
+			assertThat(refreshExecutor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+			assertThat(this.context.getBean(CacheManager.class).getCache("testCache").get("key")).isNull();
+			assertThat(this.service.getInvocationCount()).isEqualTo(2);
+		}
+		finally {
+			refreshExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void noRefreshWithoutExecutor() {
+		this.context.getBean(CacheInterceptor.class).setRefreshAfter(Duration.ofNanos(1));
+
+		assertThat(this.service.load("key")).isEqualTo("value1");
+		assertThat(this.service.load("key")).isEqualTo("value1");
+		assertThat(this.service.getInvocationCount()).isEqualTo(1);
+	}
+
+
+	static class SyncService {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		private final CountDownLatch started = new CountDownLatch(1);
+
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		private SyncService self;
+
+		public void setSelf(SyncService self) {
+			this.self = self;
+		}
+
+		public int getInvocationCount() {
+			return this.counter.get();
+		}
+
+		public CountDownLatch getStarted() {
+			return this.started;
+		}
+
+		public CountDownLatch getRelease() {
+			return this.release;
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public String slowLoad(String key) throws InterruptedException {
+			this.started.countDown();
+			this.release.await(10, TimeUnit.SECONDS);
+			return "value" + this.counter.incrementAndGet();
+		}
+
+		@Cacheable(cacheNames = "lockingCache", sync = true)
+		public String slowLoadWithLockingCache(String key) throws InterruptedException {
+			return slowLoad(key);
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public String load(String key) {
+			return "value" + this.counter.incrementAndGet();
+		}
+
+		@Cacheable(cacheNames = "testCache", key = "#key", sync = true)
+		public String recursiveLoad(String key, int depth) {
+			return (depth > 0 ? this.self.recursiveLoad(key, depth - 1) + "!" : "value");
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public String blockingRefresh(String key) throws InterruptedException {
+			int count = this.counter.incrementAndGet();
+			if (count > 1) {
+				this.started.countDown();
+				this.release.await(10, TimeUnit.SECONDS);
+			}
+			return "value" + count;
+		}
+
+		@CacheEvict(cacheNames = "testCache")
+		public void evict(String key) {
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public String failingRefresh(String key) {
+			if (this.counter.incrementAndGet() > 1) {
+				throw new IllegalStateException("Backend unavailable");
+			}
+			return "value1";
+		}
+	}
+
+
+	/**
+	 * Cache without any synchronization of its own in {@link #get(Object, Callable)}.
+	 */
+	static class UnsynchronizedCache extends ConcurrentMapCache {
+
+		UnsynchronizedCache(String name) {
+			super(name);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T get(Object key, Callable<T> valueLoader) {
+			ValueWrapper valueWrapper = get(key);
+			if (valueWrapper != null) {
+				return (T) valueWrapper.get();
+			}
+			try {
+				T value = valueLoader.call();
+				put(key, value);
+				return value;
+			}
+			catch (Exception ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			SimpleCacheManager cacheManager = new SimpleCacheManager();
+			cacheManager.setCaches(Arrays.asList(new UnsynchronizedCache("testCache"),
+					new ConcurrentMapCache("lockingCache")));
+			return cacheManager;
+		}
+
+		@Bean
+		public SyncService syncService() {
+			return new SyncService();
+		}
+	}
+
+}
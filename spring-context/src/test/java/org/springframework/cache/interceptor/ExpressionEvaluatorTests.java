@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,8 @@ import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.ReflectionUtils;
 
@@ -136,15 +138,52 @@ public class ExpressionEvaluatorTests {
 		assertThat(value).isEqualTo(String.class.getName());
 	}
 
+	@Test
+	public void keyExpressionIsCompiledAfterRepeatedEvaluation() {
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		Expression expression = this.eval.getKeyExpression(
+				"#a.toString()", new AnnotatedElementKey(method, AnnotatedClass.class));
+		assertThat(expression).isInstanceOf(SpelExpression.class);
+		for (int i = 0; i < 200; i++) {
+			assertThat(this.eval.key(expression, createArgsEvaluationContext("value" + i, "other"))).isEqualTo("value" + i);
+		}
+		// Compiled by now: nothing left to do for the compiler, evaluating through compiled code
+		assertThat(((SpelExpression) expression).compileExpression()).isTrue();
+		assertThat(this.eval.key(expression, createArgsEvaluationContext("compiled", "other"))).isEqualTo("compiled");
+
+		// Compiled for String arguments, falling back to interpretation for others
+		assertThat(this.eval.key(expression, createArgsEvaluationContext(42, "other"))).isEqualTo("42");
+	}
+
+	@Test
+	public void parsedExpressionsAreShared() {
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		AnnotatedElementKey methodKey = new AnnotatedElementKey(method, AnnotatedClass.class);
+		assertThat(this.eval.getKeyExpression("#a", methodKey)).isSameAs(this.eval.getKeyExpression("#a", methodKey));
+		assertThat(this.eval.getConditionExpression("#a", methodKey)).isNotSameAs(this.eval.getKeyExpression("#a", methodKey));
+		Expression unless = this.eval.getUnlessExpression("#b == null", methodKey);
+		assertThat(this.eval.unless(unless, createArgsEvaluationContext("a", null))).isTrue();
+		assertThat(this.eval.unless(unless, createArgsEvaluationContext("a", "b"))).isFalse();
+	}
+
 	private EvaluationContext createEvaluationContext(Object result) {
 		return createEvaluationContext(result, null);
 	}
 
+	private EvaluationContext createArgsEvaluationContext(Object a, Object b) {
+		return createEvaluationContext(CacheOperationExpressionEvaluator.NO_RESULT, null, new Object[] {a, b});
+	}
+
 	private EvaluationContext createEvaluationContext(Object result, BeanFactory beanFactory) {
+		return createEvaluationContext(result, beanFactory, new Object[] {new Object(), new Object()});
+	}
+
+	private EvaluationContext createEvaluationContext(Object result, BeanFactory beanFactory, Object[] args) {
 		AnnotatedClass target = new AnnotatedClass();
 		Method method = ReflectionUtils.findMethod(
 				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
-		Object[] args = new Object[] {new Object(), new Object()};
 		Collection<ConcurrentMapCache> caches = Collections.singleton(new ConcurrentMapCache("test"));
 		return this.eval.createEvaluationContext(
 				caches, method, args, target, target.getClass(), method, result, beanFactory);
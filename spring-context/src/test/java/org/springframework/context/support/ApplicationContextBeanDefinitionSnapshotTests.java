@@ -0,0 +1,310 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportAware;
+import org.springframework.context.annotation.ImportSelector;
+import org.springframework.context.annotation.ScannedGenericBeanDefinition;
+import org.springframework.context.annotation.componentscan.simple.SimpleComponent;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link AbstractApplicationContext#setBeanDefinitionSnapshotFile}.
+ */
+class ApplicationContextBeanDefinitionSnapshotTests {
+
+	private File snapshotFile;
+
+
+	@BeforeEach
+	void setup(@TempDir Path tempDir) {
+		this.snapshotFile = tempDir.resolve("snapshot/beans.ser").toFile();
+		CountingCondition.evaluations.set(0);
+	}
+
+
+	@Test
+	void restoreConfigurationClasses() {
+		try (AnnotationConfigApplicationContext context = createAnnotationContext()) {
+			assertThat(context.getBean("conditionalBean")).isEqualTo("conditional");
+		}
+		assertThat(this.snapshotFile).isFile();
+		int evaluations = CountingCondition.evaluations.get();
+		assertThat(evaluations).isGreaterThan(0);
+
+		try (AnnotationConfigApplicationContext context = createAnnotationContext()) {
+			assertThat(CountingCondition.evaluations.get()).isEqualTo(evaluations);
+			assertThat(context.getBean("conditionalBean")).isEqualTo("conditional");
+			assertThat(context.getBean("importedBean", TestBean.class).getName()).isEqualTo("imported");
+			assertThat(context.getBean(ImportedConfig.class).importingClassName).isEqualTo(MainConfig.class.getName());
+			assertThat(context.getBean(SelectedConfig.class).importingClassName).isEqualTo(MainConfig.class.getName());
+			assertThat(context.getBean(MainConfig.class).getClass()).isNotEqualTo(MainConfig.class);
+			assertThat(context.getBean(MainConfig.class).importedBean()).isSameAs(context.getBean("importedBean"));
+
+			BeanDefinition importedConfig = context.getBeanDefinition(ImportedConfig.class.getName());
+			assertThat(importedConfig).isInstanceOf(AnnotatedGenericBeanDefinition.class);
+			assertThat(((AnnotatedBeanDefinition) importedConfig).getMetadata().getClassName())
+					.isEqualTo(ImportedConfig.class.getName());
+			BeanDefinition beanMethod = context.getBeanDefinition("importedBean");
+			assertThat(beanMethod).isInstanceOf(AnnotatedBeanDefinition.class);
+			assertThat(((AnnotatedBeanDefinition) beanMethod).getMetadata().getClassName())
+					.isEqualTo(MainConfig.class.getName());
+			assertThat(((AnnotatedBeanDefinition) beanMethod).getFactoryMethodMetadata().getMethodName())
+					.isEqualTo("importedBean");
+		}
+	}
+
+	@Test
+	void restoreScannedComponents() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshotFile(this.snapshotFile);
+		context.register(ScanningConfig.class);
+		context.refresh();
+		context.close();
+
+		context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshotFile(this.snapshotFile);
+		context.register(ScanningConfig.class);
+		context.refresh();
+		BeanDefinition scanned = context.getBeanDefinition("simpleComponent");
+		assertThat(scanned).isInstanceOf(ScannedGenericBeanDefinition.class);
+		assertThat(((AnnotatedBeanDefinition) scanned).getMetadata().getClassName())
+				.isEqualTo(SimpleComponent.class.getName());
+		assertThat(context.getBean(SimpleComponent.class)).isNotNull();
+		assertThat(context.getBean("exampleBean")).isEqualTo("example");
+		context.close();
+	}
+
+	@Test
+	void ignoreSnapshotForDifferentProfiles() {
+		createAnnotationContext().close();
+		int evaluations = CountingCondition.evaluations.get();
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshotFile(this.snapshotFile);
+		context.getEnvironment().setActiveProfiles("other");
+		context.register(MainConfig.class);
+		context.refresh();
+		assertThat(CountingCondition.evaluations.get()).isGreaterThan(evaluations);
+		assertThat(context.getBean(ImportedConfig.class).importingClassName).isEqualTo(MainConfig.class.getName());
+		context.close();
+	}
+
+	@Test
+	void restoreWithSymbolicLinkCycleOnClassPath(@TempDir Path tempDir) throws IOException {
+		Path classes = tempDir.resolve("classes");
+		Files.createSymbolicLink(Files.createDirectories(classes.resolve("nested")).resolve("cycle"), classes);
+		ClassLoader classLoader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, getClass().getClassLoader());
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setClassLoader(classLoader);
+		context.setBeanDefinitionSnapshotFile(this.snapshotFile);
+		context.register(MainConfig.class);
+		context.refresh();
+		context.close();
+		int evaluations = CountingCondition.evaluations.get();
+
+		context = new AnnotationConfigApplicationContext();
+		context.setClassLoader(classLoader);
+		context.setBeanDefinitionSnapshotFile(this.snapshotFile);
+		context.register(MainConfig.class);
+		context.refresh();
+		assertThat(CountingCondition.evaluations.get()).isEqualTo(evaluations);
+		assertThat(context.getBean("conditionalBean")).isEqualTo("conditional");
+		context.close();
+	}
+
+	@Test
+	void restoreXmlBeanDefinitionsWithoutLoadingThem() {
+		CountingXmlApplicationContext context = createXmlContext("org/springframework/context/support/simpleContext.xml");
+		assertThat(context.getBean("yourMessageSource")).isInstanceOf(StaticMessageSource.class);
+		assertThat(context.loadCount).isEqualTo(1);
+		context.close();
+
+		context = createXmlContext("org/springframework/context/support/simpleContext.xml");
+		assertThat(context.getBean("yourMessageSource")).isInstanceOf(StaticMessageSource.class);
+		assertThat(context.loadCount).isEqualTo(0);
+		context.close();
+	}
+
+	@Test
+	void ignoreSnapshotForDifferentConfigLocations() {
+		createXmlContext("org/springframework/context/support/simpleContext.xml").close();
+
+		assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+				createXmlContext("org/springframework/context/support/nonExistent.xml"));
+	}
+
+	@Test
+	void ignoreSnapshotForModifiedXmlFiles(@TempDir Path tempDir) throws IOException {
+		Path main = tempDir.resolve("main.xml");
+		Path imported = tempDir.resolve("imported.xml");
+		Files.write(main, beansXml("<import resource=\"imported.xml\"/>"));
+		Files.write(imported, beansXml("<bean id=\"bean\" class=\"java.lang.String\"><constructor-arg value=\"original\"/></bean>"));
+		CountingXmlApplicationContext context = createXmlContext(main.toUri().toString());
+		assertThat(context.getBean("bean")).isEqualTo("original");
+		context.close();
+
+		Files.write(imported, beansXml("<bean id=\"bean\" class=\"java.lang.String\"><constructor-arg value=\"modified value\"/></bean>"));
+		context = createXmlContext(main.toUri().toString());
+		assertThat(context.loadCount).isEqualTo(1);
+		assertThat(context.getBean("bean")).isEqualTo("modified value");
+		context.close();
+
+		context = createXmlContext(main.toUri().toString());
+		assertThat(context.loadCount).isEqualTo(0);
+		assertThat(context.getBean("bean")).isEqualTo("modified value");
+		context.close();
+	}
+
+
+	private CountingXmlApplicationContext createXmlContext(String configLocation) {
+		CountingXmlApplicationContext context = new CountingXmlApplicationContext();
+		context.setBeanDefinitionSnapshotFile(this.snapshotFile);
+		context.setConfigLocation(configLocation);
+		context.refresh();
+		return context;
+	}
+
+	private static byte[] beansXml(String content) {
+		return ("<beans xmlns=\"http://www.springframework.org/schema/beans\" " +
+				"xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" " +
+				"xsi:schemaLocation=\"http://www.springframework.org/schema/beans " +
+				"https://www.springframework.org/schema/beans/spring-beans.xsd\">" +
+				content + "</beans>").getBytes(StandardCharsets.UTF_8);
+	}
+
+	private AnnotationConfigApplicationContext createAnnotationContext() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshotFile(this.snapshotFile);
+		context.register(MainConfig.class);
+		context.refresh();
+		return context;
+	}
+
+
+	@Configuration
+	@Import({ImportedConfig.class, ConfigSelector.class})
+	static class MainConfig {
+
+		@Bean
+		@Conditional(CountingCondition.class)
+		public String conditionalBean() {
+			return "conditional";
+		}
+
+		@Bean
+		public TestBean importedBean() {
+			return new TestBean("imported");
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		String importingClassName;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importingClassName = importMetadata.getClassName();
+		}
+	}
+
+
+	static class ConfigSelector implements ImportSelector {
+
+		@Override
+		public String[] selectImports(AnnotationMetadata importingClassMetadata) {
+			return new String[] {SelectedConfig.class.getName()};
+		}
+	}
+
+
+	@Configuration
+	static class SelectedConfig implements ImportAware {
+
+		String importingClassName;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importingClassName = importMetadata.getClassName();
+		}
+	}
+
+
+	@Configuration
+	@ComponentScan(basePackageClasses = SimpleComponent.class)
+	static class ScanningConfig {
+	}
+
+
+	static class CountingXmlApplicationContext extends ClassPathXmlApplicationContext {
+
+		int loadCount;
+
+		@Override
+		protected void loadBeanDefinitions(DefaultListableBeanFactory beanFactory) throws IOException {
+			this.loadCount++;
+			super.loadBeanDefinitions(beanFactory);
+		}
+	}
+
+
+	static class CountingCondition implements Condition {
+
+		static final AtomicInteger evaluations = new AtomicInteger();
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			evaluations.incrementAndGet();
+			return true;
+		}
+	}
+
+}
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -98,6 +99,54 @@ public class GenericConversionServiceBenchmark {
 		}
 	}
 
+	@Benchmark
+	public void convertStringToIntegerCacheHit(ClassBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert(state.source, Integer.class));
+	}
+
+	@Benchmark
+	public void convertStringToIntegerCacheMiss(CacheMissBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert(state.source, Integer.class));
+	}
+
+	@Benchmark
+	public void canConvertWithoutMatchingConverter(ClassBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.canConvert(String.class, Thread.class));
+	}
+
+	@Benchmark
+	public void convertListOfStringToSetFromClass(ClassBenchmarkState state, Blackhole bh) {
+		bh.consume(state.conversionService.convert(state.list, Set.class));
+	}
+
+	@State(Scope.Benchmark)
+	public static class ClassBenchmarkState {
+
+		GenericConversionService conversionService = new DefaultConversionService();
+
+		@Param({"10"})
+		int collectionSize;
+
+		String source = "42";
+
+		List<String> list;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.list = IntStream.rangeClosed(1, collectionSize).mapToObj(String::valueOf).collect(Collectors.toList());
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class CacheMissBenchmarkState extends ClassBenchmarkState {
+
+		@Setup(Level.Invocation)
+		public void invalidateCache() {
+			// removing a convertible pair, even an unknown one, invalidates all cached converters
+			this.conversionService.removeConvertible(Void.class, Void.class);
+		}
+	}
+
 	@State(Scope.Benchmark)
 	public static class BenchmarkState {
 
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link DataBufferUtils#matcher(byte[]...)}, splitting a buffer
+ * of newline-delimited lines, compared with the byte-at-a-time matchers that
+ * preceded it (one Knuth-Morris-Pratt matcher per delimiter).
+ *
+ * @author Arjen Poutsma
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DataBufferUtilsMatcherBenchmark {
+
+	@Benchmark
+	public void matcher(BenchmarkState state, Blackhole bh) {
+		split(state.buffer, DataBufferUtils.matcher(state.delimiters), bh);
+	}
+
+	@Benchmark
+	public void byteAtATimeMatcher(BenchmarkState state, Blackhole bh) {
+		split(state.buffer, ByteAtATimeMatchers.matcher(state.delimiters), bh);
+	}
+
+	private static void split(DataBuffer buffer, DataBufferUtils.Matcher matcher, Blackhole bh) {
+		buffer.readPosition(0);
+		int endIdx;
+		while ((endIdx = matcher.match(buffer)) != -1) {
+			bh.consume(endIdx);
+			buffer.readPosition(endIdx + 1);
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"\\n", "\\r\\n,\\n"})
+		public String delimiter;
+
+		@Param({"80", "1000"})
+		public int lineLength;
+
+		@Param({"64"})
+		public int lineCount;
+
+		byte[][] delimiters;
+
+		DataBuffer buffer;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.delimiters = Arrays.stream(this.delimiter.split(","))
+					.map(d -> d.replace("\\r", "\r").replace("\\n", "\n").getBytes(StandardCharsets.UTF_8))
+					.toArray(byte[][]::new);
+			StringBuilder builder = new StringBuilder();
+			for (int i = 0; i < this.lineCount; i++) {
+				for (int j = 0; j < this.lineLength; j++) {
+					builder.append((char) ('a' + (i + j) % 26));
+				}
+				builder.append('\n');
+			}
+			this.buffer = DefaultDataBufferFactory.sharedInstance.wrap(
+					builder.toString().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+
+	/**
+	 * Copy of the byte-at-a-time matchers used up until 5.2.
+	 */
+	static class ByteAtATimeMatchers {
+
+		static DataBufferUtils.Matcher matcher(byte[]... delimiters) {
+			if (delimiters.length == 1) {
+				return new KnuthMorrisPrattMatcher(delimiters[0]);
+			}
+			DataBufferUtils.Matcher[] matchers = new DataBufferUtils.Matcher[delimiters.length];
+			for (int i = 0; i < delimiters.length; i++) {
+				matchers[i] = new KnuthMorrisPrattMatcher(delimiters[i]);
+			}
+			return new CompositeMatcher(matchers);
+		}
+
+
+		private static class KnuthMorrisPrattMatcher implements DataBufferUtils.Matcher {
+
+			private final byte[] delimiter;
+
+			private final int[] table;
+
+			private int matches = 0;
+
+			public KnuthMorrisPrattMatcher(byte[] delimiter) {
+				this.delimiter = Arrays.copyOf(delimiter, delimiter.length);
+				this.table = longestSuffixPrefixTable(delimiter);
+			}
+
+			private static int[] longestSuffixPrefixTable(byte[] delimiter) {
+				int[] result = new int[delimiter.length];
+				result[0] = 0;
+				for (int i = 1; i < delimiter.length; i++) {
+					int j = result[i - 1];
+					while (j > 0 && delimiter[i] != delimiter[j]) {
+						j = result[j - 1];
+					}
+					if (delimiter[i] == delimiter[j]) {
+						j++;
+					}
+					result[i] = j;
+				}
+				return result;
+			}
+
+			@Override
+			public int match(DataBuffer dataBuffer) {
+				for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
+					byte b = dataBuffer.getByte(i);
+
+					while (this.matches > 0 && b != this.delimiter[this.matches]) {
+						this.matches = this.table[this.matches - 1];
+					}
+
+					if (b == this.delimiter[this.matches]) {
+						this.matches++;
+						if (this.matches == this.delimiter.length) {
+							reset();
+							return i;
+						}
+					}
+				}
+				return -1;
+			}
+
+			@Override
+			public byte[] delimiter() {
+				return Arrays.copyOf(this.delimiter, this.delimiter.length);
+			}
+
+			@Override
+			public void reset() {
+				this.matches = 0;
+			}
+		}
+
+
+		private static class CompositeMatcher implements DataBufferUtils.Matcher {
+
+			private static final byte[] NO_DELIMITER = new byte[0];
+
+			private final DataBufferUtils.Matcher[] matchers;
+
+			byte[] longestDelimiter = NO_DELIMITER;
+
+			public CompositeMatcher(DataBufferUtils.Matcher[] matchers) {
+				this.matchers = matchers;
+			}
+
+			@Override
+			public int match(DataBuffer dataBuffer) {
+				this.longestDelimiter = NO_DELIMITER;
+				int bestEndIdx = Integer.MAX_VALUE;
+
+				for (DataBufferUtils.Matcher matcher : this.matchers) {
+					int endIdx = matcher.match(dataBuffer);
+					if (endIdx != -1 &&
+							endIdx <= bestEndIdx &&
+							matcher.delimiter().length > this.longestDelimiter.length) {
+						bestEndIdx = endIdx;
+						this.longestDelimiter = matcher.delimiter();
+					}
+				}
+				if (bestEndIdx == Integer.MAX_VALUE) {
+					this.longestDelimiter = NO_DELIMITER;
+					return -1;
+				}
+				else {
+					reset();
+					return bestEndIdx;
+				}
+			}
+
+			@Override
+			public byte[] delimiter() {
+				return this.longestDelimiter;
+			}
+
+			@Override
+			public void reset() {
+				for (DataBufferUtils.Matcher matcher : this.matchers) {
+					matcher.reset();
+				}
+			}
+		}
+	}
+
+}
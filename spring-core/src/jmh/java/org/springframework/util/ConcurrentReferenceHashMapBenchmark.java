@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks comparing {@link ConcurrentReferenceHashMap} with
+ * {@link ConcurrentReferenceOpenHashMap} under contended, read-mostly access.
+ *
+ * @author Brian Clozel
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(4)
+public class ConcurrentReferenceHashMapBenchmark {
+
+	@Benchmark
+	public void get(MapState mapState, ThreadState threadState, Blackhole bh) {
+		bh.consume(mapState.map.get(mapState.keys[threadState.nextIndex()]));
+	}
+
+	@Benchmark
+	public void getWithOccasionalPut(MapState mapState, ThreadState threadState, Blackhole bh) {
+		int index = threadState.nextIndex();
+		if ((index & 63) == 0) {
+			bh.consume(mapState.map.put(mapState.keys[index], mapState.values[index]));
+		}
+		else {
+			bh.consume(mapState.map.get(mapState.keys[index]));
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class MapState {
+
+		@Param({"concurrentReferenceHashMap", "concurrentReferenceOpenHashMap"})
+		public String mapType;
+
+		@Param({"1024"})
+		public int size;
+
+		Map<Object, Object> map;
+
+		Object[] keys;
+
+		Object[] values;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.map = (this.mapType.equals("concurrentReferenceOpenHashMap") ?
+					new ConcurrentReferenceOpenHashMap<>() : new ConcurrentReferenceHashMap<>());
+			this.keys = new Object[this.size];
+			this.values = new Object[this.size];
+			for (int i = 0; i < this.size; i++) {
+				this.keys[i] = "key" + i;
+				this.values[i] = "value" + i;
+				this.map.put(this.keys[i], this.values[i]);
+			}
+		}
+	}
+
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+
+		private int index;
+
+		private int mask;
+
+		@Setup(Level.Trial)
+		public void setup(MapState mapState) {
+			this.mask = Integer.highestOneBit(mapState.size) - 1;
+			this.index = ThreadLocalRandom.current().nextInt(mapState.size);
+		}
+
+		int nextIndex() {
+			this.index = (this.index + 7) & this.mask;
+			return this.index;
+		}
+	}
+
+}
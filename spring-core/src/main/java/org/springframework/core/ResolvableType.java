@@ -38,7 +38,6 @@ import org.springframework.core.SerializableTypeWrapper.TypeProvider;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -91,8 +90,34 @@ public class ResolvableType implements Serializable {
 
 	private static final ResolvableType[] EMPTY_TYPES_ARRAY = new ResolvableType[0];
 
-	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
-			new ConcurrentReferenceHashMap<>(256);
+	/**
+	 * System property that instructs Spring to hold a bounded number of
+	 * {@code ResolvableType} and {@code SerializableTypeWrapper} instances in
+	 * its internal caches, e.g. {@code -Dspring.resolvabletype.cache-limit=1024}.
+	 * <p>By default, cached entries are softly referenced and purged once garbage
+	 * collected. A positive limit switches to strongly held entries with a lock-free
+	 * read path, evicting entries that have not been used recently once the limit
+	 * has been exceeded. Note that this keeps the corresponding types (and their
+	 * class loaders) reachable for as long as they remain in the cache.
+	 * <p>The effectiveness of a given limit can be checked through
+	 * {@link #getCacheStatistics()}, with {@link #CACHE_STATISTICS_PROPERTY_NAME}
+	 * enabled.
+	 * @since 5.3
+	 */
+	public static final String CACHE_LIMIT_PROPERTY_NAME = "spring.resolvabletype.cache-limit";
+
+	/**
+	 * System property that instructs Spring to record hit, miss and eviction counts
+	 * for its internal {@code ResolvableType} and {@code SerializableTypeWrapper}
+	 * caches, e.g. {@code -Dspring.resolvabletype.cache-statistics=true}.
+	 * <p>By default, no counts are recorded, keeping the cache access path free
+	 * of any bookkeeping.
+	 * @since 5.3
+	 * @see #getCacheStatistics()
+	 */
+	public static final String CACHE_STATISTICS_PROPERTY_NAME = "spring.resolvabletype.cache-statistics";
+
+	private static final TypeCache<ResolvableType, ResolvableType> cache = TypeCache.create();
 
 
 	/**
@@ -1430,9 +1455,6 @@ public class ResolvableType implements Serializable {
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
-		// Purge empty entries on access since we don't have a clean-up thread or the like.
-		cache.purgeUnreferencedEntries();
-
 		// Check the cache - we may have a ResolvableType which has been resolved before...
 		ResolvableType resultType = new ResolvableType(type, typeProvider, variableResolver);
 		ResolvableType cachedType = cache.get(resultType);
@@ -1453,6 +1475,112 @@ public class ResolvableType implements Serializable {
 		SerializableTypeWrapper.cache.clear();
 	}
 
+	/**
+	 * Return statistics for the internal {@code ResolvableType} cache.
+	 * <p>Hit, miss and eviction counts are only available with
+	 * {@link #CACHE_STATISTICS_PROPERTY_NAME} enabled, being 0 otherwise.
+	 * @since 5.3
+	 * @see #CACHE_LIMIT_PROPERTY_NAME
+	 * @see #CACHE_STATISTICS_PROPERTY_NAME
+	 */
+	public static CacheStatistics getCacheStatistics() {
+		return cache.getStatistics();
+	}
+
+	/**
+	 * Return statistics for the internal {@code SerializableTypeWrapper} cache,
+	 * holding serializable proxies for the generic types of fields and method
+	 * parameters.
+	 * @since 5.3
+	 * @see #CACHE_LIMIT_PROPERTY_NAME
+	 * @see #CACHE_STATISTICS_PROPERTY_NAME
+	 */
+	public static CacheStatistics getSerializableTypeCacheStatistics() {
+		return SerializableTypeWrapper.cache.getStatistics();
+	}
+
+
+	/**
+	 * Snapshot of the statistics of an internal {@code ResolvableType} cache.
+	 * @since 5.3
+	 * @see ResolvableType#getCacheStatistics()
+	 * @see ResolvableType#getSerializableTypeCacheStatistics()
+	 */
+	public static final class CacheStatistics {
+
+		private final int size;
+
+		private final int limit;
+
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long evictionCount;
+
+		CacheStatistics(int size, int limit, long hitCount, long missCount, long evictionCount) {
+			this.size = size;
+			this.limit = limit;
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+		}
+
+		/**
+		 * Return the number of entries currently held in the cache.
+		 */
+		public int getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Return the maximum number of entries, or {@code -1} for the
+		 * default reference-based cache without a fixed limit.
+		 */
+		public int getLimit() {
+			return this.limit;
+		}
+
+		/**
+		 * Return the number of lookups that found a cached entry.
+		 */
+		public long getHitCount() {
+			return this.hitCount;
+		}
+
+		/**
+		 * Return the number of lookups that did not find a cached entry.
+		 */
+		public long getMissCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * Return the number of entries evicted due to the cache limit.
+		 * <p>Entries purged after garbage collection in the default
+		 * reference-based mode are not counted here.
+		 */
+		public long getEvictionCount() {
+			return this.evictionCount;
+		}
+
+		/**
+		 * Return the ratio of hits to lookups, or {@code 0.0} if there
+		 * have not been any lookups yet.
+		 */
+		public double getHitRatio() {
+			long lookups = this.hitCount + this.missCount;
+			return (lookups > 0 ? (double) this.hitCount / lookups : 0.0);
+		}
+
+		@Override
+		public String toString() {
+			return "CacheStatistics [size=" + this.size + ", limit=" + this.limit +
+					", hits=" + this.hitCount + ", misses=" + this.missCount +
+					", evictions=" + this.evictionCount + "]";
+		}
+	}
+
 
 	/**
 	 * Strategy interface used to resolve {@link TypeVariable TypeVariables}.
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Internal cache for {@link ResolvableType} and {@link SerializableTypeWrapper}
+ * instances, optionally keeping track of hit, miss and eviction counts.
+ *
+ * <p>By default, entries are held through soft references and purged once
+ * garbage collected. A positive {@linkplain #create(int, boolean) limit} switches
+ * to a bounded {@link ConcurrentLruCache} with strongly held entries.
+ *
+ * @author Juergen Hoeller
+ * @since 5.3
+ * @param <K> the key type
+ * @param <V> the value type
+ * @see ResolvableType#CACHE_LIMIT_PROPERTY_NAME
+ * @see ResolvableType#CACHE_STATISTICS_PROPERTY_NAME
+ */
+abstract class TypeCache<K, V> {
+
+	@Nullable
+	private final Statistics statistics;
+
+
+	TypeCache(boolean recordStatistics) {
+		this.statistics = (recordStatistics ? new Statistics() : null);
+	}
+
+
+	/**
+	 * Return the cached value for the given key, if any.
+	 */
+	@Nullable
+	public final V get(K key) {
+		V value = doGet(key);
+		Statistics statistics = this.statistics;
+		if (statistics != null) {
+			(value != null ? statistics.hits : statistics.misses).increment();
+		}
+		return value;
+	}
+
+	/**
+	 * Add the given value to the cache.
+	 */
+	public abstract void put(K key, V value);
+
+	/**
+	 * Remove all entries from the cache.
+	 */
+	public abstract void clear();
+
+	/**
+	 * Return the current number of entries in the cache.
+	 */
+	public abstract int size();
+
+	/**
+	 * Return a snapshot of this cache's statistics, with hit, miss and
+	 * eviction counts of 0 unless recording statistics.
+	 */
+	public ResolvableType.CacheStatistics getStatistics() {
+		Statistics statistics = this.statistics;
+		if (statistics == null) {
+			return new ResolvableType.CacheStatistics(size(), getLimit(), 0, 0, 0);
+		}
+		return new ResolvableType.CacheStatistics(size(), getLimit(),
+				statistics.hits.sum(), statistics.misses.sum(), statistics.evictions.sum());
+	}
+
+	@Nullable
+	protected abstract V doGet(K key);
+
+	/**
+	 * Return the maximum number of entries, or {@code -1} if unbounded.
+	 */
+	protected abstract int getLimit();
+
+	protected final void recordEviction() {
+		Statistics statistics = this.statistics;
+		if (statistics != null) {
+			statistics.evictions.increment();
+		}
+	}
+
+
+	/**
+	 * Create a new cache according to the {@link ResolvableType#CACHE_LIMIT_PROPERTY_NAME}
+	 * and {@link ResolvableType#CACHE_STATISTICS_PROPERTY_NAME} settings, if any.
+	 */
+	public static <K, V> TypeCache<K, V> create() {
+		boolean recordStatistics = SpringProperties.getFlag(ResolvableType.CACHE_STATISTICS_PROPERTY_NAME);
+		String limit = SpringProperties.getProperty(ResolvableType.CACHE_LIMIT_PROPERTY_NAME);
+		if (!StringUtils.hasText(limit)) {
+			return create(0, recordStatistics);
+		}
+		try {
+			return create(Integer.parseInt(limit.trim()), recordStatistics);
+		}
+		catch (NumberFormatException ex) {
+			throw new IllegalStateException("Invalid value for " + ResolvableType.CACHE_LIMIT_PROPERTY_NAME +
+					": " + limit, ex);
+		}
+	}
+
+	/**
+	 * Create a new cache: bounded to the given number of entries if positive,
+	 * otherwise reference-based.
+	 * @param limit the maximum number of entries, or {@code 0} / a negative
+	 * value for a reference-based cache
+	 * @param recordStatistics whether to record hit, miss and eviction counts
+	 */
+	public static <K, V> TypeCache<K, V> create(int limit, boolean recordStatistics) {
+		return (limit > 0 ? new BoundedTypeCache<>(limit, recordStatistics) :
+				new ReferenceTypeCache<>(recordStatistics));
+	}
+
+
+	/**
+	 * Cache holding its entries through soft references, with garbage collected
+	 * entries getting purged by the map itself as part of regular access.
+	 */
+	private static class ReferenceTypeCache<K, V> extends TypeCache<K, V> {
+
+		private final ConcurrentReferenceHashMap<K, V> map = new ConcurrentReferenceHashMap<>(256);
+
+		ReferenceTypeCache(boolean recordStatistics) {
+			super(recordStatistics);
+		}
+
+		@Override
+		@Nullable
+		protected V doGet(K key) {
+			return this.map.get(key);
+		}
+
+		@Override
+		public void put(K key, V value) {
+			this.map.put(key, value);
+		}
+
+		@Override
+		public void clear() {
+			this.map.clear();
+		}
+
+		@Override
+		public int size() {
+			return this.map.size();
+		}
+
+		@Override
+		protected int getLimit() {
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Cache bounded to a maximum number of strongly held entries,
+	 * backed by a {@link ConcurrentLruCache}.
+	 */
+	private static class BoundedTypeCache<K, V> extends TypeCache<K, V> {
+
+		private final ConcurrentLruCache<K, V> cache;
+
+		BoundedTypeCache(int limit, boolean recordStatistics) {
+			super(recordStatistics);
+			this.cache = new ConcurrentLruCache<K, V>(limit) {
+				@Override
+				protected void onEviction(K key, V value) {
+					recordEviction();
+				}
+			};
+		}
+
+		@Override
+		@Nullable
+		protected V doGet(K key) {
+			return this.cache.getIfPresent(key);
+		}
+
+		@Override
+		public void put(K key, V value) {
+			this.cache.put(key, value);
+		}
+
+		@Override
+		public void clear() {
+			this.cache.clear();
+		}
+
+		@Override
+		public int size() {
+			return this.cache.size();
+		}
+
+		@Override
+		protected int getLimit() {
+			return this.cache.sizeLimit();
+		}
+	}
+
+
+	/**
+	 * Counters for the statistics of a cache.
+	 */
+	private static final class Statistics {
+
+		final LongAdder hits = new LongAdder();
+
+		final LongAdder misses = new LongAdder();
+
+		final LongAdder evictions = new LongAdder();
+	}
+
+}
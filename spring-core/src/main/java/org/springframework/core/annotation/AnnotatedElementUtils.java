@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -320,6 +320,9 @@ public abstract class AnnotatedElementUtils {
 	 * the result back into an annotation of the specified {@code annotationType}.
 	 * <p>{@link AliasFor @AliasFor} semantics are fully supported, both
 	 * within a single annotation and within the annotation hierarchy.
+	 * <p>As of 5.3, the result for a class or member is cached until
+	 * {@link AnnotationUtils#clearCache()} is called, with repeated lookups
+	 * returning the same synthesized annotation.
 	 * @param element the annotated element
 	 * @param annotationType the annotation type to find
 	 * @return the merged, synthesized {@code Annotation}, or {@code null} if not found
@@ -333,10 +336,8 @@ public abstract class AnnotatedElementUtils {
 				AnnotationsScanner.hasPlainJavaAnnotationsOnly(element)) {
 			return element.getDeclaredAnnotation(annotationType);
 		}
-		// Exhaustive retrieval of merged annotations...
-		return getAnnotations(element)
-				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared())
-				.synthesize(MergedAnnotation::isPresent).orElse(null);
+		// Exhaustive retrieval of merged annotations, cached per element...
+		return MergedAnnotationSnapshot.getMergedAnnotation(element, annotationType);
 	}
 
 	/**
@@ -613,6 +614,9 @@ public abstract class AnnotatedElementUtils {
 	 * within a single annotation and within the annotation hierarchy.
 	 * <p>This method follows <em>find semantics</em> as described in the
 	 * {@linkplain AnnotatedElementUtils class-level javadoc}.
+	 * <p>As of 5.3, the result for a class or member is cached until
+	 * {@link AnnotationUtils#clearCache()} is called, with repeated lookups
+	 * returning the same synthesized annotation.
 	 * @param element the annotated element
 	 * @param annotationType the annotation type to find
 	 * @return the merged, synthesized {@code Annotation}, or {@code null} if not found
@@ -628,10 +632,8 @@ public abstract class AnnotatedElementUtils {
 				AnnotationsScanner.hasPlainJavaAnnotationsOnly(element)) {
 			return element.getDeclaredAnnotation(annotationType);
 		}
-		// Exhaustive retrieval of merged annotations...
-		return findAnnotations(element)
-				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared())
-				.synthesize(MergedAnnotation::isPresent).orElse(null);
+		// Exhaustive retrieval of merged annotations, cached per element...
+		return MergedAnnotationSnapshot.findMergedAnnotation(element, annotationType);
 	}
 
 	/**
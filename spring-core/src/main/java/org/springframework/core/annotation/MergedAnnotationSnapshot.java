@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceOpenHashMap;
+
+/**
+ * Snapshot of the synthesized merged annotations of a single
+ * {@link AnnotatedElement}, as returned by
+ * {@link AnnotatedElementUtils#getMergedAnnotation} and
+ * {@link AnnotatedElementUtils#findMergedAnnotation}.
+ *
+ * <p>Each annotation type is resolved on first lookup only, with subsequent
+ * lookups returning the same synthesized annotation (or the same absence of
+ * one) without scanning or allocating. Since synthesized annotations are
+ * immutable, they can be safely shared between callers. Snapshots are only
+ * kept for classes and members.
+ *
+ * @author Phillip Webb
+ * @since 5.3
+ * @see AnnotationUtils#clearCache()
+ */
+final class MergedAnnotationSnapshot {
+
+	private static final Object NOT_PRESENT = new Object();
+
+	private static final Map<AnnotatedElement, MergedAnnotationSnapshot> cache =
+			new ConcurrentReferenceOpenHashMap<>(256);
+
+
+	private final AnnotatedElement element;
+
+	private final Map<Class<?>, Object> inheritedAnnotations = new ConcurrentHashMap<>(4);
+
+	private final Map<Class<?>, Object> typeHierarchyAnnotations = new ConcurrentHashMap<>(4);
+
+
+	private MergedAnnotationSnapshot(AnnotatedElement element) {
+		this.element = element;
+	}
+
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private <A extends Annotation> A get(
+			Map<Class<?>, Object> annotations, Class<A> annotationType, SearchStrategy searchStrategy) {
+
+		Object annotation = annotations.get(annotationType);
+		if (annotation == null) {
+			annotation = synthesize(this.element, annotationType, searchStrategy);
+			if (annotation == null) {
+				annotation = NOT_PRESENT;
+			}
+			Object existing = annotations.putIfAbsent(annotationType, annotation);
+			if (existing != null) {
+				annotation = existing;
+			}
+		}
+		return (annotation != NOT_PRESENT ? (A) annotation : null);
+	}
+
+
+	/**
+	 * Get the first annotation of the specified type within the annotation
+	 * hierarchy above the element, searching inherited annotations, and
+	 * synthesize it with merged attributes.
+	 * @see AnnotatedElementUtils#getMergedAnnotation(AnnotatedElement, Class)
+	 */
+	@Nullable
+	static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
+		if (!isCacheable(element)) {
+			return synthesize(element, annotationType, SearchStrategy.INHERITED_ANNOTATIONS);
+		}
+		MergedAnnotationSnapshot snapshot = of(element);
+		return snapshot.get(snapshot.inheritedAnnotations, annotationType, SearchStrategy.INHERITED_ANNOTATIONS);
+	}
+
+	/**
+	 * Find the first annotation of the specified type within the annotation
+	 * hierarchy above the element, searching the full type hierarchy, and
+	 * synthesize it with merged attributes.
+	 * @see AnnotatedElementUtils#findMergedAnnotation(AnnotatedElement, Class)
+	 */
+	@Nullable
+	static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
+		if (!isCacheable(element)) {
+			return synthesize(element, annotationType, SearchStrategy.TYPE_HIERARCHY);
+		}
+		MergedAnnotationSnapshot snapshot = of(element);
+		return snapshot.get(snapshot.typeHierarchyAnnotations, annotationType, SearchStrategy.TYPE_HIERARCHY);
+	}
+
+	/**
+	 * Only classes and members are cached, as opposed to transient adapters
+	 * such as the ones created for a {@code TypeDescriptor}.
+	 */
+	private static boolean isCacheable(AnnotatedElement element) {
+		return (element instanceof Class || element instanceof Member);
+	}
+
+	private static MergedAnnotationSnapshot of(AnnotatedElement element) {
+		MergedAnnotationSnapshot snapshot = cache.get(element);
+		if (snapshot == null) {
+			snapshot = new MergedAnnotationSnapshot(element);
+			MergedAnnotationSnapshot existing = cache.putIfAbsent(element, snapshot);
+			if (existing != null) {
+				snapshot = existing;
+			}
+		}
+		return snapshot;
+	}
+
+	@Nullable
+	private static <A extends Annotation> A synthesize(
+			AnnotatedElement element, Class<A> annotationType, SearchStrategy searchStrategy) {
+
+		return MergedAnnotations.from(element, searchStrategy, RepeatableContainers.none())
+				.get(annotationType, null, MergedAnnotationSelectors.firstDirectlyDeclared())
+				.synthesize(MergedAnnotation::isPresent).orElse(null);
+	}
+
+	static void clearCache() {
+		cache.clear();
+	}
+
+}
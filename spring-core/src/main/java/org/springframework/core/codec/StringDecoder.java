@@ -181,8 +181,8 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 	}
 
 	/**
-	 * Joins the given list of buffers. If the list ends with a {@link EndFrameBuffer}, it is
-	 * removed. If {@code stripDelimiter} is {@code true} and the resulting buffer ends with
+	 * Joins the given list of buffers, unless there is just one. If the list ends with a
+	 * {@link EndFrameBuffer}, it is removed. If {@code stripDelimiter} is {@code true} and the resulting buffer ends with
 	 * a delimiter, it is removed.
 	 * @param dataBuffers the data buffers to join
 	 * @param stripDelimiter whether to strip the delimiter
@@ -200,7 +200,9 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 			dataBuffers.remove(lastIdx);
 		}
 
-		DataBuffer result = dataBuffers.get(0).factory().join(dataBuffers);
+		// A frame contained in a single source buffer is a slice of it already
+		DataBuffer result = (dataBuffers.size() == 1 ? dataBuffers.get(0) :
+				dataBuffers.get(0).factory().join(dataBuffers));
 
 		if (stripDelimiter && matchingDelimiter != null) {
 			result.writePosition(result.writePosition() - matchingDelimiter.length);
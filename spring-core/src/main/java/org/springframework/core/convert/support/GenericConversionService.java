@@ -17,6 +17,7 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -46,6 +47,8 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ConcurrentReferenceOpenHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -78,6 +81,11 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	private final Map<Class<?>, Map<Class<?>, ClassPairConversion>> classPairCache =
+			new ConcurrentReferenceOpenHashMap<>(64);
+
+	private final boolean classPairShortcut = !overridesTypeDescriptorVariants(getClass());
+
 
 	// ConverterRegistry implementation
 
@@ -132,8 +140,14 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
-				TypeDescriptor.valueOf(targetType));
+		if (!this.classPairShortcut) {
+			return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
+					TypeDescriptor.valueOf(targetType));
+		}
+		if (sourceType == null) {
+			return true;
+		}
+		return (getClassPairConversion(sourceType, targetType).converter != null);
 	}
 
 	@Override
@@ -171,7 +185,16 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		if (source == null || !this.classPairShortcut) {
+			return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		}
+		ClassPairConversion conversion = getClassPairConversion(source.getClass(), targetType);
+		if (conversion.converter != null) {
+			Object result = ConversionUtils.invokeConverter(
+					conversion.converter, source, conversion.sourceType, conversion.targetType);
+			return (T) handleResult(conversion.sourceType, conversion.targetType, result);
+		}
+		return (T) handleConverterNotFound(source, conversion.sourceType, conversion.targetType);
 	}
 
 	@Override
@@ -243,6 +266,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 * First queries this ConversionService's converter cache.
 	 * On a cache miss, then performs an exhaustive search for a matching converter.
 	 * If no converter matches, returns the default converter.
+	 * <p>As of 5.3, the result for a plain source class and target class, as
+	 * used by {@link #convert(Object, Class)} and {@link #canConvert(Class, Class)},
+	 * is additionally cached per class pair until the converter registry changes.
 	 * @param sourceType the source type to convert from
 	 * @param targetType the target type to convert to
 	 * @return the generic converter that will perform the conversion,
@@ -302,8 +328,52 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return generics;
 	}
 
+	/**
+	 * Look up the type descriptors and the converter for the given class pair,
+	 * without any allocation once cached.
+	 */
+	private ClassPairConversion getClassPairConversion(Class<?> sourceType, Class<?> targetType) {
+		Map<Class<?>, ClassPairConversion> conversions = this.classPairCache.get(sourceType);
+		if (conversions == null) {
+			conversions = new ConcurrentReferenceOpenHashMap<>(4);
+			Map<Class<?>, ClassPairConversion> existing = this.classPairCache.putIfAbsent(sourceType, conversions);
+			if (existing != null) {
+				conversions = existing;
+			}
+		}
+		ClassPairConversion conversion = conversions.get(targetType);
+		if (conversion == null) {
+			TypeDescriptor sourceTypeDesc = TypeDescriptor.valueOf(sourceType);
+			TypeDescriptor targetTypeDesc = TypeDescriptor.valueOf(targetType);
+			conversion = new ClassPairConversion(
+					sourceTypeDesc, targetTypeDesc, getConverter(sourceTypeDesc, targetTypeDesc));
+			conversions.put(targetType, conversion);
+		}
+		return conversion;
+	}
+
+	/**
+	 * Determine whether the given subclass overrides any of the methods that the
+	 * {@code Class}-based shortcuts would otherwise bypass, in which case the
+	 * {@code Class} variants need to delegate to the {@code TypeDescriptor} variants.
+	 */
+	private static boolean overridesTypeDescriptorVariants(Class<?> clazz) {
+		if (clazz == GenericConversionService.class || clazz == DefaultConversionService.class) {
+			return false;
+		}
+		return (isOverridden(clazz, "canConvert", TypeDescriptor.class, TypeDescriptor.class) ||
+				isOverridden(clazz, "convert", Object.class, TypeDescriptor.class, TypeDescriptor.class) ||
+				isOverridden(clazz, "getConverter", TypeDescriptor.class, TypeDescriptor.class));
+	}
+
+	private static boolean isOverridden(Class<?> clazz, String methodName, Class<?>... paramTypes) {
+		Method method = ReflectionUtils.findMethod(clazz, methodName, paramTypes);
+		return (method == null || method.getDeclaringClass() != GenericConversionService.class);
+	}
+
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.classPairCache.clear();
 	}
 
 	@Nullable
@@ -494,6 +564,29 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Cached type descriptors and converter for a plain source class
+	 * and target class.
+	 */
+	private static final class ClassPairConversion {
+
+		final TypeDescriptor sourceType;
+
+		final TypeDescriptor targetType;
+
+		@Nullable
+		final GenericConverter converter;
+
+		ClassPairConversion(TypeDescriptor sourceType, TypeDescriptor targetType,
+				@Nullable GenericConverter converter) {
+
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+	}
+
+
 	/**
 	 * Manages all converters registered with the service.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -66,6 +66,19 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 	 */
 	public static final String IGNORE_GETENV_PROPERTY_NAME = "spring.getenv.ignore";
 
+	/**
+	 * System property that instructs Spring to cache resolved property values,
+	 * rather than searching all property sources on every lookup.
+	 * <p>The default is "false". Consider switching this flag to "true" if the
+	 * property sources do not change their values once set up, e.g. when many
+	 * {@code @Value} injection points are resolved for prototype or request-scoped
+	 * beans. Adding, removing or replacing a property source clears the cache.
+	 * @since 5.3
+	 * @see #createPropertyResolver(MutablePropertySources)
+	 * @see PropertySourcesPropertyResolver#setCacheResolvedProperties
+	 */
+	public static final String CACHE_RESOLVED_PROPERTIES_PROPERTY_NAME = "spring.env.cache-resolved-properties";
+
 	/**
 	 * Name of property to set to specify active profiles: {@value}. Value may be comma
 	 * delimited.
@@ -109,8 +122,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 
 	private final MutablePropertySources propertySources = new MutablePropertySources();
 
-	private final ConfigurablePropertyResolver propertyResolver =
-			new PropertySourcesPropertyResolver(this.propertySources);
+	private final ConfigurablePropertyResolver propertyResolver = createPropertyResolver(this.propertySources);
 
 
 	/**
@@ -437,6 +449,35 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 		}
 	}
 
+	/**
+	 * Factory method used to create the {@link ConfigurablePropertyResolver}
+	 * instance used by the Environment.
+	 * <p>The default implementation creates a {@link PropertySourcesPropertyResolver},
+	 * caching resolved property values if the "spring.env.cache-resolved-properties"
+	 * system property is set to "true".
+	 * @param propertySources the property sources to resolve against
+	 * @since 5.3
+	 * @see #CACHE_RESOLVED_PROPERTIES_PROPERTY_NAME
+	 * @see #getPropertyResolver()
+	 */
+	protected ConfigurablePropertyResolver createPropertyResolver(MutablePropertySources propertySources) {
+		PropertySourcesPropertyResolver propertyResolver = new PropertySourcesPropertyResolver(propertySources);
+		if (SpringProperties.getFlag(CACHE_RESOLVED_PROPERTIES_PROPERTY_NAME)) {
+			propertyResolver.setCacheResolvedProperties(true);
+		}
+		return propertyResolver;
+	}
+
+	/**
+	 * Return the {@link ConfigurablePropertyResolver} being used by the
+	 * {@link Environment}.
+	 * @since 5.3
+	 * @see #createPropertyResolver(MutablePropertySources)
+	 */
+	protected final ConfigurablePropertyResolver getPropertyResolver() {
+		return this.propertyResolver;
+	}
+
 	/**
 	 * Determine whether to suppress {@link System#getenv()}/{@link System#getenv(String)}
 	 * access for the purposes of {@link #getSystemEnvironment()}.
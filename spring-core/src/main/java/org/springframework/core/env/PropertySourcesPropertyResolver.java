@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,21 @@
 
 package org.springframework.core.env;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.springframework.lang.Nullable;
 
 /**
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>As of 5.3, resolved property values may optionally be cached, see
+ * {@link #setCacheResolvedProperties}, and the number of lookups against each
+ * property source may optionally be counted, see {@link #setCountLookups}.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -31,9 +40,20 @@ import org.springframework.lang.Nullable;
  */
 public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
+	private static final Object NO_VALUE = new Object();
+
+
 	@Nullable
 	private final PropertySources propertySources;
 
+	private volatile boolean cacheResolvedProperties;
+
+	private volatile boolean countLookups;
+
+	private volatile PropertyCache propertyCache = new PropertyCache(-1);
+
+	private final Map<String, LongAdder> lookupCounts = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -44,6 +64,83 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Set whether to cache property values once found and resolved, rather
+	 * than searching the property sources and resolving nested placeholders
+	 * again on every lookup. Absent properties are cached as well.
+	 * <p>Default is "false". Only switch this on if the property sources are
+	 * not expected to change their values: the cache is cleared automatically
+	 * when a property source is added to, removed from or replaced in
+	 * {@link MutablePropertySources}, but otherwise needs to be cleared through
+	 * {@link #clearCache()}, e.g. after changing the placeholder syntax.
+	 * @since 5.3
+	 */
+	public void setCacheResolvedProperties(boolean cacheResolvedProperties) {
+		this.cacheResolvedProperties = cacheResolvedProperties;
+		clearCache();
+	}
+
+	/**
+	 * Return whether property values are cached once found and resolved.
+	 * @since 5.3
+	 */
+	public boolean isCacheResolvedProperties() {
+		return this.cacheResolvedProperties;
+	}
+
+	/**
+	 * Clear the cache of resolved property values.
+	 * @since 5.3
+	 * @see #setCacheResolvedProperties
+	 */
+	public void clearCache() {
+		this.propertyCache = new PropertyCache(this.propertyCache.modificationCount);
+	}
+
+	/**
+	 * Set whether to count the lookups against each property source, for
+	 * example in order to find out which property sources are queried most,
+	 * or how many lookups the {@linkplain #setCacheResolvedProperties cache}
+	 * saves.
+	 * <p>Default is "false".
+	 * @since 5.3
+	 * @see #getLookupCounts()
+	 */
+	public void setCountLookups(boolean countLookups) {
+		this.countLookups = countLookups;
+	}
+
+	/**
+	 * Return whether lookups against each property source are counted.
+	 * @since 5.3
+	 */
+	public boolean isCountLookups() {
+		return this.countLookups;
+	}
+
+	/**
+	 * Return the number of lookups against each property source so far,
+	 * keyed by property source name.
+	 * @return a snapshot of the lookup counts (never {@code null})
+	 * @since 5.3
+	 * @see #setCountLookups
+	 */
+	public Map<String, Long> getLookupCounts() {
+		Map<String, Long> lookupCounts = new LinkedHashMap<>(this.lookupCounts.size());
+		this.lookupCounts.forEach((name, count) -> lookupCounts.put(name, count.sum()));
+		return lookupCounts;
+	}
+
+	/**
+	 * Reset all lookup counts.
+	 * @since 5.3
+	 * @see #getLookupCounts()
+	 */
+	public void resetLookupCounts() {
+		this.lookupCounts.clear();
+	}
+
+
 	@Override
 	public boolean containsProperty(String key) {
 		if (this.propertySources != null) {
@@ -76,19 +173,56 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
 	@Nullable
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+		Object value;
+		if (this.cacheResolvedProperties) {
+			// Values found concurrently with a change of the property sources
+			// end up in a cache instance that has been replaced already.
+			Map<String, Object> cache = getPropertyCache().get(resolveNestedPlaceholders);
+			value = cache.get(key);
+			if (value == null) {
+				value = findPropertyValue(key, resolveNestedPlaceholders);
+				cache.put(key, (value != null ? value : NO_VALUE));
+			}
+			else if (value == NO_VALUE) {
+				value = null;
+			}
+		}
+		else {
+			value = findPropertyValue(key, resolveNestedPlaceholders);
+		}
+		return (value != null ? convertValueIfNecessary(value, targetValueType) : null);
+	}
+
+	private PropertyCache getPropertyCache() {
+		PropertyCache propertyCache = this.propertyCache;
+		if (this.propertySources instanceof MutablePropertySources) {
+			int modificationCount = ((MutablePropertySources) this.propertySources).getModificationCount();
+			if (modificationCount != propertyCache.modificationCount) {
+				propertyCache = new PropertyCache(modificationCount);
+				this.propertyCache = propertyCache;
+			}
+		}
+		return propertyCache;
+	}
+
+	@Nullable
+	private Object findPropertyValue(String key, boolean resolveNestedPlaceholders) {
 		if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (logger.isTraceEnabled()) {
 					logger.trace("Searching for key '" + key + "' in PropertySource '" +
 							propertySource.getName() + "'");
 				}
+				if (this.countLookups) {
+					countLookup(propertySource);
+				}
 				Object value = propertySource.getProperty(key);
 				if (value != null) {
 					if (resolveNestedPlaceholders && value instanceof String) {
 						value = resolveNestedPlaceholders((String) value);
 					}
 					logKeyFound(key, propertySource, value);
-					return convertValueIfNecessary(value, targetValueType);
+					return value;
 				}
 			}
 		}
@@ -98,6 +232,18 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	private void countLookup(PropertySource<?> propertySource) {
+		LongAdder count = this.lookupCounts.get(propertySource.getName());
+		if (count == null) {
+			count = new LongAdder();
+			LongAdder existing = this.lookupCounts.putIfAbsent(propertySource.getName(), count);
+			if (existing != null) {
+				count = existing;
+			}
+		}
+		count.increment();
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -117,4 +263,26 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		}
 	}
 
+
+	/**
+	 * Cached property values for a given state of the property sources,
+	 * replaced as a whole when the property sources change.
+	 */
+	private static final class PropertyCache {
+
+		final int modificationCount;
+
+		private final Map<String, Object> resolvedProperties = new ConcurrentHashMap<>(64);
+
+		private final Map<String, Object> rawProperties = new ConcurrentHashMap<>(64);
+
+		PropertyCache(int modificationCount) {
+			this.modificationCount = modificationCount;
+		}
+
+		Map<String, Object> get(boolean resolveNestedPlaceholders) {
+			return (resolveNestedPlaceholders ? this.resolvedProperties : this.rawProperties);
+		}
+	}
+
 }
@@ -21,15 +21,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -52,6 +57,7 @@ import reactor.core.publisher.SynchronousSink;
 import org.springframework.core.io.Resource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * Utility class for working with {@link DataBuffer DataBuffers}.
@@ -66,6 +72,11 @@ public abstract class DataBufferUtils {
 
 	private static final Consumer<DataBuffer> RELEASE_CONSUMER = DataBufferUtils::release;
 
+	private static final boolean nettyPresent =
+			ClassUtils.isPresent("io.netty.buffer.ByteBuf", DataBufferUtils.class.getClassLoader());
+
+	private static final int DEFAULT_TRANSFER_BUFFER_SIZE = 8192;
+
 
 	//---------------------------------------------------------------------
 	// Reading
@@ -374,6 +385,77 @@ public abstract class DataBufferUtils {
 		});
 	}
 
+	/**
+	 * Transfer a region of the given {@link Resource} to the given
+	 * {@code WritableByteChannel}. Does <strong>not</strong> close the channel
+	 * when the transfer is complete.
+	 * <p>If the resource is a file, the bytes are transferred via
+	 * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which
+	 * many operating systems can perform without copying the file content into
+	 * user space (e.g. {@code sendfile} when writing to a socket). Otherwise,
+	 * this method falls back on reading the resource into data buffers via
+	 * {@link #read(Resource, long, DataBufferFactory, int)} and writing those
+	 * to the channel.
+	 * <p>Note that the transfer performs blocking I/O on the subscribing thread,
+	 * and does not start until the returned {@code Mono} is subscribed to.
+	 * @param resource the resource to transfer
+	 * @param position the position in the resource to start transferring from
+	 * @param count the maximum number of bytes to transfer; fewer bytes are
+	 * transferred if the end of the resource is reached first
+	 * @param channel the channel to write to; must be in blocking mode
+	 * @return a {@code Mono} with the number of bytes actually transferred
+	 * @since 5.3
+	 */
+	public static Mono<Long> transfer(Resource resource, long position, long count, WritableByteChannel channel) {
+		Assert.notNull(resource, "Resource must not be null");
+		Assert.notNull(channel, "Channel must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(count >= 0, "'count' must be >= 0");
+		Assert.isTrue(!(channel instanceof SelectableChannel) || ((SelectableChannel) channel).isBlocking(),
+				"Channel must be in blocking mode");
+
+		Path path = null;
+		try {
+			if (resource.isFile()) {
+				path = resource.getFile().toPath();
+			}
+		}
+		catch (IOException ignore) {
+			// fallback to copying through data buffers, below
+		}
+		if (path != null) {
+			Path file = path;
+			return Mono.using(() -> FileChannel.open(file, StandardOpenOption.READ),
+					fileChannel -> Mono.fromCallable(() -> transferTo(fileChannel, position, count, channel)),
+					DataBufferUtils::closeChannel);
+		}
+
+		AtomicLong transferred = new AtomicLong();
+		Flux<DataBuffer> source = takeUntilByteCount(
+				read(resource, position, DefaultDataBufferFactory.sharedInstance, DEFAULT_TRANSFER_BUFFER_SIZE), count);
+		return write(source, channel)
+				.doOnNext(buffer -> {
+					transferred.addAndGet(buffer.readableByteCount());
+					release(buffer);
+				})
+				.then(Mono.fromSupplier(transferred::get));
+	}
+
+	private static long transferTo(FileChannel fileChannel, long position, long count, WritableByteChannel channel)
+			throws IOException {
+
+		long transferred = 0;
+		while (transferred < count) {
+			long bytes = fileChannel.transferTo(position + transferred, count - transferred, channel);
+			if (bytes <= 0) {
+				// end of file, since the target channel is blocking
+				break;
+			}
+			transferred += bytes;
+		}
+		return transferred;
+	}
+
 	private static Set<OpenOption> checkWriteOptions(OpenOption[] options) {
 		int length = options.length;
 		Set<OpenOption> result = new HashSet<>(length + 3);
@@ -566,6 +648,48 @@ public abstract class DataBufferUtils {
 				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 	}
 
+	/**
+	 * Compute the digest of the given data buffers with the given algorithm,
+	 * e.g. for an ETag or an integrity check. Each buffer updates the
+	 * {@link MessageDigest} through its {@linkplain DataBuffer#asByteBuffer()
+	 * ByteBuffer view}, and is {@linkplain #release(DataBuffer) released}
+	 * right after, so that the content is never aggregated in memory.
+	 * <p>If {@code dataBuffers} produces an error or if there is a cancel
+	 * signal, then any remaining buffers will be released as well.
+	 * @param dataBuffers the data buffers to digest
+	 * @param algorithm the name of the digest algorithm, e.g. "MD5" or "SHA-256"
+	 * @return a Mono with the digest, or an {@link IllegalStateException}
+	 * if the algorithm is not available
+	 * @since 5.3
+	 * @see MessageDigest#getInstance(String)
+	 * @see org.springframework.util.DigestUtils
+	 */
+	public static Mono<byte[]> digest(Publisher<? extends DataBuffer> dataBuffers, String algorithm) {
+		Assert.notNull(dataBuffers, "'dataBuffers' must not be null");
+		Assert.hasText(algorithm, "'algorithm' must not be empty");
+
+		return Mono.defer(() -> {
+			MessageDigest messageDigest;
+			try {
+				messageDigest = MessageDigest.getInstance(algorithm);
+			}
+			catch (NoSuchAlgorithmException ex) {
+				return Mono.error(new IllegalStateException(
+						"Could not find MessageDigest with algorithm \"" + algorithm + "\"", ex));
+			}
+			return Flux.from(dataBuffers)
+					.collect(() -> messageDigest, (digest, dataBuffer) -> {
+						try {
+							digest.update(dataBuffer.asByteBuffer());
+						}
+						finally {
+							release(dataBuffer);
+						}
+					})
+					.map(MessageDigest::digest);
+		}).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+	}
+
 	/**
 	 * Return a {@link Matcher} for the given delimiter.
 	 * The matcher can be used to find the delimiters in data buffers.
@@ -574,28 +698,23 @@ public abstract class DataBufferUtils {
 	 * @since 5.2
 	 */
 	public static Matcher matcher(byte[] delimiter) {
-		Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
-		return new KnuthMorrisPrattMatcher(delimiter);
+		return matcher(new byte[][] {delimiter});
 	}
 
 	/** Return a {@link Matcher} for the given delimiters.
 	 * The matcher can be used to find the delimiters in data buffers.
+	 * <p>As of 5.3, all delimiters are searched for in a single pass. If
+	 * several delimiters end at the same position, the longest one matches.
 	 * @param delimiters the delimiters bytes to find
 	 * @return the matcher
 	 * @since 5.2
 	 */
 	public static Matcher matcher(byte[]... delimiters) {
 		Assert.isTrue(delimiters.length > 0, "Delimiters must not be empty");
-		if (delimiters.length == 1) {
-			return matcher(delimiters[0]);
-		}
-		else {
-			Matcher[] matchers = new Matcher[delimiters.length];
-			for (int i = 0; i < delimiters.length; i++) {
-				matchers[i] = matcher(delimiters[i]);
-			}
-			return new CompositeMatcher(matchers);
+		for (byte[] delimiter : delimiters) {
+			Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
 		}
+		return new MultiDelimiterMatcher(delimiters);
 	}
 
 
@@ -897,121 +1016,206 @@ public abstract class DataBufferUtils {
 
 
 	/**
-	 * Implementation of {@link Matcher} that uses the Knuth-Morris-Pratt algorithm.
-	 * @see <a href="https://www.nayuki.io/page/knuth-morris-pratt-string-matching">Knuth-Morris-Pratt string matching</a>
+	 * Implementation of {@link Matcher} that searches for several delimiters at
+	 * once. Rather than comparing every byte against every delimiter, it looks
+	 * for the last bytes of the delimiters only, eight bytes at a time where
+	 * possible (using the "SIMD within a register" technique for finding a byte
+	 * in a {@code long}), and then compares the preceding bytes of the candidate
+	 * delimiters. Bytes preceding the current buffer are retained from previous
+	 * invocations, so that delimiters spanning several buffers are found as well.
 	 */
-	private static class KnuthMorrisPrattMatcher implements Matcher {
+	private static class MultiDelimiterMatcher implements Matcher {
 
-		private final byte[] delimiter;
+		private static final long ONES = 0x0101010101010101L;
 
-		private final int[] table;
+		private static final long HIGH_BITS = 0x8080808080808080L;
 
-		private int matches = 0;
+		private static final int MAX_SWAR_BYTES = 4;
 
-		public KnuthMorrisPrattMatcher(byte[] delimiter) {
-			this.delimiter = Arrays.copyOf(delimiter, delimiter.length);
-			this.table = longestSuffixPrefixTable(delimiter);
-		}
+		/** The distinct last bytes of all delimiters. */
+		private final byte[] lastBytes;
+
+		/** The delimiters per last byte, longest first. */
+		private final byte[][][] delimitersByLastByte;
+
+		/** The last bytes, repeated in every byte of a {@code long}. */
+		private final long[] lastBytePatterns;
+
+		/** The bytes preceding the current buffer, since the last match. */
+		private final byte[] history;
+
+		private int historyLength;
+
+		private byte[] matchingDelimiter;
 
-		private static int[] longestSuffixPrefixTable(byte[] delimiter) {
-			int[] result = new int[delimiter.length];
-			result[0] = 0;
-			for (int i = 1; i < delimiter.length; i++) {
-				int j = result[i - 1];
-				while (j > 0 && delimiter[i] != delimiter[j]) {
-					j = result[j - 1];
+		MultiDelimiterMatcher(byte[][] delimiters) {
+			byte[][] sorted = new byte[delimiters.length][];
+			for (int i = 0; i < delimiters.length; i++) {
+				sorted[i] = Arrays.copyOf(delimiters[i], delimiters[i].length);
+			}
+			Arrays.sort(sorted, (d1, d2) -> Integer.compare(d2.length, d1.length));
+
+			byte[] lastBytes = new byte[sorted.length];
+			int count = 0;
+			for (byte[] delimiter : sorted) {
+				byte lastByte = delimiter[delimiter.length - 1];
+				if (indexOf(lastBytes, count, lastByte) == -1) {
+					lastBytes[count++] = lastByte;
 				}
-				if (delimiter[i] == delimiter[j]) {
-					j++;
+			}
+			this.lastBytes = Arrays.copyOf(lastBytes, count);
+			this.delimitersByLastByte = new byte[count][][];
+			this.lastBytePatterns = new long[count];
+			for (int i = 0; i < count; i++) {
+				byte lastByte = this.lastBytes[i];
+				this.delimitersByLastByte[i] = Arrays.stream(sorted)
+						.filter(delimiter -> delimiter[delimiter.length - 1] == lastByte)
+						.toArray(byte[][]::new);
+				this.lastBytePatterns[i] = (lastByte & 0xFFL) * ONES;
+			}
+			this.history = new byte[sorted[0].length - 1];
+			this.matchingDelimiter = sorted[0];
+		}
+
+		private static int indexOf(byte[] bytes, int length, byte b) {
+			for (int i = 0; i < length; i++) {
+				if (bytes[i] == b) {
+					return i;
 				}
-				result[i] = j;
 			}
-			return result;
+			return -1;
 		}
 
 		@Override
 		public int match(DataBuffer dataBuffer) {
-			for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
-				byte b = dataBuffer.getByte(i);
-
-				while (this.matches > 0 && b != this.delimiter[this.matches]) {
-					this.matches = this.table[this.matches - 1];
-				}
-
-				if (b == this.delimiter[this.matches]) {
-					this.matches++;
-					if (this.matches == this.delimiter.length) {
-						reset();
-						return i;
+			int start = dataBuffer.readPosition();
+			int end = dataBuffer.writePosition();
+			ByteBuffer byteBuffer = contiguousByteBuffer(dataBuffer, start, end - start);
+			int i = start;
+			if (byteBuffer != null && this.lastBytePatterns.length <= MAX_SWAR_BYTES) {
+				byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
+				for (; i + Long.BYTES <= end; i += Long.BYTES) {
+					long word = byteBuffer.getLong(i - start);
+					long candidates = 0;
+					for (long pattern : this.lastBytePatterns) {
+						long x = word ^ pattern;
+						candidates |= (x - ONES) & ~x & HIGH_BITS;
+					}
+					// The lowest candidate is exact, higher ones may be false positives
+					while (candidates != 0) {
+						int index = i + (Long.numberOfTrailingZeros(candidates) >>> 3);
+						if (matchesAt(dataBuffer, byteBuffer, start, index)) {
+							this.historyLength = 0;
+							return index;
+						}
+						candidates &= candidates - 1;
 					}
 				}
 			}
+			for (; i < end; i++) {
+				if (matchesAt(dataBuffer, byteBuffer, start, i)) {
+					this.historyLength = 0;
+					return i;
+				}
+			}
+			updateHistory(dataBuffer, byteBuffer, start, end);
 			return -1;
 		}
 
-		@Override
-		public byte[] delimiter() {
-			return Arrays.copyOf(this.delimiter, this.delimiter.length);
-		}
-
-		@Override
-		public void reset() {
-			this.matches = 0;
+		private boolean matchesAt(DataBuffer dataBuffer, @Nullable ByteBuffer byteBuffer, int start, int index) {
+			int lastByteIndex = indexOf(this.lastBytes, this.lastBytes.length,
+					getByte(dataBuffer, byteBuffer, start, index));
+			if (lastByteIndex == -1) {
+				return false;
+			}
+			for (byte[] delimiter : this.delimitersByLastByte[lastByteIndex]) {
+				if (endsAt(delimiter, dataBuffer, byteBuffer, start, index)) {
+					this.matchingDelimiter = delimiter;
+					return true;
+				}
+			}
+			return false;
 		}
-	}
 
+		private boolean endsAt(byte[] delimiter, DataBuffer dataBuffer, @Nullable ByteBuffer byteBuffer,
+				int start, int index) {
 
-	/**
-	 * Implementation of {@link Matcher} that wraps several other matchers.
-	 */
-	private static class CompositeMatcher implements Matcher {
-
-		private static final byte[] NO_DELIMITER = new byte[0];
-
-		private final Matcher[] matchers;
-
-		byte[] longestDelimiter = NO_DELIMITER;
-
-		public CompositeMatcher(Matcher[] matchers) {
-			this.matchers = matchers;
+			int position = index - delimiter.length + 1;
+			if (position < start - this.historyLength) {
+				return false;
+			}
+			for (int j = 0; j < delimiter.length - 1; j++, position++) {
+				byte b = (position < start ?
+						this.history[this.historyLength - (start - position)] :
+						getByte(dataBuffer, byteBuffer, start, position));
+				if (b != delimiter[j]) {
+					return false;
+				}
+			}
+			return true;
 		}
 
-		@Override
-		public int match(DataBuffer dataBuffer) {
-			this.longestDelimiter = NO_DELIMITER;
-			int bestEndIdx = Integer.MAX_VALUE;
-
-
-			for (Matcher matcher : this.matchers) {
-				int endIdx = matcher.match(dataBuffer);
-				if (endIdx != -1 &&
-						endIdx <= bestEndIdx &&
-						matcher.delimiter().length > this.longestDelimiter.length) {
-					bestEndIdx = endIdx;
-					this.longestDelimiter = matcher.delimiter();
-				}
+		private void updateHistory(DataBuffer dataBuffer, @Nullable ByteBuffer byteBuffer, int start, int end) {
+			int capacity = this.history.length;
+			int length = end - start;
+			if (capacity == 0 || length == 0) {
+				return;
 			}
-			if (bestEndIdx == Integer.MAX_VALUE) {
-				this.longestDelimiter = NO_DELIMITER;
-				return -1;
+			int from = start;
+			if (length < capacity) {
+				int retained = Math.min(this.historyLength, capacity - length);
+				System.arraycopy(this.history, this.historyLength - retained, this.history, 0, retained);
+				this.historyLength = retained;
 			}
 			else {
-				reset();
-				return bestEndIdx;
+				from = end - capacity;
+				this.historyLength = 0;
+			}
+			for (int i = from; i < end; i++) {
+				this.history[this.historyLength++] = getByte(dataBuffer, byteBuffer, start, i);
 			}
 		}
 
+		private static byte getByte(DataBuffer dataBuffer, @Nullable ByteBuffer byteBuffer, int start, int index) {
+			return (byteBuffer != null ? byteBuffer.get(index - start) : dataBuffer.getByte(index));
+		}
+
+		/**
+		 * Return a {@code ByteBuffer} view of the given range, or {@code null} if
+		 * the buffer is not known to provide one without copying.
+		 */
+		@Nullable
+		private static ByteBuffer contiguousByteBuffer(DataBuffer dataBuffer, int index, int length) {
+			while (dataBuffer instanceof DataBufferWrapper) {
+				dataBuffer = ((DataBufferWrapper) dataBuffer).dataBuffer();
+			}
+			if (dataBuffer instanceof DefaultDataBuffer ||
+					(nettyPresent && NettyDelegate.isContiguous(dataBuffer))) {
+				return dataBuffer.asByteBuffer(index, length);
+			}
+			return null;
+		}
+
 		@Override
 		public byte[] delimiter() {
-			Assert.state(this.longestDelimiter != NO_DELIMITER, "Illegal state!");
-			return this.longestDelimiter;
+			return this.matchingDelimiter;
 		}
 
 		@Override
 		public void reset() {
-			for (Matcher matcher : this.matchers) {
-				matcher.reset();
-			}
+			this.historyLength = 0;
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Netty.
+	 */
+	private static class NettyDelegate {
+
+		static boolean isContiguous(DataBuffer dataBuffer) {
+			return (dataBuffer instanceof NettyDataBuffer &&
+					((NettyDataBuffer) dataBuffer).getNativeBuffer().nioBufferCount() == 1);
 		}
 	}
 
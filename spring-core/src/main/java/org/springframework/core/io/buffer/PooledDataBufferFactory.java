@@ -0,0 +1,638 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Implementation of the {@code DataBufferFactory} interface that recycles the
+ * {@code ByteBuffer}s behind its data buffers, for runtimes that do not come
+ * with a buffer pool of their own (as opposed to Netty, see
+ * {@link NettyDataBufferFactory}). All buffers allocated by this factory are
+ * {@link PooledDataBuffer}s, and need to be {@linkplain DataBufferUtils#release
+ * released} in order to return their memory to the pool.
+ *
+ * <p>Capacities are rounded up to power-of-two size classes, starting at
+ * {@value #MIN_POOLED_CAPACITY} bytes, up to a configurable maximum; larger
+ * buffers are allocated on demand and left to the garbage collector. Released
+ * buffers are first kept in a small cache local to the releasing thread, so
+ * that a thread which allocates and releases buffers in turn does not contend
+ * with other threads, and otherwise in a bounded pool shared by all threads.
+ *
+ * <p>Note that a released buffer, as well as any slice of it, must not be used
+ * any further, since its memory may have been handed out again already. To
+ * track down buffers that are never released, enable
+ * {@linkplain #setLeakDetection leak detection}.
+ *
+ * @author Arjen Poutsma
+ * @since 5.3
+ * @see DefaultDataBufferFactory
+ */
+public class PooledDataBufferFactory implements DataBufferFactory {
+
+	/**
+	 * The default capacity when none is specified.
+	 * @see #allocateBuffer()
+	 */
+	public static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+	/**
+	 * The default maximum capacity of pooled buffers.
+	 * @see #PooledDataBufferFactory(boolean, int, int)
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The capacity of the smallest size class.
+	 */
+	public static final int MIN_POOLED_CAPACITY = 256;
+
+	private static final int MIN_POOLED_CAPACITY_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_CAPACITY);
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final int defaultInitialCapacity;
+
+	private final int maxPooledCapacity;
+
+	private final DefaultDataBufferFactory delegateFactory;
+
+	private final SharedPool[] sharedPools;
+
+	private final ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(ThreadCache::new);
+
+	private volatile int threadCacheSize = 8;
+
+	private volatile int sharedPoolSize = 64;
+
+	private volatile boolean leakDetection;
+
+	private final ReferenceQueue<Object> leakQueue = new ReferenceQueue<>();
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_POOLED_CAPACITY);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled, what the capacity is to be used for
+	 * {@link #allocateBuffer()}, and up to which capacity buffers are pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param defaultInitialCapacity the capacity used for {@link #allocateBuffer()}
+	 * @param maxPooledCapacity the maximum capacity of pooled buffers, rounded
+	 * up to the next power of two; larger buffers are not pooled
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int defaultInitialCapacity, int maxPooledCapacity) {
+		Assert.isTrue(defaultInitialCapacity > 0, "'defaultInitialCapacity' should be larger than 0");
+		Assert.isTrue(maxPooledCapacity > 0 && maxPooledCapacity <= (1 << 30),
+				"'maxPooledCapacity' should be larger than 0 and at most 2^30");
+		this.preferDirect = preferDirect;
+		this.defaultInitialCapacity = defaultInitialCapacity;
+		this.maxPooledCapacity = Math.max(MIN_POOLED_CAPACITY, roundUpToPowerOfTwo(maxPooledCapacity));
+		this.delegateFactory = new DefaultDataBufferFactory(preferDirect, defaultInitialCapacity);
+		this.sharedPools = new SharedPool[sizeClassIndex(this.maxPooledCapacity) + 1];
+		for (int i = 0; i < this.sharedPools.length; i++) {
+			this.sharedPools[i] = new SharedPool();
+		}
+	}
+
+
+	/**
+	 * Set the maximum number of buffers per size class that each thread keeps
+	 * for its own reuse, before returning them to the shared pool.
+	 * <p>Default is 8. A value of 0 turns thread-local caching off.
+	 */
+	public void setThreadCacheSize(int threadCacheSize) {
+		Assert.isTrue(threadCacheSize >= 0, "'threadCacheSize' must not be negative");
+		this.threadCacheSize = threadCacheSize;
+	}
+
+	/**
+	 * Return the maximum number of buffers per size class cached per thread.
+	 */
+	public int getThreadCacheSize() {
+		return this.threadCacheSize;
+	}
+
+	/**
+	 * Set the maximum number of buffers per size class that are kept in the
+	 * pool shared by all threads. Buffers released beyond that limit are left
+	 * to the garbage collector.
+	 * <p>Default is 64.
+	 */
+	public void setSharedPoolSize(int sharedPoolSize) {
+		Assert.isTrue(sharedPoolSize >= 0, "'sharedPoolSize' must not be negative");
+		this.sharedPoolSize = sharedPoolSize;
+	}
+
+	/**
+	 * Return the maximum number of buffers per size class in the shared pool.
+	 */
+	public int getSharedPoolSize() {
+		return this.sharedPoolSize;
+	}
+
+	/**
+	 * Specify whether to track buffers that are garbage collected without
+	 * having been released, reporting them via {@link #handleLeak}.
+	 * <p>Default is "false". Turning this on records the stack trace of every
+	 * allocation, which is useful during development and testing but comes
+	 * at a considerable cost.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Return whether leak detection is turned on.
+	 */
+	public boolean isLeakDetection() {
+		return this.leakDetection;
+	}
+
+	/**
+	 * Return the maximum capacity of pooled buffers.
+	 */
+	public int getMaxPooledCapacity() {
+		return this.maxPooledCapacity;
+	}
+
+
+	@Override
+	public PooledDataBuffer allocateBuffer() {
+		return allocateBuffer(this.defaultInitialCapacity);
+	}
+
+	@Override
+	public PooledDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' must not be negative");
+		if (this.leakDetection) {
+			reportLeaks();
+		}
+		int index = (initialCapacity <= this.maxPooledCapacity ? sizeClassIndex(initialCapacity) : -1);
+		ByteBuffer pooledBuffer = null;
+		ByteBuffer byteBuffer;
+		if (index >= 0) {
+			pooledBuffer = acquire(index);
+			byteBuffer = pooledBuffer.duplicate();
+			byteBuffer.limit(initialCapacity);
+		}
+		else {
+			byteBuffer = allocate(initialCapacity);
+		}
+		DefaultDataBuffer delegate = DefaultDataBuffer.fromEmptyByteBuffer(this.delegateFactory, byteBuffer);
+		PooledByteBufferDataBuffer dataBuffer = new PooledByteBufferDataBuffer(delegate, pooledBuffer, index);
+		if (this.leakDetection) {
+			dataBuffer.leakTracker = new LeakTracker(dataBuffer, this.leakQueue);
+			this.leakTrackers.add(dataBuffer.leakTracker);
+		}
+		return dataBuffer;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation does not pool the given {@code ByteBuffer},
+	 * since it is owned by the caller.
+	 */
+	@Override
+	public DataBuffer wrap(ByteBuffer byteBuffer) {
+		return this.delegateFactory.wrap(byteBuffer);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation does not pool the given byte array,
+	 * since it is owned by the caller.
+	 */
+	@Override
+	public DataBuffer wrap(byte[] bytes) {
+		return this.delegateFactory.wrap(bytes);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation allocates a single pooled buffer to contain
+	 * the data in {@code dataBuffers}.
+	 */
+	@Override
+	public DataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		int capacity = dataBuffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+		DataBuffer result = allocateBuffer(capacity);
+		dataBuffers.forEach(result::write);
+		dataBuffers.forEach(DataBufferUtils::release);
+		return result;
+	}
+
+	/**
+	 * Template method invoked for every buffer that was garbage collected
+	 * without having been released, if {@linkplain #setLeakDetection leak
+	 * detection} is turned on.
+	 * <p>The default implementation logs a warning, including the stack trace
+	 * of the allocation.
+	 * @param allocationSite the exception recording where the buffer was allocated
+	 */
+	protected void handleLeak(Throwable allocationSite) {
+		logger.warn("PooledDataBuffer was garbage collected without having been released; " +
+				"use DataBufferUtils.release(DataBuffer) to release it", allocationSite);
+	}
+
+	private void reportLeaks() {
+		LeakTracker tracker;
+		while ((tracker = (LeakTracker) this.leakQueue.poll()) != null) {
+			if (this.leakTrackers.remove(tracker)) {
+				handleLeak(tracker.allocationSite);
+			}
+		}
+	}
+
+	private ByteBuffer acquire(int index) {
+		ArrayDeque<ByteBuffer> threadCache = this.threadCaches.get().buffers(index, this.sharedPools.length);
+		ByteBuffer byteBuffer = threadCache.pollFirst();
+		if (byteBuffer == null) {
+			byteBuffer = this.sharedPools[index].poll();
+			if (byteBuffer == null) {
+				byteBuffer = allocate(MIN_POOLED_CAPACITY << index);
+			}
+		}
+		return byteBuffer;
+	}
+
+	private void recycle(ByteBuffer byteBuffer, int index) {
+		byteBuffer.clear();
+		ArrayDeque<ByteBuffer> threadCache = this.threadCaches.get().buffers(index, this.sharedPools.length);
+		if (threadCache.size() < this.threadCacheSize) {
+			threadCache.offerFirst(byteBuffer);
+		}
+		else {
+			this.sharedPools[index].offer(byteBuffer, this.sharedPoolSize);
+		}
+	}
+
+	private ByteBuffer allocate(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= MIN_POOLED_CAPACITY) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_POOLED_CAPACITY_SHIFT;
+	}
+
+	private static int roundUpToPowerOfTwo(int value) {
+		return (value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1);
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ")";
+	}
+
+
+	/**
+	 * Per-thread cache of released buffers, one deque per size class.
+	 */
+	private static final class ThreadCache {
+
+		@Nullable
+		private ArrayDeque<ByteBuffer>[] buffers;
+
+		@SuppressWarnings("unchecked")
+		ArrayDeque<ByteBuffer> buffers(int index, int sizeClasses) {
+			ArrayDeque<ByteBuffer>[] buffers = this.buffers;
+			if (buffers == null) {
+				buffers = new ArrayDeque[sizeClasses];
+				this.buffers = buffers;
+			}
+			ArrayDeque<ByteBuffer> result = buffers[index];
+			if (result == null) {
+				result = new ArrayDeque<>();
+				buffers[index] = result;
+			}
+			return result;
+		}
+	}
+
+
+	/**
+	 * Bounded pool of released buffers of a single size class,
+	 * shared by all threads.
+	 */
+	private static final class SharedPool {
+
+		private final Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		@Nullable
+		ByteBuffer poll() {
+			ByteBuffer byteBuffer = this.queue.poll();
+			if (byteBuffer != null) {
+				this.size.decrementAndGet();
+			}
+			return byteBuffer;
+		}
+
+		void offer(ByteBuffer byteBuffer, int maxSize) {
+			if (this.size.incrementAndGet() <= maxSize) {
+				this.queue.offer(byteBuffer);
+			}
+			else {
+				this.size.decrementAndGet();
+			}
+		}
+	}
+
+
+	/**
+	 * Weak reference to an allocated buffer, enqueued if the buffer
+	 * becomes unreachable before having been released.
+	 */
+	private static final class LeakTracker extends WeakReference<Object> {
+
+		final Throwable allocationSite;
+
+		LeakTracker(Object dataBuffer, ReferenceQueue<Object> queue) {
+			super(dataBuffer, queue);
+			this.allocationSite = new Throwable("DataBuffer allocated at:");
+		}
+	}
+
+
+	/**
+	 * Reference counted {@link DataBuffer} that returns its memory
+	 * to the pool once fully released.
+	 */
+	private final class PooledByteBufferDataBuffer extends DataBufferWrapper implements PooledDataBuffer {
+
+		@Nullable
+		private final ByteBuffer pooledBuffer;
+
+		private final int sizeClassIndex;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		@Nullable
+		LeakTracker leakTracker;
+
+		PooledByteBufferDataBuffer(DefaultDataBuffer delegate, @Nullable ByteBuffer pooledBuffer, int sizeClassIndex) {
+			super(delegate);
+			this.pooledBuffer = pooledBuffer;
+			this.sizeClassIndex = sizeClassIndex;
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.refCount.get() > 0;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released: " + this);
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count + 1));
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released: " + this);
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count - 1));
+			if (count > 1) {
+				return false;
+			}
+			LeakTracker leakTracker = this.leakTracker;
+			if (leakTracker != null) {
+				leakTracker.clear();
+				leakTrackers.remove(leakTracker);
+			}
+			if (this.pooledBuffer != null) {
+				recycle(this.pooledBuffer, this.sizeClassIndex);
+			}
+			return true;
+		}
+
+		@Override
+		public PooledDataBufferFactory factory() {
+			return PooledDataBufferFactory.this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer capacity(int capacity) {
+			dataBuffer().capacity(capacity);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer ensureCapacity(int capacity) {
+			dataBuffer().ensureCapacity(capacity);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer readPosition(int readPosition) {
+			dataBuffer().readPosition(readPosition);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer writePosition(int writePosition) {
+			dataBuffer().writePosition(writePosition);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer read(byte[] destination) {
+			dataBuffer().read(destination);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer read(byte[] destination, int offset, int length) {
+			dataBuffer().read(destination, offset, length);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer write(byte b) {
+			dataBuffer().write(b);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer write(byte[] source) {
+			dataBuffer().write(source);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer write(byte[] source, int offset, int length) {
+			dataBuffer().write(source, offset, length);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer write(DataBuffer... buffers) {
+			dataBuffer().write(buffers);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer write(ByteBuffer... buffers) {
+			dataBuffer().write(buffers);
+			return this;
+		}
+
+		@Override
+		public PooledByteBufferDataBuffer write(CharSequence charSequence, Charset charset) {
+			dataBuffer().write(charSequence, charset);
+			return this;
+		}
+
+		@Override
+		public DataBuffer retainedSlice(int index, int length) {
+			DataBuffer slice = dataBuffer().slice(index, length);
+			retain();
+			return new RetainedSlice(slice, this);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = dataBuffer().asInputStream();
+			if (!releaseOnClose) {
+				return inputStream;
+			}
+			return new FilterInputStream(inputStream) {
+				private boolean closed;
+				@Override
+				public void close() throws IOException {
+					if (!this.closed) {
+						this.closed = true;
+						release();
+					}
+					super.close();
+				}
+			};
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof PooledByteBufferDataBuffer &&
+					dataBuffer().equals(((PooledByteBufferDataBuffer) other).dataBuffer())));
+		}
+
+		@Override
+		public int hashCode() {
+			return dataBuffer().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return "Pooled" + dataBuffer();
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledByteBufferDataBuffer} that shares
+	 * the reference count of its parent.
+	 */
+	private static final class RetainedSlice extends DataBufferWrapper implements PooledDataBuffer {
+
+		private final PooledDataBuffer parent;
+
+		RetainedSlice(DataBuffer slice, PooledDataBuffer parent) {
+			super(slice);
+			this.parent = parent;
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		public DataBufferFactory factory() {
+			return this.parent.factory();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,12 +27,20 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -169,6 +177,19 @@ import org.springframework.util.StringUtils;
  * Ant-style pattern in such a case, which will search <i>all</i> class path
  * locations that contain the root package.
  *
+ * <p><b>Jar entry caching and parallel root resolution:</b>
+ *
+ * <p>With {@link #setUseCaches "useCaches"} enabled, the entry names of each
+ * jar file are read once and kept in an in-memory index which is shared by all
+ * subsequent pattern resolution calls against the same jar file, until
+ * {@link #clearCache()} is called. This is off by default; application contexts
+ * clear the index of their internal resolver at the end of each refresh, so
+ * a resolver with this mode enabled lets component scanning of many base
+ * packages only walk each jar once.
+ * In addition, a {@link #setRootDirExecutor "rootDirExecutor"} may be specified
+ * for searching multiple root directories (e.g. the same package in many jars)
+ * concurrently, e.g. through a {@link java.util.concurrent.ForkJoinPool}.
+ *
  * @author Juergen Hoeller
  * @author Colin Sampaleanu
  * @author Marius Bogoevici
@@ -205,6 +226,14 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private boolean useCaches = false;
+
+	@Nullable
+	private Executor rootDirExecutor;
+
+	/** Cache of jar entry names in jar order: jar file URL to entry paths. */
+	private final Map<String, String[]> jarEntriesCache = new ConcurrentHashMap<>();
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -268,6 +297,60 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Specify whether this resolver should keep an in-memory index of the
+	 * entries of each jar file it searched, reusing it for subsequent pattern
+	 * resolution calls against the same jar file instead of opening and
+	 * walking the jar file again.
+	 * <p>Default is "false". Call {@link #clearCache()} to release the index
+	 * once a batch of lookups (e.g. a context refresh) is done; note that any
+	 * subsequent lookup populates the index again while this flag is on.
+	 * @since 5.3
+	 * @see #clearCache()
+	 */
+	public void setUseCaches(boolean useCaches) {
+		this.useCaches = useCaches;
+	}
+
+	/**
+	 * Return whether this resolver keeps an in-memory index of jar entries.
+	 * @since 5.3
+	 */
+	public boolean isUseCaches() {
+		return this.useCaches;
+	}
+
+	/**
+	 * Specify an {@link Executor} for searching multiple root directories
+	 * of a location pattern concurrently, e.g. a
+	 * {@link java.util.concurrent.ForkJoinPool}.
+	 * <p>Default is none, searching root directories one after the other
+	 * in the calling thread. The order of the resulting resources is
+	 * the same in both modes.
+	 * @since 5.3
+	 */
+	public void setRootDirExecutor(@Nullable Executor rootDirExecutor) {
+		this.rootDirExecutor = rootDirExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for searching root directories concurrently, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public Executor getRootDirExecutor() {
+		return this.rootDirExecutor;
+	}
+
+	/**
+	 * Clear the local jar entry cache, removing all cached jar indexes.
+	 * @since 5.3
+	 * @see #setUseCaches
+	 */
+	public void clearCache() {
+		this.jarEntriesCache.clear();
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -493,24 +576,42 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		String subPattern = locationPattern.substring(rootDirPath.length());
 		Resource[] rootDirResources = getResources(rootDirPath);
 		Set<Resource> result = new LinkedHashSet<>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirUrl = rootDirResource.getURL();
-			if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
-				URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
-				if (resolvedUrl != null) {
-					rootDirUrl = resolvedUrl;
-				}
-				rootDirResource = new UrlResource(rootDirUrl);
-			}
-			if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher()));
+		Executor executor = getRootDirExecutor();
+		if (executor != null && rootDirResources.length > 1) {
+			List<CompletableFuture<Set<Resource>>> futures = new ArrayList<>(rootDirResources.length);
+			for (Resource rootDirResource : rootDirResources) {
+				futures.add(CompletableFuture.supplyAsync(() -> {
+					try {
+						return doFindPathMatchingResources(rootDirResource, subPattern);
+					}
+					catch (IOException ex) {
+						throw new CompletionException(ex);
+					}
+				}, executor));
 			}
-			else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern));
+			for (CompletableFuture<Set<Resource>> future : futures) {
+				try {
+					result.addAll(future.join());
+				}
+				catch (CompletionException ex) {
+					// Rethrow as from a sequential search
+					Throwable cause = ex.getCause();
+					if (cause instanceof IOException) {
+						throw (IOException) cause;
+					}
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw ex;
+				}
 			}
-			else {
-				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+		}
+		else {
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(doFindPathMatchingResources(rootDirResource, subPattern));
 			}
 		}
 		if (logger.isTraceEnabled()) {
@@ -519,6 +620,33 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return result.toArray(new Resource[0]);
 	}
 
+	/**
+	 * Find all resources underneath the given root directory that match the
+	 * given sub pattern, dispatching to the jar, file or VFS specific search.
+	 */
+	private Set<Resource> doFindPathMatchingResources(Resource rootDirResource, String subPattern)
+			throws IOException {
+
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirUrl = rootDirResource.getURL();
+		if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
+			URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
+			if (resolvedUrl != null) {
+				rootDirUrl = resolvedUrl;
+			}
+			rootDirResource = new UrlResource(rootDirUrl);
+		}
+		if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+			return VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher());
+		}
+		else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
+			return doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern);
+		}
+		else {
+			return doFindPathMatchingFileResources(rootDirResource, subPattern);
+		}
+	}
+
 	/**
 	 * Determine the root directory for the given location.
 	 * <p>Used for determining the starting point for file matching,
@@ -588,6 +716,27 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	protected Set<Resource> doFindPathMatchingJarResources(Resource rootDirResource, URL rootDirURL, String subPattern)
 			throws IOException {
 
+		if (this.useCaches && !this.jarEntriesCache.isEmpty()) {
+			// Try to serve the search from the index of a previously walked jar file,
+			// without opening the jar file again. Not applicable to nested jar files,
+			// since only the entries of top-level jar files are indexed.
+			String urlFile = rootDirURL.getFile();
+			int separatorIndex = urlFile.indexOf(ResourceUtils.WAR_URL_SEPARATOR);
+			if (separatorIndex == -1) {
+				separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+			}
+			if (separatorIndex != -1 &&
+					urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR, separatorIndex + 2) == -1) {
+				String[] entryPaths = this.jarEntriesCache.get(urlFile.substring(0, separatorIndex));
+				if (entryPaths != null) {
+					// Decoded like the entry names, as returned by JarURLConnection.getJarEntry()
+					String rootEntryPath = StringUtils.uriDecode(
+							urlFile.substring(separatorIndex + 2), StandardCharsets.UTF_8);  // both separators are 2 chars
+					return findMatchingJarEntries(entryPaths, rootDirResource, rootEntryPath, subPattern);
+				}
+			}
+		}
+
 		URLConnection con = rootDirURL.openConnection();
 		JarFile jarFile;
 		String jarFileUrl;
@@ -639,6 +788,16 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			if (logger.isTraceEnabled()) {
 				logger.trace("Looking for matching resources in jar file [" + jarFileUrl + "]");
 			}
+			if (this.useCaches) {
+				// Index all entries of the jar file once, then search the index.
+				List<String> entryPaths = new ArrayList<>(jarFile.size());
+				for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+					entryPaths.add(entries.nextElement().getName());
+				}
+				String[] entryPathArray = StringUtils.toStringArray(entryPaths);
+				this.jarEntriesCache.put(jarFileUrl, entryPathArray);
+				return findMatchingJarEntries(entryPathArray, rootDirResource, rootEntryPath, subPattern);
+			}
 			if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
 				// Root entry path must end with slash to allow for proper matching.
 				// The Sun JRE does not return a slash here, but BEA JRockit does.
@@ -664,6 +823,29 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Find all matching entries underneath the given root entry path
+	 * in the given index of jar entry names, in jar order.
+	 */
+	private Set<Resource> findMatchingJarEntries(String[] entryPaths, Resource rootDirResource,
+			String rootEntryPath, String subPattern) throws IOException {
+
+		if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
+			// Root entry path must end with slash to allow for proper matching.
+			rootEntryPath = rootEntryPath + "/";
+		}
+		Set<Resource> result = new LinkedHashSet<>(8);
+		for (String entryPath : entryPaths) {
+			if (entryPath.startsWith(rootEntryPath)) {
+				String relativePath = entryPath.substring(rootEntryPath.length());
+				if (getPathMatcher().match(subPattern, relativePath)) {
+					result.add(rootDirResource.createRelative(relativePath));
+				}
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
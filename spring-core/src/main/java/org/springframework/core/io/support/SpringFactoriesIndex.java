@@ -0,0 +1,280 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of the {@value SpringFactoriesLoader#FACTORIES_RESOURCE_LOCATION} files
+ * of a class path, stored in a compact binary form at {@value #INDEX_RESOURCE_LOCATION}
+ * and read by {@link SpringFactoriesLoader} in a single pass, instead of parsing
+ * every {@code spring.factories} resource on startup.
+ *
+ * <p>The index is meant to be generated at build time for the application
+ * class path, typically by running this class as a build step:
+ *
+ * <pre class="code">
+ * java -cp &lt;runtime class path&gt; org.springframework.core.io.support.SpringFactoriesIndex \
+ *     build/resources/main/META-INF/spring.factories.idx
+ * </pre>
+ *
+ * <p>The index keeps the content of each {@code spring.factories} file separately,
+ * keyed by its {@linkplain #getSourceKey location relative to the class path}:
+ * the jar file name and entry for a file within a jar, or the name of the class
+ * path directory and the entry otherwise. Along with the content, it stores the
+ * size and last-modified timestamp of the file it has been read from: the jar
+ * file for a file within a jar, or the {@code spring.factories} file itself.
+ * {@link SpringFactoriesLoader} still locates all {@code spring.factories} files
+ * at runtime, taking the content of each file from the indexes visible to the
+ * class loader if its size and timestamp still match, and parsing it otherwise.
+ * An index therefore remains valid when moving the class path to a different
+ * location, and never hides files that it does not cover. Set the
+ * {@value SpringFactoriesLoader#IGNORE_INDEX} property to ignore any index.
+ *
+ * @author Juergen Hoeller
+ * @since 5.3
+ * @see SpringFactoriesLoader
+ */
+public final class SpringFactoriesIndex {
+
+	/**
+	 * The location of the index.
+	 * <p>Can be present for both parent and child class loaders.
+	 */
+	public static final String INDEX_RESOURCE_LOCATION = "META-INF/spring.factories.idx";
+
+	private static final int MAGIC = 0x53464958;  // "SFIX"
+
+	private static final int VERSION = 4;
+
+
+	private SpringFactoriesIndex() {
+	}
+
+
+	/**
+	 * Write an index of all {@code spring.factories} files visible to the
+	 * given class loader to the given stream.
+	 * @param classLoader the ClassLoader to load {@code spring.factories} files with
+	 * @param outputStream the stream to write to (not closed by this method)
+	 * @throws IOException in case of I/O errors
+	 */
+	public static void write(ClassLoader classLoader, OutputStream outputStream) throws IOException {
+		Assert.notNull(classLoader, "ClassLoader must not be null");
+		Assert.notNull(outputStream, "OutputStream must not be null");
+		Map<String, Source> sources = new LinkedHashMap<>();
+		Set<String> ambiguousKeys = new HashSet<>();
+		Enumeration<URL> urls = classLoader.getResources(SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION);
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			String sourceKey = getSourceKey(url);
+			if (sources.containsKey(sourceKey)) {
+				// Same jar file name or directory name in different locations
+				ambiguousKeys.add(sourceKey);
+			}
+			else {
+				File file = getSourceFile(url);
+				sources.put(sourceKey, new Source(file != null ? file.length() : -1,
+						file != null ? file.lastModified() : -1,
+						new TreeMap<>(SpringFactoriesLoader.readSpringFactories(url))));
+			}
+		}
+		sources.keySet().removeAll(ambiguousKeys);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(sources.size());
+		for (Map.Entry<String, Source> source : sources.entrySet()) {
+			out.writeUTF(source.getKey());
+			out.writeLong(source.getValue().length);
+			out.writeLong(source.getValue().lastModified);
+			Map<String, List<String>> factories = source.getValue().factories;
+			out.writeInt(factories.size());
+			for (Map.Entry<String, List<String>> entry : factories.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue().size());
+				for (String implementationName : entry.getValue()) {
+					out.writeUTF(implementationName);
+				}
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Read an index previously created with {@link #write}.
+	 * @param inputStream the stream to read from (not closed by this method)
+	 * @return an unmodifiable map from {@linkplain #getSourceKey source key}
+	 * to the indexed content of the source
+	 * @throws IOException in case of I/O errors or if the content is not a
+	 * valid index
+	 */
+	static Map<String, Source> read(InputStream inputStream) throws IOException {
+		Assert.notNull(inputStream, "InputStream must not be null");
+		DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a spring.factories index");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported spring.factories index version " + version);
+		}
+		int sourceCount = in.readInt();
+		Map<String, Source> result = new LinkedHashMap<>((int) (sourceCount / 0.75f) + 1);
+		for (int i = 0; i < sourceCount; i++) {
+			String sourceKey = in.readUTF();
+			long length = in.readLong();
+			long lastModified = in.readLong();
+			int typeCount = in.readInt();
+			Map<String, List<String>> factories = new LinkedHashMap<>((int) (typeCount / 0.75f) + 1);
+			for (int j = 0; j < typeCount; j++) {
+				String factoryTypeName = in.readUTF();
+				String[] implementationNames = new String[in.readInt()];
+				for (int k = 0; k < implementationNames.length; k++) {
+					implementationNames[k] = in.readUTF();
+				}
+				factories.put(factoryTypeName, Collections.unmodifiableList(Arrays.asList(implementationNames)));
+			}
+			result.put(sourceKey, new Source(length, lastModified, Collections.unmodifiableMap(factories)));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Determine the key under which the content of the given {@code spring.factories}
+	 * file is indexed, independent of the location of the class path: the name of
+	 * the innermost jar file and the entry within it, e.g.
+	 * {@code my-lib.jar!/META-INF/spring.factories}, or the name of the class path
+	 * directory and the entry, e.g. {@code classes/META-INF/spring.factories}.
+	 * @param url the location of a {@code spring.factories} file
+	 * @return the source key
+	 */
+	static String getSourceKey(URL url) {
+		String path = StringUtils.cleanPath(url.toExternalForm());
+		int separatorIndex = path.lastIndexOf(ResourceUtils.JAR_URL_SEPARATOR);
+		if (separatorIndex != -1) {
+			return StringUtils.getFilename(path.substring(0, separatorIndex)) + path.substring(separatorIndex);
+		}
+		String entry = SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION;
+		if (!path.endsWith("/" + entry)) {
+			return path;
+		}
+		String root = path.substring(0, path.length() - entry.length() - 1);
+		return StringUtils.getFilename(root) + "/" + entry;
+	}
+
+	/**
+	 * Determine the file that the given {@code spring.factories} file is read
+	 * from: the outermost jar file for a file within a jar, or the file itself.
+	 * @param url the location of a {@code spring.factories} file
+	 * @return the file, or {@code null} if not resolvable in the file system
+	 */
+	@Nullable
+	static File getSourceFile(URL url) {
+		try {
+			URL fileUrl = (ResourceUtils.isJarURL(url) ? ResourceUtils.extractJarFileURL(url) : url);
+			return (ResourceUtils.isFileURL(fileUrl) ? ResourceUtils.getFile(fileUrl) : null);
+		}
+		catch (IOException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Write an index of the {@code spring.factories} files on the current
+	 * class path to the file given as single argument.
+	 * @throws IllegalArgumentException if not exactly one argument is given
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			throw new IllegalArgumentException("Usage: SpringFactoriesIndex <index file>");
+		}
+		Path indexFile = Paths.get(args[0]).toAbsolutePath();
+		if (indexFile.getParent() != null) {
+			Files.createDirectories(indexFile.getParent());
+		}
+		ClassLoader classLoader = SpringFactoriesIndex.class.getClassLoader();
+		try (OutputStream out = Files.newOutputStream(indexFile)) {
+			write(classLoader, out);
+		}
+	}
+
+
+	/**
+	 * The indexed content of a {@code spring.factories} file, along with the
+	 * size and last-modified timestamp of the {@linkplain #getSourceFile file}
+	 * that it has been read from ({@code -1} if not resolvable).
+	 */
+	static final class Source {
+
+		private final long length;
+
+		private final long lastModified;
+
+		private final Map<String, List<String>> factories;
+
+		Source(long length, long lastModified, Map<String, List<String>> factories) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.factories = factories;
+		}
+
+		/**
+		 * Return the indexed factories, mapping factory type names to
+		 * implementation names.
+		 */
+		Map<String, List<String>> getFactories() {
+			return this.factories;
+		}
+
+		/**
+		 * Determine whether the given file still matches the indexed size
+		 * and last-modified timestamp.
+		 * @param file the file resolved through {@link #getSourceFile}, if any
+		 */
+		boolean isCurrent(@Nullable File file) {
+			return (file != null && this.length != -1 && file.length() == this.length &&
+					file.lastModified() == this.lastModified);
+		}
+	}
+
+}
@@ -17,11 +17,13 @@
 package org.springframework.core.io.support;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -30,6 +32,7 @@ import java.util.stream.Collectors;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.io.UrlResource;
 import org.springframework.lang.Nullable;
@@ -54,6 +57,10 @@ import org.springframework.util.StringUtils;
  * where {@code example.MyService} is the name of the interface, and {@code MyServiceImpl1}
  * and {@code MyServiceImpl2} are two implementations.
  *
+ * <p>As of Spring Framework 5.3, the content of {@code spring.factories} files is
+ * taken from a {@link SpringFactoriesIndex} generated at build time if present,
+ * parsing only the files not covered by the index or changed since indexing.
+ *
  * @author Arjen Poutsma
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -67,6 +74,17 @@ public final class SpringFactoriesLoader {
 	 */
 	public static final String FACTORIES_RESOURCE_LOCATION = "META-INF/spring.factories";
 
+	/**
+	 * System property that instructs Spring to ignore the
+	 * {@linkplain SpringFactoriesIndex#INDEX_RESOURCE_LOCATION index}, i.e.
+	 * to always load the {@value #FACTORIES_RESOURCE_LOCATION} files.
+	 * <p>The default is "false", using the index if present.
+	 * @since 5.3
+	 */
+	public static final String IGNORE_INDEX = "spring.factories.index.ignore";
+
+
+	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
 
 	private static final Log logger = LogFactory.getLog(SpringFactoriesLoader.class);
 
@@ -138,33 +156,105 @@ public final class SpringFactoriesLoader {
 			return result;
 		}
 
-		result = new HashMap<>();
+		result = scanSpringFactories(classLoader,
+				(!shouldIgnoreIndex ? loadSpringFactoriesIndexes(classLoader) : Collections.emptyMap()));
+		cache.put(classLoader, result);
+		return result;
+	}
+
+	/**
+	 * Load the indexed {@code spring.factories} content from all indexes
+	 * visible to the given class loader, keyed by source.
+	 * @see SpringFactoriesIndex#getSourceKey
+	 */
+	private static Map<String, SpringFactoriesIndex.Source> loadSpringFactoriesIndexes(ClassLoader classLoader) {
+		Map<String, SpringFactoriesIndex.Source> result = new LinkedHashMap<>();
 		try {
-			Enumeration<URL> urls = classLoader.getResources(FACTORIES_RESOURCE_LOCATION);
+			Enumeration<URL> urls = classLoader.getResources(SpringFactoriesIndex.INDEX_RESOURCE_LOCATION);
 			while (urls.hasMoreElements()) {
 				URL url = urls.nextElement();
-				UrlResource resource = new UrlResource(url);
-				Properties properties = PropertiesLoaderUtils.loadProperties(resource);
-				for (Map.Entry<?, ?> entry : properties.entrySet()) {
-					String factoryTypeName = ((String) entry.getKey()).trim();
-					String[] factoryImplementationNames =
-							StringUtils.commaDelimitedListToStringArray((String) entry.getValue());
-					for (String factoryImplementationName : factoryImplementationNames) {
-						result.computeIfAbsent(factoryTypeName, key -> new ArrayList<>())
-								.add(factoryImplementationName.trim());
-					}
+				try (InputStream inputStream = new UrlResource(url).getInputStream()) {
+					SpringFactoriesIndex.read(inputStream).forEach(result::putIfAbsent);
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Loaded factories index from " + url);
 				}
 			}
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Unable to load factories index from location [" +
+					SpringFactoriesIndex.INDEX_RESOURCE_LOCATION + "]", ex);
+		}
+		return result;
+	}
+
+	static Map<String, List<String>> scanSpringFactories(ClassLoader classLoader) {
+		return scanSpringFactories(classLoader, Collections.emptyMap());
+	}
 
-			// Replace all lists with unmodifiable lists containing unique elements
-			result.replaceAll((factoryType, implementations) -> implementations.stream().distinct()
-					.collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)));
-			cache.put(classLoader, result);
+	private static Map<String, List<String>> scanSpringFactories(
+			ClassLoader classLoader, Map<String, SpringFactoriesIndex.Source> index) {
+
+		Map<String, List<String>> result = new HashMap<>();
+		int parsed = 0;
+		try {
+			Enumeration<URL> urls = classLoader.getResources(FACTORIES_RESOURCE_LOCATION);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				SpringFactoriesIndex.Source source = (!index.isEmpty() ?
+						index.get(SpringFactoriesIndex.getSourceKey(url)) : null);
+				if (source != null && source.isCurrent(SpringFactoriesIndex.getSourceFile(url))) {
+					addFactories(result, source.getFactories());
+				}
+				else {
+					addFactories(result, readSpringFactories(url));
+					parsed++;
+				}
+			}
 		}
 		catch (IOException ex) {
 			throw new IllegalArgumentException("Unable to load factories from location [" +
 					FACTORIES_RESOURCE_LOCATION + "]", ex);
 		}
+		if (parsed > 0 && !index.isEmpty() && logger.isDebugEnabled()) {
+			logger.debug("Parsed " + parsed + " spring.factories files not covered by the factories index");
+		}
+		return toUniqueImplementations(result);
+	}
+
+	private static void addFactories(Map<String, List<String>> result, Map<String, List<String>> factories) {
+		factories.forEach((factoryTypeName, factoryImplementationNames) ->
+				result.computeIfAbsent(factoryTypeName, key -> new ArrayList<>())
+						.addAll(factoryImplementationNames));
+	}
+
+	/**
+	 * Replace all lists with unmodifiable lists containing unique elements.
+	 */
+	private static Map<String, List<String>> toUniqueImplementations(Map<String, List<String>> result) {
+		result.replaceAll((factoryType, implementations) -> implementations.stream().distinct()
+				.collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)));
+		return result;
+	}
+
+	/**
+	 * Parse the given {@code spring.factories} file.
+	 * @param url the location of the file
+	 * @return a map from factory type name to implementation names
+	 * @throws IOException in case of I/O errors
+	 */
+	static Map<String, List<String>> readSpringFactories(URL url) throws IOException {
+		Map<String, List<String>> result = new LinkedHashMap<>();
+		Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
+		for (Map.Entry<?, ?> entry : properties.entrySet()) {
+			String factoryTypeName = ((String) entry.getKey()).trim();
+			String[] factoryImplementationNames =
+					StringUtils.commaDelimitedListToStringArray((String) entry.getValue());
+			for (String factoryImplementationName : factoryImplementationNames) {
+				result.computeIfAbsent(factoryTypeName, key -> new ArrayList<>())
+						.add(factoryImplementationName.trim());
+			}
+		}
 		return result;
 	}
 
@@ -18,6 +18,7 @@ package org.springframework.core.metrics.jfr;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.core.metrics.StartupStep;
@@ -28,29 +29,30 @@ import org.springframework.core.metrics.StartupStep;
  * only support base types, the {@link StartupStep.Tags} are serialized as a single String attribute.
  * <p>Once this is configured on the application context, you can record data by launching the application
  * with recording enabled: {@code java -XX:StartFlightRecording:filename=recording.jfr,duration=10s -jar app.jar}.
+ * <p>Steps may be started on several threads concurrently, e.g. when pre-instantiating
+ * singletons in parallel; the parent of a step is the current step of the same thread.
  *
  * @author Brian Clozel
  * @since 5.3
  */
 public class FlightRecorderApplicationStartup implements ApplicationStartup {
 
-	private long currentSequenceId;
+	private final AtomicLong currentSequenceId = new AtomicLong();
 
-	private final Deque<Long> currentSteps;
-
-
-	public FlightRecorderApplicationStartup() {
-		this.currentSequenceId = 0;
-		this.currentSteps = new ArrayDeque<>();
-		this.currentSteps.offerFirst(0L);
-	}
+	private final ThreadLocal<Deque<Long>> currentSteps = ThreadLocal.withInitial(() -> {
+		Deque<Long> steps = new ArrayDeque<>();
+		steps.offerFirst(0L);
+		return steps;
+	});
 
 
 	@Override
 	public StartupStep start(String name) {
-		FlightRecorderStartupStep step = new FlightRecorderStartupStep(++this.currentSequenceId, name,
-				this.currentSteps.getFirst(), committedStep -> this.currentSteps.removeFirst());
-		this.currentSteps.offerFirst(this.currentSequenceId);
+		Deque<Long> steps = this.currentSteps.get();
+		long sequenceId = this.currentSequenceId.incrementAndGet();
+		FlightRecorderStartupStep step = new FlightRecorderStartupStep(sequenceId, name,
+				steps.getFirst(), committedStep -> steps.removeFirstOccurrence(sequenceId));
+		steps.offerFirst(sequenceId);
 		return step;
 	}
 
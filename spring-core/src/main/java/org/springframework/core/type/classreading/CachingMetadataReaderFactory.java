@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,10 @@ import org.springframework.lang.Nullable;
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>Optionally backed by a {@link PersistentMetadataReaderCache} which retains
+ * class metadata across JVM restarts, skipping class file parsing for classes
+ * that did not change since the metadata was stored.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -44,6 +48,9 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	@Nullable
+	private PersistentMetadataReaderCache persistentCache = PersistentMetadataReaderCache.getSharedInstance();
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
@@ -113,6 +120,29 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 		}
 	}
 
+	/**
+	 * Specify a {@link PersistentMetadataReaderCache} to restore class metadata
+	 * from and to store newly read class metadata in.
+	 * <p>Default is the shared instance for the file specified through the
+	 * {@value PersistentMetadataReaderCache#CACHE_FILE_PROPERTY_NAME} property,
+	 * if any. Newly read metadata gets written to the cache file on
+	 * {@link #clearCache()}.
+	 * @since 5.3
+	 * @see PersistentMetadataReaderCache#getSharedInstance()
+	 */
+	public void setPersistentCache(@Nullable PersistentMetadataReaderCache persistentCache) {
+		this.persistentCache = persistentCache;
+	}
+
+	/**
+	 * Return the {@link PersistentMetadataReaderCache} used by this factory, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public PersistentMetadataReaderCache getPersistentCache() {
+		return this.persistentCache;
+	}
+
 
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
@@ -120,7 +150,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = createMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
@@ -129,21 +159,40 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			synchronized (this.metadataReaderCache) {
 				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
+					metadataReader = createMetadataReader(resource);
 					this.metadataReaderCache.put(resource, metadataReader);
 				}
 				return metadataReader;
 			}
 		}
 		else {
+			return createMetadataReader(resource);
+		}
+	}
+
+	private MetadataReader createMetadataReader(Resource resource) throws IOException {
+		PersistentMetadataReaderCache persistentCache = this.persistentCache;
+		if (persistentCache == null) {
 			return super.getMetadataReader(resource);
 		}
+		MetadataReader metadataReader = persistentCache.getMetadataReader(
+				resource, getResourceLoader().getClassLoader());
+		if (metadataReader == null) {
+			metadataReader = super.getMetadataReader(resource);
+			persistentCache.putMetadataReader(resource, metadataReader);
+		}
+		return metadataReader;
 	}
 
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
+	 * <p>Newly read metadata is written to the {@link PersistentMetadataReaderCache}
+	 * file first, if any.
 	 */
 	public void clearCache() {
+		if (this.persistentCache != null) {
+			this.persistentCache.save();
+		}
 		if (this.metadataReaderCache instanceof LocalResourceCache) {
 			synchronized (this.metadataReaderCache) {
 				this.metadataReaderCache.clear();
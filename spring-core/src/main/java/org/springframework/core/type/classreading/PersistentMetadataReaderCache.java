@@ -0,0 +1,682 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotation.Adapt;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Persistent cache for ASM-based {@link MetadataReader} results, storing the
+ * class and annotation metadata of each ".class" resource in a compact binary
+ * file, so that the metadata of unchanged classes can be restored on the next
+ * startup without parsing the class file again.
+ *
+ * <p>Entries are keyed by the URL of the class resource and are only reused
+ * if the last-modified timestamp and content length of the resource still
+ * match the values recorded when the entry was stored, falling back to
+ * regular class file parsing otherwise. Stored metadata is decoded lazily
+ * against the {@link ClassLoader} of the requesting factory.
+ *
+ * <p>On {@link #save()}, entries for resources that no longer exist are
+ * dropped, and the in-memory entries are released once they have been
+ * written, to be read from the file again only if needed later on.
+ *
+ * <p>A shared instance for the file specified through the
+ * {@value #CACHE_FILE_PROPERTY_NAME} property (as a JVM system property or
+ * through {@link SpringProperties}) is used by every
+ * {@link CachingMetadataReaderFactory} by default. Since this cache is a pure
+ * startup optimization, any failure to read or write the cache file is logged
+ * and otherwise ignored.
+ *
+ * @author Juergen Hoeller
+ * @since 5.3
+ * @see CachingMetadataReaderFactory#setPersistentCache
+ */
+public class PersistentMetadataReaderCache {
+
+	/**
+	 * System property that specifies the location of the cache file to
+	 * use for the shared instance: {@value}.
+	 * <p>If not specified, no persistent cache is used by default.
+	 * @see #getSharedInstance()
+	 */
+	public static final String CACHE_FILE_PROPERTY_NAME = "spring.metadatareader.cache-file";
+
+	private static final int MAGIC = 0x53504d52;  // "SPMR"
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final Log logger = LogFactory.getLog(PersistentMetadataReaderCache.class);
+
+	private static final ConcurrentMap<File, PersistentMetadataReaderCache> sharedInstances =
+			new ConcurrentHashMap<>(1);
+
+
+	private final File cacheFile;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>(256);
+
+	/** Keys of the entries that have been restored or stored since the last save. */
+	private final Set<String> usedKeys = ConcurrentHashMap.newKeySet(256);
+
+	private volatile boolean loaded;
+
+	private volatile boolean modified;
+
+
+	/**
+	 * Create a new {@code PersistentMetadataReaderCache} for the given file.
+	 * <p>The file does not need to exist yet; it will be created on {@link #save()}.
+	 * @param cacheFile the file to read metadata from and to write metadata to
+	 */
+	public PersistentMetadataReaderCache(File cacheFile) {
+		Assert.notNull(cacheFile, "Cache file must not be null");
+		this.cacheFile = cacheFile;
+	}
+
+
+	/**
+	 * Return the file that this cache reads metadata from and writes metadata to.
+	 */
+	public File getCacheFile() {
+		return this.cacheFile;
+	}
+
+	/**
+	 * Return the number of entries currently held in this cache.
+	 */
+	public int size() {
+		ensureLoaded();
+		return this.entries.size();
+	}
+
+	/**
+	 * Return a {@link MetadataReader} for the given resource restored from
+	 * this cache, if an entry for an unchanged resource is available.
+	 * @param resource the class resource
+	 * @param classLoader the ClassLoader to resolve annotation types against
+	 * @return the restored MetadataReader, or {@code null} if the resource
+	 * needs to be parsed
+	 */
+	@Nullable
+	public MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader) {
+		ensureLoaded();
+		if (this.entries.isEmpty()) {
+			return null;
+		}
+		try {
+			String key = resource.getURL().toString();
+			Entry entry = this.entries.get(key);
+			if (entry == null || entry.lastModified != resource.lastModified() ||
+					entry.contentLength != resource.contentLength()) {
+				return null;
+			}
+			this.usedKeys.add(key);
+			AnnotationMetadata metadata = readMetadata(
+					new DataInputStream(new ByteArrayInputStream(entry.metadata)), classLoader);
+			return new SimpleMetadataReader(resource, metadata);
+		}
+		catch (IOException | ClassNotFoundException | LinkageError | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot restore cached metadata for " + resource + ": " + ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Store the metadata of the given {@link MetadataReader} in this cache.
+	 * <p>Only metadata obtained from a {@link SimpleMetadataReaderFactory}
+	 * is supported; other readers are silently ignored.
+	 * @param resource the class resource
+	 * @param metadataReader the MetadataReader for the resource
+	 */
+	public void putMetadataReader(Resource resource, MetadataReader metadataReader) {
+		AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+		if (!(metadata instanceof SimpleAnnotationMetadata)) {
+			return;
+		}
+		ensureLoaded();
+		try {
+			String key = resource.getURL().toString();
+			long lastModified = resource.lastModified();
+			long contentLength = resource.contentLength();
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+			DataOutputStream out = new DataOutputStream(bos);
+			writeMetadata(out, (SimpleAnnotationMetadata) metadata);
+			out.flush();
+			this.entries.put(key, new Entry(lastModified, contentLength, bos.toByteArray()));
+			this.usedKeys.add(key);
+			this.modified = true;
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot cache metadata for " + resource + ": " + ex);
+			}
+		}
+	}
+
+	/**
+	 * Write all entries of this cache to the cache file, if any entries
+	 * have been added or dropped since it was read.
+	 * <p>Entries which have not been used since the last save are dropped
+	 * if their resource no longer exists. All entries are released from
+	 * memory afterwards, to be read from the file again on next access.
+	 * <p>The file is replaced atomically where supported by the file system.
+	 * Failures are logged and otherwise ignored.
+	 */
+	public void save() {
+		if (!this.loaded) {
+			return;
+		}
+		synchronized (this) {
+			if (!this.loaded) {
+				return;
+			}
+			pruneEntries();
+			if (this.modified) {
+				this.modified = false;
+				writeEntries();
+			}
+			this.entries.clear();
+			this.usedKeys.clear();
+			this.loaded = false;
+		}
+	}
+
+	/**
+	 * Remove all entries from this cache. The cache file will be
+	 * rewritten from scratch on the next {@link #save()}.
+	 */
+	public void clear() {
+		this.entries.clear();
+		this.usedKeys.clear();
+		this.loaded = true;
+		this.modified = true;
+	}
+
+
+	private void pruneEntries() {
+		this.entries.keySet().removeIf(key -> {
+			if (this.usedKeys.contains(key) || exists(key)) {
+				return false;
+			}
+			this.modified = true;
+			return true;
+		});
+	}
+
+	private static boolean exists(String key) {
+		try {
+			return new UrlResource(key).exists();
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+	private void writeEntries() {
+		Path target = this.cacheFile.toPath();
+		try {
+			Path parent = target.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			Path tempFile = Files.createTempFile(parent, this.cacheFile.getName(), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				List<Map.Entry<String, Entry>> entries = new ArrayList<>(this.entries.entrySet());
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(entries.size());
+				for (Map.Entry<String, Entry> entry : entries) {
+					out.writeUTF(entry.getKey());
+					out.writeLong(entry.getValue().lastModified);
+					out.writeLong(entry.getValue().contentLength);
+					out.writeInt(entry.getValue().metadata.length);
+					out.write(entry.getValue().metadata);
+				}
+			}
+			try {
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (IOException ex) {
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Stored metadata of " + this.entries.size() + " classes in " + this.cacheFile);
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Could not write metadata cache file " + this.cacheFile + ": " + ex);
+			}
+		}
+	}
+
+	private void ensureLoaded() {
+		if (!this.loaded) {
+			synchronized (this) {
+				if (!this.loaded) {
+					load();
+					this.loaded = true;
+				}
+			}
+		}
+	}
+
+	private void load() {
+		if (!this.cacheFile.isFile()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(this.cacheFile.toPath())))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring metadata cache file " + this.cacheFile + " with unsupported format");
+				}
+				return;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				long lastModified = in.readLong();
+				long contentLength = in.readLong();
+				byte[] metadata = new byte[in.readInt()];
+				in.readFully(metadata);
+				this.entries.put(key, new Entry(lastModified, contentLength, metadata));
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded metadata of " + count + " classes from " + this.cacheFile);
+			}
+		}
+		catch (IOException ex) {
+			this.entries.clear();
+			if (logger.isInfoEnabled()) {
+				logger.info("Could not read metadata cache file " + this.cacheFile + ": " + ex);
+			}
+		}
+	}
+
+
+	// Binary encoding of class metadata
+
+	private static void writeMetadata(DataOutputStream out, SimpleAnnotationMetadata metadata) throws IOException {
+		out.writeUTF(metadata.getClassName());
+		out.writeInt(metadata.getAccess());
+		writeNullableString(out, metadata.getEnclosingClassName());
+		writeNullableString(out, metadata.getSuperClassName());
+		out.writeBoolean(metadata.isIndependentInnerClass());
+		writeStrings(out, metadata.getInterfaceNames());
+		writeStrings(out, metadata.getMemberClassNames());
+		writeAnnotations(out, metadata.getAnnotations());
+		MethodMetadata[] annotatedMethods = metadata.getAllAnnotatedMethods();
+		out.writeInt(annotatedMethods.length);
+		for (MethodMetadata annotatedMethod : annotatedMethods) {
+			SimpleMethodMetadata methodMetadata = (SimpleMethodMetadata) annotatedMethod;
+			SimpleMethodMetadataReadingVisitor.Source source =
+					(SimpleMethodMetadataReadingVisitor.Source) methodMetadata.getSource();
+			out.writeUTF(methodMetadata.getMethodName());
+			out.writeInt(methodMetadata.getAccess());
+			out.writeUTF(source.getDescriptor());
+			out.writeUTF(methodMetadata.getReturnTypeName());
+			writeAnnotations(out, methodMetadata.getAnnotations());
+		}
+	}
+
+	private static AnnotationMetadata readMetadata(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		String className = in.readUTF();
+		int access = in.readInt();
+		String enclosingClassName = readNullableString(in);
+		String superClassName = readNullableString(in);
+		boolean independentInnerClass = in.readBoolean();
+		String[] interfaceNames = readStrings(in);
+		String[] memberClassNames = readStrings(in);
+		MergedAnnotations annotations = readAnnotations(
+				in, classLoader, new SimpleAnnotationMetadataReadingVisitor.Source(className));
+		MethodMetadata[] annotatedMethods = new MethodMetadata[in.readInt()];
+		for (int i = 0; i < annotatedMethods.length; i++) {
+			String methodName = in.readUTF();
+			int methodAccess = in.readInt();
+			String descriptor = in.readUTF();
+			String returnTypeName = in.readUTF();
+			Object source = new SimpleMethodMetadataReadingVisitor.Source(className, methodName, descriptor);
+			annotatedMethods[i] = new SimpleMethodMetadata(methodName, methodAccess, className,
+					returnTypeName, source, readAnnotations(in, classLoader, source));
+		}
+		return new SimpleAnnotationMetadata(className, access, enclosingClassName, superClassName,
+				independentInnerClass, interfaceNames, memberClassNames, annotatedMethods, annotations);
+	}
+
+	private static void writeAnnotations(DataOutputStream out, MergedAnnotations annotations) throws IOException {
+		List<MergedAnnotation<Annotation>> directAnnotations = new ArrayList<>();
+		annotations.stream().filter(MergedAnnotation::isDirectlyPresent).forEach(directAnnotations::add);
+		out.writeInt(directAnnotations.size());
+		for (MergedAnnotation<Annotation> annotation : directAnnotations) {
+			writeAttributes(out, annotation.asAnnotationAttributes(Adapt.CLASS_TO_STRING, Adapt.ANNOTATION_TO_MAP));
+		}
+	}
+
+	private static MergedAnnotations readAnnotations(DataInputStream in, @Nullable ClassLoader classLoader,
+			Object source) throws IOException, ClassNotFoundException {
+
+		int count = in.readInt();
+		List<MergedAnnotation<?>> annotations = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			annotations.add(readAnnotation(in, classLoader, source));
+		}
+		return MergedAnnotations.of(annotations);
+	}
+
+	private static void writeAttributes(DataOutputStream out, AnnotationAttributes attributes) throws IOException {
+		Class<? extends Annotation> annotationType = attributes.annotationType();
+		Assert.state(annotationType != null, "No annotation type");
+		out.writeUTF(annotationType.getName());
+		out.writeInt(attributes.size());
+		for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+			out.writeUTF(attribute.getKey());
+			writeValue(out, attribute.getValue());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MergedAnnotation<?> readAnnotation(DataInputStream in, @Nullable ClassLoader classLoader,
+			Object source) throws IOException, ClassNotFoundException {
+
+		Class<? extends Annotation> annotationType =
+				(Class<? extends Annotation>) ClassUtils.forName(in.readUTF(), classLoader);
+		int count = in.readInt();
+		Map<String, Object> attributes = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			String name = in.readUTF();
+			attributes.put(name, readValue(in, classLoader, source));
+		}
+		return MergedAnnotation.of(classLoader, source, annotationType, attributes);
+	}
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value.getClass().isArray()) {
+			Class<?> componentType = value.getClass().getComponentType();
+			int length = Array.getLength(value);
+			out.writeByte('[');
+			if (componentType.isEnum()) {
+				out.writeByte('e');
+				out.writeUTF(componentType.getName());
+			}
+			else if (componentType == String.class) {
+				out.writeByte('s');
+			}
+			else if (componentType.isPrimitive()) {
+				out.writeByte(typeTag(componentType));
+			}
+			else {
+				Assert.state(length == 0 || AnnotationAttributes.class.isAssignableFrom(componentType),
+						() -> "Unsupported attribute value type: " + value.getClass().getName());
+				out.writeByte('@');
+			}
+			out.writeInt(length);
+			for (int i = 0; i < length; i++) {
+				writeElement(out, Array.get(value, i));
+			}
+		}
+		else {
+			out.writeByte(value instanceof Enum ? 'e' : typeTag(value.getClass()));
+			if (value instanceof Enum) {
+				out.writeUTF(((Enum<?>) value).getDeclaringClass().getName());
+			}
+			writeElement(out, value);
+		}
+	}
+
+	private static void writeElement(DataOutputStream out, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Enum) {
+			out.writeUTF(((Enum<?>) value).name());
+		}
+		else if (value instanceof AnnotationAttributes) {
+			writeAttributes(out, (AnnotationAttributes) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeDouble((Double) value);
+		}
+		else {
+			throw new IllegalStateException("Unsupported attribute value type: " + value.getClass().getName());
+		}
+	}
+
+	private static Object readValue(DataInputStream in, @Nullable ClassLoader classLoader, Object source)
+			throws IOException, ClassNotFoundException {
+
+		byte tag = in.readByte();
+		if (tag != '[') {
+			Class<?> type = (tag == 'e' ? ClassUtils.forName(in.readUTF(), classLoader) : null);
+			return readElement(in, tag, type, classLoader, source);
+		}
+		byte componentTag = in.readByte();
+		Class<?> componentType;
+		switch (componentTag) {
+			case 'e':
+				componentType = ClassUtils.forName(in.readUTF(), classLoader);
+				break;
+			case 's':
+				componentType = String.class;
+				break;
+			case '@':
+				componentType = MergedAnnotation.class;
+				break;
+			default:
+				componentType = primitiveType(componentTag);
+		}
+		int length = in.readInt();
+		Object array = Array.newInstance(componentType, length);
+		for (int i = 0; i < length; i++) {
+			Array.set(array, i, readElement(in, componentTag, componentType, classLoader, source));
+		}
+		return array;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object readElement(DataInputStream in, byte tag, @Nullable Class<?> type,
+			@Nullable ClassLoader classLoader, Object source) throws IOException, ClassNotFoundException {
+
+		switch (tag) {
+			case 's': return in.readUTF();
+			case 'e': return Enum.valueOf((Class<Enum>) type, in.readUTF());
+			case '@': return readAnnotation(in, classLoader, source);
+			case 'Z': return in.readBoolean();
+			case 'B': return in.readByte();
+			case 'C': return in.readChar();
+			case 'S': return in.readShort();
+			case 'I': return in.readInt();
+			case 'J': return in.readLong();
+			case 'F': return in.readFloat();
+			case 'D': return in.readDouble();
+			default: throw new IOException("Corrupt metadata cache entry: unknown type tag " + tag);
+		}
+	}
+
+	private static byte typeTag(Class<?> type) {
+		if (type == String.class) {
+			return 's';
+		}
+		else if (AnnotationAttributes.class.isAssignableFrom(type)) {
+			return '@';
+		}
+		else if (type == boolean.class || type == Boolean.class) {
+			return 'Z';
+		}
+		else if (type == byte.class || type == Byte.class) {
+			return 'B';
+		}
+		else if (type == char.class || type == Character.class) {
+			return 'C';
+		}
+		else if (type == short.class || type == Short.class) {
+			return 'S';
+		}
+		else if (type == int.class || type == Integer.class) {
+			return 'I';
+		}
+		else if (type == long.class || type == Long.class) {
+			return 'J';
+		}
+		else if (type == float.class || type == Float.class) {
+			return 'F';
+		}
+		else if (type == double.class || type == Double.class) {
+			return 'D';
+		}
+		throw new IllegalStateException("Unsupported attribute value type: " + type.getName());
+	}
+
+	private static Class<?> primitiveType(byte tag) throws IOException {
+		switch (tag) {
+			case 'Z': return boolean.class;
+			case 'B': return byte.class;
+			case 'C': return char.class;
+			case 'S': return short.class;
+			case 'I': return int.class;
+			case 'J': return long.class;
+			case 'F': return float.class;
+			case 'D': return double.class;
+			default: throw new IOException("Corrupt metadata cache entry: unknown type tag " + tag);
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+		out.writeInt(values.length);
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String[] readStrings(DataInputStream in) throws IOException {
+		String[] values = new String[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readUTF();
+		}
+		return values;
+	}
+
+
+	/**
+	 * Return the shared cache instance for the file specified through the
+	 * {@value #CACHE_FILE_PROPERTY_NAME} property.
+	 * @return the shared instance, or {@code null} if no cache file has been specified
+	 */
+	@Nullable
+	public static PersistentMetadataReaderCache getSharedInstance() {
+		String location = SpringProperties.getProperty(CACHE_FILE_PROPERTY_NAME);
+		if (!StringUtils.hasText(location)) {
+			return null;
+		}
+		return sharedInstances.computeIfAbsent(
+				new File(location.trim()).getAbsoluteFile(), PersistentMetadataReaderCache::new);
+	}
+
+
+	/**
+	 * A cache entry: the resource fingerprint plus the encoded metadata.
+	 */
+	private static final class Entry {
+
+		final long lastModified;
+
+		final long contentLength;
+
+		final byte[] metadata;
+
+		Entry(long lastModified, long contentLength, byte[] metadata) {
+			this.lastModified = lastModified;
+			this.contentLength = contentLength;
+			this.metadata = metadata;
+		}
+	}
+
+}
@@ -21,7 +21,6 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -76,7 +75,7 @@ public class AntPathMatcher implements PathMatcher {
 	/** Default path separator: "/". */
 	public static final String DEFAULT_PATH_SEPARATOR = "/";
 
-	private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+	private static final int DEFAULT_CACHE_LIMIT = 65536;
 
 	private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{[^/]+?}");
 
@@ -91,12 +90,11 @@ public class AntPathMatcher implements PathMatcher {
 
 	private boolean trimTokens = false;
 
-	@Nullable
-	private volatile Boolean cachePatterns;
+	private volatile ConcurrentLruCache<String, String[]> tokenizedPatternCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, this::tokenizePath);
 
-	private final Map<String, String[]> tokenizedPatternCache = new ConcurrentHashMap<>(256);
-
-	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
+	volatile ConcurrentLruCache<String, AntPathStringMatcher> stringMatcherCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, this::createStringMatcher);
 
 
 	/**
@@ -150,21 +148,30 @@ public class AntPathMatcher implements PathMatcher {
 	 * into this matcher's {@link #match} method. A value of {@code true}
 	 * activates an unlimited pattern cache; a value of {@code false} turns
 	 * the pattern cache off completely.
-	 * <p>Default is for the cache to be on, but with the variant to automatically
-	 * turn it off when encountering too many patterns to cache at runtime
-	 * (the threshold is 65536), assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>Default is for the cache to be on, but bounded to 65536 patterns,
+	 * evicting the least recently used ones once more patterns are coming in.
+	 * Note that the default cache was turned off entirely when exceeding that
+	 * threshold before 5.3.
+	 * <p>For a fixed set of patterns, consider {@link #compile compiling} them
+	 * upfront, which does not depend on this cache at all.
 	 * @since 4.0.1
 	 * @see #getStringMatcher(String)
 	 */
 	public void setCachePatterns(boolean cachePatterns) {
-		this.cachePatterns = cachePatterns;
+		setPatternCacheLimit(cachePatterns ? Integer.MAX_VALUE : 0);
 	}
 
-	private void deactivatePatternCache() {
-		this.cachePatterns = false;
-		this.tokenizedPatternCache.clear();
-		this.stringMatcherCache.clear();
+	/**
+	 * Specify the maximum number of patterns to cache parsed metadata for,
+	 * evicting the least recently used ones beyond that limit.
+	 * A limit of {@code 0} turns the pattern cache off completely.
+	 * <p>Default is 65536.
+	 * @since 5.3
+	 * @see #setCachePatterns
+	 */
+	public void setPatternCacheLimit(int patternCacheLimit) {
+		this.tokenizedPatternCache = new ConcurrentLruCache<>(patternCacheLimit, this::tokenizePath);
+		this.stringMatcherCache = new ConcurrentLruCache<>(patternCacheLimit, this::createStringMatcher);
 	}
 
 
@@ -200,6 +207,24 @@ public class AntPathMatcher implements PathMatcher {
 		return doMatch(pattern, path, false, null);
 	}
 
+	/**
+	 * Compile the given pattern into a reusable {@link CompiledPattern}, holding
+	 * the tokenized pattern along with a string matcher for each of its parts.
+	 * <p>Matching against a compiled pattern does not go through the pattern
+	 * cache at all, so its cost does not depend on the number of patterns in use.
+	 * This is recommended for a fixed set of patterns that is matched repeatedly.
+	 * <p>Note that the compiled pattern reflects the settings of this matcher
+	 * at the time of compilation, so it should only be created once this
+	 * matcher has been fully configured.
+	 * @param pattern the pattern to compile
+	 * @return the compiled pattern
+	 * @since 5.3
+	 */
+	public CompiledPattern compile(String pattern) {
+		Assert.notNull(pattern, "Pattern must not be null");
+		return new CompiledPattern(pattern);
+	}
+
 	/**
 	 * Actually match the given {@code path} against the given {@code pattern}.
 	 * @param pattern the pattern to match against
@@ -214,8 +239,16 @@ public class AntPathMatcher implements PathMatcher {
 		if (path == null || path.startsWith(this.pathSeparator) != pattern.startsWith(this.pathSeparator)) {
 			return false;
 		}
+		return doMatch(pattern, tokenizePattern(pattern), null, path, fullMatch, uriTemplateVariables);
+	}
+
+	/**
+	 * Match the given {@code path} against the given tokenized {@code pattern},
+	 * using the given pre-built string matchers, if any.
+	 */
+	private boolean doMatch(String pattern, String[] pattDirs, @Nullable AntPathStringMatcher[] stringMatchers,
+			String path, boolean fullMatch, @Nullable Map<String, String> uriTemplateVariables) {
 
-		String[] pattDirs = tokenizePattern(pattern);
 		if (fullMatch && this.caseSensitive && !isPotentialMatch(path, pattDirs)) {
 			return false;
 		}
@@ -232,7 +265,7 @@ public class AntPathMatcher implements PathMatcher {
 			if ("**".equals(pattDir)) {
 				break;
 			}
-			if (!matchStrings(pattDir, pathDirs[pathIdxStart], uriTemplateVariables)) {
+			if (!matchStrings(pattDirs, stringMatchers, pattIdxStart, pathDirs[pathIdxStart], uriTemplateVariables)) {
 				return false;
 			}
 			pattIdxStart++;
@@ -272,7 +305,7 @@ public class AntPathMatcher implements PathMatcher {
 			if (pattDir.equals("**")) {
 				break;
 			}
-			if (!matchStrings(pattDir, pathDirs[pathIdxEnd], uriTemplateVariables)) {
+			if (!matchStrings(pattDirs, stringMatchers, pattIdxEnd, pathDirs[pathIdxEnd], uriTemplateVariables)) {
 				return false;
 			}
 			pattIdxEnd--;
@@ -310,9 +343,8 @@ public class AntPathMatcher implements PathMatcher {
 			strLoop:
 			for (int i = 0; i <= strLength - patLength; i++) {
 				for (int j = 0; j < patLength; j++) {
-					String subPat = pattDirs[pattIdxStart + j + 1];
 					String subStr = pathDirs[pathIdxStart + i + j];
-					if (!matchStrings(subPat, subStr, uriTemplateVariables)) {
+					if (!matchStrings(pattDirs, stringMatchers, pattIdxStart + j + 1, subStr, uriTemplateVariables)) {
 						continue strLoop;
 					}
 				}
@@ -396,25 +428,7 @@ public class AntPathMatcher implements PathMatcher {
 	 * @return the tokenized pattern parts
 	 */
 	protected String[] tokenizePattern(String pattern) {
-		String[] tokenized = null;
-		Boolean cachePatterns = this.cachePatterns;
-		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			tokenized = this.tokenizedPatternCache.get(pattern);
-		}
-		if (tokenized == null) {
-			tokenized = tokenizePath(pattern);
-			if (cachePatterns == null && this.tokenizedPatternCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return tokenized;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.tokenizedPatternCache.put(pattern, tokenized);
-			}
-		}
-		return tokenized;
+		return this.tokenizedPatternCache.get(pattern);
 	}
 
 	/**
@@ -428,14 +442,18 @@ public class AntPathMatcher implements PathMatcher {
 
 	/**
 	 * Test whether or not a string matches against a pattern.
-	 * @param pattern the pattern to match against (never {@code null})
+	 * @param pattDirs the tokenized pattern
+	 * @param stringMatchers the pre-built string matchers for the tokenized pattern, if any
+	 * @param pattIdx the index of the pattern part to match against
 	 * @param str the String which must be matched against the pattern (never {@code null})
 	 * @return {@code true} if the string matches against the pattern, or {@code false} otherwise
 	 */
-	private boolean matchStrings(String pattern, String str,
-			@Nullable Map<String, String> uriTemplateVariables) {
+	private boolean matchStrings(String[] pattDirs, @Nullable AntPathStringMatcher[] stringMatchers, int pattIdx,
+			String str, @Nullable Map<String, String> uriTemplateVariables) {
 
-		return getStringMatcher(pattern).matchStrings(str, uriTemplateVariables);
+		AntPathStringMatcher matcher = (stringMatchers != null ?
+				stringMatchers[pattIdx] : getStringMatcher(pattDirs[pattIdx]));
+		return matcher.matchStrings(str, uriTemplateVariables);
 	}
 
 	/**
@@ -443,34 +461,20 @@ public class AntPathMatcher implements PathMatcher {
 	 * <p>The default implementation checks this AntPathMatcher's internal cache
 	 * (see {@link #setCachePatterns}), creating a new AntPathStringMatcher instance
 	 * if no cached copy is found.
-	 * <p>When encountering too many patterns to cache at runtime (the threshold is 65536),
-	 * it turns the default cache off, assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>When encountering more patterns than the cache limit at runtime (65536 by
+	 * default), the least recently used ones are evicted from the cache.
 	 * <p>This method may be overridden to implement a custom cache strategy.
 	 * @param pattern the pattern to match against (never {@code null})
 	 * @return a corresponding AntPathStringMatcher (never {@code null})
 	 * @see #setCachePatterns
+	 * @see #setPatternCacheLimit
 	 */
 	protected AntPathStringMatcher getStringMatcher(String pattern) {
-		AntPathStringMatcher matcher = null;
-		Boolean cachePatterns = this.cachePatterns;
-		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			matcher = this.stringMatcherCache.get(pattern);
-		}
-		if (matcher == null) {
-			matcher = new AntPathStringMatcher(pattern, this.caseSensitive);
-			if (cachePatterns == null && this.stringMatcherCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return matcher;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.stringMatcherCache.put(pattern, matcher);
-			}
-		}
-		return matcher;
+		return this.stringMatcherCache.get(pattern);
+	}
+
+	private AntPathStringMatcher createStringMatcher(String pattern) {
+		return new AntPathStringMatcher(pattern, this.caseSensitive);
 	}
 
 	/**
@@ -635,6 +639,94 @@ public class AntPathMatcher implements PathMatcher {
 	}
 
 
+	/**
+	 * A pattern compiled by {@link AntPathMatcher#compile}, matching paths
+	 * according to the settings of the {@code AntPathMatcher} it was compiled by.
+	 * <p>Instances are thread-safe and can be reused for any number of paths.
+	 * @since 5.3
+	 */
+	public final class CompiledPattern {
+
+		private final String pattern;
+
+		private final String[] pattDirs;
+
+		private final AntPathStringMatcher[] stringMatchers;
+
+		private final boolean absolute;
+
+		CompiledPattern(String pattern) {
+			this.pattern = pattern;
+			this.pattDirs = tokenizePattern(pattern);
+			this.stringMatchers = new AntPathStringMatcher[this.pattDirs.length];
+			for (int i = 0; i < this.pattDirs.length; i++) {
+				this.stringMatchers[i] = getStringMatcher(this.pattDirs[i]);
+			}
+			this.absolute = pattern.startsWith(AntPathMatcher.this.pathSeparator);
+		}
+
+		/**
+		 * Return the original pattern string.
+		 */
+		public String getPattern() {
+			return this.pattern;
+		}
+
+		/**
+		 * Match the given {@code path} against this pattern.
+		 * @param path the path to test
+		 * @return {@code true} if the supplied {@code path} matched,
+		 * {@code false} if it didn't
+		 * @see AntPathMatcher#match(String, String)
+		 */
+		public boolean match(String path) {
+			return doMatch(path, true, null);
+		}
+
+		/**
+		 * Match the given {@code path} against the corresponding part of this
+		 * pattern, determining whether the pattern at least matches as far
+		 * as the given base path goes.
+		 * @param path the path to test
+		 * @return {@code true} if the supplied {@code path} matched,
+		 * {@code false} if it didn't
+		 * @see AntPathMatcher#matchStart(String, String)
+		 */
+		public boolean matchStart(String path) {
+			return doMatch(path, false, null);
+		}
+
+		/**
+		 * Given a full path, extract the URI template variables.
+		 * @param path the full path to extract template variables from
+		 * @return a map, containing variable names as keys; variables values as values
+		 * @see AntPathMatcher#extractUriTemplateVariables(String, String)
+		 */
+		public Map<String, String> extractUriTemplateVariables(String path) {
+			Map<String, String> variables = new LinkedHashMap<>();
+			if (!doMatch(path, true, variables)) {
+				throw new IllegalStateException("Pattern \"" + this.pattern + "\" is not a match for \"" + path + "\"");
+			}
+			return variables;
+		}
+
+		private boolean doMatch(@Nullable String path, boolean fullMatch,
+				@Nullable Map<String, String> uriTemplateVariables) {
+
+			if (path == null || path.startsWith(AntPathMatcher.this.pathSeparator) != this.absolute) {
+				return false;
+			}
+			return AntPathMatcher.this.doMatch(
+					this.pattern, this.pattDirs, this.stringMatchers, path, fullMatch, uriTemplateVariables);
+		}
+
+		@Override
+		public String toString() {
+			return this.pattern;
+		}
+	}
+
+
 	/**
 	 * Tests whether or not a string matches against a pattern via a {@link Pattern}.
 	 * <p>The pattern may contain special characters: '*' means zero or more characters; '?' means one and
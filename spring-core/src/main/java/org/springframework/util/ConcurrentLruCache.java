@@ -0,0 +1,302 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Simple LRU (Least Recently Used) cache, bounded by a specified cache limit.
+ *
+ * <p>This implementation is backed by a {@code ConcurrentHashMap} for storing
+ * the cached values and a {@code ConcurrentLinkedQueue} for choosing the entries
+ * to evict once the cache limit has been exceeded. Rather than reordering the
+ * queue on every access, a lookup merely marks the entry as recently used; the
+ * eviction then gives marked entries a second chance (the so-called "clock"
+ * approximation of LRU). As a consequence, cache hits neither lock nor allocate.
+ *
+ * <p>Values are either generated on demand through a generator function given
+ * at construction time, or explicitly {@linkplain #put added} and
+ * {@linkplain #getIfPresent looked up} by the caller. Subclasses may keep track
+ * of evicted entries through {@link #onEviction}, and entries may be removed
+ * incrementally based on a condition (e.g. an expiration time) through
+ * {@link #sweep}.
+ *
+ * @author Juergen Hoeller
+ * @since 5.3
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ * @see #get
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final int sizeLimit;
+
+	@Nullable
+	private final Function<K, V> generator;
+
+	private final ConcurrentHashMap<K, Node<K, V>> cache = new ConcurrentHashMap<>();
+
+	private final ConcurrentLinkedQueue<Node<K, V>> queue = new ConcurrentLinkedQueue<>();
+
+	/** Number of removed entries whose nodes may still be in the queue. */
+	private final AtomicInteger removedNodes = new AtomicInteger();
+
+
+	/**
+	 * Create a new cache instance with the given limit, for values to be
+	 * {@linkplain #put added} explicitly.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching)
+	 * @see #getIfPresent
+	 * @see #put
+	 */
+	public ConcurrentLruCache(int sizeLimit) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		this.sizeLimit = sizeLimit;
+		this.generator = null;
+	}
+
+	/**
+	 * Create a new cache instance with the given limit and generator function.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param generator a function to generate a new value for a given key
+	 */
+	public ConcurrentLruCache(int sizeLimit, Function<K, V> generator) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		Assert.notNull(generator, "Generator function must not be null");
+		this.sizeLimit = sizeLimit;
+		this.generator = generator;
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, potentially triggering generation
+	 * of the value.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 * @throws IllegalStateException if this cache has been created without
+	 * a generator function
+	 */
+	public V get(K key) {
+		Assert.state(this.generator != null, "No generator function specified");
+		if (this.sizeLimit == 0) {
+			return this.generator.apply(key);
+		}
+		Node<K, V> node = this.cache.get(key);
+		if (node != null) {
+			if (!node.used) {
+				node.used = true;
+			}
+			return node.value;
+		}
+		V value = this.generator.apply(key);
+		node = new Node<>(key, value);
+		Node<K, V> existing = this.cache.putIfAbsent(key, node);
+		if (existing != null) {
+			return existing.value;
+		}
+		this.queue.offer(node);
+		evictIfNecessary();
+		return value;
+	}
+
+	/**
+	 * Retrieve an existing entry from the cache, marking it as recently used.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached value, or {@code null} if none
+	 * @since 5.3
+	 */
+	@Nullable
+	public V getIfPresent(K key) {
+		Node<K, V> node = this.cache.get(key);
+		if (node == null) {
+			return null;
+		}
+		if (!node.used) {
+			node.used = true;
+		}
+		return node.value;
+	}
+
+	/**
+	 * Add the given value to the cache, replacing an existing value for
+	 * the same key (which keeps its position for eviction purposes).
+	 * @param key the key to add the entry for
+	 * @param value the value to cache
+	 * @since 5.3
+	 */
+	public void put(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		if (this.sizeLimit == 0) {
+			return;
+		}
+		Node<K, V> newNode = new Node<>(key, value);
+		Node<K, V> node = this.cache.compute(key, (k, existing) -> {
+			if (existing == null) {
+				return newNode;
+			}
+			existing.value = value;
+			return existing;
+		});
+		if (node == newNode) {
+			this.queue.offer(newNode);
+			evictIfNecessary();
+		}
+	}
+
+	private void evictIfNecessary() {
+		Node<K, V> node;
+		while (this.cache.size() > this.sizeLimit && (node = this.queue.poll()) != null) {
+			if (this.cache.get(node.key) != node) {
+				continue;  // removed already
+			}
+			if (node.used) {
+				node.used = false;
+				this.queue.offer(node);
+			}
+			else if (this.cache.remove(node.key, node)) {
+				onEviction(node.key, node.value);
+			}
+		}
+	}
+
+	/**
+	 * Advance the eviction queue by up to the given number of entries, evicting
+	 * those which match the given condition and giving the others another round,
+	 * without affecting their recent usage. Useful for removing entries which
+	 * are not going to be accessed again (e.g. expired entries) in small steps.
+	 * @param maxEntries the maximum number of entries to check
+	 * @param condition the condition for evicting an entry
+	 * @return the number of evicted entries
+	 * @since 5.3
+	 * @see #onEviction
+	 */
+	public int sweep(int maxEntries, BiPredicate<? super K, ? super V> condition) {
+		int evicted = 0;
+		Node<K, V> node;
+		for (int i = 0; i < maxEntries && (node = this.queue.poll()) != null; i++) {
+			if (condition.test(node.key, node.value) && this.cache.remove(node.key, node)) {
+				onEviction(node.key, node.value);
+				evicted++;
+			}
+			else if (this.cache.get(node.key) == node) {
+				this.queue.offer(node);
+			}
+		}
+		return evicted;
+	}
+
+	/**
+	 * Template method invoked for every entry that has been evicted, either
+	 * since the cache limit has been exceeded or through {@link #sweep}, but
+	 * not for entries which have been {@linkplain #remove removed} explicitly.
+	 * <p>The default implementation is empty.
+	 * @param key the key of the evicted entry
+	 * @param value the value of the evicted entry
+	 * @since 5.3
+	 */
+	protected void onEviction(K key, V value) {
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Immediately remove the given key and any associated value.
+	 * @param key the key to evict the entry for
+	 * @return {@code true} if the key was present before,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean remove(K key) {
+		Node<K, V> node = this.cache.remove(key);
+		if (node != null) {
+			purgeRemovedNodesIfNecessary();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Leave the nodes of removed entries in the queue, to be skipped when
+	 * polled, until they outnumber the current entries.
+	 */
+	private void purgeRemovedNodesIfNecessary() {
+		if (this.removedNodes.incrementAndGet() > Math.max(this.cache.size(), 16)) {
+			this.removedNodes.set(0);
+			this.queue.removeIf(node -> this.cache.get(node.key) != node);
+		}
+	}
+
+	/**
+	 * Immediately remove all entries from this cache.
+	 * <p>Entries added concurrently may remain, along with their position
+	 * for eviction purposes.
+	 */
+	public void clear() {
+		this.cache.clear();
+		this.removedNodes.set(0);
+		// Keep the nodes of entries added in the meantime, which would otherwise never get evicted
+		this.queue.removeIf(node -> this.cache.get(node.key) != node);
+	}
+
+	/**
+	 * Return the current size of the cache.
+	 * @see #sizeLimit()
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value).
+	 * @see #size()
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+
+	private static final class Node<K, V> {
+
+		final K key;
+
+		volatile V value;
+
+		volatile boolean used;
+
+		Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+}
@@ -0,0 +1,683 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+/**
+ * A read-mostly variant of {@link ConcurrentReferenceHashMap}, using
+ * {@link ReferenceType#SOFT soft} or {@linkplain ReferenceType#WEAK weak}
+ * references for its entries in a single open-addressing table.
+ *
+ * <p>Lookups neither lock nor allocate: they read the table through volatile
+ * semantics and probe linearly from the hash of the key, comparing the hash
+ * stored in each entry reference before dereferencing it. All modifications
+ * are serialized on a single monitor, which is also where garbage collected
+ * entries get purged. This trades write scalability for cheaper reads and is
+ * therefore suitable for caches which are populated once and then read
+ * frequently, e.g. reflective metadata caches. For write-heavy use, prefer the
+ * segmented {@link ConcurrentReferenceHashMap}.
+ *
+ * <p>As with {@link ConcurrentReferenceHashMap}, {@code null} values and
+ * {@code null} keys are supported, and there is no guarantee that items placed
+ * into the map will be subsequently available since the garbage collector may
+ * discard references at any time.
+ *
+ * <p>If not explicitly specified, this implementation will use
+ * {@linkplain SoftReference soft entry references}.
+ *
+ * @author Phillip Webb
+ * @since 5.3
+ * @param <K> the key type
+ * @param <V> the value type
+ * @see ConcurrentReferenceHashMap
+ */
+public class ConcurrentReferenceOpenHashMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	private static final ReferenceType DEFAULT_REFERENCE_TYPE = ReferenceType.SOFT;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/**
+	 * Maximum ratio of used slots (including removed ones) to the table length,
+	 * kept low to keep linear probe sequences short.
+	 */
+	private static final float LOAD_FACTOR = 0.5f;
+
+	/**
+	 * Marker for a slot whose entry has been removed, so that lookups continue probing.
+	 */
+	private static final Object REMOVED = new Object();
+
+
+	/**
+	 * The reference type: SOFT or WEAK.
+	 */
+	private final ReferenceType referenceType;
+
+	private final ReferenceQueue<Entry<K, V>> queue = new ReferenceQueue<>();
+
+	/**
+	 * Monitor guarding all modifications of the table and the counters.
+	 */
+	private final Object writeMonitor = new Object();
+
+	/**
+	 * The table of slots, each either {@code null}, {@link #REMOVED} or an
+	 * {@link EntryReference}. Replaced as a whole on resize.
+	 */
+	private volatile AtomicReferenceArray<Object> table;
+
+	/**
+	 * The number of entry references in the table, written under the write monitor.
+	 */
+	private volatile int count;
+
+	/**
+	 * The number of {@link #REMOVED} slots in the table.
+	 */
+	private int removedCount;
+
+	/**
+	 * Late binding entry set.
+	 */
+	@Nullable
+	private volatile Set<Map.Entry<K, V>> entrySet;
+
+
+	/**
+	 * Create a new {@code ConcurrentReferenceOpenHashMap} instance.
+	 */
+	public ConcurrentReferenceOpenHashMap() {
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_REFERENCE_TYPE);
+	}
+
+	/**
+	 * Create a new {@code ConcurrentReferenceOpenHashMap} instance.
+	 * @param initialCapacity the initial capacity of the map
+	 */
+	public ConcurrentReferenceOpenHashMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_REFERENCE_TYPE);
+	}
+
+	/**
+	 * Create a new {@code ConcurrentReferenceOpenHashMap} instance.
+	 * @param initialCapacity the initial capacity of the map
+	 * @param referenceType the reference type used for entries (soft or weak)
+	 */
+	public ConcurrentReferenceOpenHashMap(int initialCapacity, ReferenceType referenceType) {
+		Assert.isTrue(initialCapacity >= 0, "Initial capacity must not be negative");
+		Assert.notNull(referenceType, "Reference type must not be null");
+		this.referenceType = referenceType;
+		this.table = new AtomicReferenceArray<>(tableSizeFor(initialCapacity));
+	}
+
+
+	/**
+	 * Get the hash for a given object, spreading the higher bits downwards since
+	 * the table index is taken from the lower bits.
+	 * @param o the object to hash (may be null)
+	 * @return the resulting hash code
+	 */
+	protected int getHash(@Nullable Object o) {
+		int hash = (o != null ? o.hashCode() : 0) * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	@Override
+	@Nullable
+	public V get(@Nullable Object key) {
+		Entry<K, V> entry = getEntry(key);
+		return (entry != null ? entry.value : null);
+	}
+
+	@Override
+	@Nullable
+	public V getOrDefault(@Nullable Object key, @Nullable V defaultValue) {
+		Entry<K, V> entry = getEntry(key);
+		return (entry != null ? entry.value : defaultValue);
+	}
+
+	@Override
+	public boolean containsKey(@Nullable Object key) {
+		return (getEntry(key) != null);
+	}
+
+	@Nullable
+	private Entry<K, V> getEntry(@Nullable Object key) {
+		int hash = getHash(key);
+		AtomicReferenceArray<Object> table = this.table;
+		int mask = table.length() - 1;
+		int index = hash & mask;
+		for (int probes = 0; probes <= mask; probes++) {
+			Object slot = table.get(index);
+			if (slot == null) {
+				return null;
+			}
+			if (slot != REMOVED) {
+				EntryReference<K, V> ref = asReference(slot);
+				if (ref.getHash() == hash) {
+					Entry<K, V> entry = ref.get();
+					if (entry != null && ObjectUtils.nullSafeEquals(entry.key, key)) {
+						return entry;
+					}
+				}
+			}
+			index = (index + 1) & mask;
+		}
+		return null;
+	}
+
+	@Override
+	@Nullable
+	public V put(@Nullable K key, @Nullable V value) {
+		return doPut(key, value, true);
+	}
+
+	@Override
+	@Nullable
+	public V putIfAbsent(@Nullable K key, @Nullable V value) {
+		return doPut(key, value, false);
+	}
+
+	@Nullable
+	private V doPut(@Nullable K key, @Nullable V value, boolean overwriteExisting) {
+		int hash = getHash(key);
+		synchronized (this.writeMonitor) {
+			purgeQueue();
+			AtomicReferenceArray<Object> table = this.table;
+			int index = indexOf(table, key, hash);
+			if (index >= 0) {
+				Entry<K, V> existing = asReference(table.get(index)).get();
+				if (existing != null) {
+					if (overwriteExisting) {
+						table.set(index, createReference(key, value, hash));
+					}
+					return existing.value;
+				}
+			}
+			insert(table, createReference(key, value, hash));
+			this.count++;
+			if (this.count + this.removedCount > (int) (table.length() * LOAD_FACTOR)) {
+				resize();
+			}
+			return null;
+		}
+	}
+
+	@Override
+	@Nullable
+	public V remove(@Nullable Object key) {
+		int hash = getHash(key);
+		synchronized (this.writeMonitor) {
+			purgeQueue();
+			AtomicReferenceArray<Object> table = this.table;
+			int index = indexOf(table, key, hash);
+			if (index >= 0) {
+				Entry<K, V> existing = asReference(table.get(index)).get();
+				removeAt(table, index);
+				return (existing != null ? existing.value : null);
+			}
+			return null;
+		}
+	}
+
+	@Override
+	public boolean remove(@Nullable Object key, @Nullable Object value) {
+		int hash = getHash(key);
+		synchronized (this.writeMonitor) {
+			purgeQueue();
+			AtomicReferenceArray<Object> table = this.table;
+			int index = indexOf(table, key, hash);
+			if (index >= 0) {
+				Entry<K, V> existing = asReference(table.get(index)).get();
+				if (existing != null && ObjectUtils.nullSafeEquals(existing.value, value)) {
+					removeAt(table, index);
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	@Override
+	public boolean replace(@Nullable K key, @Nullable V oldValue, @Nullable V newValue) {
+		int hash = getHash(key);
+		synchronized (this.writeMonitor) {
+			purgeQueue();
+			AtomicReferenceArray<Object> table = this.table;
+			int index = indexOf(table, key, hash);
+			if (index >= 0) {
+				Entry<K, V> existing = asReference(table.get(index)).get();
+				if (existing != null && ObjectUtils.nullSafeEquals(existing.value, oldValue)) {
+					table.set(index, createReference(key, newValue, hash));
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	@Override
+	@Nullable
+	public V replace(@Nullable K key, @Nullable V value) {
+		int hash = getHash(key);
+		synchronized (this.writeMonitor) {
+			purgeQueue();
+			AtomicReferenceArray<Object> table = this.table;
+			int index = indexOf(table, key, hash);
+			if (index >= 0) {
+				Entry<K, V> existing = asReference(table.get(index)).get();
+				if (existing != null) {
+					table.set(index, createReference(key, value, hash));
+					return existing.value;
+				}
+			}
+			return null;
+		}
+	}
+
+	@Override
+	public void clear() {
+		synchronized (this.writeMonitor) {
+			while (this.queue.poll() != null) {
+				// Drain references of entries which are about to be discarded anyway
+			}
+			this.table = new AtomicReferenceArray<>(tableSizeFor(DEFAULT_INITIAL_CAPACITY));
+			this.count = 0;
+			this.removedCount = 0;
+		}
+	}
+
+	/**
+	 * Remove any entries that have been garbage collected and are no longer referenced.
+	 * Under normal circumstances garbage collected entries are automatically purged as
+	 * items are added or removed from the Map. This method can be used to force a purge,
+	 * and is useful when the Map is read frequently but updated less often.
+	 * <p>Only acquires the write monitor if there actually are entries to purge.
+	 */
+	public void purgeUnreferencedEntries() {
+		Reference<? extends Entry<K, V>> ref = this.queue.poll();
+		if (ref != null) {
+			synchronized (this.writeMonitor) {
+				purge(ref);
+				purgeQueue();
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.count;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (this.count == 0);
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> entrySet = this.entrySet;
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+			this.entrySet = entrySet;
+		}
+		return entrySet;
+	}
+
+
+	/**
+	 * Find the index of the slot holding the entry for the given key.
+	 * Slots whose entry has been garbage collected are skipped.
+	 * @return the index, or {@code -1} if not found
+	 */
+	private int indexOf(AtomicReferenceArray<Object> table, @Nullable Object key, int hash) {
+		int mask = table.length() - 1;
+		int index = hash & mask;
+		for (int probes = 0; probes <= mask; probes++) {
+			Object slot = table.get(index);
+			if (slot == null) {
+				return -1;
+			}
+			if (slot != REMOVED) {
+				EntryReference<K, V> ref = asReference(slot);
+				if (ref.getHash() == hash) {
+					Entry<K, V> entry = ref.get();
+					if (entry != null && ObjectUtils.nullSafeEquals(entry.key, key)) {
+						return index;
+					}
+				}
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Insert the given reference into the first free or removed slot of its
+	 * probe sequence. Must only be called if there is no entry for its key yet.
+	 */
+	private void insert(AtomicReferenceArray<Object> table, EntryReference<K, V> ref) {
+		int mask = table.length() - 1;
+		int index = ref.getHash() & mask;
+		while (true) {
+			Object slot = table.get(index);
+			if (slot == null) {
+				table.set(index, ref);
+				return;
+			}
+			if (slot == REMOVED) {
+				table.set(index, ref);
+				this.removedCount--;
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+	}
+
+	/**
+	 * Remove the entry reference at the given index. The slot only needs to be
+	 * marked as removed if a probe sequence may continue beyond it.
+	 */
+	private void removeAt(AtomicReferenceArray<Object> table, int index) {
+		int mask = table.length() - 1;
+		if (table.get((index + 1) & mask) == null) {
+			table.set(index, null);
+		}
+		else {
+			table.set(index, REMOVED);
+			this.removedCount++;
+		}
+		this.count--;
+	}
+
+	/**
+	 * Purge all entries that have been garbage collected so far.
+	 * Must be called with the write monitor held.
+	 */
+	private void purgeQueue() {
+		Reference<? extends Entry<K, V>> ref;
+		while ((ref = this.queue.poll()) != null) {
+			purge(ref);
+		}
+	}
+
+	/**
+	 * Remove the given reference from the table, if still present. It may have
+	 * been replaced or dropped on resize in the meantime.
+	 */
+	private void purge(Reference<? extends Entry<K, V>> ref) {
+		AtomicReferenceArray<Object> table = this.table;
+		int mask = table.length() - 1;
+		int index = asReference(ref).getHash() & mask;
+		for (int probes = 0; probes <= mask; probes++) {
+			Object slot = table.get(index);
+			if (slot == null) {
+				return;
+			}
+			if (slot == ref) {
+				removeAt(table, index);
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+	}
+
+	/**
+	 * Rebuild the table from its live entries, growing it if necessary. Lookups
+	 * still in progress keep working against the previous table.
+	 * Must be called with the write monitor held.
+	 */
+	private void resize() {
+		AtomicReferenceArray<Object> oldTable = this.table;
+		int capacity = oldTable.length();
+		while (this.count > (int) (capacity * LOAD_FACTOR / 2)) {
+			if (capacity >= MAXIMUM_CAPACITY) {
+				if (this.count >= (int) (capacity * LOAD_FACTOR)) {
+					throw new IllegalStateException("Maximum capacity of " + capacity + " exceeded");
+				}
+				break;
+			}
+			capacity <<= 1;
+		}
+		AtomicReferenceArray<Object> newTable = new AtomicReferenceArray<>(capacity);
+		int newCount = 0;
+		for (int i = 0; i < oldTable.length(); i++) {
+			Object slot = oldTable.get(i);
+			if (slot != null && slot != REMOVED) {
+				EntryReference<K, V> ref = asReference(slot);
+				if (ref.get() != null) {
+					insert(newTable, ref);
+					newCount++;
+				}
+			}
+		}
+		this.count = newCount;
+		this.removedCount = 0;
+		this.table = newTable;
+	}
+
+	private EntryReference<K, V> createReference(@Nullable K key, @Nullable V value, int hash) {
+		Entry<K, V> entry = new Entry<>(key, value);
+		if (this.referenceType == ReferenceType.WEAK) {
+			return new WeakEntryReference<>(entry, hash, this.queue);
+		}
+		return new SoftEntryReference<>(entry, hash, this.queue);
+	}
+
+	@SuppressWarnings("unchecked")
+	private EntryReference<K, V> asReference(Object slot) {
+		return (EntryReference<K, V>) slot;
+	}
+
+	private static int tableSizeFor(int capacity) {
+		int size = 2;
+		while (size < MAXIMUM_CAPACITY && size * LOAD_FACTOR < capacity) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+
+	/**
+	 * An immutable key/value pair, held through an {@link EntryReference}.
+	 */
+	private static final class Entry<K, V> {
+
+		@Nullable
+		final K key;
+
+		@Nullable
+		final V value;
+
+		Entry(@Nullable K key, @Nullable V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+
+	/**
+	 * A reference to an {@link Entry}, also holding the hash of its key.
+	 */
+	private interface EntryReference<K, V> {
+
+		@Nullable
+		Entry<K, V> get();
+
+		int getHash();
+	}
+
+
+	private static final class SoftEntryReference<K, V> extends SoftReference<Entry<K, V>>
+			implements EntryReference<K, V> {
+
+		private final int hash;
+
+		SoftEntryReference(Entry<K, V> entry, int hash, ReferenceQueue<Entry<K, V>> queue) {
+			super(entry, queue);
+			this.hash = hash;
+		}
+
+		@Override
+		public int getHash() {
+			return this.hash;
+		}
+	}
+
+
+	private static final class WeakEntryReference<K, V> extends WeakReference<Entry<K, V>>
+			implements EntryReference<K, V> {
+
+		private final int hash;
+
+		WeakEntryReference(Entry<K, V> entry, int hash, ReferenceQueue<Entry<K, V>> queue) {
+			super(entry, queue);
+			this.hash = hash;
+		}
+
+		@Override
+		public int getHash() {
+			return this.hash;
+		}
+	}
+
+
+	/**
+	 * Internal entry-set implementation.
+	 */
+	private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public boolean contains(@Nullable Object o) {
+			if (o instanceof Map.Entry<?, ?>) {
+				Map.Entry<?, ?> candidate = (Map.Entry<?, ?>) o;
+				Entry<K, V> entry = getEntry(candidate.getKey());
+				return (entry != null && ObjectUtils.nullSafeEquals(entry.value, candidate.getValue()));
+			}
+			return false;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (o instanceof Map.Entry<?, ?>) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				return ConcurrentReferenceOpenHashMap.this.remove(entry.getKey(), entry.getValue());
+			}
+			return false;
+		}
+
+		@Override
+		public int size() {
+			return ConcurrentReferenceOpenHashMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			ConcurrentReferenceOpenHashMap.this.clear();
+		}
+	}
+
+
+	/**
+	 * Internal entry iterator implementation, operating on the table
+	 * as of the time of its creation.
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+		private final AtomicReferenceArray<Object> table = ConcurrentReferenceOpenHashMap.this.table;
+
+		private int nextIndex;
+
+		@Nullable
+		private Entry<K, V> next;
+
+		@Nullable
+		private Entry<K, V> last;
+
+		@Override
+		public boolean hasNext() {
+			while (this.next == null && this.nextIndex < this.table.length()) {
+				Object slot = this.table.get(this.nextIndex++);
+				if (slot != null && slot != REMOVED) {
+					this.next = asReference(slot).get();
+				}
+			}
+			return (this.next != null);
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Entry<K, V> entry = this.next;
+			this.next = null;
+			this.last = entry;
+			return new WriteThroughEntry(entry.key, entry.value);
+		}
+
+		@Override
+		public void remove() {
+			Assert.state(this.last != null, "No element to remove");
+			ConcurrentReferenceOpenHashMap.this.remove(this.last.key);
+			this.last = null;
+		}
+	}
+
+
+	/**
+	 * Entry exposed through the entry set, writing value changes through to the map.
+	 */
+	@SuppressWarnings("serial")
+	private class WriteThroughEntry extends SimpleEntry<K, V> {
+
+		WriteThroughEntry(@Nullable K key, @Nullable V value) {
+			super(key, value);
+		}
+
+		@Override
+		@Nullable
+		public V setValue(@Nullable V value) {
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.ResolvableType.CacheStatistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TypeCache}.
+ */
+class TypeCacheTests {
+
+	@Test
+	void referenceCacheRecordsHitsAndMisses() {
+		TypeCache<String, String> cache = TypeCache.create(0, true);
+		assertThat(cache.get("a")).isNull();
+		cache.put("a", "A");
+		assertThat(cache.get("a")).isEqualTo("A");
+		assertThat(cache.get("a")).isEqualTo("A");
+
+		CacheStatistics statistics = cache.getStatistics();
+		assertThat(statistics.getSize()).isEqualTo(1);
+		assertThat(statistics.getLimit()).isEqualTo(-1);
+		assertThat(statistics.getHitCount()).isEqualTo(2);
+		assertThat(statistics.getMissCount()).isEqualTo(1);
+		assertThat(statistics.getEvictionCount()).isEqualTo(0);
+		assertThat(statistics.getHitRatio()).isEqualTo(2.0 / 3);
+	}
+
+	@Test
+	void boundedCacheEvictsBeyondLimit() {
+		TypeCache<Integer, String> cache = TypeCache.create(3, true);
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, String.valueOf(i));
+		}
+		CacheStatistics statistics = cache.getStatistics();
+		assertThat(statistics.getSize()).isEqualTo(3);
+		assertThat(statistics.getLimit()).isEqualTo(3);
+		assertThat(statistics.getEvictionCount()).isEqualTo(7);
+		assertThat(cache.get(9)).isEqualTo("9");
+		assertThat(cache.get(0)).isNull();
+	}
+
+	@Test
+	void boundedCacheKeepsRecentlyUsedEntries() {
+		TypeCache<Integer, String> cache = TypeCache.create(2, true);
+		cache.put(1, "1");
+		cache.put(2, "2");
+		assertThat(cache.get(1)).isEqualTo("1");
+		cache.put(3, "3");
+		assertThat(cache.get(1)).isEqualTo("1");
+		assertThat(cache.get(2)).isNull();
+		assertThat(cache.get(3)).isEqualTo("3");
+	}
+
+	@Test
+	void boundedCacheClear() {
+		TypeCache<Integer, String> cache = TypeCache.create(2, true);
+		cache.put(1, "1");
+		cache.clear();
+		assertThat(cache.size()).isEqualTo(0);
+		cache.put(2, "2");
+		cache.put(3, "3");
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getStatistics().getEvictionCount()).isEqualTo(0);
+	}
+
+	@Test
+	void cacheWithoutStatistics() {
+		TypeCache<Integer, String> cache = TypeCache.create(2, false);
+		assertThat(cache.get(1)).isNull();
+		cache.put(1, "1");
+		cache.put(2, "2");
+		cache.put(3, "3");
+		assertThat(cache.get(3)).isEqualTo("3");
+
+		CacheStatistics statistics = cache.getStatistics();
+		assertThat(statistics.getSize()).isEqualTo(2);
+		assertThat(statistics.getLimit()).isEqualTo(2);
+		assertThat(statistics.getHitCount()).isEqualTo(0);
+		assertThat(statistics.getMissCount()).isEqualTo(0);
+		assertThat(statistics.getEvictionCount()).isEqualTo(0);
+	}
+
+	@Test
+	void resolvableTypeCacheStatistics() throws Exception {
+		ResolvableType.forField(Fields.class.getField("stringList"));
+		assertThat(ResolvableType.getCacheStatistics().getSize()).isGreaterThan(0);
+		assertThat(ResolvableType.getSerializableTypeCacheStatistics().getSize()).isGreaterThan(0);
+	}
+
+
+	static class Fields {
+
+		public List<String> stringList;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -776,6 +776,19 @@ class AnnotatedElementUtilsTests {
 		assertThat(annotation.qualifier()).as("TX qualifier via synthesized annotation.").isEqualTo("aliasForQualifier");
 	}
 
+	@Test
+	void findMergedAnnotationReturnsCachedSynthesizedAnnotation() throws Exception {
+		Method method = getClass().getDeclaredMethod("composedTransactionalMethod");
+		AliasedTransactional annotation = findMergedAnnotation(method, AliasedTransactional.class);
+		assertThat(findMergedAnnotation(method, AliasedTransactional.class)).isSameAs(annotation);
+		assertThat(findMergedAnnotation(method, ContextConfig.class)).isNull();
+		assertThat(getMergedAnnotation(method, AliasedTransactional.class)).isEqualTo(annotation);
+
+		AnnotationUtils.clearCache();
+		AliasedTransactional recomputed = findMergedAnnotation(method, AliasedTransactional.class);
+		assertThat(recomputed).isNotSameAs(annotation).isEqualTo(annotation);
+	}
+
 	@Test
 	void findMergedAnnotationForMultipleMetaAnnotationsWithClashingAttributeNames() {
 		String[] xmlLocations = asArray("test.xml");
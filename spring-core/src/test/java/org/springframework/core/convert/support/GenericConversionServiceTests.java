@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -421,6 +421,52 @@ class GenericConversionServiceTests {
 		assertThat(conversionService.canConvert(String.class, Color.class)).isFalse();
 	}
 
+	@Test
+	void convertFromClassAfterConverterRegistryChanges() {
+		assertThatExceptionOfType(ConverterNotFoundException.class).isThrownBy(() ->
+				conversionService.convert("#000000", Color.class));
+		conversionService.addConverter(new ColorConverter());
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.BLACK);
+		conversionService.removeConvertible(String.class, Color.class);
+		assertThatExceptionOfType(ConverterNotFoundException.class).isThrownBy(() ->
+				conversionService.convert("#000000", Color.class));
+	}
+
+	@Test
+	void convertFromClassCachesConverterLookup() {
+		MyConditionalConverter converter = new MyConditionalConverter();
+		conversionService.addConverter(new ColorConverter());
+		conversionService.addConverter(converter);
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.BLACK);
+		int matchAttempts = converter.getMatchAttempts();
+		assertThat(conversionService.convert("#FFFFFF", Color.class)).isEqualTo(Color.WHITE);
+		assertThat(conversionService.canConvert(String.class, Color.class)).isTrue();
+		assertThat(converter.getMatchAttempts()).isEqualTo(matchAttempts);
+	}
+
+	@Test
+	void convertFromClassDelegatesToOverriddenTypeDescriptorVariants() {
+		List<String> invocations = new ArrayList<>();
+		GenericConversionService conversionService = new GenericConversionService() {
+			@Override
+			public boolean canConvert(@Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				invocations.add("canConvert");
+				return super.canConvert(sourceType, targetType);
+			}
+			@Override
+			@Nullable
+			public Object convert(@Nullable Object source, @Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				invocations.add("convert");
+				return super.convert(source, sourceType, targetType);
+			}
+		};
+		conversionService.addConverter(new ColorConverter());
+		assertThat(conversionService.canConvert(String.class, Color.class)).isTrue();
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.BLACK);
+		assertThat(conversionService.convert(null, Color.class)).isNull();
+		assertThat(invocations).containsExactly("canConvert", "convert", "convert");
+	}
+
 	@Test
 	void conditionalConverter() {
 		MyConditionalConverter converter = new MyConditionalConverter();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -332,4 +332,81 @@ class PropertySourcesPropertyResolverTests {
 			.withMessageContaining("Could not resolve placeholder 'bogus' in value \"${p1}:${p2}:${bogus}\"");
 	}
 
+	@Test
+	void cacheResolvedProperties() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		resolver.setCacheResolvedProperties(true);
+		testProperties.put("foo", "${bar}");
+		testProperties.put("bar", "baz");
+		assertThat(resolver.getProperty("foo")).isEqualTo("baz");
+		assertThat(resolver.getProperty("missing")).isNull();
+
+		testProperties.put("foo", "qux");
+		testProperties.put("missing", "present");
+		assertThat(resolver.getProperty("foo")).isEqualTo("baz");
+		assertThat(resolver.getProperty("missing")).isNull();
+
+		resolver.clearCache();
+		assertThat(resolver.getProperty("foo")).isEqualTo("qux");
+		assertThat(resolver.getProperty("missing")).isEqualTo("present");
+	}
+
+	@Test
+	void cacheResolvedPropertiesClearedOnPropertySourcesChange() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		resolver.setCacheResolvedProperties(true);
+		testProperties.put("foo", "bar");
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+
+		propertySources.addFirst(new MockPropertySource().withProperty("foo", "baz"));
+		assertThat(resolver.getProperty("foo")).isEqualTo("baz");
+
+		propertySources.remove(MockPropertySource.MOCK_PROPERTIES_PROPERTY_SOURCE_NAME);
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+	}
+
+	@Test
+	void cacheResolvedPropertiesNotFilledWithValueFoundDuringPropertySourcesChange() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		resolver.setCacheResolvedProperties(true);
+		propertySources.addLast(new PropertySource<Object>("changing", new Object()) {
+			private boolean changed;
+			@Override
+			public Object getProperty(String name) {
+				if (!this.changed && name.equals("foo")) {
+					// Simulate another thread changing the property sources and
+					// resolving a property while this lookup is still in progress
+					this.changed = true;
+					propertySources.addFirst(new MockPropertySource().withProperty("foo", "new"));
+					resolver.getProperty("other");
+					return "old";
+				}
+				return null;
+			}
+		});
+		assertThat(resolver.getProperty("foo")).isEqualTo("old");
+		assertThat(resolver.getProperty("foo")).isEqualTo("new");
+	}
+
+	@Test
+	void countLookups() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		propertySources.addLast(new MockPropertySource().withProperty("foo", "bar"));
+		resolver.setCountLookups(true);
+		resolver.setCacheResolvedProperties(true);
+
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+		assertThat(resolver.getLookupCounts())
+				.containsEntry("testProperties", 1L)
+				.containsEntry(MockPropertySource.MOCK_PROPERTIES_PROPERTY_SOURCE_NAME, 1L);
+
+		resolver.setCacheResolvedProperties(false);
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+		assertThat(resolver.getLookupCounts()).containsEntry("testProperties", 2L);
+
+		resolver.resetLookupCounts();
+		assertThat(resolver.getLookupCounts()).isEmpty();
+	}
+
 }
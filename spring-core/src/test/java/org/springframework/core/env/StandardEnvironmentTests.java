@@ -380,6 +380,22 @@ public class StandardEnvironmentTests {
 		SpringProperties.setProperty("spring.getenv.ignore", null);
 	}
 
+	@Test
+	void cacheResolvedPropertiesThroughSpringFlag() {
+		SpringProperties.setFlag(AbstractEnvironment.CACHE_RESOLVED_PROPERTIES_PROPERTY_NAME);
+		try {
+			StandardEnvironment environment = new StandardEnvironment();
+			MockPropertySource propertySource = new MockPropertySource().withProperty("foo", "bar");
+			environment.getPropertySources().addFirst(propertySource);
+			assertThat(environment.getProperty("foo")).isEqualTo("bar");
+			propertySource.setProperty("foo", "baz");
+			assertThat(environment.getProperty("foo")).isEqualTo("bar");
+		}
+		finally {
+			SpringProperties.setProperty(AbstractEnvironment.CACHE_RESOLVED_PROPERTIES_PROPERTY_NAME, null);
+		}
+	}
+
 	@Test
 	void getSystemProperties_withAndWithoutSecurityManager() {
 		System.setProperty(ALLOWED_PROPERTY_NAME, ALLOWED_PROPERTY_VALUE);
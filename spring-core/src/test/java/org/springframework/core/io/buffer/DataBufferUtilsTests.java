@@ -16,11 +16,13 @@
 
 package org.springframework.core.io.buffer;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
@@ -31,10 +33,12 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer;
 import org.reactivestreams.Subscription;
 import reactor.core.publisher.BaseSubscriber;
@@ -46,6 +50,7 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.testfixture.io.buffer.AbstractDataBufferAllocatingTests;
+import org.springframework.util.DigestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -543,6 +548,42 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 		assertThat(written).contains("foobar");
 	}
 
+	@Test
+	void transferFileResource() throws Exception {
+		try (FileChannel channel = FileChannel.open(this.tempFile, StandardOpenOption.WRITE)) {
+			StepVerifier.create(DataBufferUtils.transfer(this.resource, 3, 6, channel))
+					.expectNext(6L)
+					.verifyComplete();
+		}
+
+		String result = String.join("", Files.readAllLines(this.tempFile));
+		assertThat(result).isEqualTo("barbaz");
+	}
+
+	@Test
+	void transferFileResourceBeyondEnd() throws Exception {
+		try (FileChannel channel = FileChannel.open(this.tempFile, StandardOpenOption.WRITE)) {
+			StepVerifier.create(DataBufferUtils.transfer(this.resource, 9, 100, channel))
+					.expectNext(3L)
+					.verifyComplete();
+		}
+
+		String result = String.join("", Files.readAllLines(this.tempFile));
+		assertThat(result).isEqualTo("qux");
+	}
+
+	@Test
+	void transferNonFileResource() throws Exception {
+		Resource resource = new ByteArrayResource("foobarbazqux".getBytes(StandardCharsets.UTF_8));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		StepVerifier.create(DataBufferUtils.transfer(resource, 3, 6, Channels.newChannel(out)))
+				.expectNext(6L)
+				.verifyComplete();
+
+		assertThat(out.toString("UTF-8")).isEqualTo("barbaz");
+	}
+
 	@ParameterizedDataBufferAllocatingTest
 	void readAndWriteByteChannel(String displayName, DataBufferFactory bufferFactory) throws Exception {
 		super.bufferFactory = bufferFactory;
@@ -848,6 +889,43 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 				.verify();
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void digest(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = Flux.just(stringBuffer("foo"), stringBuffer("bar"));
+		Mono<byte[]> result = DataBufferUtils.digest(flux, "MD5");
+
+		StepVerifier.create(result)
+				.consumeNextWith(digest -> assertThat(digest)
+						.isEqualTo(DigestUtils.md5Digest("foobar".getBytes(StandardCharsets.UTF_8))))
+				.verifyComplete();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void digestErrors(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = Flux.just(stringBuffer("foo")).concatWith(Flux.error(new RuntimeException()));
+		Mono<byte[]> result = DataBufferUtils.digest(flux, "MD5");
+
+		StepVerifier.create(result)
+				.expectError(RuntimeException.class)
+				.verify();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void digestUnknownAlgorithm(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = Flux.defer(() -> Flux.just(stringBuffer("foo")));
+		Mono<byte[]> result = DataBufferUtils.digest(flux, "unknown");
+
+		StepVerifier.create(result)
+				.expectError(IllegalStateException.class)
+				.verify();
+	}
+
 	@ParameterizedDataBufferAllocatingTest
 	void joinCanceled(String displayName, DataBufferFactory bufferFactory) {
 		super.bufferFactory = bufferFactory;
@@ -903,6 +981,69 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 	}
 
 
+	@ParameterizedDataBufferAllocatingTest
+	void matcherMultipleDelimiters(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer buffer = stringBuffer("a\nb\r\nc");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"\r\n".getBytes(StandardCharsets.UTF_8), "\n".getBytes(StandardCharsets.UTF_8));
+		assertThat(matcher.match(buffer)).isEqualTo(1);
+		assertThat(matcher.delimiter()).isEqualTo("\n".getBytes(StandardCharsets.UTF_8));
+		buffer.readPosition(2);
+		assertThat(matcher.match(buffer)).isEqualTo(4);
+		assertThat(matcher.delimiter()).isEqualTo("\r\n".getBytes(StandardCharsets.UTF_8));
+		buffer.readPosition(5);
+		assertThat(matcher.match(buffer)).isEqualTo(-1);
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void matcherDelimiterAcrossBuffers(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer first = stringBuffer("0123456789abcdef-");
+		DataBuffer second = stringBuffer("-");
+		DataBuffer third = stringBuffer("+0123456789");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"--+".getBytes(StandardCharsets.UTF_8), "+".getBytes(StandardCharsets.UTF_8));
+		assertThat(matcher.match(first)).isEqualTo(-1);
+		assertThat(matcher.match(second)).isEqualTo(-1);
+		assertThat(matcher.match(third)).isEqualTo(0);
+		assertThat(matcher.delimiter()).isEqualTo("--+".getBytes(StandardCharsets.UTF_8));
+
+		release(first, second, third);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void matcherLongBuffer(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		// includes bytes that differ from the newline by one, next to newlines
+		String text = "first line\n\u000bsecond line\r\n\n\t\u000b\u000bthird, rather longer line\n";
+		DataBuffer buffer = stringBuffer(text);
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(
+				"\r\n".getBytes(StandardCharsets.UTF_8), "\n".getBytes(StandardCharsets.UTF_8));
+		List<Integer> matches = new ArrayList<>();
+		int endIdx;
+		while ((endIdx = matcher.match(buffer)) != -1) {
+			matches.add(endIdx);
+			buffer.readPosition(endIdx + 1);
+		}
+
+		List<Integer> expected = new ArrayList<>();
+		for (int i = text.indexOf('\n'); i != -1; i = text.indexOf('\n', i + 1)) {
+			expected.add(i);
+		}
+		assertThat(matches).isEqualTo(expected);
+
+		release(buffer);
+	}
+
 	private static class ZeroDemandSubscriber extends BaseSubscriber<DataBuffer> {
 
 		@Override
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ */
+class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory factory = new PooledDataBufferFactory();
+
+
+	@Test
+	void allocateBufferWithRequestedCapacity() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(100);
+		assertThat(buffer.capacity()).isEqualTo(100);
+		assertThat(buffer.isAllocated()).isTrue();
+		assertThat(buffer.factory()).isSameAs(this.factory);
+		buffer.release();
+		assertThat(buffer.isAllocated()).isFalse();
+	}
+
+	@Test
+	void releasedBufferIsReused() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(100);
+		byte[] memory = buffer.asByteBuffer().array();
+		buffer.release();
+
+		PooledDataBuffer other = this.factory.allocateBuffer(200);
+		assertThat(other.asByteBuffer().array()).isSameAs(memory);
+		assertThat(other.readableByteCount()).isEqualTo(0);
+		other.release();
+	}
+
+	@Test
+	void releasedBufferIsReusedForSameSizeClassOnly() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(100);
+		byte[] memory = buffer.asByteBuffer().array();
+		buffer.release();
+
+		PooledDataBuffer other = this.factory.allocateBuffer(1000);
+		assertThat(other.asByteBuffer().array()).isNotSameAs(memory);
+		other.release();
+	}
+
+	@Test
+	void releasedBufferIsSharedWithOtherThreads() throws Exception {
+		this.factory.setThreadCacheSize(0);
+		PooledDataBuffer buffer = this.factory.allocateBuffer(100);
+		byte[] memory = buffer.asByteBuffer().array();
+		buffer.release();
+
+		byte[] otherMemory = CompletableFuture.supplyAsync(() -> {
+			PooledDataBuffer other = this.factory.allocateBuffer(100);
+			byte[] result = other.asByteBuffer().array();
+			other.release();
+			return result;
+		}).get();
+		assertThat(otherMemory).isSameAs(memory);
+	}
+
+	@Test
+	void bufferBeyondMaxPooledCapacityIsNotReused() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 256, 1024);
+		PooledDataBuffer buffer = factory.allocateBuffer(2000);
+		byte[] memory = buffer.asByteBuffer().array();
+		assertThat(buffer.release()).isTrue();
+
+		PooledDataBuffer other = factory.allocateBuffer(2000);
+		assertThat(other.asByteBuffer().array()).isNotSameAs(memory);
+		other.release();
+	}
+
+	@Test
+	void writeReturnsPooledBuffer() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(4);
+		DataBuffer result = buffer.write("foo", StandardCharsets.UTF_8).write((byte) 'b').write(new byte[] {'a', 'r'});
+		assertThat(result).isSameAs(buffer);
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+		assertThat(buffer.capacity()).isGreaterThanOrEqualTo(6);
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+	}
+
+	@Test
+	void retainedSliceSharesReferenceCount() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(6);
+		buffer.write("foobar", StandardCharsets.UTF_8);
+		DataBuffer slice = buffer.retainedSlice(3, 3);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("bar");
+
+		assertThat(buffer.release()).isFalse();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(buffer.isAllocated()).isFalse();
+	}
+
+	@Test
+	void asInputStreamReleasesOnClose() throws Exception {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(3);
+		buffer.write("foo", StandardCharsets.UTF_8);
+		try (InputStream inputStream = buffer.asInputStream(true)) {
+			assertThat(inputStream.read()).isEqualTo('f');
+		}
+		assertThat(buffer.isAllocated()).isFalse();
+	}
+
+	@Test
+	void join() {
+		DataBuffer foo = this.factory.allocateBuffer(3).write("foo", StandardCharsets.UTF_8);
+		DataBuffer bar = this.factory.allocateBuffer(3).write("bar", StandardCharsets.UTF_8);
+		DataBuffer result = this.factory.join(Arrays.asList(foo, bar));
+
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+		assertThat(((PooledDataBuffer) foo).isAllocated()).isFalse();
+		assertThat(((PooledDataBuffer) bar).isAllocated()).isFalse();
+		assertThat(DataBufferUtils.release(result)).isTrue();
+	}
+
+	@Test
+	void tooManyRetains() {
+		PooledDataBuffer buffer = this.factory.allocateBuffer(1);
+		buffer.release();
+		assertThatIllegalStateException().isThrownBy(buffer::retain);
+	}
+
+	@Test
+	void leakDetection() throws Exception {
+		AtomicInteger leaks = new AtomicInteger();
+		PooledDataBufferFactory factory = new PooledDataBufferFactory() {
+			@Override
+			protected void handleLeak(Throwable allocationSite) {
+				leaks.incrementAndGet();
+			}
+		};
+		factory.setLeakDetection(true);
+		factory.allocateBuffer(1).release();
+		factory.allocateBuffer(1);
+
+		for (int i = 0; i < 50 && leaks.get() == 0; i++) {
+			System.gc();
+			Thread.sleep(20);
+			factory.allocateBuffer(1).release();
+		}
+		assertThat(leaks.get()).isEqualTo(1);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,19 +18,35 @@ package org.springframework.core.io.support;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
 import org.springframework.util.StringUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 /**
  * If this test case fails, uncomment diagnostics in the
@@ -129,6 +145,111 @@ class PathMatchingResourcePatternResolverTests {
 		assertThat(found).as("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar").isTrue();
 	}
 
+	@Test
+	void classpathStarWithPatternInJarWithCaches() throws IOException {
+		resolver.setUseCaches(true);
+		Resource[] resources = resolver.getResources("classpath*:reactor/util/annotation/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTOR_UTIL_ANNOTATIONS);
+		// Second lookup served from the jar entry index
+		Resource[] cachedResources = resolver.getResources("classpath*:reactor/util/annotation/*.class");
+		assertThat(cachedResources).containsExactly(resources);
+		resolver.clearCache();
+		assertThat(resolver.getResources("classpath*:reactor/util/annotation/*.class")).containsExactly(resources);
+	}
+
+	@Test
+	void classpathWithPatternInJarWithCachesAndDifferentRoots() throws IOException {
+		resolver.setUseCaches(true);
+		assertProtocolAndFilenames(resolver.getResources("classpath:reactor/util/annotation/*.class"),
+				"jar", CLASSES_IN_REACTOR_UTIL_ANNOTATIONS);
+		Resource[] resources = resolver.getResources("classpath:reactor/util/annotation/Non*.class");
+		assertProtocolAndFilenames(resources, "jar", "NonNull.class", "NonNullApi.class");
+	}
+
+	@Test
+	void classpathStarWithPatternInEncodedJarPathWithCaches(@TempDir Path tempDir) throws IOException {
+		File jar = tempDir.resolve("dir with space").resolve("test.jar").toFile();
+		assertThat(jar.getParentFile().mkdirs()).isTrue();
+		String[] entries = {"some folder/", "some folder/b.txt", "some folder/a.txt", "some folder/c.xml"};
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+			for (String entry : entries) {
+				out.putNextEntry(new JarEntry(entry));
+				out.closeEntry();
+			}
+		}
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toURI().toURL()}, null)) {
+			PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+			resolver.setUseCaches(true);
+			Resource[] resources = resolver.getResources("classpath*:some folder/*.txt");
+			assertThat(resources).extracting(Resource::getFilename).containsExactly("b.txt", "a.txt");
+			// Second lookup served from the jar entry index
+			assertThat(resolver.getResources("classpath*:some folder/*.txt")).containsExactly(resources);
+			assertThat(resolver.getResources("classpath*:some folder/*.xml"))
+					.extracting(Resource::getFilename).containsExactly("c.xml");
+			resolver.clearCache();
+		}
+	}
+
+	@Test
+	void classpathStarWithPatternWithRootDirExecutor() throws IOException {
+		Resource[] expected = resolver.getResources("classpath*:org/springframework/core/io/**/resource#test*.txt");
+		resolver.setRootDirExecutor(ForkJoinPool.commonPool());
+		resolver.setUseCaches(true);
+		assertThat(resolver.getResources("classpath*:org/springframework/core/io/**/resource#test*.txt"))
+				.containsExactly(expected);
+		assertThat(resolver.getResources("classpath*:*.dtd")).extracting(Resource::getFilename)
+				.contains("aspectj_1_5_0.dtd");
+	}
+
+
+	@Test
+	void classpathStarWithPatternWithRootDirExecutorRethrowsRuntimeException() {
+		PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver() {
+			@Override
+			protected Set<Resource> doFindPathMatchingFileResources(Resource rootDirResource, String subPattern) {
+				throw new IllegalStateException("Cannot search " + rootDirResource);
+			}
+		};
+		resolver.setRootDirExecutor(ForkJoinPool.commonPool());
+		assertThatIllegalStateException().isThrownBy(() ->
+				resolver.getResources("classpath*:org/springframework/core/io/support/*.class"));
+	}
+
+	@Test
+	void nestedJarNotServedFromOuterJarIndex(@TempDir Path tempDir) throws IOException {
+		File outerJar = tempDir.resolve("app.jar").toFile();
+		writeJar(outerJar, "BOOT-INF/", "BOOT-INF/lib/", "BOOT-INF/lib/x.jar");
+		File innerJar = tempDir.resolve("x.jar").toFile();
+		writeJar(innerJar, "pkg/", "pkg/a.txt", "pkg/b.txt");
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {outerJar.toURI().toURL()}, null)) {
+			PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+			resolver.setUseCaches(true);
+			// Index the entries of the outer jar file
+			assertThat(resolver.getResources("classpath*:BOOT-INF/lib/*.jar"))
+					.extracting(Resource::getFilename).containsExactly("x.jar");
+
+			String nestedJarUrl = "jar:" + outerJar.toURI() + "!/BOOT-INF/lib/x.jar";
+			URL rootDirUrl = new URL(null, nestedJarUrl + "!/pkg/", new URLStreamHandler() {
+				@Override
+				protected URLConnection openConnection(URL url) throws IOException {
+					return new NestedJarURLConnection(url, nestedJarUrl, innerJar);
+				}
+			});
+			Set<Resource> resources = resolver.doFindPathMatchingJarResources(
+					new UrlResource(rootDirUrl), rootDirUrl, "*.txt");
+			assertThat(resources).extracting(Resource::getFilename).containsExactly("a.txt", "b.txt");
+			resolver.clearCache();
+		}
+	}
+
+	private static void writeJar(File jar, String... entries) throws IOException {
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+			for (String entry : entries) {
+				out.putNextEntry(new JarEntry(entry));
+				out.closeEntry();
+			}
+		}
+	}
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
@@ -164,4 +285,43 @@ class PathMatchingResourcePatternResolverTests {
 		assertThat(Arrays.stream(filenames).anyMatch(filename::endsWith)).as(resource + " does not have a filename that matches any of the specified names").isTrue();
 	}
 
+
+	/**
+	 * {@link JarURLConnection} for a jar file nested in another jar file,
+	 * as exposed by an executable archive's class loader.
+	 */
+	private static class NestedJarURLConnection extends JarURLConnection {
+
+		private final URL jarFileUrl;
+
+		private final File jarFile;
+
+		NestedJarURLConnection(URL url, String jarFileUrl, File jarFile) throws MalformedURLException {
+			super(url);
+			this.jarFileUrl = new URL(jarFileUrl);
+			this.jarFile = jarFile;
+		}
+
+		@Override
+		public void connect() {
+		}
+
+		@Override
+		public URL getJarFileURL() {
+			return this.jarFileUrl;
+		}
+
+		@Override
+		public JarEntry getJarEntry() throws IOException {
+			try (JarFile jarFile = getJarFile()) {
+				return jarFile.getJarEntry("pkg/");
+			}
+		}
+
+		@Override
+		public JarFile getJarFile() throws IOException {
+			return new JarFile(this.jarFile);
+		}
+	}
+
 }
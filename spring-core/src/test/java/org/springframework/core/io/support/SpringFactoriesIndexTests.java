@@ -0,0 +1,254 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link SpringFactoriesIndex}.
+ */
+class SpringFactoriesIndexTests {
+
+	@Test
+	void writeAndRead() throws IOException {
+		ClassLoader classLoader = getClass().getClassLoader();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SpringFactoriesIndex.write(classLoader, out);
+
+		Map<String, SpringFactoriesIndex.Source> index =
+				SpringFactoriesIndex.read(new ByteArrayInputStream(out.toByteArray()));
+		URL factoriesUrl = classLoader.getResource(SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION);
+		assertThat(index).containsKey(SpringFactoriesIndex.getSourceKey(factoriesUrl));
+		assertThat(index.get(SpringFactoriesIndex.getSourceKey(factoriesUrl))
+				.isCurrent(SpringFactoriesIndex.getSourceFile(factoriesUrl))).isTrue();
+		assertThat(index.values()).flatExtracting(source -> source.getFactories().getOrDefault(
+				DummyFactory.class.getName(), Collections.emptyList()))
+				.containsOnly(MyDummyFactory2.class.getName(), MyDummyFactory1.class.getName());
+	}
+
+	@Test
+	void readInvalidIndex() {
+		assertThatIOException().isThrownBy(() ->
+				SpringFactoriesIndex.read(new ByteArrayInputStream("foo=bar".getBytes())));
+	}
+
+	@Test
+	void sourceKeyIsRelativeToClassPath() throws IOException {
+		assertThat(SpringFactoriesIndex.getSourceKey(
+				new URL("jar:file:/libs/my-lib.jar!/META-INF/spring.factories")))
+				.isEqualTo("my-lib.jar!/META-INF/spring.factories");
+		assertThat(SpringFactoriesIndex.getSourceKey(
+				new URL("jar:file:/other/libs/my-lib.jar!/META-INF/spring.factories")))
+				.isEqualTo("my-lib.jar!/META-INF/spring.factories");
+		assertThat(SpringFactoriesIndex.getSourceKey(
+				new URL("jar:file:/app.jar!/BOOT-INF/lib/my-lib.jar!/META-INF/spring.factories")))
+				.isEqualTo("my-lib.jar!/META-INF/spring.factories");
+		assertThat(SpringFactoriesIndex.getSourceKey(new URL("file:/app/./classes/META-INF/spring.factories")))
+				.isEqualTo("classes/META-INF/spring.factories");
+	}
+
+	@Test
+	void sourceFileOfFileWithinJar() throws IOException {
+		assertThat(SpringFactoriesIndex.getSourceFile(
+				new URL("jar:file:/libs/my-lib.jar!/META-INF/spring.factories")))
+				.isEqualTo(new File("/libs/my-lib.jar"));
+		assertThat(SpringFactoriesIndex.getSourceFile(new URL("file:/classes/META-INF/spring.factories")))
+				.isEqualTo(new File("/classes/META-INF/spring.factories"));
+		assertThat(SpringFactoriesIndex.getSourceFile(new URL("http://example.com/META-INF/spring.factories")))
+				.isNull();
+	}
+
+	@Test
+	void loaderTakesIndexedContentAndFindsFactoriesFilesAddedSinceIndexing(@TempDir Path tempDir) throws IOException {
+		Path sourceDir = tempDir.resolve("source");
+		Path factoriesFile = writeFactoriesFile(sourceDir, MyDummyFactory1.class);
+		Path indexDir = writeIndex(tempDir, sourceDir);
+		// Changed content of the same size and timestamp: taken from the index
+		long lastModified = factoriesFile.toFile().lastModified();
+		writeFactoriesFile(sourceDir, MyDummyFactory2.class);
+		assertThat(factoriesFile.toFile().setLastModified(lastModified)).isTrue();
+		// Added after indexing: parsed
+		Path addedDir = tempDir.resolve("added");
+		writeFactoriesFile(addedDir, MyDummyFactory2.class);
+		ClassLoader classLoader = new URLClassLoader(new URL[] {indexDir.toUri().toURL(),
+				sourceDir.toUri().toURL(), addedDir.toUri().toURL()}, null);
+
+		try {
+			assertThat(SpringFactoriesLoader.loadFactoryNames(DummyFactory.class, classLoader))
+					.containsExactly(MyDummyFactory1.class.getName(), MyDummyFactory2.class.getName());
+		}
+		finally {
+			SpringFactoriesLoader.cache.remove(classLoader);
+		}
+	}
+
+	@Test
+	void loaderTakesIndexedContentOfMovedClassPath(@TempDir Path tempDir) throws IOException {
+		Path sourceDir = tempDir.resolve("build").resolve("classes");
+		Path factoriesFile = writeFactoriesFile(sourceDir, MyDummyFactory1.class);
+		Path jarFile = writeFactoriesJar(tempDir.resolve("build").resolve("my-lib.jar"), MyDummyFactory2.class);
+		Path indexDir = writeIndex(tempDir, sourceDir, jarFile);
+		long lastModified = factoriesFile.toFile().lastModified();
+		writeFactoriesFile(sourceDir, MyDummyFactory2.class);
+		assertThat(factoriesFile.toFile().setLastModified(lastModified)).isTrue();
+
+		Path installDir = tempDir.resolve("install");
+		Files.createDirectories(installDir);
+		Path movedSourceDir = Files.move(sourceDir, installDir.resolve("classes"));
+		Path movedJarFile = Files.move(jarFile, installDir.resolve("my-lib.jar"));
+		assertThat(movedSourceDir.resolve(SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION).toFile()
+				.lastModified()).isEqualTo(lastModified);
+		ClassLoader classLoader = new URLClassLoader(new URL[] {indexDir.toUri().toURL(),
+				movedSourceDir.toUri().toURL(), movedJarFile.toUri().toURL()}, null);
+
+		try {
+			assertThat(SpringFactoriesLoader.loadFactoryNames(DummyFactory.class, classLoader))
+					.containsExactly(MyDummyFactory1.class.getName(), MyDummyFactory2.class.getName());
+		}
+		finally {
+			SpringFactoriesLoader.cache.remove(classLoader);
+		}
+	}
+
+	@Test
+	void writeSkipsAmbiguousSources(@TempDir Path tempDir) throws IOException {
+		Path sourceDir = tempDir.resolve("first").resolve("classes");
+		Path factoriesFile = writeFactoriesFile(sourceDir, MyDummyFactory1.class);
+		Path otherDir = tempDir.resolve("second").resolve("classes");
+		writeFactoriesFile(otherDir, MyDummyFactory1.class);
+		Path indexDir = writeIndex(tempDir, sourceDir, otherDir);
+		// Same size and timestamp, but not indexed: parsed
+		long lastModified = factoriesFile.toFile().lastModified();
+		writeFactoriesFile(sourceDir, MyDummyFactory2.class);
+		assertThat(factoriesFile.toFile().setLastModified(lastModified)).isTrue();
+		ClassLoader classLoader = new URLClassLoader(new URL[] {indexDir.toUri().toURL(),
+				sourceDir.toUri().toURL(), otherDir.toUri().toURL()}, null);
+
+		try {
+			assertThat(SpringFactoriesLoader.loadFactoryNames(DummyFactory.class, classLoader))
+					.containsExactly(MyDummyFactory1.class.getName(), MyDummyFactory2.class.getName());
+		}
+		finally {
+			SpringFactoriesLoader.cache.remove(classLoader);
+		}
+	}
+
+	@Test
+	void loaderReadsFactoriesFilesChangedSinceIndexing(@TempDir Path tempDir) throws IOException {
+		Path sourceDir = tempDir.resolve("source");
+		Path factoriesFile = writeFactoriesFile(sourceDir, MyDummyFactory1.class);
+		Path removedDir = tempDir.resolve("removed");
+		writeFactoriesFile(removedDir, MyDummyFactory1.class);
+		Path indexDir = writeIndex(tempDir, sourceDir, removedDir);
+		long lastModified = factoriesFile.toFile().lastModified();
+		writeFactoriesFile(sourceDir, MyDummyFactory2.class);
+		assertThat(factoriesFile.toFile().setLastModified(lastModified + 1000)).isTrue();
+		Files.delete(removedDir.resolve(SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION));
+		ClassLoader classLoader = new URLClassLoader(new URL[] {indexDir.toUri().toURL(),
+				sourceDir.toUri().toURL(), removedDir.toUri().toURL()}, null);
+
+		try {
+			assertThat(SpringFactoriesLoader.loadFactoryNames(DummyFactory.class, classLoader))
+					.containsExactly(MyDummyFactory2.class.getName());
+		}
+		finally {
+			SpringFactoriesLoader.cache.remove(classLoader);
+		}
+	}
+
+	@Test
+	void loaderScansChildClassLoaderWithIndexVisibleThroughParent(@TempDir Path tempDir) throws IOException {
+		Path sourceDir = tempDir.resolve("source");
+		writeFactoriesFile(sourceDir, MyDummyFactory1.class);
+		Path indexDir = writeIndex(tempDir, sourceDir);
+		ClassLoader parent = new URLClassLoader(new URL[] {
+				indexDir.toUri().toURL(), sourceDir.toUri().toURL()}, null);
+
+		// Not covered by the index visible through the parent
+		Path childDir = tempDir.resolve("child");
+		writeFactoriesFile(childDir, MyDummyFactory2.class);
+		ClassLoader child = new URLClassLoader(new URL[] {childDir.toUri().toURL()}, parent);
+
+		try {
+			assertThat(SpringFactoriesLoader.loadFactoryNames(DummyFactory.class, parent))
+					.containsExactly(MyDummyFactory1.class.getName());
+			assertThat(SpringFactoriesLoader.loadFactoryNames(DummyFactory.class, child))
+					.containsExactly(MyDummyFactory1.class.getName(), MyDummyFactory2.class.getName());
+		}
+		finally {
+			SpringFactoriesLoader.cache.remove(parent);
+			SpringFactoriesLoader.cache.remove(child);
+		}
+	}
+
+	@Test
+	void mainRequiresIndexFileArgument() {
+		assertThatIllegalArgumentException().isThrownBy(() -> SpringFactoriesIndex.main(new String[0]));
+	}
+
+
+	private static Path writeFactoriesFile(Path dir, Class<?> implementationClass) throws IOException {
+		Path factoriesFile = dir.resolve(SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION);
+		Files.createDirectories(factoriesFile.getParent());
+		Files.write(factoriesFile, (DummyFactory.class.getName() + "=" + implementationClass.getName()).getBytes());
+		return factoriesFile;
+	}
+
+	private static Path writeFactoriesJar(Path jarFile, Class<?> implementationClass) throws IOException {
+		Files.createDirectories(jarFile.getParent());
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jarFile))) {
+			out.putNextEntry(new JarEntry(SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION));
+			out.write((DummyFactory.class.getName() + "=" + implementationClass.getName()).getBytes());
+			out.closeEntry();
+		}
+		return jarFile;
+	}
+
+	private static Path writeIndex(Path tempDir, Path... sources) throws IOException {
+		Path indexDir = tempDir.resolve("indexed");
+		Path indexFile = indexDir.resolve(SpringFactoriesIndex.INDEX_RESOURCE_LOCATION);
+		Files.createDirectories(indexFile.getParent());
+		URL[] urls = new URL[sources.length];
+		for (int i = 0; i < sources.length; i++) {
+			urls[i] = sources[i].toUri().toURL();
+		}
+		try (OutputStream out = Files.newOutputStream(indexFile)) {
+			SpringFactoriesIndex.write(new URLClassLoader(urls, null), out);
+		}
+		return indexDir;
+	}
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AbstractAnnotationMetadataTests;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentMetadataReaderCache}, running the common
+ * {@link AnnotationMetadata} tests against metadata restored from a cache file.
+ */
+class PersistentMetadataReaderCacheTests extends AbstractAnnotationMetadataTests {
+
+	@Override
+	protected AnnotationMetadata get(Class<?> source) {
+		try {
+			return restore(source).getAnnotationMetadata();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Test
+	void restoresAllAttributeValueTypes() throws Exception {
+		AnnotationMetadata parsed = new SimpleMetadataReaderFactory(getClass().getClassLoader())
+				.getMetadataReader(AllValueTypes.class.getName()).getAnnotationMetadata();
+		MetadataReader restored = restore(AllValueTypes.class);
+		assertThat(restored).isInstanceOf(SimpleMetadataReader.class);
+		AnnotationMetadata metadata = restored.getAnnotationMetadata();
+		assertThat(metadata.getAnnotationAttributes(ValueTypes.class.getName()))
+				.usingRecursiveComparison().isEqualTo(parsed.getAnnotationAttributes(ValueTypes.class.getName()));
+		assertThat(metadata.getAnnotationAttributes(ValueTypes.class.getName(), true))
+				.usingRecursiveComparison().isEqualTo(parsed.getAnnotationAttributes(ValueTypes.class.getName(), true));
+		ValueTypes annotation = metadata.getAnnotations().get(ValueTypes.class).synthesize();
+		assertThat(annotation.type()).isEqualTo(String.class);
+		assertThat(annotation.types()).containsExactly(Integer.class, Long.class);
+		assertThat(annotation.elementType()).isEqualTo(ElementType.FIELD);
+		assertThat(annotation.elementTypes()).containsExactly(ElementType.METHOD, ElementType.TYPE);
+		assertThat(annotation.numbers()).containsExactly(1, 2, 3);
+		assertThat(annotation.flag()).isTrue();
+		assertThat(annotation.character()).isEqualTo('x');
+		assertThat(annotation.factor()).isEqualTo(1.5);
+		assertThat(annotation.count()).isEqualTo(42L);
+		assertThat(annotation.nested().value()).isEqualTo("n");
+		assertThat(annotation.nestedArray()).extracting(Nested::value).containsExactly("a", "b");
+		MethodMetadata method = metadata.getAnnotatedMethods(ValueTypes.class.getName()).iterator().next();
+		assertThat(method.getMethodName()).isEqualTo("annotatedMethod");
+		assertThat(method.getReturnTypeName()).isEqualTo("java.lang.String");
+		assertThat(method.getAnnotations().get(ValueTypes.class).getString("name")).isEqualTo("method");
+	}
+
+	@Test
+	void ignoresChangedResource() throws Exception {
+		File cacheFile = Files.createTempFile("metadata", ".cache").toFile();
+		File classFile = Files.createTempFile("AllValueTypes", ".class").toFile();
+		Resource original = new SimpleMetadataReaderFactory().getResourceLoader().getResource(
+				"classpath:" + AllValueTypes.class.getName().replace('.', '/') + ".class");
+		Files.copy(original.getInputStream(), classFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		try {
+			CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory(getClass().getClassLoader());
+			factory.setPersistentCache(new PersistentMetadataReaderCache(cacheFile));
+			Resource resource = factory.getResourceLoader().getResource(classFile.toURI().toString());
+			factory.getMetadataReader(resource);
+			factory.clearCache();
+
+			PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(cacheFile);
+			assertThat(cache.size()).isEqualTo(1);
+			assertThat(cache.getMetadataReader(resource, getClass().getClassLoader())).isNotNull();
+			assertThat(classFile.setLastModified(classFile.lastModified() - TimeUnit.HOURS.toMillis(1))).isTrue();
+			assertThat(cache.getMetadataReader(resource, getClass().getClassLoader())).isNull();
+		}
+		finally {
+			cacheFile.delete();
+			classFile.delete();
+		}
+	}
+
+	@Test
+	void dropsEntriesForRemovedResourcesOnSave() throws Exception {
+		File cacheFile = Files.createTempFile("metadata", ".cache").toFile();
+		File classFile = Files.createTempFile("AllValueTypes", ".class").toFile();
+		Resource original = new SimpleMetadataReaderFactory().getResourceLoader().getResource(
+				"classpath:" + AllValueTypes.class.getName().replace('.', '/') + ".class");
+		Files.copy(original.getInputStream(), classFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		try {
+			CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory(getClass().getClassLoader());
+			factory.setPersistentCache(new PersistentMetadataReaderCache(cacheFile));
+			factory.getMetadataReader(factory.getResourceLoader().getResource(classFile.toURI().toString()));
+			factory.getMetadataReader(AllValueTypes.class.getName());
+			factory.clearCache();
+			assertThat(new PersistentMetadataReaderCache(cacheFile).size()).isEqualTo(2);
+
+			assertThat(classFile.delete()).isTrue();
+			PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(cacheFile);
+			assertThat(cache.size()).isEqualTo(2);
+			cache.save();
+			assertThat(new PersistentMetadataReaderCache(cacheFile).size()).isEqualTo(1);
+		}
+		finally {
+			cacheFile.delete();
+			classFile.delete();
+		}
+	}
+
+	@Test
+	void restoresEntriesAfterSave() throws Exception {
+		File cacheFile = Files.createTempFile("metadata", ".cache").toFile();
+		try {
+			PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(cacheFile);
+			CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory(getClass().getClassLoader());
+			factory.setPersistentCache(cache);
+			MetadataReader metadataReader = factory.getMetadataReader(AllValueTypes.class.getName());
+			factory.clearCache();
+
+			// Entries released from memory on save, to be read from the file again
+			assertThat(cache.getMetadataReader(metadataReader.getResource(), getClass().getClassLoader()))
+					.isNotNull();
+			assertThat(cache.size()).isEqualTo(1);
+		}
+		finally {
+			cacheFile.delete();
+		}
+	}
+
+	@Test
+	void ignoresCorruptCacheFile() throws Exception {
+		File cacheFile = Files.createTempFile("metadata", ".cache").toFile();
+		try {
+			Files.write(cacheFile.toPath(), new byte[] {1, 2, 3});
+			PersistentMetadataReaderCache cache = new PersistentMetadataReaderCache(cacheFile);
+			assertThat(cache.size()).isEqualTo(0);
+		}
+		finally {
+			cacheFile.delete();
+		}
+	}
+
+	private MetadataReader restore(Class<?> source) throws IOException {
+		File cacheFile = Files.createTempFile("metadata", ".cache").toFile();
+		try {
+			CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory(source.getClassLoader());
+			factory.setPersistentCache(new PersistentMetadataReaderCache(cacheFile));
+			factory.getMetadataReader(source.getName());
+			factory.clearCache();
+
+			PersistentMetadataReaderCache restoredCache = new PersistentMetadataReaderCache(cacheFile);
+			CachingMetadataReaderFactory restoringFactory = new CachingMetadataReaderFactory(source.getClassLoader());
+			restoringFactory.setPersistentCache(restoredCache);
+			MetadataReader metadataReader = restoringFactory.getMetadataReader(source.getName());
+			assertThat(restoredCache.size()).isEqualTo(1);
+			return metadataReader;
+		}
+		finally {
+			cacheFile.delete();
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({})
+	@interface Nested {
+
+		String value();
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@interface ValueTypes {
+
+		String name() default "";
+
+		Class<?> type() default Void.class;
+
+		Class<?>[] types() default {};
+
+		ElementType elementType() default ElementType.TYPE;
+
+		ElementType[] elementTypes() default {};
+
+		int[] numbers() default {};
+
+		boolean flag() default false;
+
+		char character() default 'c';
+
+		double factor() default 0.5;
+
+		long count() default 0;
+
+		Nested nested() default @Nested("default");
+
+		Nested[] nestedArray() default {};
+	}
+
+	@ValueTypes(name = "type", type = String.class, types = {Integer.class, Long.class},
+			elementType = ElementType.FIELD, elementTypes = {ElementType.METHOD, ElementType.TYPE},
+			numbers = {1, 2, 3}, flag = true, character = 'x', factor = 1.5, count = 42L,
+			nested = @Nested("n"), nestedArray = {@Nested("a"), @Nested("b")})
+	static class AllValueTypes {
+
+		@ValueTypes(name = "method")
+		public String annotatedMethod() {
+			return "";
+		}
+	}
+
+}
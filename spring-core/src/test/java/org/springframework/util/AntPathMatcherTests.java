@@ -27,6 +27,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.entry;
 
 /**
  * Unit tests for {@link AntPathMatcher}.
@@ -623,10 +625,11 @@ class AntPathMatcherTests {
 		assertThat(pathMatcher.stringMatcherCache.size() > 20).isTrue();
 
 		for (int i = 0; i < 65536; i++) {
-			pathMatcher.match("test" + i, "test");
+			pathMatcher.match("test" + i, "test" + i);
 		}
-		// Cache turned off because it went beyond the threshold
-		assertThat(pathMatcher.stringMatcherCache.isEmpty()).isTrue();
+		// Cache bounded to the default limit, evicting least recently used patterns
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(65536);
+		assertThat(pathMatcher.stringMatcherCache.contains("test65535")).isTrue();
 	}
 
 	@Test
@@ -678,7 +681,40 @@ class AntPathMatcherTests {
 	void cachePatternsSetToFalse() {
 		pathMatcher.setCachePatterns(false);
 		match();
-		assertThat(pathMatcher.stringMatcherCache.isEmpty()).isTrue();
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(0);
+	}
+
+	@Test
+	void patternCacheLimit() {
+		pathMatcher.setPatternCacheLimit(2);
+		pathMatcher.match("test1?", "test1a");
+		pathMatcher.match("test2?", "test2a");
+		pathMatcher.match("test1?", "test1b");
+		pathMatcher.match("test3?", "test3a");
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(2);
+		assertThat(pathMatcher.stringMatcherCache.contains("test1?")).isTrue();
+		assertThat(pathMatcher.stringMatcherCache.contains("test2?")).isFalse();
+		assertThat(pathMatcher.stringMatcherCache.contains("test3?")).isTrue();
+	}
+
+	@Test
+	void compiledPattern() {
+		AntPathMatcher.CompiledPattern pattern = pathMatcher.compile("/hotels/{hotel}/**/*.html");
+		assertThat(pattern.getPattern()).isEqualTo("/hotels/{hotel}/**/*.html");
+		assertThat(pattern.match("/hotels/1/bookings/2/index.html")).isTrue();
+		assertThat(pattern.match("/hotels/1/index.html")).isTrue();
+		assertThat(pattern.match("hotels/1/index.html")).isFalse();
+		assertThat(pattern.match("/hotels/1/index.jsp")).isFalse();
+		assertThat(pattern.matchStart("/hotels/1")).isTrue();
+		assertThat(pattern.matchStart("/motels")).isFalse();
+		assertThat(pattern.extractUriTemplateVariables("/hotels/1/index.html")).containsExactly(entry("hotel", "1"));
+		assertThatIllegalStateException().isThrownBy(() -> pattern.extractUriTemplateVariables("/motels/1"));
+
+		// Compiled patterns do not depend on the pattern cache
+		assertThat(pathMatcher.compile("/test/*.html").match("/test/index.html")).isTrue();
+		pathMatcher.stringMatcherCache.clear();
+		assertThat(pattern.match("/hotels/1/index.html")).isTrue();
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(0);
 	}
 
 	@Test
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link ConcurrentLruCache}.
+ */
+class ConcurrentLruCacheTests {
+
+	private final AtomicInteger generated = new AtomicInteger();
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, key -> {
+		this.generated.incrementAndGet();
+		return key + "1";
+	});
+
+
+	@Test
+	void getAndSize() {
+		assertThat(this.cache.sizeLimit()).isEqualTo(2);
+		assertThat(this.cache.size()).isEqualTo(0);
+		assertThat(this.cache.get("k1")).isEqualTo("k11");
+		assertThat(this.cache.get("k1")).isEqualTo("k11");
+		assertThat(this.cache.size()).isEqualTo(1);
+		assertThat(this.generated).hasValue(1);
+	}
+
+	@Test
+	void evictsLeastRecentlyUsed() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k1");
+		this.cache.get("k3");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k1")).isTrue();
+		assertThat(this.cache.contains("k2")).isFalse();
+		assertThat(this.cache.contains("k3")).isTrue();
+	}
+
+	@Test
+	void removeAndClear() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		assertThat(this.cache.remove("k1")).isTrue();
+		assertThat(this.cache.remove("k1")).isFalse();
+		assertThat(this.cache.contains("k1")).isFalse();
+		this.cache.clear();
+		assertThat(this.cache.size()).isEqualTo(0);
+		assertThat(this.cache.get("k2")).isEqualTo("k21");
+		assertThat(this.generated).hasValue(3);
+	}
+
+	@Test
+	void evictsEntriesAddedDuringClear() throws Exception {
+		ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(16);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CountDownLatch done = new CountDownLatch(3);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < 20000; j++) {
+						cache.put(j % 1000, j);
+					}
+					done.countDown();
+				}));
+			}
+			futures.add(executor.submit(() -> {
+				while (done.getCount() > 0) {
+					cache.clear();
+				}
+			}));
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		// Entries added during a clear must still be subject to eviction
+		for (int i = 1000; i < 2000; i++) {
+			cache.put(i, i);
+		}
+		assertThat(cache.size()).isEqualTo(16);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(cache.contains(i)).isFalse();
+		}
+	}
+
+	@Test
+	void evictsAfterRemovingAndReaddingEntries() {
+		for (int i = 0; i < 100; i++) {
+			this.cache.get("k1");
+			this.cache.remove("k1");
+		}
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k3");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k1")).isFalse();
+		assertThat(this.cache.contains("k2")).isTrue();
+		assertThat(this.cache.contains("k3")).isTrue();
+	}
+
+	@Test
+	void getIfPresentAndPut() {
+		List<String> evicted = new ArrayList<>();
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2) {
+			@Override
+			protected void onEviction(String key, String value) {
+				evicted.add(key + "=" + value);
+			}
+		};
+		assertThat(cache.getIfPresent("k1")).isNull();
+		cache.put("k1", "v1");
+		cache.put("k2", "v2");
+		cache.put("k1", "v11");
+		assertThat(cache.getIfPresent("k1")).isEqualTo("v11");
+		cache.put("k3", "v3");
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getIfPresent("k2")).isNull();
+		assertThat(evicted).containsExactly("k2=v2");
+		assertThatIllegalStateException().isThrownBy(() -> cache.get("k1"));
+	}
+
+	@Test
+	void sweep() {
+		List<String> evicted = new ArrayList<>();
+		ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<String, Integer>(10) {
+			@Override
+			protected void onEviction(String key, Integer value) {
+				evicted.add(key);
+			}
+		};
+		for (int i = 0; i < 5; i++) {
+			cache.put("k" + i, i);
+		}
+		assertThat(cache.sweep(2, (key, value) -> value % 2 == 0)).isEqualTo(1);
+		assertThat(evicted).containsExactly("k0");
+		assertThat(cache.sweep(10, (key, value) -> value % 2 == 0)).isEqualTo(2);
+		assertThat(evicted).containsExactly("k0", "k2", "k4");
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getIfPresent("k1")).isEqualTo(1);
+		assertThat(cache.getIfPresent("k3")).isEqualTo(3);
+	}
+
+	@Test
+	void zeroSizeLimit() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0, key -> key + "1");
+		assertThat(cache.get("k1")).isEqualTo("k11");
+		assertThat(cache.size()).isEqualTo(0);
+	}
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ConcurrentReferenceOpenHashMap}.
+ */
+class ConcurrentReferenceOpenHashMapTests {
+
+	private final ConcurrentReferenceOpenHashMap<Object, String> map = new ConcurrentReferenceOpenHashMap<>();
+
+
+	@Test
+	void shouldNeedNonNegativeInitialCapacity() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ConcurrentReferenceOpenHashMap<>(-1))
+				.withMessageContaining("Initial capacity must not be negative");
+	}
+
+	@Test
+	void shouldPutAndGet() {
+		assertThat(this.map.put(123, "123")).isNull();
+		assertThat(this.map.get(123)).isEqualTo("123");
+		assertThat(this.map.get(456)).isNull();
+		assertThat(this.map.put(123, "321")).isEqualTo("123");
+		assertThat(this.map.get(123)).isEqualTo("321");
+		assertThat(this.map.size()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldPutNullKeyAndValue() {
+		this.map.put(null, "null");
+		this.map.put(123, null);
+		assertThat(this.map.get(null)).isEqualTo("null");
+		assertThat(this.map.get(123)).isNull();
+		assertThat(this.map.containsKey(123)).isTrue();
+		assertThat(this.map.getOrDefault(123, "default")).isNull();
+		assertThat(this.map.getOrDefault(456, "default")).isEqualTo("default");
+	}
+
+	@Test
+	void shouldHandleCollisionsAndRemovals() {
+		List<CollidingKey> keys = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			CollidingKey key = new CollidingKey(i);
+			keys.add(key);
+			this.map.put(key, String.valueOf(i));
+		}
+		assertThat(this.map.remove(keys.get(3))).isEqualTo("3");
+		assertThat(this.map.remove(keys.get(3))).isNull();
+		assertThat(this.map.get(keys.get(3))).isNull();
+		for (int i = 0; i < 10; i++) {
+			if (i != 3) {
+				assertThat(this.map.get(new CollidingKey(i))).isEqualTo(String.valueOf(i));
+			}
+		}
+		this.map.put(keys.get(3), "again");
+		assertThat(this.map.get(keys.get(3))).isEqualTo("again");
+		assertThat(this.map.size()).isEqualTo(10);
+	}
+
+	@Test
+	void shouldResize() {
+		for (int i = 0; i < 10_000; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		assertThat(this.map.size()).isEqualTo(10_000);
+		for (int i = 0; i < 10_000; i += 2) {
+			this.map.remove(i);
+		}
+		assertThat(this.map.size()).isEqualTo(5_000);
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(this.map.get(i)).isEqualTo(i % 2 == 0 ? null : String.valueOf(i));
+		}
+	}
+
+	@Test
+	void shouldSupportConditionalOperations() {
+		assertThat(this.map.putIfAbsent(123, "123")).isNull();
+		assertThat(this.map.putIfAbsent(123, "321")).isEqualTo("123");
+		assertThat(this.map.replace(123, "456", "789")).isFalse();
+		assertThat(this.map.replace(123, "123", "789")).isTrue();
+		assertThat(this.map.replace(123, "abc")).isEqualTo("789");
+		assertThat(this.map.replace(456, "abc")).isNull();
+		assertThat(this.map.containsKey(456)).isFalse();
+		assertThat(this.map.remove(123, "xyz")).isFalse();
+		assertThat(this.map.remove(123, "abc")).isTrue();
+		assertThat(this.map.isEmpty()).isTrue();
+		assertThat(this.map.computeIfAbsent(123, String::valueOf)).isEqualTo("123");
+	}
+
+	@Test
+	void shouldClear() {
+		this.map.put(123, "123");
+		this.map.put(456, "456");
+		this.map.clear();
+		assertThat(this.map).isEmpty();
+		assertThat(this.map.get(123)).isNull();
+	}
+
+	@Test
+	void shouldIterateAndModifyViaEntrySet() {
+		ConcurrentReferenceOpenHashMap<Integer, String> map = new ConcurrentReferenceOpenHashMap<>(0, ReferenceType.WEAK);
+		Map<Integer, String> expected = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			map.put(i, String.valueOf(i));
+			expected.put(i, String.valueOf(i));
+		}
+		assertThat(map).isEqualTo(expected);
+		Iterator<Map.Entry<Integer, String>> iterator = map.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Integer, String> entry = iterator.next();
+			if (entry.getKey() % 2 == 0) {
+				iterator.remove();
+			}
+			else {
+				entry.setValue("x");
+			}
+		}
+		assertThat(map).hasSize(50);
+		assertThat(map.values()).containsOnly("x");
+	}
+
+	@Test
+	void shouldSupportConcurrentReadsAndWrites() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int offset = t * 10_000;
+				futures.add(executor.submit(() -> {
+					for (int i = offset; i < offset + 10_000; i++) {
+						this.map.put(i, String.valueOf(i));
+						assertThat(this.map.get(i)).isEqualTo(String.valueOf(i));
+						assertThat(this.map.get(offset)).isEqualTo(String.valueOf(offset));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(this.map.size()).isEqualTo(40_000);
+	}
+
+
+	private static class CollidingKey {
+
+		private final int value;
+
+		CollidingKey(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (other instanceof CollidingKey && ((CollidingKey) other).value == this.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return 42;
+		}
+	}
+
+}
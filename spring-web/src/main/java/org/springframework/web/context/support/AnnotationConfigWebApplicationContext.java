@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -172,6 +172,18 @@ public class AnnotationConfigWebApplicationContext extends AbstractRefreshableWe
 	}
 
 
+	/**
+	 * Describes the {@link #register registered} component classes and the
+	 * {@link #scan scanned} base packages in addition to the config locations.
+	 * @since 5.3
+	 */
+	@Override
+	protected void describeBeanDefinitionSources(StringBuilder fingerprint) {
+		super.describeBeanDefinitionSources(fingerprint);
+		fingerprint.append(';').append(StringUtils.collectionToCommaDelimitedString(this.componentClasses));
+		fingerprint.append(';').append(StringUtils.collectionToCommaDelimitedString(this.basePackages));
+	}
+
 	/**
 	 * Register a {@link org.springframework.beans.factory.config.BeanDefinition} for
 	 * any classes specified by {@link #register(Class...)} and scan any packages